@@ -0,0 +1,360 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * Serialization of JSON in the canonical form of the JSON Canonicalization Scheme (JCS) defined in RFC 8785.
+ * <p>
+ * The canonical form has no whitespace, object members sorted by the UTF-16 code units of their names at every level,
+ * strings with the minimal escaping of ECMAScript {@code JSON.stringify} and numbers serialized as IEEE 754 double
+ * precision values in ECMAScript format. Equal JSON data therefore always produces the same bytes, which makes the
+ * canonical form suitable for hashing, content addressing and deduplication, independently of the order in which
+ * parameters were parsed or set.
+ * </p>
+ * <p>
+ * Object members must be sorted, so the JSON value is buffered as a tree before it is written. The canonical output is
+ * written through a small buffer, and {@link #digest(JsonSource, MessageDigest)} hashes it without creating the
+ * complete serialized form.
+ * </p>
+ */
+public final class CanonicalJson {
+
+  /** Largest magnitude of integers that are exactly representable as double values */
+  private static final long MAX_SAFE_INTEGER = (1L << 53) - 1;
+
+  private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+  private CanonicalJson() {
+  }
+
+  /**
+   * Source of a JSON value, such as the {@code writeTo(JsonGenerator)} method of a metadata object.
+   */
+  @FunctionalInterface
+  public interface JsonSource {
+
+    /**
+     * Write the JSON value to a JSON generator.
+     *
+     * @param generator the JSON generator to write to
+     * @throws IOException error writing the value
+     */
+    void writeTo(JsonGenerator generator) throws IOException;
+  }
+
+  /**
+   * Serialize a JSON value in canonical form.
+   *
+   * @param source source of the JSON value
+   * @return canonical UTF-8 encoded JSON
+   * @throws JsonProcessingException error serializing the value
+   * @throws IllegalArgumentException if the value holds a number that is not finite or a string that is not valid
+   *     Unicode
+   */
+  public static byte[] toUtf8Bytes(final JsonSource source) throws JsonProcessingException {
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    try {
+      writeTo(source, outputStream);
+    }
+    catch (final JsonProcessingException e) {
+      throw e;
+    }
+    catch (final IOException e) {
+      throw JsonMappingException.fromUnexpectedIOE(e);
+    }
+    return outputStream.toByteArray();
+  }
+
+  /**
+   * Write a JSON value in canonical form to an output stream. The output stream is not flushed or closed.
+   *
+   * @param source source of the JSON value
+   * @param outputStream the output stream to write to
+   * @throws IOException error serializing the value or writing to the output stream
+   * @throws IllegalArgumentException if the value holds a number that is not finite or a string that is not valid
+   *     Unicode
+   */
+  public static void writeTo(final JsonSource source, final OutputStream outputStream) throws IOException {
+    writeTo(toTree(source), outputStream);
+  }
+
+  /**
+   * Write a JSON value in canonical form to an output stream. The output stream is not flushed or closed.
+   *
+   * @param value the JSON value
+   * @param outputStream the output stream to write to
+   * @throws IOException error writing to the output stream
+   * @throws IllegalArgumentException if the value holds a number that is not finite or a string that is not valid
+   *     Unicode
+   */
+  public static void writeTo(final JsonNode value, final OutputStream outputStream) throws IOException {
+    Objects.requireNonNull(value, "Null value is not allowed");
+    Objects.requireNonNull(outputStream, "Null output stream is not allowed");
+    final Writer writer = new Writer(outputStream);
+    writer.writeValue(value);
+    writer.flush();
+  }
+
+  /**
+   * Calculate the digest of the canonical form of a JSON value. The canonical form is passed to the digest in chunks,
+   * without creating the complete serialized form. The digest is reset after the digest is calculated.
+   *
+   * @param source source of the JSON value
+   * @param digest the message digest to use
+   * @return digest value
+   * @throws JsonProcessingException error serializing the value
+   * @throws IllegalArgumentException if the value holds a number that is not finite or a string that is not valid
+   *     Unicode
+   */
+  public static byte[] digest(final JsonSource source, final MessageDigest digest) throws JsonProcessingException {
+    Objects.requireNonNull(digest, "Null digest is not allowed");
+    try {
+      writeTo(source, new OutputStream() {
+        @Override
+        public void write(final int b) {
+          digest.update((byte) b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+          digest.update(b, off, len);
+        }
+      });
+    }
+    catch (final JsonProcessingException e) {
+      throw e;
+    }
+    catch (final IOException e) {
+      throw JsonMappingException.fromUnexpectedIOE(e);
+    }
+    return digest.digest();
+  }
+
+  /**
+   * Format a number as an ECMAScript number value, after conversion to the nearest IEEE 754 double precision value.
+   *
+   * @param value a finite double value
+   * @return the ECMAScript string representation
+   * @throws IllegalArgumentException if the value is not finite
+   */
+  static String formatNumber(final double value) {
+    if (!Double.isFinite(value)) {
+      throw new IllegalArgumentException("Number is not finite: " + value);
+    }
+    if (value == 0) {
+      return "0";
+    }
+    if (Math.abs(value) <= MAX_SAFE_INTEGER && value == Math.rint(value)) {
+      return Long.toString((long) value);
+    }
+    final BigDecimal decimal = shortestDecimal(Math.abs(value));
+    final String digits = decimal.unscaledValue().toString();
+    final int length = digits.length();
+    // value = 0.digits * 10^exponent
+    final int exponent = length - decimal.scale();
+    final StringBuilder result = new StringBuilder(length + 8);
+    if (value < 0) {
+      result.append('-');
+    }
+    if (length <= exponent && exponent <= 21) {
+      result.append(digits).append("0".repeat(exponent - length));
+    }
+    else if (0 < exponent && exponent <= 21) {
+      result.append(digits, 0, exponent).append('.').append(digits, exponent, length);
+    }
+    else if (-6 < exponent && exponent <= 0) {
+      result.append("0.").append("0".repeat(-exponent)).append(digits);
+    }
+    else {
+      result.append(digits.charAt(0));
+      if (length > 1) {
+        result.append('.').append(digits, 1, length);
+      }
+      result.append('e').append(exponent - 1 < 0 ? '-' : '+').append(Math.abs(exponent - 1));
+    }
+    return result.toString();
+  }
+
+  /**
+   * Get the decimal with the fewest significant digits that converts to a double value, choosing the one closest to the
+   * exact double value if there are several. {@link Double#toString(double)} gives a decimal that converts to the
+   * value, but not always one with the fewest digits, so it is only used as an upper bound.
+   *
+   * @param value a positive finite double value
+   * @return shortest decimal without trailing zeros
+   */
+  private static BigDecimal shortestDecimal(final double value) {
+    final BigDecimal exact = new BigDecimal(value);
+    int precision = new BigDecimal(Double.toString(value)).stripTrailingZeros().precision();
+    BigDecimal shortest = exact.round(new MathContext(precision, RoundingMode.HALF_EVEN));
+    // Any precision above the shortest one also converts to the value
+    while (precision > 1) {
+      final BigDecimal candidate = exact.round(new MathContext(precision - 1, RoundingMode.HALF_EVEN));
+      if (candidate.doubleValue() != value) {
+        break;
+      }
+      shortest = candidate;
+      precision--;
+    }
+    return shortest.stripTrailingZeros();
+  }
+
+  private static JsonNode toTree(final JsonSource source) throws IOException {
+    Objects.requireNonNull(source, "Null source is not allowed");
+    final TokenBuffer buffer = new TokenBuffer(MetadataUtils.OBJECT_MAPPER, false);
+    source.writeTo(buffer);
+    try (final JsonParser parser = buffer.asParser()) {
+      final JsonNode value = MetadataUtils.OBJECT_MAPPER.readTree(parser);
+      if (value == null) {
+        throw JsonMappingException.from(parser, "No JSON value was written");
+      }
+      return value;
+    }
+  }
+
+  /**
+   * Buffered writer of canonical UTF-8 JSON.
+   */
+  private static final class Writer {
+
+    private final OutputStream outputStream;
+    private final byte[] buffer = new byte[4096];
+    private int position;
+
+    private Writer(final OutputStream outputStream) {
+      this.outputStream = outputStream;
+    }
+
+    private void writeValue(final JsonNode value) throws IOException {
+      switch (value.getNodeType()) {
+        case OBJECT -> {
+          final String[] names = new String[value.size()];
+          final Iterator<String> iterator = value.fieldNames();
+          for (int i = 0; i < names.length; i++) {
+            names[i] = iterator.next();
+          }
+          // String order is the order of UTF-16 code units required by RFC 8785
+          Arrays.sort(names);
+          this.write('{');
+          for (int i = 0; i < names.length; i++) {
+            if (i > 0) {
+              this.write(',');
+            }
+            this.writeString(names[i]);
+            this.write(':');
+            this.writeValue(value.get(names[i]));
+          }
+          this.write('}');
+        }
+        case ARRAY -> {
+          this.write('[');
+          for (int i = 0; i < value.size(); i++) {
+            if (i > 0) {
+              this.write(',');
+            }
+            this.writeValue(value.get(i));
+          }
+          this.write(']');
+        }
+        case STRING -> this.writeString(value.textValue());
+        case NUMBER -> this.writeAscii(value.canConvertToExactIntegral() && value.canConvertToLong()
+            && Math.abs(value.longValue()) <= MAX_SAFE_INTEGER
+            ? Long.toString(value.longValue())
+            : formatNumber(value.doubleValue()));
+        case BOOLEAN -> this.writeAscii(value.booleanValue() ? "true" : "false");
+        case NULL -> this.writeAscii("null");
+        default -> throw new IllegalArgumentException("Unsupported JSON value: " + value.getNodeType());
+      }
+    }
+
+    private void writeString(final String value) throws IOException {
+      this.write('"');
+      final int length = value.length();
+      for (int i = 0; i < length; i++) {
+        final char c = value.charAt(i);
+        if (c < 0x80) {
+          switch (c) {
+            case '"' -> this.writeAscii("\\\"");
+            case '\\' -> this.writeAscii("\\\\");
+            case '\b' -> this.writeAscii("\\b");
+            case '\f' -> this.writeAscii("\\f");
+            case '\n' -> this.writeAscii("\\n");
+            case '\r' -> this.writeAscii("\\r");
+            case '\t' -> this.writeAscii("\\t");
+            default -> {
+              if (c < 0x20) {
+                this.writeAscii("\\u00");
+                this.write(HEX[c >> 4]);
+                this.write(HEX[c & 0xf]);
+              }
+              else {
+                this.write(c);
+              }
+            }
+          }
+        }
+        else if (c < 0x800) {
+          this.write(0xc0 | c >> 6);
+          this.write(0x80 | c & 0x3f);
+        }
+        else if (Character.isSurrogate(c)) {
+          if (!Character.isHighSurrogate(c) || i + 1 == length || !Character.isLowSurrogate(value.charAt(i + 1))) {
+            throw new IllegalArgumentException("String is not valid Unicode");
+          }
+          final int codePoint = Character.toCodePoint(c, value.charAt(++i));
+          this.write(0xf0 | codePoint >> 18);
+          this.write(0x80 | codePoint >> 12 & 0x3f);
+          this.write(0x80 | codePoint >> 6 & 0x3f);
+          this.write(0x80 | codePoint & 0x3f);
+        }
+        else {
+          this.write(0xe0 | c >> 12);
+          this.write(0x80 | c >> 6 & 0x3f);
+          this.write(0x80 | c & 0x3f);
+        }
+      }
+      this.write('"');
+    }
+
+    private void writeAscii(final String value) throws IOException {
+      for (int i = 0; i < value.length(); i++) {
+        this.write(value.charAt(i));
+      }
+    }
+
+    private void write(final int b) throws IOException {
+      if (this.position == this.buffer.length) {
+        this.flush();
+      }
+      this.buffer[this.position++] = (byte) b;
+    }
+
+    private void flush() throws IOException {
+      this.outputStream.write(this.buffer, 0, this.position);
+      this.position = 0;
+    }
+  }
+
+}
@@ -0,0 +1,165 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.std.DelegatingDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.type.CollectionType;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Jackson module that replaces each deserialized {@code List<String>} value with its canonical instance from a
+ * {@link CanonicalizationPool}.
+ * <p>
+ * Register this module with the object mapper of an {@link se.oidc.oidfed.md.lang.OidcLangJsonSerializer} to share
+ * algorithm, scope, response type and similar lists between all metadata parsed by that serializer, for example:
+ * </p>
+ * <pre>
+ * new OidcLangJsonSerializer&lt;&gt;(OpMetadata.class, MetadataUtils.getOidcObjectMapper(pool))
+ * </pre>
+ * <p>
+ * Only properties declared as {@code List<String>} whose JSON name is in the set of vocabulary properties are
+ * canonicalized. Per-entity values such as {@code contacts} and {@code redirect_uris} are not part of the default set
+ * {@link #DEFAULT_VOCABULARY_PROPERTIES} and are deserialized as usual, so they do not fill the pool. Lists
+ * deserialized through this module are unmodifiable and may be shared by several metadata objects.
+ * </p>
+ */
+public class CanonicalizationModule extends SimpleModule {
+
+  /** Names of the properties holding values from shared vocabularies, canonicalized by default */
+  public static final Set<String> DEFAULT_VOCABULARY_PROPERTIES = Set.of(
+      "acr_values_supported",
+      "claim_types_supported",
+      "claims_locales_supported",
+      "claims_supported",
+      "client_registration_types_supported",
+      "code_challenge_methods_supported",
+      "default_acr_values",
+      "display_values_supported",
+      "endpoint_auth_signing_alg_values_supported",
+      "grant_types",
+      "grant_types_supported",
+      "id_token_encryption_alg_values_supported",
+      "id_token_encryption_enc_values_supported",
+      "id_token_signing_alg_values_supported",
+      "introspection_endpoint_auth_methods_supported",
+      "introspection_endpoint_auth_signing_alg_values_supported",
+      "request_object_encryption_alg_values_supported",
+      "request_object_encryption_enc_values_supported",
+      "request_object_signing_alg_values_supported",
+      "response_modes_supported",
+      "response_types",
+      "response_types_supported",
+      "revocation_endpoint_auth_methods_supported",
+      "revocation_endpoint_auth_signing_alg_values_supported",
+      "scopes_supported",
+      "subject_types_supported",
+      "token_endpoint_auth_methods_supported",
+      "token_endpoint_auth_signing_alg_values_supported",
+      "ui_locales_supported",
+      "userinfo_encryption_alg_values_supported",
+      "userinfo_encryption_enc_values_supported",
+      "userinfo_signing_alg_values_supported"
+  );
+
+  /**
+   * Constructor canonicalizing the properties in {@link #DEFAULT_VOCABULARY_PROPERTIES}.
+   *
+   * @param pool the pool holding canonical values
+   */
+  public CanonicalizationModule(final CanonicalizationPool pool) {
+    this(pool, DEFAULT_VOCABULARY_PROPERTIES);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param pool the pool holding canonical values
+   * @param vocabularyProperties JSON names of the string list properties to canonicalize
+   */
+  public CanonicalizationModule(final CanonicalizationPool pool, final Set<String> vocabularyProperties) {
+    super("CanonicalizationModule");
+    Objects.requireNonNull(pool, "Null pool is not allowed");
+    final Set<String> properties =
+        Set.copyOf(Objects.requireNonNull(vocabularyProperties, "Null vocabulary properties is not allowed"));
+    this.setDeserializerModifier(new BeanDeserializerModifier() {
+      @Override
+      public JsonDeserializer<?> modifyCollectionDeserializer(final DeserializationConfig config,
+          final CollectionType type, final BeanDescription beanDesc, final JsonDeserializer<?> deserializer) {
+        // Abstract list types are mapped to ArrayList at this point. The declared type is checked per property
+        if (List.class.isAssignableFrom(type.getRawClass()) && type.getContentType().getRawClass() == String.class) {
+          return new CanonicalListDeserializer(deserializer, pool, properties, false);
+        }
+        return deserializer;
+      }
+    });
+  }
+
+  /**
+   * Deserializer of string lists that returns canonical lists for vocabulary properties declared as
+   * {@code List<String>}.
+   */
+  private static class CanonicalListDeserializer extends DelegatingDeserializer {
+
+    private final CanonicalizationPool pool;
+
+    /** JSON names of the properties to canonicalize */
+    private final Set<String> properties;
+
+    /** Set to true if deserialized lists are canonicalized */
+    private final boolean canonicalize;
+
+    CanonicalListDeserializer(final JsonDeserializer<?> delegate, final CanonicalizationPool pool,
+        final Set<String> properties, final boolean canonicalize) {
+      super(delegate);
+      this.pool = pool;
+      this.properties = properties;
+      this.canonicalize = canonicalize;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected JsonDeserializer<?> newDelegatingInstance(final JsonDeserializer<?> newDelegatee) {
+      return new CanonicalListDeserializer(newDelegatee, this.pool, this.properties, this.canonicalize);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public JsonDeserializer<?> createContextual(final DeserializationContext ctxt, final BeanProperty property)
+        throws JsonMappingException {
+      final JsonDeserializer<?> delegatee = ctxt.handleSecondaryContextualization(this._delegatee, property,
+          ctxt.constructType(this._delegatee.handledType()));
+      // Only properties declared as List can hold an unmodifiable canonical list
+      final boolean vocabulary = property != null && property.getType().getRawClass() == List.class
+          && this.properties.contains(property.getName());
+      if (delegatee == this._delegatee && vocabulary == this.canonicalize) {
+        return this;
+      }
+      return new CanonicalListDeserializer(delegatee, this.pool, this.properties, vocabulary);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object deserialize(final JsonParser p, final DeserializationContext ctxt) throws IOException {
+      final Object value = super.deserialize(p, ctxt);
+      return this.canonicalize ? this.pool.canonicalize((List<String>) value) : value;
+    }
+  }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded pool of canonical strings and string lists.
+ * <p>
+ * Metadata values such as supported algorithms, scopes, response types and authentication methods come from small
+ * vocabularies and are repeated in almost every parsed metadata document. Replacing each parsed value with a canonical
+ * instance from this pool lets all cached metadata share a single instance of each distinct value.
+ * </p>
+ * <p>
+ * The pool stops accepting new values when it is full. Values that are not pooled are used as provided, so a full pool
+ * only affects memory use. Only strings up to {@value #MAX_STRING_LENGTH} characters and lists up to
+ * {@value #MAX_LIST_SIZE} elements are pooled. Instances of this class are thread-safe.
+ * </p>
+ */
+public class CanonicalizationPool {
+
+  /** Default maximum number of pooled strings */
+  public static final int DEFAULT_MAX_STRINGS = 4096;
+
+  /** Default maximum number of pooled lists */
+  public static final int DEFAULT_MAX_LISTS = 4096;
+
+  /** Maximum length of a pooled string */
+  public static final int MAX_STRING_LENGTH = 128;
+
+  /** Maximum number of elements of a pooled list */
+  public static final int MAX_LIST_SIZE = 64;
+
+  /** Maximum number of pooled strings */
+  private final int maxStrings;
+
+  /** Maximum number of pooled lists */
+  private final int maxLists;
+
+  /** Canonical strings */
+  private final Map<String, String> strings = new ConcurrentHashMap<>();
+
+  /** Canonical lists */
+  private final Map<List<String>, List<String>> lists = new ConcurrentHashMap<>();
+
+  /**
+   * Constructor for a pool with the default maximum number of strings and lists.
+   */
+  public CanonicalizationPool() {
+    this(DEFAULT_MAX_STRINGS, DEFAULT_MAX_LISTS);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param maxStrings maximum number of pooled strings
+   * @param maxLists maximum number of pooled lists
+   */
+  public CanonicalizationPool(final int maxStrings, final int maxLists) {
+    if (maxStrings < 0 || maxLists < 0) {
+      throw new IllegalArgumentException("Pool size must not be negative");
+    }
+    this.maxStrings = maxStrings;
+    this.maxLists = maxLists;
+  }
+
+  /**
+   * Get the canonical instance of a string.
+   *
+   * @param value string
+   * @return the canonical instance of the string, or the provided string if it is not pooled
+   */
+  public String canonicalize(final String value) {
+    if (value == null || value.length() > MAX_STRING_LENGTH) {
+      return value;
+    }
+    final String canonical = this.strings.get(value);
+    if (canonical != null) {
+      return canonical;
+    }
+    if (this.strings.size() >= this.maxStrings) {
+      return value;
+    }
+    final String previous = this.strings.putIfAbsent(value, value);
+    return previous != null ? previous : value;
+  }
+
+  /**
+   * Get the canonical instance of a string list. The returned list is unmodifiable and holds canonical strings.
+   *
+   * @param values string list
+   * @return the canonical instance of the list, or an unmodifiable list of canonical strings if the list is not pooled,
+   *     or the provided list if it contains null elements
+   */
+  public List<String> canonicalize(final List<String> values) {
+    if (values == null) {
+      return null;
+    }
+    final List<String> pooled = values.size() <= MAX_LIST_SIZE ? this.lists.get(values) : null;
+    if (pooled != null) {
+      return pooled;
+    }
+    final String[] canonicalValues = new String[values.size()];
+    int index = 0;
+    for (final String value : values) {
+      if (value == null) {
+        return values;
+      }
+      canonicalValues[index++] = this.canonicalize(value);
+    }
+    final List<String> canonical = List.of(canonicalValues);
+    if (canonical.size() > MAX_LIST_SIZE || this.lists.size() >= this.maxLists) {
+      return canonical;
+    }
+    final List<String> previous = this.lists.putIfAbsent(canonical, canonical);
+    return previous != null ? previous : canonical;
+  }
+
+  /**
+   * Get the number of pooled strings.
+   *
+   * @return number of pooled strings
+   */
+  public int getStringCount() {
+    return this.strings.size();
+  }
+
+  /**
+   * Get the number of pooled lists.
+   *
+   * @return number of pooled lists
+   */
+  public int getListCount() {
+    return this.lists.size();
+  }
+
+}
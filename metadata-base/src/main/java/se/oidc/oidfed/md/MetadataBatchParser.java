@@ -0,0 +1,295 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md;
+
+import lombok.Getter;
+import se.oidc.oidfed.md.lang.LanguageTaggedJson;
+import se.oidc.oidfed.md.lang.OidcLangJsonSerializer;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Parser of many metadata documents at once, such as the entity configurations of all subordinates returned by a
+ * federation list endpoint.
+ * <p>
+ * Documents are parsed concurrently on an executor. By default, each document is parsed on a virtual thread when the
+ * Java runtime supports virtual threads, and otherwise on a shared pool with one thread per available processor. A
+ * document that can not be parsed gives an error result and does not affect the other documents of the batch. This
+ * also applies to a document that the executor rejects, which gives a result holding the
+ * {@link RejectedExecutionException}.
+ * </p>
+ * <p>
+ * Instances of this class are immutable and safe to share between threads.
+ * </p>
+ *
+ * @param <T> metadata class
+ */
+public class MetadataBatchParser<T extends LanguageTaggedJson> {
+
+  /** Serializer parsing each document */
+  private final OidcLangJsonSerializer<T> serializer;
+
+  /** Executor running the parsing tasks */
+  private final Executor executor;
+
+  /** Set to true if results are returned in the order of the documents */
+  private final boolean preserveOrder;
+
+  /**
+   * Constructor
+   *
+   * @param builder builder holding the parser settings
+   */
+  private MetadataBatchParser(final MetadataBatchParserBuilder<T> builder) {
+    this.serializer = builder.serializer;
+    this.executor = builder.executor != null ? builder.executor : DefaultExecutor.INSTANCE;
+    this.preserveOrder = builder.preserveOrder;
+  }
+
+  /**
+   * Create a builder for a batch parser.
+   *
+   * @param serializer serializer used to parse each document
+   * @param <T> metadata class
+   * @return builder
+   */
+  public static <T extends LanguageTaggedJson> MetadataBatchParserBuilder<T> builder(
+      final OidcLangJsonSerializer<T> serializer) {
+    return new MetadataBatchParserBuilder<>(serializer);
+  }
+
+  /**
+   * Parse UTF-8 encoded JSON documents.
+   *
+   * @param documents UTF-8 encoded JSON documents
+   * @return one result for each document, in the order of the documents if this parser preserves order and otherwise
+   *     in the order parsing completed
+   * @throws InterruptedException if the calling thread was interrupted while waiting for the results
+   */
+  public List<ParseResult<T>> parseBytes(final Collection<byte[]> documents) throws InterruptedException {
+    return this.parse(documents, this.serializer::parse);
+  }
+
+  /**
+   * Parse JSON string documents.
+   *
+   * @param documents JSON documents
+   * @return one result for each document, in the order of the documents if this parser preserves order and otherwise
+   *     in the order parsing completed
+   * @throws InterruptedException if the calling thread was interrupted while waiting for the results
+   */
+  public List<ParseResult<T>> parseStrings(final Collection<String> documents) throws InterruptedException {
+    return this.parse(documents, this.serializer::parse);
+  }
+
+  /**
+   * Parse documents with a document parser. This can be used to parse other document representations, such as input
+   * streams, or to parse with another method of the serializer of this batch parser.
+   *
+   * @param documents documents
+   * @param documentParser parser of a single document
+   * @param <D> document type
+   * @return one result for each document, in the order of the documents if this parser preserves order and otherwise
+   *     in the order parsing completed
+   * @throws InterruptedException if the calling thread was interrupted while waiting for the results
+   */
+  public <D> List<ParseResult<T>> parse(final Collection<D> documents, final DocumentParser<D, T> documentParser)
+      throws InterruptedException {
+    Objects.requireNonNull(documents, "Null documents are not allowed");
+    Objects.requireNonNull(documentParser, "Null document parser is not allowed");
+    final List<D> documentList = new ArrayList<>(documents);
+    final BlockingQueue<ParseResult<T>> completed = new LinkedBlockingQueue<>();
+    for (int i = 0; i < documentList.size(); i++) {
+      final int index = i;
+      final D document = documentList.get(i);
+      try {
+        this.executor.execute(() -> {
+          // A result is always delivered, also if parsing is aborted by an error
+          ParseResult<T> result = new ParseResult<>(index, null, new IllegalStateException("Parsing was aborted"));
+          try {
+            result = parseDocument(index, document, documentParser);
+          }
+          finally {
+            completed.add(result);
+          }
+        });
+      }
+      catch (final RejectedExecutionException e) {
+        completed.add(new ParseResult<>(index, null, e));
+      }
+    }
+
+    if (!this.preserveOrder) {
+      final List<ParseResult<T>> results = new ArrayList<>(documentList.size());
+      for (int i = 0; i < documentList.size(); i++) {
+        results.add(completed.take());
+      }
+      return results;
+    }
+    @SuppressWarnings("unchecked")
+    final ParseResult<T>[] results = new ParseResult[documentList.size()];
+    for (int i = 0; i < results.length; i++) {
+      final ParseResult<T> result = completed.take();
+      results[result.index] = result;
+    }
+    return Arrays.asList(results);
+  }
+
+  /**
+   * Parse a single document.
+   *
+   * @param index index of the document in the batch
+   * @param document the document
+   * @param documentParser parser of the document
+   * @param <D> document type
+   * @param <T> metadata class
+   * @return parse result
+   */
+  private static <D, T> ParseResult<T> parseDocument(final int index, final D document,
+      final DocumentParser<D, T> documentParser) {
+    try {
+      if (document == null) {
+        throw new IOException("Null document");
+      }
+      return new ParseResult<>(index, documentParser.parse(document), null);
+    }
+    catch (final IOException | RuntimeException e) {
+      return new ParseResult<>(index, null, e);
+    }
+  }
+
+  /**
+   * Parser of a single document.
+   *
+   * @param <D> document type
+   * @param <T> metadata class
+   */
+  @FunctionalInterface
+  public interface DocumentParser<D, T> {
+
+    /**
+     * Parse a document.
+     *
+     * @param document the document
+     * @return parsed metadata
+     * @throws IOException if the document can not be parsed
+     */
+    T parse(final D document) throws IOException;
+  }
+
+  /**
+   * The result of parsing one document of a batch. A result holds either the parsed metadata or the error that
+   * prevented parsing.
+   *
+   * @param <T> metadata class
+   */
+  public static final class ParseResult<T> {
+
+    /** Index of the document in the batch */
+    @Getter
+    private final int index;
+
+    /** Parsed metadata, or null if parsing failed */
+    @Getter
+    private final T metadata;
+
+    /** The error that prevented parsing, or null if parsing succeeded */
+    @Getter
+    private final Exception error;
+
+    private ParseResult(final int index, final T metadata, final Exception error) {
+      this.index = index;
+      this.metadata = metadata;
+      this.error = error;
+    }
+
+    /**
+     * Tests if the document was parsed.
+     *
+     * @return true if the document was parsed and false if parsing failed
+     */
+    public boolean isSuccess() {
+      return this.error == null;
+    }
+  }
+
+  /**
+   * Default executor, created on first use.
+   */
+  private static final class DefaultExecutor {
+
+    /** Virtual thread per task executor if supported by the Java runtime, and otherwise a pool of platform threads */
+    private static final Executor INSTANCE = create();
+
+    private static Executor create() {
+      try {
+        // Virtual threads are available as of Java 21, while this library is built for Java 17
+        final Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        return (Executor) method.invoke(null);
+      }
+      catch (final ReflectiveOperationException | RuntimeException e) {
+        return new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+      }
+    }
+  }
+
+  /**
+   * Builder for {@link MetadataBatchParser}.
+   *
+   * @param <T> metadata class
+   */
+  public static class MetadataBatchParserBuilder<T extends LanguageTaggedJson> {
+
+    private final OidcLangJsonSerializer<T> serializer;
+    private Executor executor;
+    private boolean preserveOrder = true;
+
+    private MetadataBatchParserBuilder(final OidcLangJsonSerializer<T> serializer) {
+      this.serializer = Objects.requireNonNull(serializer, "Null serializer is not allowed");
+    }
+
+    /**
+     * Set the executor running the parsing tasks. Default is a virtual thread per document when supported by the Java
+     * runtime, and otherwise a shared pool with one thread per available processor.
+     *
+     * @param executor executor, or null for the default executor
+     * @return this builder
+     */
+    public MetadataBatchParserBuilder<T> executor(final Executor executor) {
+      this.executor = executor;
+      return this;
+    }
+
+    /**
+     * Set whether results are returned in the order of the documents. Default is true. If false, results are
+     * returned in the order parsing completed, and {@link ParseResult#getIndex()} identifies the document.
+     *
+     * @param preserveOrder true to return results in the order of the documents
+     * @return this builder
+     */
+    public MetadataBatchParserBuilder<T> preserveOrder(final boolean preserveOrder) {
+      this.preserveOrder = preserveOrder;
+      return this;
+    }
+
+    public MetadataBatchParser<T> build() {
+      return new MetadataBatchParser<>(this);
+    }
+  }
+
+}
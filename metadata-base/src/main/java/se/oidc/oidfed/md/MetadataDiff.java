@@ -0,0 +1,458 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.JWK;
+import lombok.Getter;
+import se.oidc.oidfed.md.entities.AbstractOidcFedMetadata;
+import se.oidc.oidfed.md.lang.OidcLangJsonSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The structural difference between two versions of the metadata of an entity, as a list of typed changes of the
+ * parameters of the metadata JSON object.
+ * <p>
+ * Each language tagged value of a {@link se.oidc.oidfed.md.lang.LanguageObject} parameter, such as
+ * {@code organization_name#sv}, is compared as a parameter of its own. The keys of the {@code jwks} parameter are
+ * compared individually, matched by key ID or, for keys without a key ID, by JWK thumbprint. All other parameters are
+ * compared by their JSON values.
+ * </p>
+ * <p>
+ * A diff may be applied as a patch to the previous version, which gives metadata equal to the new version. Applying a
+ * diff to metadata where a changed parameter does not have the expected previous value fails, which makes patches safe
+ * to apply to metadata that may have been updated through another path.
+ * </p>
+ *
+ * @param <T> metadata type
+ */
+public final class MetadataDiff<T extends AbstractOidcFedMetadata> {
+
+  /** Name of the JWK Set parameter */
+  private static final String JWKS = "jwks";
+
+  /** Serializer for the metadata */
+  private final OidcLangJsonSerializer<T> serializer;
+
+  /** The changes of this diff */
+  @Getter
+  private final List<Change> changes;
+
+  /**
+   * Constructor
+   *
+   * @param serializer serializer for the metadata
+   * @param changes the changes
+   */
+  private MetadataDiff(final OidcLangJsonSerializer<T> serializer, final List<Change> changes) {
+    this.serializer = serializer;
+    this.changes = Collections.unmodifiableList(changes);
+  }
+
+  /**
+   * Compare two versions of metadata.
+   *
+   * @param source the previous version
+   * @param target the new version
+   * @param serializer serializer for the metadata
+   * @param <T> metadata type
+   * @return the changes from the previous version to the new version
+   * @throws JsonProcessingException error serializing the metadata
+   */
+  public static <T extends AbstractOidcFedMetadata> MetadataDiff<T> compare(final T source, final T target,
+      final OidcLangJsonSerializer<T> serializer) throws JsonProcessingException {
+    Objects.requireNonNull(source, "Null source is not allowed");
+    Objects.requireNonNull(target, "Null target is not allowed");
+    Objects.requireNonNull(serializer, "Null serializer is not allowed");
+    if (source.equals(target)) {
+      return new MetadataDiff<>(serializer, List.of());
+    }
+    return compare(serializer.toJsonObject(source), serializer.toJsonObject(target), serializer);
+  }
+
+  /**
+   * Compare two versions of a metadata document.
+   *
+   * @param source the previous version as UTF-8 JSON
+   * @param target the new version as UTF-8 JSON
+   * @param serializer serializer for the metadata
+   * @param <T> metadata type
+   * @return the changes from the previous version to the new version
+   * @throws JsonProcessingException error parsing the documents
+   */
+  public static <T extends AbstractOidcFedMetadata> MetadataDiff<T> compare(final byte[] source, final byte[] target,
+      final OidcLangJsonSerializer<T> serializer) throws JsonProcessingException {
+    Objects.requireNonNull(source, "Null source is not allowed");
+    Objects.requireNonNull(target, "Null target is not allowed");
+    Objects.requireNonNull(serializer, "Null serializer is not allowed");
+    return compare(readJsonObject(source), readJsonObject(target), serializer);
+  }
+
+  /**
+   * Compare two versions of a metadata JSON object.
+   *
+   * @param source the previous version
+   * @param target the new version
+   * @param serializer serializer for the metadata
+   * @param <T> metadata type
+   * @return the changes from the previous version to the new version
+   */
+  public static <T extends AbstractOidcFedMetadata> MetadataDiff<T> compare(final Map<String, Object> source,
+      final Map<String, Object> target, final OidcLangJsonSerializer<T> serializer) {
+    Objects.requireNonNull(source, "Null source is not allowed");
+    Objects.requireNonNull(target, "Null target is not allowed");
+    Objects.requireNonNull(serializer, "Null serializer is not allowed");
+    final List<Change> changes = new ArrayList<>();
+    for (final Map.Entry<String, Object> entry : source.entrySet()) {
+      final String name = entry.getKey();
+      if (!target.containsKey(name)) {
+        changes.add(new Change(ChangeType.REMOVED, name, null, entry.getValue(), null));
+      }
+      else if (!jsonEquals(entry.getValue(), target.get(name))) {
+        if (!JWKS.equals(name) || !compareKeys(entry.getValue(), target.get(name), changes)) {
+          changes.add(new Change(ChangeType.MODIFIED, name, null, entry.getValue(), target.get(name)));
+        }
+      }
+    }
+    for (final Map.Entry<String, Object> entry : target.entrySet()) {
+      if (!source.containsKey(entry.getKey())) {
+        changes.add(new Change(ChangeType.ADDED, entry.getKey(), null, null, entry.getValue()));
+      }
+    }
+    return new MetadataDiff<>(serializer, changes);
+  }
+
+  /**
+   * Check if the versions are equal.
+   *
+   * @return true if this diff has no changes
+   */
+  public boolean isEmpty() {
+    return this.changes.isEmpty();
+  }
+
+  /**
+   * Get the names of the changed parameters, without language tags.
+   *
+   * @return names of changed parameters
+   */
+  public Set<String> getChangedParameters() {
+    final Set<String> parameters = new LinkedHashSet<>();
+    for (final Change change : this.changes) {
+      parameters.add(change.getParameterName());
+    }
+    return Collections.unmodifiableSet(parameters);
+  }
+
+  /**
+   * Apply this diff as a patch to metadata.
+   *
+   * @param metadata metadata equal to, or with the same changed parameters as, the previous version
+   * @return new metadata with the changes applied, or the given metadata if this diff is empty
+   * @throws JsonProcessingException error serializing or parsing the metadata
+   * @throws IllegalArgumentException if a changed parameter of the metadata does not have the expected previous value
+   */
+  public T apply(final T metadata) throws JsonProcessingException {
+    Objects.requireNonNull(metadata, "Null metadata is not allowed");
+    if (this.changes.isEmpty()) {
+      return metadata;
+    }
+    final Map<String, Object> jsonObject = new LinkedHashMap<>(this.serializer.toJsonObject(metadata));
+    this.apply(jsonObject);
+    return this.serializer.parse(jsonObject);
+  }
+
+  /**
+   * Apply this diff as a patch to a metadata JSON object.
+   *
+   * @param jsonObject JSON object equal to, or with the same changed parameters as, the previous version, which is
+   *     modified
+   * @throws IllegalArgumentException if a changed parameter of the JSON object does not have the expected previous
+   *     value
+   */
+  public void apply(final Map<String, Object> jsonObject) {
+    Objects.requireNonNull(jsonObject, "Null JSON object is not allowed");
+    List<Object> keys = null;
+    for (final Change change : this.changes) {
+      if (change.keyId != null) {
+        if (keys == null) {
+          keys = jwkSetKeys(jsonObject);
+        }
+        applyKeyChange(keys, change);
+        continue;
+      }
+      final Object current = jsonObject.get(change.name);
+      final boolean present = jsonObject.containsKey(change.name);
+      if (change.type == ChangeType.ADDED ? present : !present || !jsonEquals(current, change.oldValue)) {
+        throw new IllegalArgumentException("Patch does not apply to parameter " + change.name);
+      }
+      if (change.type == ChangeType.REMOVED) {
+        jsonObject.remove(change.name);
+      }
+      else {
+        jsonObject.put(change.name, change.newValue);
+      }
+    }
+  }
+
+  /**
+   * Compare the keys of two JWK Sets that differ, and add one change for each added, removed or modified key.
+   *
+   * @param source the previous JWK Set
+   * @param target the new JWK Set
+   * @param changes list to add the changes to
+   * @return true if the changes were added, or false if the JWK Sets differ in other members than the keys or if the
+   *     keys can not be identified, in which case the JWK Set should be compared as a whole
+   */
+  private static boolean compareKeys(final Object source, final Object target, final List<Change> changes) {
+    final Map<String, Object> sourceKeys = keysById(source);
+    final Map<String, Object> targetKeys = keysById(target);
+    if (sourceKeys == null || targetKeys == null
+        || !jsonEquals(otherMembers((Map<?, ?>) source), otherMembers((Map<?, ?>) target))) {
+      return false;
+    }
+    for (final Map.Entry<String, Object> entry : sourceKeys.entrySet()) {
+      final Object targetKey = targetKeys.get(entry.getKey());
+      if (targetKey == null) {
+        changes.add(new Change(ChangeType.REMOVED, JWKS, entry.getKey(), entry.getValue(), null));
+      }
+      else if (!jsonEquals(entry.getValue(), targetKey)) {
+        changes.add(new Change(ChangeType.MODIFIED, JWKS, entry.getKey(), entry.getValue(), targetKey));
+      }
+    }
+    for (final Map.Entry<String, Object> entry : targetKeys.entrySet()) {
+      if (!sourceKeys.containsKey(entry.getKey())) {
+        changes.add(new Change(ChangeType.ADDED, JWKS, entry.getKey(), null, entry.getValue()));
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Get the keys of a JWK Set JSON object keyed by key identity.
+   *
+   * @param jwkSet JWK Set JSON object
+   * @return keys by key identity, or null if the object is not a JWK Set or if its keys can not be identified
+   */
+  private static Map<String, Object> keysById(final Object jwkSet) {
+    if (!(jwkSet instanceof final Map<?, ?> map) || !(map.get("keys") instanceof final List<?> keys)) {
+      return null;
+    }
+    final Map<String, Object> keysById = new LinkedHashMap<>();
+    for (final Object key : keys) {
+      final String id = keyId(key);
+      if (id == null || keysById.put(id, key) != null) {
+        return null;
+      }
+    }
+    return keysById;
+  }
+
+  /**
+   * Get the identity of a JWK, which is its key ID if present and its JWK thumbprint otherwise.
+   *
+   * @param key JWK JSON object
+   * @return key identity or null if the key can not be identified
+   */
+  @SuppressWarnings("unchecked")
+  private static String keyId(final Object key) {
+    if (!(key instanceof Map)) {
+      return null;
+    }
+    final Object kid = ((Map<String, Object>) key).get("kid");
+    if (kid instanceof final String id) {
+      return id;
+    }
+    try {
+      return JWK.parse((Map<String, Object>) key).computeThumbprint().toString();
+    }
+    catch (final ParseException | JOSEException e) {
+      return null;
+    }
+  }
+
+  private static Map<?, ?> otherMembers(final Map<?, ?> jwkSet) {
+    final Map<?, ?> members = new LinkedHashMap<>(jwkSet);
+    members.remove("keys");
+    return members;
+  }
+
+  /**
+   * Get a modifiable list of the keys of the JWK Set of a JSON object, replacing the JWK Set of the object with a copy
+   * that holds the list.
+   *
+   * @param jsonObject metadata JSON object
+   * @return keys of the JWK Set
+   * @throws IllegalArgumentException if the object does not have a JWK Set
+   */
+  @SuppressWarnings("unchecked")
+  private static List<Object> jwkSetKeys(final Map<String, Object> jsonObject) {
+    if (!(jsonObject.get(JWKS) instanceof final Map<?, ?> jwkSet)
+        || !(jwkSet.get("keys") instanceof final List<?> keys)) {
+      throw new IllegalArgumentException("Patch does not apply to parameter " + JWKS);
+    }
+    final Map<String, Object> copy = new LinkedHashMap<>((Map<String, Object>) jwkSet);
+    final List<Object> keysCopy = new ArrayList<>(keys);
+    copy.put("keys", keysCopy);
+    jsonObject.put(JWKS, copy);
+    return keysCopy;
+  }
+
+  private static void applyKeyChange(final List<Object> keys, final Change change) {
+    int index = -1;
+    for (int i = 0; i < keys.size() && index < 0; i++) {
+      if (change.keyId.equals(keyId(keys.get(i)))) {
+        index = i;
+      }
+    }
+    if (change.type == ChangeType.ADDED ? index >= 0 : index < 0 || !jsonEquals(keys.get(index), change.oldValue)) {
+      throw new IllegalArgumentException("Patch does not apply to key " + change.keyId);
+    }
+    switch (change.type) {
+      case ADDED -> keys.add(change.newValue);
+      case REMOVED -> keys.remove(index);
+      case MODIFIED -> keys.set(index, change.newValue);
+    }
+  }
+
+  /**
+   * Compare JSON values. Numbers are compared by numeric value, since JSON parsers and serializers may represent equal
+   * numbers with different classes.
+   *
+   * @param a JSON value
+   * @param b JSON value
+   * @return true if the values are equal
+   */
+  private static boolean jsonEquals(final Object a, final Object b) {
+    if (a instanceof final Number n1 && b instanceof final Number n2) {
+      return new BigDecimal(n1.toString()).compareTo(new BigDecimal(n2.toString())) == 0;
+    }
+    if (a instanceof final Map<?, ?> m1 && b instanceof final Map<?, ?> m2) {
+      if (m1.size() != m2.size()) {
+        return false;
+      }
+      for (final Map.Entry<?, ?> entry : m1.entrySet()) {
+        if (!m2.containsKey(entry.getKey()) || !jsonEquals(entry.getValue(), m2.get(entry.getKey()))) {
+          return false;
+        }
+      }
+      return true;
+    }
+    if (a instanceof final List<?> l1 && b instanceof final List<?> l2) {
+      if (l1.size() != l2.size()) {
+        return false;
+      }
+      for (int i = 0; i < l1.size(); i++) {
+        if (!jsonEquals(l1.get(i), l2.get(i))) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return Objects.equals(a, b);
+  }
+
+  private static Map<String, Object> readJsonObject(final byte[] json) throws JsonProcessingException {
+    try {
+      return MetadataUtils.OBJECT_MAPPER.readValue(json, new TypeReference<>() {
+      });
+    }
+    catch (final JsonProcessingException e) {
+      throw e;
+    }
+    catch (final IOException e) {
+      throw JsonMappingException.fromUnexpectedIOE(e);
+    }
+  }
+
+  /**
+   * Type of change of a parameter or key.
+   */
+  public enum ChangeType {
+    /** The parameter or key is present only in the new version */
+    ADDED,
+    /** The parameter or key is present only in the previous version */
+    REMOVED,
+    /** The parameter or key has different values in the versions */
+    MODIFIED
+  }
+
+  /**
+   * A change of a parameter of the metadata JSON object, or of a key of the JWK Set.
+   */
+  public static final class Change {
+
+    /** Type of change */
+    @Getter
+    private final ChangeType type;
+
+    /** Name of the changed member of the metadata JSON object, including any language tag */
+    @Getter
+    private final String name;
+
+    /** Identity of the changed key of the JWK Set, or null if this is not a key change */
+    @Getter
+    private final String keyId;
+
+    /** The previous value, or null if the parameter or key was added */
+    @Getter
+    private final Object oldValue;
+
+    /** The new value, or null if the parameter or key was removed */
+    @Getter
+    private final Object newValue;
+
+    private Change(final ChangeType type, final String name, final String keyId, final Object oldValue,
+        final Object newValue) {
+      this.type = type;
+      this.name = name;
+      this.keyId = keyId;
+      this.oldValue = oldValue;
+      this.newValue = newValue;
+    }
+
+    /**
+     * Get the name of the changed parameter, without language tag.
+     *
+     * @return parameter name
+     */
+    public String getParameterName() {
+      final int separator = this.name.indexOf('#');
+      return separator < 0 ? this.name : this.name.substring(0, separator);
+    }
+
+    /**
+     * Get the language tag of a changed language tagged value.
+     *
+     * @return language tag, or null if the changed value is not language tagged
+     */
+    public String getLanguageTag() {
+      final int separator = this.name.indexOf('#');
+      return separator < 0 ? null : this.name.substring(separator + 1);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+      return this.type + " " + this.name + (this.keyId != null ? " [" + this.keyId + "]" : "");
+    }
+  }
+
+}
@@ -12,8 +12,11 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import se.oidc.oidfed.md.lang.LanguageTaggedClassDescriptor;
+import se.oidc.oidfed.md.lang.LanguageTaggedJson;
 
 import java.util.*;
+import java.util.function.Predicate;
 
 /**
  * Description
@@ -35,34 +38,106 @@ public class MetadataUtils {
   }
 
   /**
-   * Extract all claims that are not listed as standard JWT claims and are not present in the exclude data object
+   * Get an object mapper that shares deserialized string lists, such as supported algorithms and scopes, through a
+   * canonicalization pool. See {@link CanonicalizationModule}.
+   *
+   * @param pool the pool holding canonical values
+   * @return object mapper
+   */
+  public static ObjectMapper getOidcObjectMapper(final CanonicalizationPool pool) {
+    return getOidcObjectMapper().registerModule(new CanonicalizationModule(pool));
+  }
+
+  /** Standard JWT claims for fast lookup */
+  private static final Set<String> standardJwtClaimSet = Set.copyOf(standardJwtClaims);
+
+  /**
+   * Extract all claims that are not listed as standard JWT claims and are not present in the exclude data object.
+   * <p>
+   * Claims present in the data object are determined from the JSON property names of the data object class. If the data
+   * object implements {@link LanguageTaggedJson}, then language tagged claims ("name#lang") of its language tagged
+   * parameters are also treated as present in the data object. Claims holding an explicit JSON null are only treated
+   * as present if the serialized data object holds the claim, so a null claim of a declared property that has no
+   * value in the data object is returned as an extension claim.
+   * </p>
    *
    * @param dataObject Data object containing parameters that are not part of the extension set
    * @param payload payload of the JWT from which the extension claims are collected
    * @return JSON object map containing the extension claims
    * @throws JsonProcessingException JSON processing errors
    */
-  public static Map<String, Object> getExtensionProperties(final Map<String, Object> payload, Object dataObject)
+  public static Map<String, Object> getExtensionProperties(final Map<String, Object> payload, final Object dataObject)
     throws JsonProcessingException {
     Objects.requireNonNull(payload, "Null payload is not allowed");
-    dataObject = Optional.ofNullable(dataObject).orElse(new HashMap<>());
 
+    final Predicate<String> dataObjectClaim = getDataObjectClaimPredicate(dataObject);
     final Map<String, Object> extensionObjectMap = new HashMap<>();
-    final List<String> payloadClaims = new ArrayList<>(payload.keySet());
-    final Map<String, Object> dataObjectMap = OBJECT_MAPPER.readValue(OBJECT_MAPPER.writeValueAsString(dataObject),
-      new TypeReference<>() {
-      });
-    for (final String claimName : payloadClaims) {
-      if (standardJwtClaims.contains(claimName)) {
+    Map<String, Object> dataObjectMap = null;
+    for (final Map.Entry<String, Object> claim : payload.entrySet()) {
+      final String claimName = claim.getKey();
+      if (standardJwtClaimSet.contains(claimName)) {
         continue;
       }
-      if (dataObjectMap.containsKey(claimName)) {
-        continue;
+      if (dataObjectClaim.test(claimName)) {
+        if (claim.getValue() != null) {
+          continue;
+        }
+        // Explicit null claim. Only present in the data object if the data object holds a value for it
+        if (dataObjectMap == null) {
+          dataObjectMap = toJsonObjectMap(dataObject);
+        }
+        if (dataObjectMap.containsKey(claimName)) {
+          continue;
+        }
       }
       // This parameter in the payload is not a standard JWT claim and not part of the defined data object members. Add to extensions
-      extensionObjectMap.put(claimName, payload.get(claimName));
+      extensionObjectMap.put(claimName, claim.getValue());
     }
     return extensionObjectMap;
   }
 
+  /**
+   * Get a predicate testing if a claim name is present in a data object.
+   *
+   * @param dataObject data object
+   * @return predicate that returns true for claim names present in the data object
+   * @throws JsonProcessingException JSON processing errors
+   */
+  private static Predicate<String> getDataObjectClaimPredicate(final Object dataObject)
+    throws JsonProcessingException {
+    if (dataObject == null) {
+      return claimName -> false;
+    }
+    if (dataObject instanceof final Map<?, ?> dataObjectMap) {
+      return claimName -> dataObjectMap.get(claimName) != null;
+    }
+    final LanguageTaggedClassDescriptor descriptor = LanguageTaggedClassDescriptor.forClass(dataObject.getClass());
+    if (descriptor.hasDynamicProperties()) {
+      // Property names can't be determined from the class. Use the names of the serialized data object
+      return toJsonObjectMap(dataObject)::containsKey;
+    }
+    final List<String> languageTaggedParameters = dataObject instanceof final LanguageTaggedJson languageTaggedJson
+      ? languageTaggedJson.getLanguageTaggedParameters()
+      : List.of();
+    return claimName -> {
+      if (descriptor.isKnownProperty(claimName)) {
+        return true;
+      }
+      final int tagIndex = claimName.indexOf('#');
+      return tagIndex > 0 && languageTaggedParameters.contains(claimName.substring(0, tagIndex));
+    };
+  }
+
+  /**
+   * Get the JSON object map of a serialized data object.
+   *
+   * @param dataObject data object
+   * @return JSON object map of the data object
+   * @throws JsonProcessingException JSON processing errors
+   */
+  private static Map<String, Object> toJsonObjectMap(final Object dataObject) throws JsonProcessingException {
+    return OBJECT_MAPPER.readValue(OBJECT_MAPPER.writeValueAsString(dataObject), new TypeReference<>() {
+    });
+  }
+
 }
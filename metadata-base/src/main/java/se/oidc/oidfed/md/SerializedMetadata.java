@@ -0,0 +1,173 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * The serialized UTF-8 JSON form of a metadata object together with an entity tag (ETag) calculated as the SHA-256
+ * digest of the serialized bytes.
+ * <p>
+ * Instances of this class are immutable and safe to share between threads. The serialized bytes are never exposed
+ * directly. Use {@link #writeTo(OutputStream)} or {@link #asByteBuffer()} to send the bytes without copying them.
+ * </p>
+ */
+public final class SerializedMetadata {
+
+  /** The serialized UTF-8 JSON bytes */
+  private final byte[] bytes;
+
+  /** SHA-256 digest of the serialized bytes */
+  private final byte[] digest;
+
+  /** Strong entity tag, including the enclosing double quotes */
+  private final String etag;
+
+  /**
+   * Constructor
+   *
+   * @param bytes serialized UTF-8 JSON bytes, not copied
+   */
+  private SerializedMetadata(final byte[] bytes) {
+    this.bytes = bytes;
+    this.digest = sha256().digest(bytes);
+    this.etag = "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(this.digest) + "\"";
+  }
+
+  /**
+   * Creates a serialized metadata object from the serialized UTF-8 JSON bytes of a metadata object. The bytes are
+   * copied.
+   *
+   * @param bytes serialized UTF-8 JSON bytes
+   * @return serialized metadata
+   */
+  public static SerializedMetadata of(final byte[] bytes) {
+    return new SerializedMetadata(Objects.requireNonNull(bytes, "Null bytes are not allowed").clone());
+  }
+
+  /**
+   * Get a copy of the serialized UTF-8 JSON bytes.
+   *
+   * @return serialized bytes
+   */
+  public byte[] getBytes() {
+    return this.bytes.clone();
+  }
+
+  /**
+   * Get a read-only buffer holding the serialized UTF-8 JSON bytes. The buffer shares the bytes of this object.
+   *
+   * @return read-only byte buffer positioned at the first byte
+   */
+  public ByteBuffer asByteBuffer() {
+    return ByteBuffer.wrap(this.bytes).asReadOnlyBuffer();
+  }
+
+  /**
+   * Get the number of serialized bytes.
+   *
+   * @return number of bytes
+   */
+  public int length() {
+    return this.bytes.length;
+  }
+
+  /**
+   * Writes the serialized UTF-8 JSON bytes to an output stream.
+   *
+   * @param outputStream the output stream
+   * @throws IOException error writing to the stream
+   */
+  public void writeTo(final OutputStream outputStream) throws IOException {
+    outputStream.write(this.bytes);
+  }
+
+  /**
+   * Get the SHA-256 digest of the serialized bytes.
+   *
+   * @return digest bytes
+   */
+  public byte[] getDigest() {
+    return this.digest.clone();
+  }
+
+  /**
+   * Get the strong entity tag of the serialized bytes for use in the HTTP ETag header. The entity tag is the
+   * unpadded base64url encoding of the SHA-256 digest enclosed in double quotes.
+   *
+   * @return entity tag
+   */
+  public String getEtag() {
+    return this.etag;
+  }
+
+  /**
+   * Tests if the value of an HTTP If-None-Match header matches the entity tag of this object. The header value is
+   * either "*" or a comma separated list of entity tags, which are compared with the weak comparison function of RFC
+   * 9110.
+   *
+   * @param ifNoneMatch the If-None-Match header value, or null
+   * @return true if the header value matches this object and a "304 Not Modified" response can be sent
+   */
+  public boolean matches(final String ifNoneMatch) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    if ("*".equals(ifNoneMatch.strip())) {
+      return true;
+    }
+    for (final String tag : ifNoneMatch.split(",")) {
+      final String candidate = tag.strip();
+      final String opaqueTag = candidate.startsWith("W/") ? candidate.substring(2) : candidate;
+      if (this.etag.equals(opaqueTag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    return o instanceof final SerializedMetadata that && MessageDigest.isEqual(this.digest, that.digest);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public int hashCode() {
+    return this.etag.hashCode();
+  }
+
+  /**
+   * Get the serialized JSON as a string.
+   *
+   * @return JSON string
+   */
+  @Override
+  public String toString() {
+    return new String(this.bytes, StandardCharsets.UTF_8);
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    }
+    catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not supported", e);
+    }
+  }
+
+}
@@ -0,0 +1,44 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.cache;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Snapshot of the statistics of a cache
+ */
+@Getter
+@ToString
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class CacheStatistics {
+
+  /** Number of lookups that returned a cached value */
+  private final long hitCount;
+  /** Number of lookups that did not find a cached value */
+  private final long missCount;
+  /** Number of values loaded by a loader */
+  private final long loadCount;
+  /** Number of loads that failed with an exception */
+  private final long loadFailureCount;
+  /** Number of entries evicted because the cache was full */
+  private final long evictionCount;
+  /** Number of entries removed because they had expired */
+  private final long expirationCount;
+
+  /**
+   * Get the ratio of lookups that returned a cached value.
+   *
+   * @return hit rate between 0 and 1, or 1 if no lookups have been made
+   */
+  public double getHitRate() {
+    final long requests = this.hitCount + this.missCount;
+    return requests == 0 ? 1.0 : (double) this.hitCount / requests;
+  }
+
+}
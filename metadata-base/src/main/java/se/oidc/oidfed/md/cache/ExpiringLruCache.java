@@ -0,0 +1,625 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.cache;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe cache with a bounded number of entries and per-entry expiry.
+ * <p>
+ * When the cache is full, the least recently used entry is evicted. Each entry expires at the time given when the entry
+ * was added, or after the default time to live of the cache. Expired entries are never returned and are removed on
+ * lookup or by {@link #cleanUp()}.
+ * </p>
+ * <p>
+ * Lookups of cached values do not lock. Each hit is recorded in a small per-thread-group buffer, and recorded hits are
+ * applied to the access order in batches by the thread that fills a buffer, or before the next change of the cache.
+ * When many threads hit the cache at the same time, hits that find their buffer full are not recorded, so the least
+ * recently used order is approximate under contention.
+ * </p>
+ * <p>
+ * Concurrent calls to {@link #get(Object, Loader)} for the same missing key are coalesced so that the value is loaded
+ * only once. Threads waiting for a load in progress receive the value of that load, or the error thrown by its loader.
+ * A load that is in progress when its key is invalidated or put is not cached.
+ * </p>
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class ExpiringLruCache<K, V> {
+
+  /** Maximum number of entries */
+  private final int maximumSize;
+
+  /** Time to live of entries added without expiry time, null for no expiry */
+  private final Duration defaultTimeToLive;
+
+  /** Clock used to determine expiry */
+  private final Clock clock;
+
+  /** Cache entries, read without locking and changed while holding the lock */
+  private final ConcurrentHashMap<K, CacheEntry<V>> entries = new ConcurrentHashMap<>();
+
+  /** Cache entries in access order, guarded by lock */
+  private final LinkedHashMap<K, CacheEntry<V>> accessOrder;
+
+  /** Buffers of recorded hits, indexed by thread */
+  private final AccessBuffer<K>[] accessBuffers;
+
+  /** Lock guarding changes of entries and the access order */
+  private final ReentrantLock lock = new ReentrantLock();
+
+  /** Loads in progress */
+  private final ConcurrentHashMap<K, Load<V>> loading = new ConcurrentHashMap<>();
+
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+  private final LongAdder loadCount = new LongAdder();
+  private final LongAdder loadFailureCount = new LongAdder();
+  private final LongAdder evictionCount = new LongAdder();
+  private final LongAdder expirationCount = new LongAdder();
+
+  /**
+   * Constructor
+   *
+   * @param builder builder holding the cache settings
+   */
+  private ExpiringLruCache(final ExpiringLruCacheBuilder<K, V> builder) {
+    this.maximumSize = builder.maximumSize;
+    this.defaultTimeToLive = builder.defaultTimeToLive;
+    this.clock = builder.clock;
+    this.accessOrder = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<K, CacheEntry<V>> eldest) {
+        if (this.size() > ExpiringLruCache.this.maximumSize) {
+          ExpiringLruCache.this.entries.remove(eldest.getKey());
+          ExpiringLruCache.this.evictionCount.increment();
+          return true;
+        }
+        return false;
+      }
+    };
+    // One buffer per processor, rounded up to a power of two
+    final int buffers = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1);
+    @SuppressWarnings("unchecked")
+    final AccessBuffer<K>[] accessBuffers = new AccessBuffer[buffers];
+    for (int i = 0; i < buffers; i++) {
+      accessBuffers[i] = new AccessBuffer<>();
+    }
+    this.accessBuffers = accessBuffers;
+  }
+
+  /**
+   * Create a builder for a cache.
+   *
+   * @param <K> key type
+   * @param <V> value type
+   * @return builder
+   */
+  public static <K, V> ExpiringLruCacheBuilder<K, V> builder() {
+    return new ExpiringLruCacheBuilder<>();
+  }
+
+  /**
+   * Get the cached value of a key.
+   *
+   * @param key key
+   * @return the cached value or null if no value is cached or if the cached value has expired
+   */
+  public V getIfPresent(final K key) {
+    final V value = this.lookup(Objects.requireNonNull(key, "Null key is not allowed"));
+    if (value == null) {
+      this.missCount.increment();
+    }
+    else {
+      this.hitCount.increment();
+    }
+    return value;
+  }
+
+  /**
+   * Get the cached value of a key, or load and cache the value if no value is cached. If another thread is already
+   * loading the value of the key, this thread waits for that load to complete and returns its result.
+   *
+   * @param key key
+   * @param loader loader used to load the value if no value is cached
+   * @return the cached or loaded value, or null if the loader returned no value
+   * @throws IOException if the loader failed to load the value
+   */
+  public V get(final K key, final Loader<K, V> loader) throws IOException {
+    Objects.requireNonNull(key, "Null key is not allowed");
+    Objects.requireNonNull(loader, "Null loader is not allowed");
+    V value = this.lookup(key);
+    if (value != null) {
+      this.hitCount.increment();
+      return value;
+    }
+    this.missCount.increment();
+
+    final Load<V> load = new Load<>();
+    final Load<V> inProgress = this.loading.putIfAbsent(key, load);
+    if (inProgress != null) {
+      return await(inProgress.future);
+    }
+    try {
+      // A load of this key may have completed after the lookup above
+      value = this.lookup(key);
+      if (value == null) {
+        this.loadCount.increment();
+        final LoadedValue<V> loaded = loader.load(key);
+        if (loaded != null && loaded.value != null) {
+          value = loaded.value;
+          this.put(key, value, loaded.expires, load);
+        }
+      }
+      load.future.complete(value);
+      return value;
+    }
+    catch (final Throwable e) {
+      // Waiting threads must be released whatever the loader throws
+      this.loadFailureCount.increment();
+      load.future.completeExceptionally(e);
+      throw e;
+    }
+    finally {
+      this.loading.remove(key, load);
+    }
+  }
+
+  /**
+   * Add a value to the cache that expires after the default time to live.
+   *
+   * @param key key
+   * @param value value
+   */
+  public void put(final K key, final V value) {
+    this.put(key, value, null);
+  }
+
+  /**
+   * Add a value to the cache that expires at a specified time. A value with an expiry time that has already passed is
+   * not cached and removes any cached value of the key.
+   *
+   * @param key key
+   * @param value value
+   * @param expires expiry time of the value, or null to expire after the default time to live
+   */
+  public void put(final K key, final V value, final Instant expires) {
+    this.put(key, value, expires, null);
+  }
+
+  /**
+   * Add a value to the cache. A value loaded by a load that was superseded by an invalidation or an explicit put of
+   * the key while the load was in progress is not cached.
+   *
+   * @param key key
+   * @param value value
+   * @param expires expiry time of the value, or null to expire after the default time to live
+   * @param load the load that produced the value, or null for an explicit put
+   */
+  private void put(final K key, final V value, final Instant expires, final Load<V> load) {
+    Objects.requireNonNull(key, "Null key is not allowed");
+    Objects.requireNonNull(value, "Null value is not allowed");
+    final Instant now = this.clock.instant();
+    final Instant expiryTime = expires != null
+        ? expires
+        : this.defaultTimeToLive != null ? now.plus(this.defaultTimeToLive) : null;
+    this.lock.lock();
+    try {
+      this.drainAccessBuffers();
+      if (load != null) {
+        if (load.superseded) {
+          return;
+        }
+      }
+      else {
+        this.supersede(key);
+      }
+      if (expiryTime != null && !expiryTime.isAfter(now)) {
+        this.remove(key);
+        return;
+      }
+      final CacheEntry<V> entry = new CacheEntry<>(value, expiryTime);
+      this.entries.put(key, entry);
+      this.accessOrder.put(key, entry);
+    }
+    finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Remove the cached value of a key.
+   *
+   * @param key key
+   */
+  public void invalidate(final K key) {
+    this.lock.lock();
+    try {
+      this.supersede(key);
+      this.remove(key);
+    }
+    finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Remove all cached values.
+   */
+  public void invalidateAll() {
+    this.lock.lock();
+    try {
+      this.drainAccessBuffers();
+      this.loading.values().forEach(load -> load.superseded = true);
+      this.entries.clear();
+      this.accessOrder.clear();
+    }
+    finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Remove all expired entries.
+   */
+  public void cleanUp() {
+    final Instant now = this.clock.instant();
+    this.lock.lock();
+    try {
+      this.drainAccessBuffers();
+      final Iterator<Map.Entry<K, CacheEntry<V>>> iterator = this.accessOrder.entrySet().iterator();
+      while (iterator.hasNext()) {
+        final Map.Entry<K, CacheEntry<V>> entry = iterator.next();
+        if (entry.getValue().isExpired(now)) {
+          iterator.remove();
+          this.entries.remove(entry.getKey());
+          this.expirationCount.increment();
+        }
+      }
+    }
+    finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Get the number of cached entries, including expired entries that have not yet been removed.
+   *
+   * @return number of cached entries
+   */
+  public int size() {
+    return this.entries.size();
+  }
+
+  /**
+   * Get a snapshot of the cache statistics.
+   *
+   * @return cache statistics
+   */
+  public CacheStatistics getStatistics() {
+    return new CacheStatistics(this.hitCount.sum(), this.missCount.sum(), this.loadCount.sum(),
+        this.loadFailureCount.sum(), this.evictionCount.sum(), this.expirationCount.sum());
+  }
+
+  /**
+   * Look up a cached value without updating hit and miss counts. A hit is recorded without locking. An expired entry
+   * is removed.
+   *
+   * @param key key
+   * @return cached value or null
+   */
+  private V lookup(final K key) {
+    final CacheEntry<V> entry = this.entries.get(key);
+    if (entry == null) {
+      return null;
+    }
+    if (entry.expires() != null && entry.isExpired(this.clock.instant())) {
+      this.lock.lock();
+      try {
+        // Only remove the entry if it has not been replaced since it was read
+        if (this.entries.remove(key, entry)) {
+          this.accessOrder.remove(key);
+          this.expirationCount.increment();
+        }
+      }
+      finally {
+        this.lock.unlock();
+      }
+      return null;
+    }
+    final AccessBuffer<K> buffer = this.accessBuffers[
+        spread(System.identityHashCode(Thread.currentThread())) & (this.accessBuffers.length - 1)];
+    if (buffer.record(key) && this.lock.tryLock()) {
+      // The buffer is half full. Apply the recorded hits unless another thread is already changing the cache
+      try {
+        this.drainAccessBuffers();
+      }
+      finally {
+        this.lock.unlock();
+      }
+    }
+    return entry.value;
+  }
+
+  /**
+   * Remove the entry of a key. The caller must hold the lock.
+   *
+   * @param key key
+   */
+  private void remove(final K key) {
+    this.entries.remove(key);
+    this.accessOrder.remove(key);
+  }
+
+  /**
+   * Apply all recorded hits to the access order. The caller must hold the lock.
+   */
+  private void drainAccessBuffers() {
+    for (final AccessBuffer<K> buffer : this.accessBuffers) {
+      buffer.drain(this.accessOrder);
+    }
+  }
+
+  /**
+   * Spread the bits of a hash code so that the low bits depend on all bits.
+   *
+   * @param hash hash code
+   * @return spread hash code
+   */
+  private static int spread(final int hash) {
+    return hash ^ hash >>> 16;
+  }
+
+  /**
+   * A bounded buffer of recorded hits. Hits are recorded without locking by any number of threads, and are drained by
+   * one thread at a time while holding the cache lock. A hit is dropped if the buffer is full.
+   *
+   * @param <K> key type
+   */
+  private static final class AccessBuffer<K> {
+
+    /** Number of slots, a power of two */
+    private static final int SIZE = 16;
+
+    /** Recorded keys, where a slot is null until its key is published */
+    private final AtomicReferenceArray<K> slots = new AtomicReferenceArray<>(SIZE);
+
+    /** Number of hits recorded in this buffer */
+    private final AtomicLong writeCount = new AtomicLong();
+
+    /** Number of hits drained from this buffer, written while holding the cache lock */
+    private volatile long readCount;
+
+    /**
+     * Record a hit.
+     *
+     * @param key the key that was hit
+     * @return true if the buffer is at least half full and should be drained
+     */
+    boolean record(final K key) {
+      final long write = this.writeCount.get();
+      final long pending = write - this.readCount;
+      if (pending < SIZE && this.writeCount.compareAndSet(write, write + 1)) {
+        this.slots.lazySet((int) write & (SIZE - 1), key);
+        return pending + 1 >= SIZE / 2;
+      }
+      // The buffer is full or another thread recorded a hit at the same time. The hit is dropped
+      return pending >= SIZE / 2;
+    }
+
+    /**
+     * Apply the recorded hits to an access ordered map. The caller must hold the cache lock.
+     *
+     * @param accessOrder the access ordered map
+     * @param <V> value type
+     */
+    <V> void drain(final LinkedHashMap<K, V> accessOrder) {
+      long read = this.readCount;
+      final long write = this.writeCount.get();
+      while (read < write) {
+        final int index = (int) read & (SIZE - 1);
+        final K key = this.slots.get(index);
+        if (key == null) {
+          // The key of this slot is not yet published
+          break;
+        }
+        this.slots.lazySet(index, null);
+        accessOrder.get(key);
+        read++;
+      }
+      this.readCount = read;
+    }
+  }
+
+  /**
+   * Mark a load of a key in progress as superseded, so that its result is not cached. The caller must hold the lock.
+   *
+   * @param key key
+   */
+  private void supersede(final K key) {
+    final Load<V> load = this.loading.get(key);
+    if (load != null) {
+      load.superseded = true;
+    }
+  }
+
+  /**
+   * A load in progress.
+   *
+   * @param <V> value type
+   */
+  private static final class Load<V> {
+
+    /** Completed with the result of the load */
+    private final CompletableFuture<V> future = new CompletableFuture<>();
+
+    /** Set, while holding the lock, if the key was invalidated or put while the load was in progress */
+    private boolean superseded;
+  }
+
+  /**
+   * Wait for a load in progress in another thread.
+   *
+   * @param future the load in progress
+   * @return the loaded value
+   * @throws IOException if the load failed
+   */
+  private static <V> V await(final CompletableFuture<V> future) throws IOException {
+    try {
+      return future.join();
+    }
+    catch (final CompletionException e) {
+      if (e.getCause() instanceof final IOException ioException) {
+        throw new IOException(ioException.getMessage(), ioException);
+      }
+      if (e.getCause() instanceof final RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      if (e.getCause() instanceof final Error error) {
+        throw error;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Loader of cache values.
+   *
+   * @param <K> key type
+   * @param <V> value type
+   */
+  @FunctionalInterface
+  public interface Loader<K, V> {
+
+    /**
+     * Load the value of a key.
+     *
+     * @param key key
+     * @return the loaded value with its expiry time, or null if no value is available
+     * @throws IOException if the value could not be loaded
+     */
+    LoadedValue<V> load(final K key) throws IOException;
+  }
+
+  /**
+   * A value returned by a {@link Loader} together with its expiry time.
+   *
+   * @param <V> value type
+   */
+  public static final class LoadedValue<V> {
+
+    /** The loaded value */
+    private final V value;
+    /** Expiry time, or null to expire after the default time to live */
+    private final Instant expires;
+
+    private LoadedValue(final V value, final Instant expires) {
+      this.value = value;
+      this.expires = expires;
+    }
+
+    /**
+     * Create a loaded value.
+     *
+     * @param value the loaded value
+     * @param expires expiry time, or null to expire after the default time to live of the cache
+     * @param <V> value type
+     * @return loaded value
+     */
+    public static <V> LoadedValue<V> of(final V value, final Instant expires) {
+      return new LoadedValue<>(value, expires);
+    }
+  }
+
+  /**
+   * Cache entry
+   *
+   * @param value cached value
+   * @param expires expiry time or null if the entry never expires
+   * @param <V> value type
+   */
+  private record CacheEntry<V>(V value, Instant expires) {
+
+    boolean isExpired(final Instant now) {
+      return this.expires != null && !this.expires.isAfter(now);
+    }
+  }
+
+  /**
+   * Builder for {@link ExpiringLruCache}.
+   *
+   * @param <K> key type
+   * @param <V> value type
+   */
+  public static class ExpiringLruCacheBuilder<K, V> {
+
+    private int maximumSize = 1000;
+    private Duration defaultTimeToLive;
+    private Clock clock = Clock.systemUTC();
+
+    private ExpiringLruCacheBuilder() {
+    }
+
+    /**
+     * Set the maximum number of entries. Default is 1000.
+     *
+     * @param maximumSize maximum number of entries
+     * @return this builder
+     */
+    public ExpiringLruCacheBuilder<K, V> maximumSize(final int maximumSize) {
+      if (maximumSize < 1) {
+        throw new IllegalArgumentException("Maximum size must be at least 1");
+      }
+      this.maximumSize = maximumSize;
+      return this;
+    }
+
+    /**
+     * Set the time to live of entries added without an expiry time. Default is no expiry.
+     *
+     * @param defaultTimeToLive time to live, or null for no expiry
+     * @return this builder
+     */
+    public ExpiringLruCacheBuilder<K, V> defaultTimeToLive(final Duration defaultTimeToLive) {
+      if (defaultTimeToLive != null && (defaultTimeToLive.isNegative() || defaultTimeToLive.isZero())) {
+        throw new IllegalArgumentException("Default time to live must be positive");
+      }
+      this.defaultTimeToLive = defaultTimeToLive;
+      return this;
+    }
+
+    /**
+     * Set the clock used to determine expiry. Default is the system UTC clock.
+     *
+     * @param clock clock
+     * @return this builder
+     */
+    public ExpiringLruCacheBuilder<K, V> clock(final Clock clock) {
+      this.clock = Objects.requireNonNull(clock, "Null clock is not allowed");
+      return this;
+    }
+
+    public ExpiringLruCache<K, V> build() {
+      return new ExpiringLruCache<>(this);
+    }
+  }
+
+}
@@ -0,0 +1,296 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import se.oidc.oidfed.md.lang.LanguageTaggedJson;
+import se.oidc.oidfed.md.lang.OidcLangJsonSerializer;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Cache of parsed metadata keyed by entity identifier.
+ * <p>
+ * Metadata is parsed with the {@link OidcLangJsonSerializer} of the metadata class and cached until the expiry time
+ * given for each entry, such as the expiry time of the entity statement holding the metadata. Entries added without an
+ * expiry time expire after the default time to live of the cache. When the cache is full, the least recently used
+ * entry is evicted. Concurrent requests for the same missing entity are coalesced so that the metadata is loaded and
+ * parsed only once.
+ * </p>
+ * <p>
+ * Cached metadata objects are shared between all users of the cache and must not be modified.
+ * </p>
+ *
+ * @param <T> metadata class
+ */
+public class MetadataCache<T extends LanguageTaggedJson> {
+
+  /** Serializer used to parse metadata */
+  private final OidcLangJsonSerializer<T> serializer;
+
+  /** Cache of parsed metadata */
+  private final ExpiringLruCache<String, T> cache;
+
+  /**
+   * Constructor
+   *
+   * @param builder builder holding the cache settings
+   */
+  private MetadataCache(final MetadataCacheBuilder<T> builder) {
+    this.serializer = builder.serializer;
+    this.cache = ExpiringLruCache.<String, T>builder()
+        .maximumSize(builder.maximumSize)
+        .defaultTimeToLive(builder.defaultTimeToLive)
+        .clock(builder.clock)
+        .build();
+  }
+
+  /**
+   * Create a builder for a metadata cache.
+   *
+   * @param serializer serializer of the cached metadata class
+   * @param <T> metadata class
+   * @return builder
+   */
+  public static <T extends LanguageTaggedJson> MetadataCacheBuilder<T> builder(
+      final OidcLangJsonSerializer<T> serializer) {
+    return new MetadataCacheBuilder<>(Objects.requireNonNull(serializer, "Null serializer is not allowed"));
+  }
+
+  /**
+   * Get cached metadata of an entity.
+   *
+   * @param entityId entity identifier
+   * @return cached metadata or null if no unexpired metadata is cached for the entity
+   */
+  public T get(final String entityId) {
+    return this.cache.getIfPresent(entityId);
+  }
+
+  /**
+   * Get cached metadata of an entity, or load, parse and cache the metadata if no unexpired metadata is cached.
+   *
+   * @param entityId entity identifier
+   * @param loader loader of the metadata JSON of the entity
+   * @return metadata or null if the loader returned no metadata
+   * @throws IOException if the metadata could not be loaded or parsed
+   */
+  public T get(final String entityId, final MetadataLoader loader) throws IOException {
+    Objects.requireNonNull(loader, "Null loader is not allowed");
+    return this.cache.get(entityId, key -> {
+      final MetadataSource source = loader.load(key);
+      return source == null
+          ? null
+          : ExpiringLruCache.LoadedValue.of(source.parse(this.serializer), source.expires);
+    });
+  }
+
+  /**
+   * Parse and cache metadata JSON of an entity.
+   *
+   * @param entityId entity identifier
+   * @param metadataJson metadata JSON
+   * @param expires expiry time, or null to expire after the default time to live
+   * @return the parsed metadata
+   * @throws JsonProcessingException if the metadata could not be parsed
+   */
+  public T put(final String entityId, final String metadataJson, final Instant expires)
+      throws JsonProcessingException {
+    final T metadata = this.serializer.parse(metadataJson);
+    this.cache.put(entityId, metadata, expires);
+    return metadata;
+  }
+
+  /**
+   * Parse and cache a metadata JSON object of an entity.
+   *
+   * @param entityId entity identifier
+   * @param metadataJsonObject metadata JSON object
+   * @param expires expiry time, or null to expire after the default time to live
+   * @return the parsed metadata
+   * @throws JsonProcessingException if the metadata could not be parsed
+   */
+  public T put(final String entityId, final Map<String, Object> metadataJsonObject, final Instant expires)
+      throws JsonProcessingException {
+    final T metadata = this.serializer.parse(metadataJsonObject);
+    this.cache.put(entityId, metadata, expires);
+    return metadata;
+  }
+
+  /**
+   * Cache metadata of an entity.
+   *
+   * @param entityId entity identifier
+   * @param metadata metadata
+   * @param expires expiry time, or null to expire after the default time to live
+   */
+  public void put(final String entityId, final T metadata, final Instant expires) {
+    this.cache.put(entityId, metadata, expires);
+  }
+
+  /**
+   * Remove cached metadata of an entity.
+   *
+   * @param entityId entity identifier
+   */
+  public void invalidate(final String entityId) {
+    this.cache.invalidate(entityId);
+  }
+
+  /**
+   * Remove all cached metadata.
+   */
+  public void invalidateAll() {
+    this.cache.invalidateAll();
+  }
+
+  /**
+   * Remove all expired metadata.
+   */
+  public void cleanUp() {
+    this.cache.cleanUp();
+  }
+
+  /**
+   * Get the number of cached entries, including expired entries that have not yet been removed.
+   *
+   * @return number of cached entries
+   */
+  public int size() {
+    return this.cache.size();
+  }
+
+  /**
+   * Get a snapshot of the cache statistics.
+   *
+   * @return cache statistics
+   */
+  public CacheStatistics getStatistics() {
+    return this.cache.getStatistics();
+  }
+
+  /**
+   * Loader of the metadata JSON of an entity, such as from the entity statement of the entity.
+   */
+  @FunctionalInterface
+  public interface MetadataLoader {
+
+    /**
+     * Load the metadata JSON of an entity.
+     *
+     * @param entityId entity identifier
+     * @return metadata source or null if no metadata is available for the entity
+     * @throws IOException if the metadata could not be loaded
+     */
+    MetadataSource load(final String entityId) throws IOException;
+  }
+
+  /**
+   * Metadata JSON returned by a {@link MetadataLoader} together with its expiry time.
+   */
+  public static final class MetadataSource {
+
+    /** Metadata JSON string */
+    private final String json;
+    /** Metadata JSON object */
+    private final Map<String, Object> jsonObject;
+    /** Expiry time, or null to expire after the default time to live */
+    private final Instant expires;
+
+    private MetadataSource(final String json, final Map<String, Object> jsonObject, final Instant expires) {
+      this.json = json;
+      this.jsonObject = jsonObject;
+      this.expires = expires;
+    }
+
+    /**
+     * Create a metadata source from a metadata JSON string.
+     *
+     * @param json metadata JSON
+     * @param expires expiry time, or null to expire after the default time to live of the cache
+     * @return metadata source
+     */
+    public static MetadataSource of(final String json, final Instant expires) {
+      return new MetadataSource(Objects.requireNonNull(json, "Null JSON is not allowed"), null, expires);
+    }
+
+    /**
+     * Create a metadata source from a metadata JSON object.
+     *
+     * @param jsonObject metadata JSON object
+     * @param expires expiry time, or null to expire after the default time to live of the cache
+     * @return metadata source
+     */
+    public static MetadataSource of(final Map<String, Object> jsonObject, final Instant expires) {
+      return new MetadataSource(null, Objects.requireNonNull(jsonObject, "Null JSON object is not allowed"), expires);
+    }
+
+    private <T extends LanguageTaggedJson> T parse(final OidcLangJsonSerializer<T> serializer)
+        throws JsonProcessingException {
+      return this.json != null ? serializer.parse(this.json) : serializer.parse(this.jsonObject);
+    }
+  }
+
+  /**
+   * Builder for {@link MetadataCache}.
+   *
+   * @param <T> metadata class
+   */
+  public static class MetadataCacheBuilder<T extends LanguageTaggedJson> {
+
+    private final OidcLangJsonSerializer<T> serializer;
+    private int maximumSize = 1000;
+    private Duration defaultTimeToLive = Duration.ofHours(1);
+    private Clock clock = Clock.systemUTC();
+
+    private MetadataCacheBuilder(final OidcLangJsonSerializer<T> serializer) {
+      this.serializer = serializer;
+    }
+
+    /**
+     * Set the maximum number of cached entities. Default is 1000.
+     *
+     * @param maximumSize maximum number of cached entities
+     * @return this builder
+     */
+    public MetadataCacheBuilder<T> maximumSize(final int maximumSize) {
+      this.maximumSize = maximumSize;
+      return this;
+    }
+
+    /**
+     * Set the time to live of metadata added without an expiry time. Default is one hour.
+     *
+     * @param defaultTimeToLive time to live, or null for no expiry
+     * @return this builder
+     */
+    public MetadataCacheBuilder<T> defaultTimeToLive(final Duration defaultTimeToLive) {
+      this.defaultTimeToLive = defaultTimeToLive;
+      return this;
+    }
+
+    /**
+     * Set the clock used to determine expiry. Default is the system UTC clock.
+     *
+     * @param clock clock
+     * @return this builder
+     */
+    public MetadataCacheBuilder<T> clock(final Clock clock) {
+      this.clock = clock;
+      return this;
+    }
+
+    public MetadataCache<T> build() {
+      return new MetadataCache<>(this);
+    }
+  }
+
+}
@@ -0,0 +1,10 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+
+/**
+ * Caches for parsed metadata
+ */
+package se.oidc.oidfed.md.cache;
@@ -8,86 +8,145 @@ package se.oidc.oidfed.md.entities;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.nimbusds.jose.jwk.JWK;
 import com.nimbusds.jose.jwk.JWKSet;
 import lombok.Getter;
-import lombok.Setter;
+import se.oidc.oidfed.md.CanonicalJson;
+import se.oidc.oidfed.md.MetadataUtils;
+import se.oidc.oidfed.md.SerializedMetadata;
 import se.oidc.oidfed.md.lang.LanguageObject;
+import se.oidc.oidfed.md.lang.LanguageTaggedClassDescriptor;
 import se.oidc.oidfed.md.lang.LanguageTaggedJson;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 
 /**
  * Abstract class for Entity metadata
+ * <p>
+ * Metadata objects are mutable until they are frozen. A frozen metadata object holds only unmodifiable lists and maps
+ * and frozen language objects, and can be shared between threads and used as a map key. Setters of a frozen metadata
+ * object throw {@link UnsupportedOperationException}. Use {@link #snapshot()} to get a frozen copy that leaves this
+ * object mutable, or {@link #freeze()} to freeze this object in place.
+ * </p>
+ * <p>
+ * Mutable metadata objects are compared by identity. Frozen metadata objects are compared by their property values.
+ * </p>
  */
 @JsonInclude(JsonInclude.Include.NON_NULL)
-public abstract class AbstractOidcFedMetadata implements LanguageTaggedJson {
+public abstract class AbstractOidcFedMetadata implements LanguageTaggedJson, Cloneable {
 
+  /** Language tagged parameters added by the instance that are not language object properties of the class */
   @JsonIgnore
-  private final List<String> languageParameters;
+  private List<String> additionalLanguageParameters;
 
   @JsonProperty("organization_name")
   @Getter
-  @Setter
   protected LanguageObject<String> organizationName;
 
+  public void setOrganizationName(final LanguageObject<String> organizationName) {
+    this.checkModifiable();
+    this.organizationName = organizationName;
+  }
+
   @JsonProperty("logo_uri")
   @Getter
-  @Setter
   protected LanguageObject<String> logoUri;
 
+  public void setLogoUri(final LanguageObject<String> logoUri) {
+    this.checkModifiable();
+    this.logoUri = logoUri;
+  }
+
   @JsonProperty("contacts")
   @Getter
-  @Setter
   protected List<String> contacts;
 
+  public void setContacts(final List<String> contacts) {
+    this.checkModifiable();
+    this.contacts = contacts;
+  }
+
   @JsonProperty("policy_uri")
   @Getter
-  @Setter
   protected String policyUri;
 
+  public void setPolicyUri(final String policyUri) {
+    this.checkModifiable();
+    this.policyUri = policyUri;
+  }
+
   @JsonProperty("homepage_uri")
   @Getter
-  @Setter
   protected String homepageUri;
 
+  public void setHomepageUri(final String homepageUri) {
+    this.checkModifiable();
+    this.homepageUri = homepageUri;
+  }
+
   @JsonProperty("signed_jwks_uri")
   @Getter
-  @Setter
   protected String signedJwksUri;
 
+  public void setSignedJwksUri(final String signedJwksUri) {
+    this.checkModifiable();
+    this.signedJwksUri = signedJwksUri;
+  }
+
   @JsonProperty("jwks_uri")
   @Getter
-  @Setter
   protected String jwksUri;
 
+  public void setJwksUri(final String jwksUri) {
+    this.checkModifiable();
+    this.jwksUri = jwksUri;
+  }
+
   @JsonProperty("jwks")
   protected Map<String, Object> jwkSet;
 
+  /** Parsed JWK set of the current jwks value, created on first use */
+  @JsonIgnore
+  private transient volatile ParsedJwkSet parsedJwkSet;
+
+  /** Set when this object is frozen and no longer can be modified */
+  private transient volatile boolean frozen;
+
+  /** Hash code of this object, calculated on first use after this object is frozen */
+  private transient int frozenHashCode;
+
+  /** Serialized form of a frozen object, created on first use */
+  @JsonIgnore
+  private transient volatile SerializedMetadata serializedMetadata;
+
   /**
    * Constructor
    */
   public AbstractOidcFedMetadata() {
-    this.languageParameters = new ArrayList<>();
     this.addLanguageParametersTags(List.of("organization_name", "logo_uri"));
   }
 
   /**
-   * Get metadata JWK set
+   * Get metadata JWK set. The JWK set is parsed on first use and is then cached until the JWK set of this metadata is
+   * replaced.
    *
    * @return JWK set
    * @throws ParseException error parsing JWK set data
    */
   @JsonIgnore
   public JWKSet getJwkSet() throws ParseException {
-    if (this.jwkSet == null) {
-      return null;
-    }
-    return JWKSet.parse(this.jwkSet);
+    final ParsedJwkSet parsed = this.getParsedJwkSet();
+    return parsed == null ? null : parsed.jwkSet;
   }
 
   /**
@@ -97,21 +156,69 @@ public abstract class AbstractOidcFedMetadata implements LanguageTaggedJson {
    */
   @JsonIgnore
   public void setJwkSet(final JWKSet jwkSet) {
+    this.checkModifiable();
     this.jwkSet = jwkSet.toJSONObject();
+    this.parsedJwkSet = null;
+  }
+
+  /**
+   * Get the key with a specified key ID from the metadata JWK set. Keys are indexed by key ID when the JWK set is
+   * parsed. If more than one key has the same key ID, the first key is returned.
+   *
+   * @param kid key ID
+   * @return the key with the specified key ID, or null if no such key is present
+   * @throws ParseException error parsing JWK set data
+   */
+  @JsonIgnore
+  public JWK getKey(final String kid) throws ParseException {
+    final ParsedJwkSet parsed = this.getParsedJwkSet();
+    return parsed == null || kid == null ? null : parsed.keysByKid.get(kid);
+  }
+
+  /**
+   * Get the parsed JWK set of the current jwks value.
+   *
+   * @return parsed JWK set or null if no JWK set is present
+   * @throws ParseException error parsing JWK set data
+   */
+  private ParsedJwkSet getParsedJwkSet() throws ParseException {
+    final Map<String, Object> jwks = this.jwkSet;
+    if (jwks == null) {
+      return null;
+    }
+    ParsedJwkSet parsed = this.parsedJwkSet;
+    if (parsed == null || parsed.source != jwks) {
+      parsed = new ParsedJwkSet(jwks, JWKSet.parse(jwks));
+      this.parsedJwkSet = parsed;
+    }
+    return parsed;
   }
 
   /**
    * Add parameter names to language tagged parameter list. This list contains the name of all parameters that is
-   * defined as a language tagged parameter
+   * defined as a language tagged parameter. All {@link LanguageObject} properties of the metadata class are language
+   * tagged parameters, and are shared by all instances of the class. Only other parameter names are stored with this
+   * instance.
    *
    * @param additionalLanguageParameterTags parameter names to add
    */
   protected void addLanguageParametersTags(final List<String> additionalLanguageParameterTags) {
-    this.languageParameters.addAll(
-        Optional.ofNullable(additionalLanguageParameterTags).orElse(new ArrayList<>()).stream()
-            .filter(s -> !this.languageParameters.contains(s))
-            .toList()
-    );
+    if (additionalLanguageParameterTags == null || additionalLanguageParameterTags.isEmpty()) {
+      return;
+    }
+    this.checkModifiable();
+    final List<String> classLanguageParameters = this.getClassLanguageParameters();
+    for (final String parameter : additionalLanguageParameterTags) {
+      if (classLanguageParameters.contains(parameter)) {
+        continue;
+      }
+      if (this.additionalLanguageParameters == null) {
+        this.additionalLanguageParameters = new ArrayList<>(classLanguageParameters);
+      }
+      if (!this.additionalLanguageParameters.contains(parameter)) {
+        this.additionalLanguageParameters.add(parameter);
+      }
+    }
   }
 
   /**
@@ -122,7 +229,163 @@ public abstract class AbstractOidcFedMetadata implements LanguageTaggedJson {
   @JsonIgnore
   @Override
   public List<String> getLanguageTaggedParameters() {
-    return this.languageParameters;
+    return this.additionalLanguageParameters != null
+        ? Collections.unmodifiableList(this.additionalLanguageParameters)
+        : this.getClassLanguageParameters();
+  }
+
+  /**
+   * Get the language tagged parameters shared by all instances of this metadata class.
+   *
+   * @return the names of all {@link LanguageObject} properties of this metadata class
+   */
+  private List<String> getClassLanguageParameters() {
+    return LanguageTaggedClassDescriptor.forClass(this.getClass()).getLanguageObjectProperties();
+  }
+
+  /**
+   * Tests if this metadata object is frozen.
+   *
+   * @return true if this metadata object no longer can be modified
+   */
+  @JsonIgnore
+  public boolean isFrozen() {
+    return this.frozen;
+  }
+
+  /**
+   * Freezes this metadata object in place. All list and map values are replaced with unmodifiable copies and all
+   * language objects with frozen copies. Values that already are unmodifiable, such as lists obtained from a
+   * {@link se.oidc.oidfed.md.CanonicalizationPool}, are kept and shared.
+   *
+   * @return this metadata object
+   */
+  public AbstractOidcFedMetadata freeze() {
+    if (!this.frozen) {
+      MetadataFields.forClass(this.getClass()).freeze(this);
+      this.frozen = true;
+    }
+    return this;
+  }
+
+  /**
+   * Get a frozen snapshot of this metadata object. The snapshot shares all unmodifiable values with this object, and
+   * this object is returned as is if it already is frozen.
+   *
+   * @return frozen metadata object holding the values of this object
+   */
+  public AbstractOidcFedMetadata snapshot() {
+    if (this.frozen) {
+      return this;
+    }
+    try {
+      return ((AbstractOidcFedMetadata) this.clone()).freeze();
+    }
+    catch (final CloneNotSupportedException e) {
+      throw new IllegalStateException("Metadata object can not be copied", e);
+    }
+  }
+
+  /**
+   * Throws an exception if this metadata object is frozen. Called by all setters before the value is changed.
+   *
+   * @throws UnsupportedOperationException if this object is frozen
+   */
+  protected final void checkModifiable() {
+    if (this.frozen) {
+      throw new UnsupportedOperationException("Metadata object is frozen");
+    }
+  }
+
+  /**
+   * Get the compact serialized JSON form of this metadata object with its entity tag.
+   * <p>
+   * The serialized form of a frozen metadata object is created on first use and is then kept, so that unchanged
+   * metadata can be published repeatedly without serializing it again. A mutable metadata object is serialized on
+   * every call. Publish a {@link #snapshot()} to get the serialized form from a cache.
+   * </p>
+   *
+   * @return serialized metadata
+   * @throws JsonProcessingException error serializing this metadata object
+   */
+  @JsonIgnore
+  public SerializedMetadata getSerializedMetadata() throws JsonProcessingException {
+    if (!this.frozen) {
+      return SerializedMetadata.of(this.toUtf8Bytes());
+    }
+    SerializedMetadata serialized = this.serializedMetadata;
+    if (serialized == null) {
+      serialized = SerializedMetadata.of(this.toUtf8Bytes());
+      this.serializedMetadata = serialized;
+    }
+    return serialized;
+  }
+
+  /**
+   * Converts this metadata object to canonical UTF-8 encoded JSON as defined by the JSON Canonicalization Scheme (RFC
+   * 8785). Equal metadata always gives the same bytes, regardless of the order in which parameters were parsed or set.
+   *
+   * @return canonical UTF-8 encoded JSON representing this metadata object
+   * @throws JsonProcessingException error processing metadata to JSON
+   * @see CanonicalJson
+   */
+  public byte[] toCanonicalUtf8Bytes() throws JsonProcessingException {
+    return CanonicalJson.toUtf8Bytes(this::writeTo);
+  }
+
+  /**
+   * Calculates the digest of the canonical JSON form of this metadata object, as given by
+   * {@link #toCanonicalUtf8Bytes()}, without creating the complete canonical JSON.
+   *
+   * @param digest the message digest to use, which is reset after the digest is calculated
+   * @return digest value
+   * @throws JsonProcessingException error processing metadata to JSON
+   */
+  public byte[] digest(final MessageDigest digest) throws JsonProcessingException {
+    return CanonicalJson.digest(this::writeTo, digest);
+  }
+
+  /**
+   * Compares this metadata object with another object. A frozen metadata object is equal to a frozen metadata object of
+   * the same class with equal property values. A mutable metadata object is only equal to itself.
+   *
+   * @param o object to compare with
+   * @return true if the other object is this object, or if both objects are frozen metadata objects of the same class
+   *     with equal property values
+   */
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!this.frozen || o == null || o.getClass() != this.getClass()) {
+      return false;
+    }
+    final AbstractOidcFedMetadata that = (AbstractOidcFedMetadata) o;
+    if (!that.frozen || this.hashCode() != that.hashCode()) {
+      return false;
+    }
+    return MetadataFields.forClass(this.getClass()).equals(this, that);
+  }
+
+  /**
+   * Get the hash code of this metadata object. The hash code of a frozen object is calculated once from its property
+   * values. A mutable object has an identity hash code, so an object that is frozen in place with {@link #freeze()}
+   * changes its hash code and must be frozen before it is added to a hash based collection.
+   *
+   * @return hash code
+   */
+  @Override
+  public int hashCode() {
+    if (!this.frozen) {
+      return System.identityHashCode(this);
+    }
+    int hash = this.frozenHashCode;
+    if (hash == 0) {
+      hash = MetadataFields.forClass(this.getClass()).hashCode(this);
+      this.frozenHashCode = hash;
+    }
+    return hash;
   }
 
   /**
@@ -142,6 +405,67 @@ public abstract class AbstractOidcFedMetadata implements LanguageTaggedJson {
    */
   abstract public Map<String, Object> toJsonObject() throws JsonProcessingException;
 
+  /**
+   * Converts this metadata object to compact UTF-8 encoded JSON without creating an intermediate string. The default
+   * implementation writes the JSON object of {@link #toJsonObject()}, and metadata classes with a serializer override
+   * it to write this object directly.
+   *
+   * @return UTF-8 encoded JSON representing this metadata object
+   * @throws JsonProcessingException error processing metadata to JSON
+   */
+  public byte[] toUtf8Bytes() throws JsonProcessingException {
+    return MetadataUtils.OBJECT_MAPPER.writeValueAsBytes(this.toJsonObject());
+  }
+
+  /**
+   * Writes this metadata object as compact UTF-8 encoded JSON to an output stream. The output stream is flushed but
+   * not closed. The default implementation writes the JSON object of {@link #toJsonObject()}.
+   *
+   * @param outputStream the output stream to write to
+   * @throws IOException error processing metadata to JSON or writing to the output stream
+   */
+  public void writeTo(final OutputStream outputStream) throws IOException {
+    MetadataUtils.OBJECT_MAPPER.writer()
+        .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+        .writeValue(outputStream, this.toJsonObject());
+  }
+
+  /**
+   * Writes this metadata object as the next JSON value of a JSON generator. The generator is not closed. The default
+   * implementation writes the JSON object of {@link #toJsonObject()}.
+   *
+   * @param generator the JSON generator to write to
+   * @throws IOException error processing metadata to JSON or writing to the generator
+   */
+  public void writeTo(final JsonGenerator generator) throws IOException {
+    MetadataUtils.OBJECT_MAPPER.writeValue(generator, this.toJsonObject());
+  }
+
+  /**
+   * Immutable parse result of a jwks value, with keys indexed by key ID.
+   */
+  private static final class ParsedJwkSet {
+
+    /** The jwks value that was parsed */
+    private final Map<String, Object> source;
+    /** The parsed JWK set */
+    private final JWKSet jwkSet;
+    /** Keys indexed by key ID */
+    private final Map<String, JWK> keysByKid;
+
+    private ParsedJwkSet(final Map<String, Object> source, final JWKSet jwkSet) {
+      this.source = source;
+      this.jwkSet = jwkSet;
+      final Map<String, JWK> keys = new HashMap<>();
+      for (final JWK key : jwkSet.getKeys()) {
+        if (key.getKeyID() != null) {
+          keys.putIfAbsent(key.getKeyID(), key);
+        }
+      }
+      this.keysByKid = Collections.unmodifiableMap(keys);
+    }
+  }
+
   /**
    * Builder for this metadata object
    *
@@ -8,11 +8,13 @@ package se.oidc.oidfed.md.entities;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import lombok.Getter;
-import lombok.Setter;
 import se.oidc.oidfed.md.lang.OidcLangJsonSerializer;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -32,19 +34,31 @@ public class AuthorizationServerMetadata extends BasicASMetadata {
    */
   @JsonProperty("revocation_endpoint")
   @Getter
-  @Setter
   private String revocationEndpoint;
 
+  public void setRevocationEndpoint(final String revocationEndpoint) {
+    this.checkModifiable();
+    this.revocationEndpoint = revocationEndpoint;
+  }
+
   @JsonProperty("revocation_endpoint_auth_methods_supported")
   @Getter
-  @Setter
   private List<String> revocationEndpointAuthMethodsSupported;
 
+  public void setRevocationEndpointAuthMethodsSupported(final List<String> revocationEndpointAuthMethodsSupported) {
+    this.checkModifiable();
+    this.revocationEndpointAuthMethodsSupported = revocationEndpointAuthMethodsSupported;
+  }
+
   @JsonProperty("revocation_endpoint_auth_signing_alg_values_supported")
   @Getter
-  @Setter
   private List<String> revocationEndpointAuthSigningAlgValuesSupported;
 
+  public void setRevocationEndpointAuthSigningAlgValuesSupported(final List<String> revocationEndpointAuthSigningAlgValuesSupported) {
+    this.checkModifiable();
+    this.revocationEndpointAuthSigningAlgValuesSupported = revocationEndpointAuthSigningAlgValuesSupported;
+  }
+
   /**
    * Constructor
    */
@@ -55,7 +69,7 @@ public class AuthorizationServerMetadata extends BasicASMetadata {
   /** {@inheritDoc} */
   @Override
   public String toJson(final boolean prettyPrinting) throws JsonProcessingException {
-    return jsonSerializer.setPrettyPrinting(prettyPrinting).toJson(this);
+    return jsonSerializer.toJson(this, prettyPrinting);
   }
 
   /** {@inheritDoc} */
@@ -64,6 +78,36 @@ public class AuthorizationServerMetadata extends BasicASMetadata {
     return jsonSerializer.toJsonObject(this);
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public byte[] toUtf8Bytes() throws JsonProcessingException {
+    return jsonSerializer.toUtf8Bytes(this, false);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void writeTo(final OutputStream outputStream) throws IOException {
+    jsonSerializer.writeTo(this, outputStream, false);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void writeTo(final JsonGenerator generator) throws IOException {
+    jsonSerializer.writeTo(this, generator);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public AuthorizationServerMetadata freeze() {
+    return (AuthorizationServerMetadata) super.freeze();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public AuthorizationServerMetadata snapshot() {
+    return (AuthorizationServerMetadata) super.snapshot();
+  }
+
   /**
    * Creates builder class
    *
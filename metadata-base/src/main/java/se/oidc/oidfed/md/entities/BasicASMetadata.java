@@ -8,7 +8,6 @@ package se.oidc.oidfed.md.entities;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Getter;
-import lombok.Setter;
 
 import java.util.List;
 
@@ -24,94 +23,166 @@ public abstract class BasicASMetadata extends AbstractOidcFedMetadata {
 
   @JsonProperty("issuer")
   @Getter
-  @Setter
   protected String issuer;
 
+  public void setIssuer(final String issuer) {
+    this.checkModifiable();
+    this.issuer = issuer;
+  }
+
   @JsonProperty("authorization_endpoint")
   @Getter
-  @Setter
   protected String authorizationEndpoint;
 
+  public void setAuthorizationEndpoint(final String authorizationEndpoint) {
+    this.checkModifiable();
+    this.authorizationEndpoint = authorizationEndpoint;
+  }
+
   @JsonProperty("token_endpoint")
   @Getter
-  @Setter
   protected String tokenEndpoint;
 
+  public void setTokenEndpoint(final String tokenEndpoint) {
+    this.checkModifiable();
+    this.tokenEndpoint = tokenEndpoint;
+  }
+
   @JsonProperty("registration_endpoint")
   @Getter
-  @Setter
   protected String registrationEndpoint;
 
+  public void setRegistrationEndpoint(final String registrationEndpoint) {
+    this.checkModifiable();
+    this.registrationEndpoint = registrationEndpoint;
+  }
+
   @JsonProperty("scopes_supported")
   @Getter
-  @Setter
   protected List<String> scopesSupported;
 
+  public void setScopesSupported(final List<String> scopesSupported) {
+    this.checkModifiable();
+    this.scopesSupported = scopesSupported;
+  }
+
   @JsonProperty("response_types_supported")
   @Getter
-  @Setter
   protected List<String> responseTypesSupported;
 
+  public void setResponseTypesSupported(final List<String> responseTypesSupported) {
+    this.checkModifiable();
+    this.responseTypesSupported = responseTypesSupported;
+  }
+
   @JsonProperty("response_modes_supported")
   @Getter
-  @Setter
   protected List<String> responseModesSupported;
 
+  public void setResponseModesSupported(final List<String> responseModesSupported) {
+    this.checkModifiable();
+    this.responseModesSupported = responseModesSupported;
+  }
+
   @JsonProperty("grant_types_supported")
   @Getter
-  @Setter
   protected List<String> grantTypesSupported;
 
+  public void setGrantTypesSupported(final List<String> grantTypesSupported) {
+    this.checkModifiable();
+    this.grantTypesSupported = grantTypesSupported;
+  }
+
   @JsonProperty("token_endpoint_auth_methods_supported")
   @Getter
-  @Setter
   protected List<String> tokenEndpointAuthMethodsSupported;
 
+  public void setTokenEndpointAuthMethodsSupported(final List<String> tokenEndpointAuthMethodsSupported) {
+    this.checkModifiable();
+    this.tokenEndpointAuthMethodsSupported = tokenEndpointAuthMethodsSupported;
+  }
+
   @JsonProperty("token_endpoint_auth_signing_alg_values_supported")
   @Getter
-  @Setter
   protected List<String> tokenEndpointAuthSigningAlgValuesSupported;
 
+  public void setTokenEndpointAuthSigningAlgValuesSupported(final List<String> tokenEndpointAuthSigningAlgValuesSupported) {
+    this.checkModifiable();
+    this.tokenEndpointAuthSigningAlgValuesSupported = tokenEndpointAuthSigningAlgValuesSupported;
+  }
+
   @JsonProperty("service_documentation")
   @Getter
-  @Setter
   protected String serviceDocumentation;
 
+  public void setServiceDocumentation(final String serviceDocumentation) {
+    this.checkModifiable();
+    this.serviceDocumentation = serviceDocumentation;
+  }
+
   @JsonProperty("ui_locales_supported")
   @Getter
-  @Setter
   protected List<String> uiLocalesSupported;
 
+  public void setUiLocalesSupported(final List<String> uiLocalesSupported) {
+    this.checkModifiable();
+    this.uiLocalesSupported = uiLocalesSupported;
+  }
+
   @JsonProperty("op_policy_uri")
   @Getter
-  @Setter
   protected String opPolicyUri;
 
+  public void setOpPolicyUri(final String opPolicyUri) {
+    this.checkModifiable();
+    this.opPolicyUri = opPolicyUri;
+  }
+
   @JsonProperty("op_tos_uri")
   @Getter
-  @Setter
   protected String opTosUri;
 
+  public void setOpTosUri(final String opTosUri) {
+    this.checkModifiable();
+    this.opTosUri = opTosUri;
+  }
+
   @JsonProperty("introspection_endpoint")
   @Getter
-  @Setter
   protected String introspectionEndpoint;
 
+  public void setIntrospectionEndpoint(final String introspectionEndpoint) {
+    this.checkModifiable();
+    this.introspectionEndpoint = introspectionEndpoint;
+  }
+
   @JsonProperty("introspection_endpoint_auth_methods_supported")
   @Getter
-  @Setter
   protected List<String> introspectionEndpointAuthMethodsSupported;
 
+  public void setIntrospectionEndpointAuthMethodsSupported(final List<String> introspectionEndpointAuthMethodsSupported) {
+    this.checkModifiable();
+    this.introspectionEndpointAuthMethodsSupported = introspectionEndpointAuthMethodsSupported;
+  }
+
   @JsonProperty("introspection_endpoint_auth_signing_alg_values_supported")
   @Getter
-  @Setter
   protected List<String> introspectionEndpointAuthSigningAlgValuesSupported;
 
+  public void setIntrospectionEndpointAuthSigningAlgValuesSupported(final List<String> introspectionEndpointAuthSigningAlgValuesSupported) {
+    this.checkModifiable();
+    this.introspectionEndpointAuthSigningAlgValuesSupported = introspectionEndpointAuthSigningAlgValuesSupported;
+  }
+
   @JsonProperty("code_challenge_methods_supported")
   @Getter
-  @Setter
   protected List<String> codeChallengeMethodsSupported;
 
+  public void setCodeChallengeMethodsSupported(final List<String> codeChallengeMethodsSupported) {
+    this.checkModifiable();
+    this.codeChallengeMethodsSupported = codeChallengeMethodsSupported;
+  }
+
   public static abstract class BasicASMetadataBuilder<T extends BasicASMetadata, B extends BasicASMetadataBuilder<?, ?>>
       extends AbstractOidcFedMetadataBuilder<T, B> {
 
@@ -8,7 +8,6 @@ package se.oidc.oidfed.md.entities;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Getter;
-import lombok.Setter;
 import se.oidc.oidfed.md.lang.LanguageObject;
 
 import java.util.List;
@@ -26,9 +25,13 @@ public abstract class BasicClientMetadata extends AbstractOidcFedMetadata {
    */
   @JsonProperty("redirect_uris")
   @Getter
-  @Setter
   protected List<String> redirectUris;
 
+  public void setRedirectUris(final List<String> redirectUris) {
+    this.checkModifiable();
+    this.redirectUris = redirectUris;
+  }
+
   /**
    * OPTIONAL. Requested Client Authentication method for the Token Endpoint. The options are client_secret_post,
    * client_secret_basic, client_secret_jwt, private_key_jwt, and none, as described in Section 9 of OpenID Connect Core
@@ -37,9 +40,13 @@ public abstract class BasicClientMetadata extends AbstractOidcFedMetadata {
    */
   @JsonProperty("token_endpoint_auth_method")
   @Getter
-  @Setter
   protected String tokenEndpointAuthMethod;
 
+  public void setTokenEndpointAuthMethod(final String tokenEndpointAuthMethod) {
+    this.checkModifiable();
+    this.tokenEndpointAuthMethod = tokenEndpointAuthMethod;
+  }
+
   /**
    * OPTIONAL. JSON array containing a list of the OAuth 2.0 Grant Types that the Client is declaring that it will
    * restrict itself to using. The Grant Type values used by OpenID Connect are:
@@ -52,27 +59,39 @@ public abstract class BasicClientMetadata extends AbstractOidcFedMetadata {
    */
   @JsonProperty("grant_types")
   @Getter
-  @Setter
   protected List<String> grantTypes;
 
+  public void setGrantTypes(final List<String> grantTypes) {
+    this.checkModifiable();
+    this.grantTypes = grantTypes;
+  }
+
   /**
    * OPTIONAL. JSON array containing a list of the OAuth 2.0 response_type values that the Client is declaring that it
    * will restrict itself to using. If omitted, the default is that the Client will use only the code Response Type.
    */
   @JsonProperty("response_types")
   @Getter
-  @Setter
   protected List<String> responseTypes;
 
+  public void setResponseTypes(final List<String> responseTypes) {
+    this.checkModifiable();
+    this.responseTypes = responseTypes;
+  }
+
   /**
    * OPTIONAL. Name of the Client to be presented to the End-User. If desired, representation of this Claim in different
    * languages and scripts is represented as described in Section 2.1.
    */
   @JsonProperty("client_name")
   @Getter
-  @Setter
   protected LanguageObject<String> clientName;
 
+  public void setClientName(final LanguageObject<String> clientName) {
+    this.checkModifiable();
+    this.clientName = clientName;
+  }
+
   /**
    * OPTIONAL. URL of the home page of the Client. The value of this field MUST point to a valid Web page. If present,
    * the server SHOULD display this URL to the End-User in a followable fashion. If desired, representation of this
@@ -80,9 +99,13 @@ public abstract class BasicClientMetadata extends AbstractOidcFedMetadata {
    */
   @JsonProperty("client_uri")
   @Getter
-  @Setter
   protected String clientUri;
 
+  public void setClientUri(final String clientUri) {
+    this.checkModifiable();
+    this.clientUri = clientUri;
+  }
+
   /**
    * OPTIONAL. URL that the Relying Party Client provides to the End-User to read about the Relying Party's terms of
    * service. The value of this field MUST point to a valid web page. The OpenID Provider SHOULD display this URL to the
@@ -91,9 +114,13 @@ public abstract class BasicClientMetadata extends AbstractOidcFedMetadata {
    */
   @JsonProperty("tos_uri")
   @Getter
-  @Setter
   protected LanguageObject<String> tosUri;
 
+  public void setTosUri(final LanguageObject<String> tosUri) {
+    this.checkModifiable();
+    this.tosUri = tosUri;
+  }
+
   /**
    * Constructor
    */
@@ -7,11 +7,13 @@ package se.oidc.oidfed.md.entities;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import lombok.Getter;
-import lombok.Setter;
 import se.oidc.oidfed.md.lang.OidcLangJsonSerializer;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -32,26 +34,38 @@ public class ClientMetadata extends BasicClientMetadata {
    */
   @JsonProperty("scope")
   @Getter
-  @Setter
   protected String scope;
 
+  public void setScope(final String scope) {
+    this.checkModifiable();
+    this.scope = scope;
+  }
+
   /**
    * A unique identifier string (e.g., a Universally Unique Identifier (UUID)) assigned by the client developer or
    * software publisher used by registration endpoints to identify the client software to be dynamically registered.
    */
   @JsonProperty("software_id")
   @Getter
-  @Setter
   protected String softwareId;
 
+  public void setSoftwareId(final String softwareId) {
+    this.checkModifiable();
+    this.softwareId = softwareId;
+  }
+
   /**
    * A version identifier string for the client software identified by "software_id".
    */
   @JsonProperty("software_version")
   @Getter
-  @Setter
   protected String softwareVersion;
 
+  public void setSoftwareVersion(final String softwareVersion) {
+    this.checkModifiable();
+    this.softwareVersion = softwareVersion;
+  }
+
   /**
    * Constructor
    */
@@ -62,7 +76,7 @@ public class ClientMetadata extends BasicClientMetadata {
   /** {@inheritDoc} */
   @Override
   public String toJson(final boolean prettyPrinting) throws JsonProcessingException {
-    return jsonSerializer.setPrettyPrinting(prettyPrinting).toJson(this);
+    return jsonSerializer.toJson(this, prettyPrinting);
   }
 
   /** {@inheritDoc} */
@@ -71,6 +85,36 @@ public class ClientMetadata extends BasicClientMetadata {
     return jsonSerializer.toJsonObject(this);
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public byte[] toUtf8Bytes() throws JsonProcessingException {
+    return jsonSerializer.toUtf8Bytes(this, false);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void writeTo(final OutputStream outputStream) throws IOException {
+    jsonSerializer.writeTo(this, outputStream, false);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void writeTo(final JsonGenerator generator) throws IOException {
+    jsonSerializer.writeTo(this, generator);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public ClientMetadata freeze() {
+    return (ClientMetadata) super.freeze();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public ClientMetadata snapshot() {
+    return (ClientMetadata) super.snapshot();
+  }
+
   /**
    * Create builder for this metadata object
    *
@@ -0,0 +1,253 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.entities;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import se.oidc.oidfed.md.MetadataUtils;
+import se.oidc.oidfed.md.lang.LanguageTaggedJson;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+/**
+ * Parser of the "metadata" claim of an OpenID Federation entity statement. The metadata claim is a JSON object where
+ * each member name is an entity type identifier and each member value is the metadata of that entity type.
+ * <p>
+ * The metadata claim is streamed once, and the metadata of each entity type is bound directly to the metadata class
+ * registered for the entity type. Metadata of entity types that are not registered is kept as
+ * {@link ExtendedMetadata} with {@link ResourceServerMetadata} as base metadata, as it holds the parameters common to
+ * all entity types, and all other parameters as extended parameters.
+ * </p>
+ * <p>
+ * Instances of this class are immutable and safe to share between threads.
+ * </p>
+ */
+public class EntityMetadataParser {
+
+  /** Registered entity types, keyed by entity type identifier */
+  private final Map<String, EntityMetadataType<?>> entityTypes;
+
+  /**
+   * Constructor
+   *
+   * @param builder builder holding the registered entity types
+   */
+  private EntityMetadataParser(final EntityMetadataParserBuilder builder) {
+    this.entityTypes = Collections.unmodifiableMap(new LinkedHashMap<>(builder.entityTypes));
+  }
+
+  /**
+   * Get the default parser. The default parser supports the entity types defined in this module and the entity types
+   * of all {@link EntityMetadataTypeProvider} implementations registered with {@link ServiceLoader}.
+   *
+   * @return default parser
+   */
+  public static EntityMetadataParser getDefault() {
+    return DefaultParser.INSTANCE;
+  }
+
+  /**
+   * Create a builder for a parser. The builder is initiated with the entity types defined in this module.
+   *
+   * @return builder
+   */
+  public static EntityMetadataParserBuilder builder() {
+    return new EntityMetadataParserBuilder();
+  }
+
+  /**
+   * Get the identifiers of the entity types supported by this parser.
+   *
+   * @return entity type identifiers
+   */
+  public Set<String> getEntityTypes() {
+    return this.entityTypes.keySet();
+  }
+
+  /**
+   * Parse a metadata claim from a JSON string.
+   *
+   * @param metadataJson JSON of the metadata claim
+   * @return entity metadata set
+   * @throws JsonProcessingException error parsing JSON data
+   */
+  public EntityMetadataSet parse(final String metadataJson) throws JsonProcessingException {
+    try (final JsonParser parser = MetadataUtils.OBJECT_MAPPER.createParser(metadataJson)) {
+      return this.parse(parser);
+    }
+    catch (final JsonProcessingException e) {
+      throw e;
+    }
+    catch (final IOException e) {
+      throw JsonMappingException.fromUnexpectedIOE(e);
+    }
+  }
+
+  /**
+   * Parse a metadata claim from UTF-8 encoded JSON.
+   *
+   * @param metadataJson UTF-8 encoded JSON of the metadata claim
+   * @return entity metadata set
+   * @throws JsonProcessingException error parsing JSON data
+   */
+  public EntityMetadataSet parse(final byte[] metadataJson) throws JsonProcessingException {
+    try (final JsonParser parser = MetadataUtils.OBJECT_MAPPER.createParser(metadataJson)) {
+      return this.parse(parser);
+    }
+    catch (final JsonProcessingException e) {
+      throw e;
+    }
+    catch (final IOException e) {
+      throw JsonMappingException.fromUnexpectedIOE(e);
+    }
+  }
+
+  /**
+   * Parse a metadata claim from an input stream providing UTF-8 encoded JSON. The input stream is not closed.
+   *
+   * @param metadataJson input stream providing the JSON of the metadata claim
+   * @return entity metadata set
+   * @throws IOException error reading or parsing JSON data
+   */
+  public EntityMetadataSet parse(final InputStream metadataJson) throws IOException {
+    try (final JsonParser parser = MetadataUtils.OBJECT_MAPPER.createParser(metadataJson)) {
+      parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+      return this.parse(parser);
+    }
+  }
+
+  /**
+   * Parse the next JSON object from a JSON parser as a metadata claim. The parser must either be positioned before the
+   * JSON object or at its start token. When this method returns, the parser is positioned at the end token of the
+   * parsed JSON object. This allows the metadata claim to be parsed while streaming a complete entity statement.
+   *
+   * @param parser JSON parser providing the metadata claim
+   * @return entity metadata set
+   * @throws IOException error reading or parsing JSON data
+   */
+  public EntityMetadataSet parse(final JsonParser parser) throws IOException {
+    JsonToken token = parser.hasCurrentToken() ? parser.currentToken() : parser.nextToken();
+    if (token != JsonToken.START_OBJECT) {
+      throw MismatchedInputException.from(parser, EntityMetadataSet.class,
+          "Metadata claim must be a JSON object, found " + token);
+    }
+    final Map<String, Object> metadata = new LinkedHashMap<>();
+    while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+      final String entityType = parser.currentName();
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw MismatchedInputException.from(parser, EntityMetadataSet.class,
+            "Metadata of entity type " + entityType + " must be a JSON object, found " + parser.currentToken());
+      }
+      final EntityMetadataType<?> type = this.entityTypes.get(entityType);
+      metadata.put(entityType, type != null
+          ? type.getSerializer().parse(parser)
+          : new ExtendedMetadata<>(MetadataUtils.OBJECT_MAPPER.readValue(parser, new TypeReference<>() {
+          }), ResourceServerMetadata.getJsonSerializer()));
+    }
+    return new EntityMetadataSet(metadata);
+  }
+
+  /**
+   * Parse a metadata claim from a JSON object, such as the "metadata" claim of a parsed JWT claims set.
+   *
+   * @param metadataJsonObject JSON object of the metadata claim
+   * @return entity metadata set
+   * @throws JsonProcessingException error parsing JSON data
+   */
+  @SuppressWarnings("unchecked")
+  public EntityMetadataSet parse(final Map<String, Object> metadataJsonObject) throws JsonProcessingException {
+    Objects.requireNonNull(metadataJsonObject, "Null metadata claim is not allowed");
+    final Map<String, Object> metadata = new LinkedHashMap<>();
+    for (final Map.Entry<String, Object> entry : metadataJsonObject.entrySet()) {
+      if (!(entry.getValue() instanceof Map)) {
+        throw new IllegalArgumentException("Metadata of entity type " + entry.getKey() + " must be a JSON object");
+      }
+      final Map<String, Object> entityMetadata = (Map<String, Object>) entry.getValue();
+      final EntityMetadataType<?> type = this.entityTypes.get(entry.getKey());
+      metadata.put(entry.getKey(), type != null
+          ? type.getSerializer().parse(entityMetadata)
+          : new ExtendedMetadata<>(entityMetadata, ResourceServerMetadata.getJsonSerializer()));
+    }
+    return new EntityMetadataSet(metadata);
+  }
+
+  /**
+   * Default parser, created on first use.
+   */
+  private static final class DefaultParser {
+
+    /** Parser with the entity types of this module and all service loader providers */
+    private static final EntityMetadataParser INSTANCE = builder()
+        .loadProviders(EntityMetadataParser.class.getClassLoader())
+        .build();
+  }
+
+  /**
+   * Builder for {@link EntityMetadataParser}.
+   */
+  public static class EntityMetadataParserBuilder {
+
+    private final Map<String, EntityMetadataType<?>> entityTypes = new LinkedHashMap<>();
+
+    private EntityMetadataParserBuilder() {
+      this.entityType(EntityMetadataType.of(EntityMetadataType.OPENID_PROVIDER, OpMetadata.getJsonSerializer()));
+      this.entityType(EntityMetadataType.of(EntityMetadataType.OPENID_RELYING_PARTY,
+          RelyingPartyMetadata.getJsonSerializer()));
+      this.entityType(EntityMetadataType.of(EntityMetadataType.OAUTH_AUTHORIZATION_SERVER,
+          AuthorizationServerMetadata.getJsonSerializer()));
+      this.entityType(EntityMetadataType.of(EntityMetadataType.OAUTH_CLIENT, ClientMetadata.getJsonSerializer()));
+      this.entityType(EntityMetadataType.of(EntityMetadataType.OAUTH_RESOURCE,
+          ResourceServerMetadata.getJsonSerializer()));
+      this.entityType(EntityMetadataType.of(EntityMetadataType.FEDERATION_ENTITY,
+          FederationEntityMetadata.getJsonSerializer()));
+    }
+
+    /**
+     * Register an entity type. A registered entity type with the same identifier is replaced.
+     *
+     * @param entityType entity type
+     * @param <T> metadata class
+     * @return this builder
+     */
+    public <T extends LanguageTaggedJson> EntityMetadataParserBuilder entityType(
+        final EntityMetadataType<T> entityType) {
+      Objects.requireNonNull(entityType, "Null entity type is not allowed");
+      this.entityTypes.put(entityType.getEntityType(), entityType);
+      return this;
+    }
+
+    /**
+     * Register the entity types of all {@link EntityMetadataTypeProvider} implementations found by
+     * {@link ServiceLoader} with a class loader.
+     *
+     * @param classLoader class loader used to locate the providers
+     * @return this builder
+     */
+    public EntityMetadataParserBuilder loadProviders(final ClassLoader classLoader) {
+      for (final EntityMetadataTypeProvider provider
+          : ServiceLoader.load(EntityMetadataTypeProvider.class, classLoader)) {
+        provider.getEntityMetadataTypes().forEach(this::entityType);
+      }
+      return this;
+    }
+
+    public EntityMetadataParser build() {
+      return new EntityMetadataParser(this);
+    }
+  }
+
+}
@@ -0,0 +1,178 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.entities;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The metadata of all entity types of an OpenID Federation "metadata" claim, keyed by entity type identifier in the
+ * order of the claim.
+ * <p>
+ * The metadata of an entity type is an instance of the metadata class registered for the entity type in the
+ * {@link EntityMetadataParser} that parsed the claim, or an {@link ExtendedMetadata} if the entity type is not
+ * registered.
+ * </p>
+ */
+public final class EntityMetadataSet {
+
+  /** Metadata keyed by entity type identifier */
+  private final Map<String, Object> metadata;
+
+  /**
+   * Constructor
+   *
+   * @param metadata metadata keyed by entity type identifier, not copied
+   */
+  EntityMetadataSet(final Map<String, Object> metadata) {
+    this.metadata = Collections.unmodifiableMap(metadata);
+  }
+
+  /**
+   * Parse a metadata claim from a JSON string with the {@link EntityMetadataParser#getDefault() default parser}.
+   *
+   * @param metadataJson JSON of the metadata claim
+   * @return entity metadata set
+   * @throws JsonProcessingException error parsing JSON data
+   */
+  public static EntityMetadataSet parse(final String metadataJson) throws JsonProcessingException {
+    return EntityMetadataParser.getDefault().parse(metadataJson);
+  }
+
+  /**
+   * Parse a metadata claim from UTF-8 encoded JSON with the {@link EntityMetadataParser#getDefault() default parser}.
+   *
+   * @param metadataJson UTF-8 encoded JSON of the metadata claim
+   * @return entity metadata set
+   * @throws JsonProcessingException error parsing JSON data
+   */
+  public static EntityMetadataSet parse(final byte[] metadataJson) throws JsonProcessingException {
+    return EntityMetadataParser.getDefault().parse(metadataJson);
+  }
+
+  /**
+   * Get the identifiers of the entity types of this metadata set.
+   *
+   * @return entity type identifiers in the order of the metadata claim
+   */
+  public Set<String> getEntityTypes() {
+    return this.metadata.keySet();
+  }
+
+  /**
+   * Tests if this metadata set holds metadata of an entity type.
+   *
+   * @param entityType entity type identifier
+   * @return true if metadata of the entity type is present
+   */
+  public boolean contains(final String entityType) {
+    return this.metadata.containsKey(entityType);
+  }
+
+  /**
+   * Get the metadata of an entity type.
+   *
+   * @param entityType entity type identifier
+   * @return metadata object, or null if no metadata of the entity type is present
+   */
+  public Object get(final String entityType) {
+    return this.metadata.get(entityType);
+  }
+
+  /**
+   * Get the metadata of an entity type as an instance of a metadata class.
+   *
+   * @param entityType entity type identifier
+   * @param metadataClass expected metadata class
+   * @param <T> metadata class
+   * @return metadata object, or null if no metadata of the entity type is present or if it is not an instance of the
+   *     metadata class
+   */
+  public <T> T get(final String entityType, final Class<T> metadataClass) {
+    Objects.requireNonNull(metadataClass, "Null metadata class is not allowed");
+    final Object entityMetadata = this.metadata.get(entityType);
+    return metadataClass.isInstance(entityMetadata) ? metadataClass.cast(entityMetadata) : null;
+  }
+
+  /**
+   * Get the metadata of an entity type that was not registered with the parser.
+   *
+   * @param entityType entity type identifier
+   * @return extended metadata, or null if no unregistered metadata of the entity type is present
+   */
+  @SuppressWarnings("unchecked")
+  public ExtendedMetadata<ResourceServerMetadata> getExtendedMetadata(final String entityType) {
+    return this.get(entityType, ExtendedMetadata.class);
+  }
+
+  /**
+   * Get the OpenID provider metadata.
+   *
+   * @return OpenID provider metadata or null if not present
+   */
+  public OpMetadata getOpMetadata() {
+    return this.get(EntityMetadataType.OPENID_PROVIDER, OpMetadata.class);
+  }
+
+  /**
+   * Get the OpenID relying party metadata.
+   *
+   * @return OpenID relying party metadata or null if not present
+   */
+  public RelyingPartyMetadata getRelyingPartyMetadata() {
+    return this.get(EntityMetadataType.OPENID_RELYING_PARTY, RelyingPartyMetadata.class);
+  }
+
+  /**
+   * Get the OAuth authorization server metadata.
+   *
+   * @return OAuth authorization server metadata or null if not present
+   */
+  public AuthorizationServerMetadata getAuthorizationServerMetadata() {
+    return this.get(EntityMetadataType.OAUTH_AUTHORIZATION_SERVER, AuthorizationServerMetadata.class);
+  }
+
+  /**
+   * Get the OAuth client metadata.
+   *
+   * @return OAuth client metadata or null if not present
+   */
+  public ClientMetadata getClientMetadata() {
+    return this.get(EntityMetadataType.OAUTH_CLIENT, ClientMetadata.class);
+  }
+
+  /**
+   * Get the OAuth protected resource metadata.
+   *
+   * @return OAuth protected resource metadata or null if not present
+   */
+  public ResourceServerMetadata getResourceServerMetadata() {
+    return this.get(EntityMetadataType.OAUTH_RESOURCE, ResourceServerMetadata.class);
+  }
+
+  /**
+   * Get the federation entity metadata.
+   *
+   * @return federation entity metadata or null if not present
+   */
+  public FederationEntityMetadata getFederationEntityMetadata() {
+    return this.get(EntityMetadataType.FEDERATION_ENTITY, FederationEntityMetadata.class);
+  }
+
+  /**
+   * Get all metadata keyed by entity type identifier.
+   *
+   * @return unmodifiable map of metadata objects in the order of the metadata claim
+   */
+  public Map<String, Object> toMap() {
+    return this.metadata;
+  }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.entities;
+
+import lombok.Getter;
+import se.oidc.oidfed.md.lang.LanguageTaggedJson;
+import se.oidc.oidfed.md.lang.OidcLangJsonSerializer;
+
+import java.util.Objects;
+
+/**
+ * An entity type identifier of the OpenID Federation "metadata" claim, together with the serializer of the metadata
+ * class of that entity type.
+ *
+ * @param <T> metadata class
+ */
+public final class EntityMetadataType<T extends LanguageTaggedJson> {
+
+  /** Entity type identifier of OpenID providers */
+  public static final String OPENID_PROVIDER = "openid_provider";
+
+  /** Entity type identifier of OpenID relying parties */
+  public static final String OPENID_RELYING_PARTY = "openid_relying_party";
+
+  /** Entity type identifier of OAuth authorization servers */
+  public static final String OAUTH_AUTHORIZATION_SERVER = "oauth_authorization_server";
+
+  /** Entity type identifier of OAuth clients */
+  public static final String OAUTH_CLIENT = "oauth_client";
+
+  /** Entity type identifier of OAuth protected resources */
+  public static final String OAUTH_RESOURCE = "oauth_resource";
+
+  /** Entity type identifier of federation entities */
+  public static final String FEDERATION_ENTITY = "federation_entity";
+
+  /** Entity type identifier */
+  @Getter
+  private final String entityType;
+
+  /** Serializer of the metadata class of the entity type */
+  @Getter
+  private final OidcLangJsonSerializer<T> serializer;
+
+  /**
+   * Constructor
+   *
+   * @param entityType entity type identifier
+   * @param serializer serializer of the metadata class
+   */
+  private EntityMetadataType(final String entityType, final OidcLangJsonSerializer<T> serializer) {
+    this.entityType = Objects.requireNonNull(entityType, "Null entity type is not allowed");
+    this.serializer = Objects.requireNonNull(serializer, "Null serializer is not allowed");
+  }
+
+  /**
+   * Create an entity metadata type.
+   *
+   * @param entityType entity type identifier
+   * @param serializer serializer of the metadata class of the entity type
+   * @param <T> metadata class
+   * @return entity metadata type
+   */
+  public static <T extends LanguageTaggedJson> EntityMetadataType<T> of(final String entityType,
+      final OidcLangJsonSerializer<T> serializer) {
+    return new EntityMetadataType<>(entityType, serializer);
+  }
+
+}
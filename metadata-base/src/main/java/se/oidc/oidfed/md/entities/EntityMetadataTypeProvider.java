@@ -0,0 +1,24 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.entities;
+
+import java.util.List;
+
+/**
+ * Service provider interface for entity types that are defined outside of this module. Implementations are loaded
+ * with {@link java.util.ServiceLoader} by {@link EntityMetadataParser#getDefault()}, and are registered in a
+ * {@code META-INF/services/se.oidc.oidfed.md.entities.EntityMetadataTypeProvider} file.
+ */
+public interface EntityMetadataTypeProvider {
+
+  /**
+   * Get the entity types of this provider.
+   *
+   * @return entity metadata types
+   */
+  List<EntityMetadataType<?>> getEntityMetadataTypes();
+
+}
@@ -5,12 +5,24 @@
  */
 package se.oidc.oidfed.md.entities;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import lombok.Getter;
 import lombok.Setter;
+import se.oidc.oidfed.md.CanonicalJson;
 import se.oidc.oidfed.md.MetadataUtils;
 import se.oidc.oidfed.md.lang.OidcLangJsonSerializer;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -22,6 +34,10 @@ import java.util.Optional;
  */
 public class ExtendedMetadata<T extends AbstractOidcFedMetadata> {
 
+  /** Writer for extended parameter values, which leaves flushing to the caller */
+  private static final ObjectWriter parameterWriter =
+      MetadataUtils.OBJECT_MAPPER.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
   private ExtendedMetadata() {
   }
 
@@ -73,6 +89,101 @@ public class ExtendedMetadata<T extends AbstractOidcFedMetadata> {
         : this.mergeMetadata(baseMetadataObject);
   }
 
+  /**
+   * Converts the extended metadata to compact UTF-8 encoded JSON
+   *
+   * @return UTF-8 encoded JSON
+   * @throws JsonProcessingException error processing JSON data
+   */
+  public byte[] toUtf8Bytes() throws JsonProcessingException {
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    try {
+      this.writeTo(outputStream);
+    }
+    catch (final JsonProcessingException e) {
+      throw e;
+    }
+    catch (final IOException e) {
+      throw JsonMappingException.fromUnexpectedIOE(e);
+    }
+    return outputStream.toByteArray();
+  }
+
+  /**
+   * Writes the extended metadata as compact UTF-8 encoded JSON to an output stream. The output stream is flushed but
+   * not closed.
+   *
+   * @param outputStream the output stream to write to
+   * @throws IOException error processing JSON data or writing to the output stream
+   */
+  public void writeTo(final OutputStream outputStream) throws IOException {
+    try (final JsonGenerator generator = MetadataUtils.OBJECT_MAPPER.createGenerator(outputStream)) {
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      this.writeTo(generator);
+    }
+  }
+
+  /**
+   * Writes the extended metadata as the next JSON value of a JSON generator. The parameters of the base metadata are
+   * written first, followed by the extended parameters. An extended parameter replaces a base metadata parameter with
+   * the same name, as in {@link #toJsonObject()}. The generator is not closed.
+   *
+   * @param generator the JSON generator to write to
+   * @throws IOException error processing JSON data or writing to the generator
+   */
+  public void writeTo(final JsonGenerator generator) throws IOException {
+    generator.writeStartObject();
+    if (this.baseMetadata != null) {
+      // Base metadata is buffered as tokens to merge its parameters into this JSON object
+      final TokenBuffer buffer = new TokenBuffer(MetadataUtils.OBJECT_MAPPER, false);
+      this.baseMetadata.writeTo(buffer);
+      try (final JsonParser parser = buffer.asParser()) {
+        parser.nextToken();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          final String name = parser.currentName();
+          parser.nextToken();
+          if (this.extendedParameters != null && this.extendedParameters.containsKey(name)) {
+            parser.skipChildren();
+            continue;
+          }
+          generator.writeFieldName(name);
+          generator.copyCurrentStructure(parser);
+        }
+      }
+    }
+    if (this.extendedParameters != null) {
+      for (final Map.Entry<String, Object> parameter : this.extendedParameters.entrySet()) {
+        generator.writeFieldName(parameter.getKey());
+        parameterWriter.writeValue(generator, parameter.getValue());
+      }
+    }
+    generator.writeEndObject();
+  }
+
+  /**
+   * Converts the extended metadata to canonical UTF-8 encoded JSON as defined by the JSON Canonicalization Scheme (RFC
+   * 8785), with the parameters of the base metadata and the extended parameters sorted together.
+   *
+   * @return canonical UTF-8 encoded JSON
+   * @throws JsonProcessingException error processing JSON data
+   * @see CanonicalJson
+   */
+  public byte[] toCanonicalUtf8Bytes() throws JsonProcessingException {
+    return CanonicalJson.toUtf8Bytes(this::writeTo);
+  }
+
+  /**
+   * Calculates the digest of the canonical JSON form of the extended metadata, as given by
+   * {@link #toCanonicalUtf8Bytes()}, without creating the complete canonical JSON.
+   *
+   * @param digest the message digest to use, which is reset after the digest is calculated
+   * @return digest value
+   * @throws JsonProcessingException error processing JSON data
+   */
+  public byte[] digest(final MessageDigest digest) throws JsonProcessingException {
+    return CanonicalJson.digest(this::writeTo, digest);
+  }
+
   private Map<String, Object> mergeMetadata(final Map<String, Object> baseMetadataObject) {
     final Map<String, Object> mergedMetadata = new HashMap<>(baseMetadataObject);
     this.extendedParameters.keySet()
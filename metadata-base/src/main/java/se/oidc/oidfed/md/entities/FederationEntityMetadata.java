@@ -7,11 +7,13 @@ package se.oidc.oidfed.md.entities;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import lombok.Getter;
-import lombok.Setter;
 import se.oidc.oidfed.md.lang.OidcLangJsonSerializer;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -36,9 +38,13 @@ public class FederationEntityMetadata extends AbstractOidcFedMetadata {
    */
   @JsonProperty("federation_fetch_endpoint")
   @Getter
-  @Setter
   private String federationFetchEndpoint;
 
+  public void setFederationFetchEndpoint(final String federationFetchEndpoint) {
+    this.checkModifiable();
+    this.federationFetchEndpoint = federationFetchEndpoint;
+  }
+
   /**
    * OPTIONAL. The list endpoint described in Section 8.2. This URL MUST use the https scheme and MAY contain port,
    * path, and query parameter components; it MUST NOT contain a fragment component. Intermediate Entities and Trust
@@ -46,9 +52,13 @@ public class FederationEntityMetadata extends AbstractOidcFedMetadata {
    */
   @JsonProperty("federation_list_endpoint")
   @Getter
-  @Setter
   private String federationListEndpoint;
 
+  public void setFederationListEndpoint(final String federationListEndpoint) {
+    this.checkModifiable();
+    this.federationListEndpoint = federationListEndpoint;
+  }
+
   /**
    * OPTIONAL. The resolve endpoint described in Section 8.3. This URL MUST use the https scheme and MAY contain port,
    * path, and query parameter components; it MUST NOT contain a fragment component. Any federation Entity MAY publish a
@@ -56,9 +66,13 @@ public class FederationEntityMetadata extends AbstractOidcFedMetadata {
    */
   @JsonProperty("federation_resolve_endpoint")
   @Getter
-  @Setter
   private String federationResolveEndpoint;
 
+  public void setFederationResolveEndpoint(final String federationResolveEndpoint) {
+    this.checkModifiable();
+    this.federationResolveEndpoint = federationResolveEndpoint;
+  }
+
   /**
    * OPTIONAL. The Trust Mark status endpoint described in Section 8.4. Trust Mark Issuers SHOULD publish a
    * federation_trust_mark_status_endpoint. This URL MUST use the https scheme and MAY contain port, path, and query
@@ -66,9 +80,13 @@ public class FederationEntityMetadata extends AbstractOidcFedMetadata {
    */
   @JsonProperty("federation_trust_mark_status_endpoint")
   @Getter
-  @Setter
   private String federationTrustMarkStatusEndpoint;
 
+  public void setFederationTrustMarkStatusEndpoint(final String federationTrustMarkStatusEndpoint) {
+    this.checkModifiable();
+    this.federationTrustMarkStatusEndpoint = federationTrustMarkStatusEndpoint;
+  }
+
   /**
    * OPTIONAL. The endpoint described in Section 8.5. This URL MUST use the https scheme and MAY contain port, path, and
    * query parameter components; it MUST NOT contain a fragment component. Trust Mark Issuers MAY publish a
@@ -76,9 +94,13 @@ public class FederationEntityMetadata extends AbstractOidcFedMetadata {
    */
   @JsonProperty("federation_trust_mark_list_endpoint")
   @Getter
-  @Setter
   private String federationTrustMarkListEndpoint;
 
+  public void setFederationTrustMarkListEndpoint(final String federationTrustMarkListEndpoint) {
+    this.checkModifiable();
+    this.federationTrustMarkListEndpoint = federationTrustMarkListEndpoint;
+  }
+
   /**
    * OPTIONAL. The endpoint described in Section 8.6. This URL MUST use the https scheme and MAY contain port, path, and
    * query parameter components; it MUST NOT contain a fragment component. Trust Mark Issuers MAY publish a
@@ -86,9 +108,13 @@ public class FederationEntityMetadata extends AbstractOidcFedMetadata {
    */
   @JsonProperty("federation_trust_mark_endpoint")
   @Getter
-  @Setter
   private String federationTrustMarkEndpoint;
 
+  public void setFederationTrustMarkEndpoint(final String federationTrustMarkEndpoint) {
+    this.checkModifiable();
+    this.federationTrustMarkEndpoint = federationTrustMarkEndpoint;
+  }
+
   /**
    * OPTIONAL. The endpoint described in Section 8.7. This URL MUST use the https scheme and MAY contain port, path, and
    * query parameter components; it MUST NOT contain a fragment component. All Federation Entities MAY publish a
@@ -96,18 +122,26 @@ public class FederationEntityMetadata extends AbstractOidcFedMetadata {
    */
   @JsonProperty("federation_historical_keys_endpoint")
   @Getter
-  @Setter
   private String federationHistoricalKeysEndpoint;
 
+  public void setFederationHistoricalKeysEndpoint(final String federationHistoricalKeysEndpoint) {
+    this.checkModifiable();
+    this.federationHistoricalKeysEndpoint = federationHistoricalKeysEndpoint;
+  }
+
   /**
    * The `federationDiscoveryEndpoint` field represents the URL endpoint for the discovery of federation metadata. It is
    * used in the context of OIDC federation to locate and retrieve metadata associated with a federation entity.
    */
   @JsonProperty("federation_discovery_endpoint")
   @Getter
-  @Setter
   private String federationDiscoveryEndpoint;
 
+  public void setFederationDiscoveryEndpoint(final String federationDiscoveryEndpoint) {
+    this.checkModifiable();
+    this.federationDiscoveryEndpoint = federationDiscoveryEndpoint;
+  }
+
   /**
    * OPTIONAL. JSON array containing a list of the supported JWS [RFC7515] algorithms (alg values) for signing the JWT
    * [RFC7519] used for private_key_jwt when authenticating to federation endpoints, as described in Section 8.8. No
@@ -120,7 +154,7 @@ public class FederationEntityMetadata extends AbstractOidcFedMetadata {
   /** {@inheritDoc} */
   @Override
   public String toJson(final boolean prettyPrinting) throws JsonProcessingException {
-    return jsonSerializer.setPrettyPrinting(prettyPrinting).toJson(this);
+    return jsonSerializer.toJson(this, prettyPrinting);
   }
 
   /** {@inheritDoc} */
@@ -129,6 +163,36 @@ public class FederationEntityMetadata extends AbstractOidcFedMetadata {
     return jsonSerializer.toJsonObject(this);
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public byte[] toUtf8Bytes() throws JsonProcessingException {
+    return jsonSerializer.toUtf8Bytes(this, false);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void writeTo(final OutputStream outputStream) throws IOException {
+    jsonSerializer.writeTo(this, outputStream, false);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void writeTo(final JsonGenerator generator) throws IOException {
+    jsonSerializer.writeTo(this, generator);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public FederationEntityMetadata freeze() {
+    return (FederationEntityMetadata) super.freeze();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public FederationEntityMetadata snapshot() {
+    return (FederationEntityMetadata) super.snapshot();
+  }
+
   /**
    * Creates builder class for Federation endpoint metadata
    *
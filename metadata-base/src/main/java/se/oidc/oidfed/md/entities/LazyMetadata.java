@@ -0,0 +1,432 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.entities;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import se.oidc.oidfed.md.MetadataUtils;
+import se.oidc.oidfed.md.lang.OidcLangJsonSerializer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * A metadata view backed by the raw JSON bytes or JSON tree of a metadata object, where metadata parameters are bound
+ * on first access.
+ * <p>
+ * Metadata parameters are read with {@link Field} keys, which name a metadata parameter and the getter returning it.
+ * Keys of common parameters are predefined in {@link LazyMetadataFields}, and keys of other parameters are created
+ * with {@link Field#of(String, Function)}, for example:
+ * </p>
+ * <pre>
+ * lazyMetadata.get(LazyMetadataFields.Op.TOKEN_ENDPOINT)
+ *
+ * static final LazyMetadata.Field&lt;OpMetadata, Boolean&gt; CLAIMS_PARAMETER_SUPPORTED =
+ *     LazyMetadata.Field.of("claims_parameter_supported", OpMetadata::getClaimsParameterSupported);
+ * </pre>
+ * <p>
+ * Only the named parameter, including its language tagged values, is bound to a frozen metadata object holding no
+ * other parameters, which is cached for later access. Getters may also be used directly, together with the names of
+ * the parameters they depend on, for example {@code lazyMetadata.get(m -> m.getKey(kid), "jwks")}. A getter used
+ * without parameter names binds all parameters of the metadata, as {@link #bind()}, which costs as much as parsing
+ * the metadata eagerly.
+ * </p>
+ * <p>
+ * The JSON bytes are indexed when the view is created, which also checks that they are well-formed. Binding errors,
+ * such as a parameter value of the wrong type, are reported when the parameter is first accessed.
+ * </p>
+ * <p>
+ * Instances of this class are immutable and safe to share between threads.
+ * </p>
+ *
+ * @param <T> metadata class
+ */
+public final class LazyMetadata<T extends AbstractOidcFedMetadata> {
+
+  /** Serializer of the metadata class */
+  private final OidcLangJsonSerializer<T> serializer;
+
+  /** UTF-8 encoded JSON of the metadata, or null if this view is backed by a JSON tree */
+  private final byte[] json;
+
+  /** JSON tree of the metadata, or null if this view is backed by JSON bytes */
+  private final ObjectNode tree;
+
+  /** JSON fields of the metadata keyed by parameter name, where language tagged fields share their parameter name */
+  private final Map<String, List<JsonField>> fields;
+
+  /** Metadata objects holding only bound parameters, keyed by the bound parameter names */
+  private final Map<String, T> boundParameters = new ConcurrentHashMap<>();
+
+  /** Fully bound metadata, created on first use */
+  private volatile T metadata;
+
+  /**
+   * Constructor
+   *
+   * @param serializer serializer of the metadata class
+   * @param json UTF-8 encoded JSON, or null
+   * @param tree JSON tree, or null
+   * @param fields indexed JSON fields
+   */
+  private LazyMetadata(final OidcLangJsonSerializer<T> serializer, final byte[] json, final ObjectNode tree,
+      final Map<String, List<JsonField>> fields) {
+    this.serializer = Objects.requireNonNull(serializer, "Null serializer is not allowed");
+    this.json = json;
+    this.tree = tree;
+    this.fields = fields;
+  }
+
+  /**
+   * Create a lazy metadata view backed by UTF-8 encoded JSON. The bytes are copied.
+   *
+   * @param json UTF-8 encoded JSON of the metadata
+   * @param serializer serializer of the metadata class
+   * @param <T> metadata class
+   * @return lazy metadata view
+   * @throws JsonProcessingException if the bytes are not a well-formed JSON object
+   */
+  public static <T extends AbstractOidcFedMetadata> LazyMetadata<T> of(final byte[] json,
+      final OidcLangJsonSerializer<T> serializer) throws JsonProcessingException {
+    final byte[] copy = Objects.requireNonNull(json, "Null JSON is not allowed").clone();
+    return new LazyMetadata<>(serializer, copy, null, index(copy));
+  }
+
+  /**
+   * Create a lazy metadata view backed by a JSON string.
+   *
+   * @param json JSON of the metadata
+   * @param serializer serializer of the metadata class
+   * @param <T> metadata class
+   * @return lazy metadata view
+   * @throws JsonProcessingException if the string is not a well-formed JSON object
+   */
+  public static <T extends AbstractOidcFedMetadata> LazyMetadata<T> of(final String json,
+      final OidcLangJsonSerializer<T> serializer) throws JsonProcessingException {
+    final byte[] bytes = Objects.requireNonNull(json, "Null JSON is not allowed").getBytes(StandardCharsets.UTF_8);
+    return new LazyMetadata<>(serializer, bytes, null, index(bytes));
+  }
+
+  /**
+   * Create a lazy metadata view backed by a JSON tree. The tree must not be modified after this view is created.
+   *
+   * @param tree JSON tree of the metadata
+   * @param serializer serializer of the metadata class
+   * @param <T> metadata class
+   * @return lazy metadata view
+   */
+  public static <T extends AbstractOidcFedMetadata> LazyMetadata<T> of(final ObjectNode tree,
+      final OidcLangJsonSerializer<T> serializer) {
+    Objects.requireNonNull(tree, "Null JSON tree is not allowed");
+    final Map<String, List<JsonField>> fields = new LinkedHashMap<>();
+    final Iterator<Map.Entry<String, JsonNode>> iterator = tree.fields();
+    while (iterator.hasNext()) {
+      final Map.Entry<String, JsonNode> entry = iterator.next();
+      fields.computeIfAbsent(parameterName(entry.getKey()), k -> new ArrayList<>(1))
+          .add(new JsonField(entry.getKey(), entry.getValue(), 0, 0));
+    }
+    return new LazyMetadata<>(serializer, null, tree, fields);
+  }
+
+  /**
+   * Get the names of the metadata parameters present in the JSON, where language tagged parameters are included once
+   * without language tag.
+   *
+   * @return parameter names in the order of the JSON
+   */
+  public Set<String> getParameterNames() {
+    return Collections.unmodifiableSet(this.fields.keySet());
+  }
+
+  /**
+   * Get the value of a metadata parameter. Only the parameter of the field is bound.
+   *
+   * @param field the metadata parameter field
+   * @param <V> value type
+   * @return the value returned by the getter of the field
+   * @throws UncheckedIOException if the metadata parameter can not be bound to the metadata class
+   */
+  public <V> V get(final Field<? super T, V> field) {
+    Objects.requireNonNull(field, "Null field is not allowed");
+    return field.getter.apply(this.bind(field.parameterNames));
+  }
+
+  /**
+   * Get a metadata value with a getter of the metadata class, which is applied to the fully bound metadata.
+   * <p>
+   * All parameters of the metadata are bound on the first call, as {@link #bind()}, even if the getter reads only one
+   * of them. This costs as much as parsing the metadata eagerly. Use {@link #get(Field)} with a key from
+   * {@link LazyMetadataFields}, or {@link #get(Getter, String...)} with the names of the parameters the getter reads,
+   * to bind only those parameters.
+   * </p>
+   *
+   * @param getter getter of the metadata class
+   * @param <V> value type
+   * @param <E> exception thrown by the getter
+   * @return the value returned by the getter
+   * @throws E exception thrown by the getter
+   * @throws UncheckedIOException if the metadata can not be bound to the metadata class
+   */
+  public <V, E extends Exception> V get(final Getter<T, V, E> getter) throws E {
+    Objects.requireNonNull(getter, "Null getter is not allowed");
+    return getter.get(this.bind());
+  }
+
+  /**
+   * Get a metadata value with a getter of the metadata class, which is applied to metadata where only the named
+   * parameters are bound. The getter must not depend on other parameters.
+   *
+   * @param getter getter of the metadata class
+   * @param parameterNames names of the metadata parameters to bind
+   * @param <V> value type
+   * @param <E> exception thrown by the getter
+   * @return the value returned by the getter
+   * @throws E exception thrown by the getter
+   * @throws UncheckedIOException if a metadata parameter can not be bound to the metadata class
+   */
+  public <V, E extends Exception> V get(final Getter<T, V, E> getter, final String... parameterNames) throws E {
+    Objects.requireNonNull(getter, "Null getter is not allowed");
+    return getter.get(this.bind(List.of(parameterNames)));
+  }
+
+  /**
+   * Get the fully bound metadata. The metadata is bound on first use and is frozen.
+   *
+   * @return frozen metadata
+   * @throws UncheckedIOException if the metadata can not be bound to the metadata class
+   */
+  public T bind() {
+    T bound = this.metadata;
+    if (bound == null) {
+      try {
+        if (this.json != null) {
+          bound = this.serializer.parse(this.json);
+        }
+        else {
+          try (final JsonParser parser = this.tree.traverse(MetadataUtils.OBJECT_MAPPER)) {
+            bound = this.serializer.parse(parser);
+          }
+        }
+      }
+      catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      bound.freeze();
+      this.metadata = bound;
+    }
+    return bound;
+  }
+
+  /**
+   * Get metadata where only the named parameters are bound.
+   *
+   * @param parameterNames parameter names
+   * @return frozen metadata holding only the named parameters
+   */
+  private T bind(final List<String> parameterNames) {
+    final T fullyBound = this.metadata;
+    if (fullyBound != null) {
+      return fullyBound;
+    }
+    final String key = String.join(",", parameterNames);
+    final T cached = this.boundParameters.get(key);
+    if (cached != null) {
+      return cached;
+    }
+    final TokenBuffer buffer = new TokenBuffer(MetadataUtils.OBJECT_MAPPER, false);
+    try {
+      buffer.writeStartObject();
+      for (final String parameterName : parameterNames) {
+        for (final JsonField field : this.fields.getOrDefault(parameterName, List.of())) {
+          buffer.writeFieldName(field.name);
+          if (field.node != null) {
+            buffer.writeTree(field.node);
+          }
+          else {
+            try (final JsonParser parser = MetadataUtils.OBJECT_MAPPER.createParser(this.json, field.offset,
+                field.length)) {
+              parser.nextToken();
+              buffer.copyCurrentStructure(parser);
+            }
+          }
+        }
+      }
+      buffer.writeEndObject();
+      final T bound;
+      try (final JsonParser parser = buffer.asParser()) {
+        bound = this.serializer.parse(parser);
+      }
+      bound.freeze();
+      final T previous = this.boundParameters.putIfAbsent(key, bound);
+      return previous != null ? previous : bound;
+    }
+    catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Index the top level fields of a JSON object.
+   *
+   * @param json UTF-8 encoded JSON
+   * @return fields keyed by parameter name
+   * @throws JsonProcessingException if the bytes are not a well-formed JSON object
+   */
+  private static Map<String, List<JsonField>> index(final byte[] json) throws JsonProcessingException {
+    final Map<String, List<JsonField>> fields = new LinkedHashMap<>();
+    try (final JsonParser parser = MetadataUtils.OBJECT_MAPPER.createParser(json)) {
+      JsonToken token = parser.nextToken();
+      if (token != JsonToken.START_OBJECT) {
+        throw MismatchedInputException.from(parser, LazyMetadata.class,
+            "Metadata must be a JSON object, found " + token);
+      }
+      token = parser.nextToken();
+      while (token == JsonToken.FIELD_NAME) {
+        final String name = parser.currentName();
+        parser.nextToken();
+        final int offset = (int) parser.currentTokenLocation().getByteOffset();
+        parser.skipChildren();
+        token = parser.nextToken();
+        // The value ends before the next field name or the end of the object
+        final int end = (int) parser.currentTokenLocation().getByteOffset();
+        fields.computeIfAbsent(parameterName(name), k -> new ArrayList<>(1))
+            .add(new JsonField(name, null, offset, end - offset));
+      }
+      if (token != JsonToken.END_OBJECT) {
+        throw MismatchedInputException.from(parser, LazyMetadata.class, "Malformed metadata JSON object");
+      }
+    }
+    catch (final JsonProcessingException e) {
+      throw e;
+    }
+    catch (final IOException e) {
+      throw JsonMappingException.fromUnexpectedIOE(e);
+    }
+    return fields;
+  }
+
+  /**
+   * Get the parameter name of a JSON field name, which is the name without any language tag.
+   *
+   * @param name JSON field name
+   * @return parameter name
+   */
+  private static String parameterName(final String name) {
+    final int tagIndex = name.indexOf('#');
+    return tagIndex > 0 ? name.substring(0, tagIndex) : name;
+  }
+
+  /**
+   * A getter of a metadata class.
+   *
+   * @param <T> metadata class
+   * @param <V> value type
+   * @param <E> exception thrown by the getter
+   */
+  @FunctionalInterface
+  public interface Getter<T, V, E extends Exception> {
+
+    /**
+     * Get a value from metadata.
+     *
+     * @param metadata the metadata
+     * @return the value
+     * @throws E error getting the value
+     */
+    V get(final T metadata) throws E;
+  }
+
+  /**
+   * A metadata parameter key, holding the name of a metadata parameter and the getter returning its value. Fields are
+   * immutable and are typically declared as constants.
+   *
+   * @param <T> metadata class
+   * @param <V> value type
+   */
+  public static final class Field<T extends AbstractOidcFedMetadata, V> {
+
+    /** Names of the parameters bound for the getter */
+    private final List<String> parameterNames;
+
+    /** Getter of the parameter value */
+    private final Function<T, V> getter;
+
+    private Field(final List<String> parameterNames, final Function<T, V> getter) {
+      this.parameterNames = parameterNames;
+      this.getter = getter;
+    }
+
+    /**
+     * Create a field for a metadata parameter.
+     *
+     * @param parameterName the JSON name of the metadata parameter, without language tag
+     * @param getter the getter returning the value of the parameter, which must not depend on other parameters
+     * @param <T> metadata class
+     * @param <V> value type
+     * @return the field
+     */
+    public static <T extends AbstractOidcFedMetadata, V> Field<T, V> of(final String parameterName,
+        final Function<T, V> getter) {
+      return new Field<>(List.of(Objects.requireNonNull(parameterName, "Null parameter name is not allowed")),
+          Objects.requireNonNull(getter, "Null getter is not allowed"));
+    }
+
+    /**
+     * Get the name of the metadata parameter.
+     *
+     * @return parameter name
+     */
+    public String getParameterName() {
+      return this.parameterNames.get(0);
+    }
+
+    /**
+     * Get the value of the parameter from metadata that is already bound.
+     *
+     * @param metadata the metadata
+     * @return the value returned by the getter of this field
+     */
+    public V get(final T metadata) {
+      return this.getter.apply(metadata);
+    }
+  }
+
+  /**
+   * A top level JSON field, either as a JSON tree node or as the location of its value in the JSON bytes.
+   */
+  private static final class JsonField {
+
+    private final String name;
+    private final JsonNode node;
+    private final int offset;
+    private final int length;
+
+    private JsonField(final String name, final JsonNode node, final int offset, final int length) {
+      this.name = name;
+      this.node = node;
+      this.offset = offset;
+      this.length = length;
+    }
+  }
+
+}
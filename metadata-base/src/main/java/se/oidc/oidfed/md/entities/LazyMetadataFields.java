@@ -0,0 +1,246 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.entities;
+
+import se.oidc.oidfed.md.lang.LanguageObject;
+
+import java.util.List;
+
+/**
+ * Predefined {@link LazyMetadata.Field} keys for common metadata parameters, for example
+ * {@code lazyMetadata.get(LazyMetadataFields.Op.TOKEN_ENDPOINT)}.
+ * <p>
+ * A key can be used with lazy metadata of the class declaring its getter and of all subclasses. Keys of parameters
+ * shared by all metadata classes are declared in this class, and keys of other parameters in the nested class of the
+ * entity type.
+ * </p>
+ */
+public final class LazyMetadataFields {
+
+  /** Organization name */
+  public static final LazyMetadata.Field<AbstractOidcFedMetadata, LanguageObject<String>> ORGANIZATION_NAME =
+      LazyMetadata.Field.of("organization_name", AbstractOidcFedMetadata::getOrganizationName);
+
+  /** Logo URI */
+  public static final LazyMetadata.Field<AbstractOidcFedMetadata, LanguageObject<String>> LOGO_URI =
+      LazyMetadata.Field.of("logo_uri", AbstractOidcFedMetadata::getLogoUri);
+
+  /** Contacts */
+  public static final LazyMetadata.Field<AbstractOidcFedMetadata, List<String>> CONTACTS =
+      LazyMetadata.Field.of("contacts", AbstractOidcFedMetadata::getContacts);
+
+  /** Policy URI */
+  public static final LazyMetadata.Field<AbstractOidcFedMetadata, String> POLICY_URI =
+      LazyMetadata.Field.of("policy_uri", AbstractOidcFedMetadata::getPolicyUri);
+
+  /** Homepage URI */
+  public static final LazyMetadata.Field<AbstractOidcFedMetadata, String> HOMEPAGE_URI =
+      LazyMetadata.Field.of("homepage_uri", AbstractOidcFedMetadata::getHomepageUri);
+
+  /** Signed JWKS URI */
+  public static final LazyMetadata.Field<AbstractOidcFedMetadata, String> SIGNED_JWKS_URI =
+      LazyMetadata.Field.of("signed_jwks_uri", AbstractOidcFedMetadata::getSignedJwksUri);
+
+  /** JWKS URI */
+  public static final LazyMetadata.Field<AbstractOidcFedMetadata, String> JWKS_URI =
+      LazyMetadata.Field.of("jwks_uri", AbstractOidcFedMetadata::getJwksUri);
+
+  /**
+   * Keys of OpenID provider metadata parameters. Keys of parameters declared by {@link BasicASMetadata} can also be
+   * used with {@link AuthorizationServerMetadata}.
+   */
+  public static final class Op {
+
+    /** Issuer */
+    public static final LazyMetadata.Field<BasicASMetadata, String> ISSUER =
+        LazyMetadata.Field.of("issuer", BasicASMetadata::getIssuer);
+
+    /** Authorization endpoint */
+    public static final LazyMetadata.Field<BasicASMetadata, String> AUTHORIZATION_ENDPOINT =
+        LazyMetadata.Field.of("authorization_endpoint", BasicASMetadata::getAuthorizationEndpoint);
+
+    /** Token endpoint */
+    public static final LazyMetadata.Field<BasicASMetadata, String> TOKEN_ENDPOINT =
+        LazyMetadata.Field.of("token_endpoint", BasicASMetadata::getTokenEndpoint);
+
+    /** Registration endpoint */
+    public static final LazyMetadata.Field<BasicASMetadata, String> REGISTRATION_ENDPOINT =
+        LazyMetadata.Field.of("registration_endpoint", BasicASMetadata::getRegistrationEndpoint);
+
+    /** Supported scopes */
+    public static final LazyMetadata.Field<BasicASMetadata, List<String>> SCOPES_SUPPORTED =
+        LazyMetadata.Field.of("scopes_supported", BasicASMetadata::getScopesSupported);
+
+    /** Supported response types */
+    public static final LazyMetadata.Field<BasicASMetadata, List<String>> RESPONSE_TYPES_SUPPORTED =
+        LazyMetadata.Field.of("response_types_supported", BasicASMetadata::getResponseTypesSupported);
+
+    /** Supported response modes */
+    public static final LazyMetadata.Field<BasicASMetadata, List<String>> RESPONSE_MODES_SUPPORTED =
+        LazyMetadata.Field.of("response_modes_supported", BasicASMetadata::getResponseModesSupported);
+
+    /** Supported grant types */
+    public static final LazyMetadata.Field<BasicASMetadata, List<String>> GRANT_TYPES_SUPPORTED =
+        LazyMetadata.Field.of("grant_types_supported", BasicASMetadata::getGrantTypesSupported);
+
+    /** Supported token endpoint authentication methods */
+    public static final LazyMetadata.Field<BasicASMetadata, List<String>> TOKEN_ENDPOINT_AUTH_METHODS_SUPPORTED =
+        LazyMetadata.Field.of("token_endpoint_auth_methods_supported",
+            BasicASMetadata::getTokenEndpointAuthMethodsSupported);
+
+    /** Supported UI locales */
+    public static final LazyMetadata.Field<BasicASMetadata, List<String>> UI_LOCALES_SUPPORTED =
+        LazyMetadata.Field.of("ui_locales_supported", BasicASMetadata::getUiLocalesSupported);
+
+    /** Supported code challenge methods */
+    public static final LazyMetadata.Field<BasicASMetadata, List<String>> CODE_CHALLENGE_METHODS_SUPPORTED =
+        LazyMetadata.Field.of("code_challenge_methods_supported", BasicASMetadata::getCodeChallengeMethodsSupported);
+
+    /** Userinfo endpoint */
+    public static final LazyMetadata.Field<OpMetadata, String> USERINFO_ENDPOINT =
+        LazyMetadata.Field.of("userinfo_endpoint", OpMetadata::getUserinfoEndpoint);
+
+    /** Federation registration endpoint */
+    public static final LazyMetadata.Field<OpMetadata, String> FEDERATION_REGISTRATION_ENDPOINT =
+        LazyMetadata.Field.of("federation_registration_endpoint", OpMetadata::getFederationRegistrationEndpoint);
+
+    /** Supported client registration types */
+    public static final LazyMetadata.Field<OpMetadata, List<String>> CLIENT_REGISTRATION_TYPES_SUPPORTED =
+        LazyMetadata.Field.of("client_registration_types_supported", OpMetadata::getClientRegistrationTypesSupported);
+
+    /** Supported ACR values */
+    public static final LazyMetadata.Field<OpMetadata, List<String>> ACR_VALUES_SUPPORTED =
+        LazyMetadata.Field.of("acr_values_supported", OpMetadata::getAcrValuesSupported);
+
+    /** Supported subject types */
+    public static final LazyMetadata.Field<OpMetadata, List<String>> SUBJECT_TYPES_SUPPORTED =
+        LazyMetadata.Field.of("subject_types_supported", OpMetadata::getSubjectTypesSupported);
+
+    /** Supported ID token signing algorithms */
+    public static final LazyMetadata.Field<OpMetadata, List<String>> ID_TOKEN_SIGNING_ALG_VALUES_SUPPORTED =
+        LazyMetadata.Field.of("id_token_signing_alg_values_supported", OpMetadata::getIdTokenSigningAlgValuesSupported);
+
+    /** Supported request object signing algorithms */
+    public static final LazyMetadata.Field<OpMetadata, List<String>> REQUEST_OBJECT_SIGNING_ALG_VALUES_SUPPORTED =
+        LazyMetadata.Field.of("request_object_signing_alg_values_supported",
+            OpMetadata::getRequestObjectSigningAlgValuesSupported);
+
+    /** Supported claims */
+    public static final LazyMetadata.Field<OpMetadata, List<String>> CLAIMS_SUPPORTED =
+        LazyMetadata.Field.of("claims_supported", OpMetadata::getClaimsSupported);
+
+    private Op() {
+    }
+  }
+
+  /**
+   * Keys of relying party metadata parameters. Keys of parameters declared by {@link BasicClientMetadata} can also be
+   * used with {@link ClientMetadata}.
+   */
+  public static final class RelyingParty {
+
+    /** Redirect URIs */
+    public static final LazyMetadata.Field<BasicClientMetadata, List<String>> REDIRECT_URIS =
+        LazyMetadata.Field.of("redirect_uris", BasicClientMetadata::getRedirectUris);
+
+    /** Token endpoint authentication method */
+    public static final LazyMetadata.Field<BasicClientMetadata, String> TOKEN_ENDPOINT_AUTH_METHOD =
+        LazyMetadata.Field.of("token_endpoint_auth_method", BasicClientMetadata::getTokenEndpointAuthMethod);
+
+    /** Grant types */
+    public static final LazyMetadata.Field<BasicClientMetadata, List<String>> GRANT_TYPES =
+        LazyMetadata.Field.of("grant_types", BasicClientMetadata::getGrantTypes);
+
+    /** Response types */
+    public static final LazyMetadata.Field<BasicClientMetadata, List<String>> RESPONSE_TYPES =
+        LazyMetadata.Field.of("response_types", BasicClientMetadata::getResponseTypes);
+
+    /** Client name */
+    public static final LazyMetadata.Field<BasicClientMetadata, LanguageObject<String>> CLIENT_NAME =
+        LazyMetadata.Field.of("client_name", BasicClientMetadata::getClientName);
+
+    /** Client URI */
+    public static final LazyMetadata.Field<BasicClientMetadata, String> CLIENT_URI =
+        LazyMetadata.Field.of("client_uri", BasicClientMetadata::getClientUri);
+
+    /** Terms of service URI */
+    public static final LazyMetadata.Field<BasicClientMetadata, LanguageObject<String>> TOS_URI =
+        LazyMetadata.Field.of("tos_uri", BasicClientMetadata::getTosUri);
+
+    /** Application type */
+    public static final LazyMetadata.Field<RelyingPartyMetadata, String> APPLICATION_TYPE =
+        LazyMetadata.Field.of("application_type", RelyingPartyMetadata::getApplicationType);
+
+    /** Subject type */
+    public static final LazyMetadata.Field<RelyingPartyMetadata, String> SUBJECT_TYPE =
+        LazyMetadata.Field.of("subject_type", RelyingPartyMetadata::getSubjectType);
+
+    /** ID token signing algorithm */
+    public static final LazyMetadata.Field<RelyingPartyMetadata, String> ID_TOKEN_SIGNED_RESPONSE_ALG =
+        LazyMetadata.Field.of("id_token_signed_response_alg", RelyingPartyMetadata::getIdTokenSignedResponseAlg);
+
+    /** Token endpoint authentication signing algorithm */
+    public static final LazyMetadata.Field<RelyingPartyMetadata, String> TOKEN_ENDPOINT_AUTH_SIGNING_ALG =
+        LazyMetadata.Field.of("token_endpoint_auth_signing_alg", RelyingPartyMetadata::getTokenEndpointAuthSigningAlg);
+
+    /** Default ACR values */
+    public static final LazyMetadata.Field<RelyingPartyMetadata, List<String>> DEFAULT_ACR_VALUES =
+        LazyMetadata.Field.of("default_acr_values", RelyingPartyMetadata::getDefaultAcrValues);
+
+    private RelyingParty() {
+    }
+  }
+
+  /**
+   * Keys of federation entity metadata parameters.
+   */
+  public static final class FederationEntity {
+
+    /** Fetch endpoint */
+    public static final LazyMetadata.Field<FederationEntityMetadata, String> FEDERATION_FETCH_ENDPOINT =
+        LazyMetadata.Field.of("federation_fetch_endpoint", FederationEntityMetadata::getFederationFetchEndpoint);
+
+    /** List endpoint */
+    public static final LazyMetadata.Field<FederationEntityMetadata, String> FEDERATION_LIST_ENDPOINT =
+        LazyMetadata.Field.of("federation_list_endpoint", FederationEntityMetadata::getFederationListEndpoint);
+
+    /** Resolve endpoint */
+    public static final LazyMetadata.Field<FederationEntityMetadata, String> FEDERATION_RESOLVE_ENDPOINT =
+        LazyMetadata.Field.of("federation_resolve_endpoint", FederationEntityMetadata::getFederationResolveEndpoint);
+
+    /** Trust Mark status endpoint */
+    public static final LazyMetadata.Field<FederationEntityMetadata, String> FEDERATION_TRUST_MARK_STATUS_ENDPOINT =
+        LazyMetadata.Field.of("federation_trust_mark_status_endpoint",
+            FederationEntityMetadata::getFederationTrustMarkStatusEndpoint);
+
+    /** Trust Mark list endpoint */
+    public static final LazyMetadata.Field<FederationEntityMetadata, String> FEDERATION_TRUST_MARK_LIST_ENDPOINT =
+        LazyMetadata.Field.of("federation_trust_mark_list_endpoint",
+            FederationEntityMetadata::getFederationTrustMarkListEndpoint);
+
+    /** Trust Mark endpoint */
+    public static final LazyMetadata.Field<FederationEntityMetadata, String> FEDERATION_TRUST_MARK_ENDPOINT =
+        LazyMetadata.Field.of("federation_trust_mark_endpoint",
+            FederationEntityMetadata::getFederationTrustMarkEndpoint);
+
+    /** Historical keys endpoint */
+    public static final LazyMetadata.Field<FederationEntityMetadata, String> FEDERATION_HISTORICAL_KEYS_ENDPOINT =
+        LazyMetadata.Field.of("federation_historical_keys_endpoint",
+            FederationEntityMetadata::getFederationHistoricalKeysEndpoint);
+
+    /** Discovery endpoint */
+    public static final LazyMetadata.Field<FederationEntityMetadata, String> FEDERATION_DISCOVERY_ENDPOINT =
+        LazyMetadata.Field.of("federation_discovery_endpoint",
+            FederationEntityMetadata::getFederationDiscoveryEndpoint);
+
+    private FederationEntity() {
+    }
+  }
+
+  private LazyMetadataFields() {
+  }
+
+}
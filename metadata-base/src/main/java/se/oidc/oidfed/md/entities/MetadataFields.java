@@ -0,0 +1,176 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.entities;
+
+import se.oidc.oidfed.md.lang.LanguageObject;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The state fields of a metadata class, used to freeze, compare and hash metadata objects. Field lists are computed
+ * once per class.
+ */
+final class MetadataFields {
+
+  /** Fields per metadata class */
+  private static final ClassValue<MetadataFields> fields = new ClassValue<>() {
+    @Override
+    protected MetadataFields computeValue(final Class<?> type) {
+      return new MetadataFields(type);
+    }
+  };
+
+  /** Non-static and non-transient fields declared by the class and its metadata super classes */
+  private final Field[] stateFields;
+
+  /**
+   * Constructor
+   *
+   * @param type metadata class
+   */
+  private MetadataFields(final Class<?> type) {
+    final List<Field> fieldList = new ArrayList<>();
+    for (Class<?> c = type; c != null && AbstractOidcFedMetadata.class.isAssignableFrom(c); c = c.getSuperclass()) {
+      for (final Field field : c.getDeclaredFields()) {
+        if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers())) {
+          field.setAccessible(true);
+          fieldList.add(field);
+        }
+      }
+    }
+    this.stateFields = fieldList.toArray(new Field[0]);
+  }
+
+  /**
+   * Get the fields of a metadata class.
+   *
+   * @param type metadata class
+   * @return fields of the class
+   */
+  static MetadataFields forClass(final Class<?> type) {
+    return fields.get(type);
+  }
+
+  /**
+   * Replace all field values of a metadata object with immutable values. Values that are already immutable are kept.
+   *
+   * @param metadata metadata object
+   */
+  void freeze(final AbstractOidcFedMetadata metadata) {
+    for (final Field field : this.stateFields) {
+      final Object value = get(field, metadata);
+      final Object immutable = toImmutable(value);
+      if (immutable != value) {
+        set(field, metadata, immutable);
+      }
+    }
+  }
+
+  /**
+   * Compare the field values of two metadata objects of the same class.
+   *
+   * @param metadata metadata object
+   * @param other other metadata object
+   * @return true if all field values are equal
+   */
+  boolean equals(final AbstractOidcFedMetadata metadata, final AbstractOidcFedMetadata other) {
+    for (final Field field : this.stateFields) {
+      if (!Objects.equals(get(field, metadata), get(field, other))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Calculate the hash code of the field values of a metadata object.
+   *
+   * @param metadata metadata object
+   * @return hash code
+   */
+  int hashCode(final AbstractOidcFedMetadata metadata) {
+    int result = 1;
+    for (final Field field : this.stateFields) {
+      result = 31 * result + Objects.hashCode(get(field, metadata));
+    }
+    return result;
+  }
+
+  /**
+   * Get an immutable version of a value. Lists and maps are copied into unmodifiable collections of immutable values,
+   * language objects and metadata objects are replaced with their snapshots, and other values are returned as is.
+   *
+   * @param value value
+   * @return immutable version of the value, or the value itself if it is already immutable
+   */
+  static Object toImmutable(final Object value) {
+    if (value instanceof final LanguageObject<?> languageObject) {
+      return languageObject.snapshot();
+    }
+    if (value instanceof final AbstractOidcFedMetadata metadata) {
+      return metadata.snapshot();
+    }
+    if (value instanceof final List<?> list) {
+      return toImmutableList(list);
+    }
+    if (value instanceof final Map<?, ?> map) {
+      final Map<Object, Object> copy = new LinkedHashMap<>();
+      map.forEach((key, mapValue) -> copy.put(key, toImmutable(mapValue)));
+      return Collections.unmodifiableMap(copy);
+    }
+    return value;
+  }
+
+  /**
+   * Get an immutable version of a list. An immutable list of immutable values is returned as is.
+   *
+   * @param list list
+   * @return immutable list
+   */
+  private static List<?> toImmutableList(final List<?> list) {
+    boolean nullElements = false;
+    boolean immutableElements = true;
+    for (final Object element : list) {
+      nullElements |= element == null;
+      immutableElements &= toImmutable(element) == element;
+    }
+    if (immutableElements && !nullElements) {
+      // Returns the list itself if it already is an unmodifiable list created by List.of or List.copyOf
+      return List.copyOf(list);
+    }
+    final List<Object> copy = new ArrayList<>(list.size());
+    for (final Object element : list) {
+      copy.add(toImmutable(element));
+    }
+    return nullElements ? Collections.unmodifiableList(copy) : List.copyOf(copy);
+  }
+
+  private static Object get(final Field field, final Object target) {
+    try {
+      return field.get(target);
+    }
+    catch (final IllegalAccessException e) {
+      throw new IllegalStateException("Unable to access metadata field " + field.getName(), e);
+    }
+  }
+
+  private static void set(final Field field, final Object target, final Object value) {
+    try {
+      field.set(target, value);
+    }
+    catch (final IllegalAccessException e) {
+      throw new IllegalStateException("Unable to access metadata field " + field.getName(), e);
+    }
+  }
+
+}
@@ -8,11 +8,13 @@ package se.oidc.oidfed.md.entities;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import lombok.Getter;
-import lombok.Setter;
 import se.oidc.oidfed.md.lang.OidcLangJsonSerializer;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -34,9 +36,13 @@ public class OpMetadata extends BasicASMetadata {
    */
   @JsonProperty("client_registration_types_supported")
   @Getter
-  @Setter
   private List<String> clientRegistrationTypesSupported;
 
+  public void setClientRegistrationTypesSupported(final List<String> clientRegistrationTypesSupported) {
+    this.checkModifiable();
+    this.clientRegistrationTypesSupported = clientRegistrationTypesSupported;
+  }
+
   /**
    * OpenID Federation OPTIONAL. URL of the OP's federation-specific Dynamic Client Registration Endpoint. If the OP
    * supports Explicit Client Registration Endpoint this URL MUST use the https scheme and MAY contain port, path, and
@@ -45,35 +51,51 @@ public class OpMetadata extends BasicASMetadata {
    */
   @JsonProperty("federation_registration_endpoint")
   @Getter
-  @Setter
   private String federationRegistrationEndpoint;
 
+  public void setFederationRegistrationEndpoint(final String federationRegistrationEndpoint) {
+    this.checkModifiable();
+    this.federationRegistrationEndpoint = federationRegistrationEndpoint;
+  }
+
   /**
    * RECOMMENDED. URL of the OP's UserInfo Endpoint [OpenID.Core]. This URL MUST use the https scheme and MAY contain
    * port, path, and query parameter components.
    */
   @JsonProperty("userinfo_endpoint")
   @Getter
-  @Setter
   private String userinfoEndpoint;
 
+  public void setUserinfoEndpoint(final String userinfoEndpoint) {
+    this.checkModifiable();
+    this.userinfoEndpoint = userinfoEndpoint;
+  }
+
   /**
    * OPTIONAL. JSON array containing a list of the Authentication Context Class References that this OP supports.
    */
   @JsonProperty("acr_values_supported")
   @Getter
-  @Setter
   private List<String> acrValuesSupported;
 
+  public void setAcrValuesSupported(final List<String> acrValuesSupported) {
+    this.checkModifiable();
+    this.acrValuesSupported = acrValuesSupported;
+  }
+
   /**
    * REQUIRED. JSON array containing a list of the Subject Identifier types that this OP supports. Valid types include
    * pairwise and public.
    */
   @JsonProperty("subject_types_supported")
   @Getter
-  @Setter
   private List<String> subjectTypesSupported;
 
+  public void setSubjectTypesSupported(final List<String> subjectTypesSupported) {
+    this.checkModifiable();
+    this.subjectTypesSupported = subjectTypesSupported;
+  }
+
   /**
    * REQUIRED. JSON array containing a list of the JWS signing algorithms (alg values) supported by the OP for the ID
    * Token to encode the Claims in a JWT [JWT]. The algorithm RS256 MUST be included. The value none MAY be supported,
@@ -82,54 +104,78 @@ public class OpMetadata extends BasicASMetadata {
    */
   @JsonProperty("id_token_signing_alg_values_supported")
   @Getter
-  @Setter
   private List<String> idTokenSigningAlgValuesSupported;
 
+  public void setIdTokenSigningAlgValuesSupported(final List<String> idTokenSigningAlgValuesSupported) {
+    this.checkModifiable();
+    this.idTokenSigningAlgValuesSupported = idTokenSigningAlgValuesSupported;
+  }
+
   /**
    * OPTIONAL. JSON array containing a list of the JWE encryption algorithms (alg values) supported by the OP for the ID
    * Token to encode the Claims in a JWT [JWT].
    */
   @JsonProperty("id_token_encryption_alg_values_supported")
   @Getter
-  @Setter
   private List<String> idTokenEncryptionAlgValuesSupported;
 
+  public void setIdTokenEncryptionAlgValuesSupported(final List<String> idTokenEncryptionAlgValuesSupported) {
+    this.checkModifiable();
+    this.idTokenEncryptionAlgValuesSupported = idTokenEncryptionAlgValuesSupported;
+  }
+
   /**
    * OPTIONAL. JSON array containing a list of the JWE encryption algorithms (enc values) supported by the OP for the ID
    * Token to encode the Claims in a JWT [JWT].
    */
   @JsonProperty("id_token_encryption_enc_values_supported")
   @Getter
-  @Setter
   private List<String> idTokenEncryptionEncValuesSupported;
 
+  public void setIdTokenEncryptionEncValuesSupported(final List<String> idTokenEncryptionEncValuesSupported) {
+    this.checkModifiable();
+    this.idTokenEncryptionEncValuesSupported = idTokenEncryptionEncValuesSupported;
+  }
+
   /**
    * OPTIONAL. JSON array containing a list of the JWS [JWS] signing algorithms (alg values) [JWA] supported by the
    * UserInfo Endpoint to encode the Claims in a JWT [JWT]. The value none MAY be included.
    */
   @JsonProperty("userinfo_signing_alg_values_supported")
   @Getter
-  @Setter
   private List<String> userinfoSigningAlgValuesSupported;
 
+  public void setUserinfoSigningAlgValuesSupported(final List<String> userinfoSigningAlgValuesSupported) {
+    this.checkModifiable();
+    this.userinfoSigningAlgValuesSupported = userinfoSigningAlgValuesSupported;
+  }
+
   /**
    * OPTIONAL. JSON array containing a list of the JWE [JWE] encryption algorithms (alg values) [JWA] supported by the
    * UserInfo Endpoint to encode the Claims in a JWT [JWT].
    */
   @JsonProperty("userinfo_encryption_alg_values_supported")
   @Getter
-  @Setter
   private List<String> userinfoEncryptionAlgValuesSupported;
 
+  public void setUserinfoEncryptionAlgValuesSupported(final List<String> userinfoEncryptionAlgValuesSupported) {
+    this.checkModifiable();
+    this.userinfoEncryptionAlgValuesSupported = userinfoEncryptionAlgValuesSupported;
+  }
+
   /**
    * OPTIONAL. JSON array containing a list of the JWE encryption algorithms (enc values) [JWA] supported by the
    * UserInfo Endpoint to encode the Claims in a JWT [JWT].
    */
   @JsonProperty("userinfo_encryption_enc_values_supported")
   @Getter
-  @Setter
   private List<String> userinfoEncryptionEncValuesSupported;
 
+  public void setUserinfoEncryptionEncValuesSupported(final List<String> userinfoEncryptionEncValuesSupported) {
+    this.checkModifiable();
+    this.userinfoEncryptionEncValuesSupported = userinfoEncryptionEncValuesSupported;
+  }
+
   /**
    * OPTIONAL. JSON array containing a list of the JWS signing algorithms (alg values) supported by the OP for Request
    * Objects, which are described in Section 6.1 of OpenID Connect Core 1.0 [OpenID.Core]. These algorithms are used
@@ -138,9 +184,13 @@ public class OpMetadata extends BasicASMetadata {
    */
   @JsonProperty("request_object_signing_alg_values_supported")
   @Getter
-  @Setter
   private List<String> requestObjectSigningAlgValuesSupported;
 
+  public void setRequestObjectSigningAlgValuesSupported(final List<String> requestObjectSigningAlgValuesSupported) {
+    this.checkModifiable();
+    this.requestObjectSigningAlgValuesSupported = requestObjectSigningAlgValuesSupported;
+  }
+
   /**
    * OPTIONAL. JSON array containing a list of the JWE encryption algorithms (alg values) supported by the OP for
    * Request Objects. These algorithms are used both when the Request Object is passed by value and when it is passed by
@@ -148,9 +198,13 @@ public class OpMetadata extends BasicASMetadata {
    */
   @JsonProperty("request_object_encryption_alg_values_supported")
   @Getter
-  @Setter
   private List<String> requestObjectEncryptionAlgValuesSupported;
 
+  public void setRequestObjectEncryptionAlgValuesSupported(final List<String> requestObjectEncryptionAlgValuesSupported) {
+    this.checkModifiable();
+    this.requestObjectEncryptionAlgValuesSupported = requestObjectEncryptionAlgValuesSupported;
+  }
+
   /**
    * OPTIONAL. JSON array containing a list of the JWE encryption algorithms (enc values) supported by the OP for
    * Request Objects. These algorithms are used both when the Request Object is passed by value and when it is passed by
@@ -158,18 +212,26 @@ public class OpMetadata extends BasicASMetadata {
    */
   @JsonProperty("request_object_encryption_enc_values_supported")
   @Getter
-  @Setter
   private List<String> requestObjectEncryptionEncValuesSupported;
 
+  public void setRequestObjectEncryptionEncValuesSupported(final List<String> requestObjectEncryptionEncValuesSupported) {
+    this.checkModifiable();
+    this.requestObjectEncryptionEncValuesSupported = requestObjectEncryptionEncValuesSupported;
+  }
+
   /**
    * OPTIONAL. JSON array containing a list of the display parameter values that the OpenID Provider supports. These
    * values are described in Section 3.1.2.1 of OpenID Connect Core 1.0 [OpenID.Core].
    */
   @JsonProperty("display_values_supported")
   @Getter
-  @Setter
   private List<String> displayValuesSupported;
 
+  public void setDisplayValuesSupported(final List<String> displayValuesSupported) {
+    this.checkModifiable();
+    this.displayValuesSupported = displayValuesSupported;
+  }
+
   /**
    * OPTIONAL. JSON array containing a list of the Claim Types that the OpenID Provider supports. These Claim Types are
    * described in Section 5.6 of OpenID Connect Core 1.0 [OpenID.Core]. Values defined by this specification are normal,
@@ -177,54 +239,78 @@ public class OpMetadata extends BasicASMetadata {
    */
   @JsonProperty("claim_types_supported")
   @Getter
-  @Setter
   private List<String> claimTypesSupported;
 
+  public void setClaimTypesSupported(final List<String> claimTypesSupported) {
+    this.checkModifiable();
+    this.claimTypesSupported = claimTypesSupported;
+  }
+
   /**
    * RECOMMENDED. JSON array containing a list of the Claim Names of the Claims that the OpenID Provider MAY be able to
    * supply values for. Note that for privacy or other reasons, this might not be an exhaustive list.
    */
   @JsonProperty("claims_supported")
   @Getter
-  @Setter
   private List<String> claimsSupported;
 
+  public void setClaimsSupported(final List<String> claimsSupported) {
+    this.checkModifiable();
+    this.claimsSupported = claimsSupported;
+  }
+
   /**
    * OPTIONAL. Languages and scripts supported for values in Claims being returned, represented as a JSON array of BCP47
    * [RFC5646] language tag values. Not all languages and scripts are necessarily supported for all Claim values.
    */
   @JsonProperty("claims_locales_supported")
   @Getter
-  @Setter
   private List<String> claimsLocalesSupported;
 
+  public void setClaimsLocalesSupported(final List<String> claimsLocalesSupported) {
+    this.checkModifiable();
+    this.claimsLocalesSupported = claimsLocalesSupported;
+  }
+
   /**
    * OPTIONAL. Boolean value specifying whether the OP supports use of the claims parameter, with true indicating
    * support. If omitted, the default value is false.
    */
   @JsonProperty("claims_parameter_supported")
   @Getter
-  @Setter
   private Boolean claimsParameterSupported;
 
+  public void setClaimsParameterSupported(final Boolean claimsParameterSupported) {
+    this.checkModifiable();
+    this.claimsParameterSupported = claimsParameterSupported;
+  }
+
   /**
    * OPTIONAL. Boolean value specifying whether the OP supports use of the request parameter, with true indicating
    * support. If omitted, the default value is false.
    */
   @JsonProperty("request_parameter_supported")
   @Getter
-  @Setter
   private Boolean requestParameterSupported;
 
+  public void setRequestParameterSupported(final Boolean requestParameterSupported) {
+    this.checkModifiable();
+    this.requestParameterSupported = requestParameterSupported;
+  }
+
   /**
    * OPTIONAL. Boolean value specifying whether the OP supports use of the request_uri parameter, with true indicating
    * support. If omitted, the default value is true.
    */
   @JsonProperty("request_uri_parameter_supported")
   @Getter
-  @Setter
   private Boolean requestUriParameterSupported;
 
+  public void setRequestUriParameterSupported(final Boolean requestUriParameterSupported) {
+    this.checkModifiable();
+    this.requestUriParameterSupported = requestUriParameterSupported;
+  }
+
   /**
    * OPTIONAL. Boolean value specifying whether the OP requires any request_uri values used to be pre-registered using
    * the request_uris registration parameter. Pre-registration is REQUIRED when the value is true. If omitted, the
@@ -232,36 +318,52 @@ public class OpMetadata extends BasicASMetadata {
    */
   @JsonProperty("require_request_uri_registration")
   @Getter
-  @Setter
   private Boolean requireRequestUriRegistration;
 
+  public void setRequireRequestUriRegistration(final Boolean requireRequestUriRegistration) {
+    this.checkModifiable();
+    this.requireRequestUriRegistration = requireRequestUriRegistration;
+  }
+
   /**
    * A discovery parameter specifying whether the OpenID Provider supports the https://id.oidc.se/param/userMessage
    * authentication request parameter
    */
   @JsonProperty("https://id.oidc.se/disco/userMessageSupported")
   @Getter
-  @Setter
   private Boolean oidcSeDiscoUserMessageSupported;
 
+  public void setOidcSeDiscoUserMessageSupported(final Boolean oidcSeDiscoUserMessageSupported) {
+    this.checkModifiable();
+    this.oidcSeDiscoUserMessageSupported = oidcSeDiscoUserMessageSupported;
+  }
+
   /**
    * Holds the User Message MIME type(s) that is supported by the OpenID Provider. Its value is only relevant if
    * https://id.oidc.se/disco/userMessageSupported is set to true
    */
   @JsonProperty("https://id.oidc.se/disco/userMessageSupportedMimeTypes")
   @Getter
-  @Setter
   private List<String> oidcSeDiscoUserMessageSupportedMimeTypes;
 
+  public void setOidcSeDiscoUserMessageSupportedMimeTypes(final List<String> oidcSeDiscoUserMessageSupportedMimeTypes) {
+    this.checkModifiable();
+    this.oidcSeDiscoUserMessageSupportedMimeTypes = oidcSeDiscoUserMessageSupportedMimeTypes;
+  }
+
   /**
    * A discovery parameter specifying whether the OpenID Provider supports the https://id.oidc.se/param/authnProvider
    * authentication request parameter
    */
   @JsonProperty("https://id.oidc.se/disco/authnProviderSupported")
   @Getter
-  @Setter
   private Boolean oidcSeDiscoAuthnProviderSupported;
 
+  public void setOidcSeDiscoAuthnProviderSupported(final Boolean oidcSeDiscoAuthnProviderSupported) {
+    this.checkModifiable();
+    this.oidcSeDiscoAuthnProviderSupported = oidcSeDiscoAuthnProviderSupported;
+  }
+
   /**
    * Constructor
    */
@@ -272,7 +374,7 @@ public class OpMetadata extends BasicASMetadata {
   /** {@inheritDoc} */
   @Override
   public String toJson(final boolean prettyPrinting) throws JsonProcessingException {
-    return jsonSerializer.setPrettyPrinting(prettyPrinting).toJson(this);
+    return jsonSerializer.toJson(this, prettyPrinting);
   }
 
   /** {@inheritDoc} */
@@ -281,6 +383,36 @@ public class OpMetadata extends BasicASMetadata {
     return jsonSerializer.toJsonObject(this);
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public byte[] toUtf8Bytes() throws JsonProcessingException {
+    return jsonSerializer.toUtf8Bytes(this, false);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void writeTo(final OutputStream outputStream) throws IOException {
+    jsonSerializer.writeTo(this, outputStream, false);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void writeTo(final JsonGenerator generator) throws IOException {
+    jsonSerializer.writeTo(this, generator);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public OpMetadata freeze() {
+    return (OpMetadata) super.freeze();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public OpMetadata snapshot() {
+    return (OpMetadata) super.snapshot();
+  }
+
   /**
    * Creates a builder for OP metadata
    *
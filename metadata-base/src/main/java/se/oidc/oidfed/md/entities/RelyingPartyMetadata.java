@@ -7,11 +7,13 @@ package se.oidc.oidfed.md.entities;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import lombok.Getter;
-import lombok.Setter;
 import se.oidc.oidfed.md.lang.OidcLangJsonSerializer;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -36,9 +38,13 @@ public class RelyingPartyMetadata extends BasicClientMetadata {
    */
   @JsonProperty("application_type")
   @Getter
-  @Setter
   private String applicationType;
 
+  public void setApplicationType(final String applicationType) {
+    this.checkModifiable();
+    this.applicationType = applicationType;
+  }
+
   /**
    * OPTIONAL. URL using the https scheme to be used in calculating Pseudonymous Identifiers by the OP. The URL
    * references a file with a single JSON array of redirect_uri values. Please see Section 5. Providers that use
@@ -47,18 +53,26 @@ public class RelyingPartyMetadata extends BasicClientMetadata {
    */
   @JsonProperty("sector_identifier_uri")
   @Getter
-  @Setter
   private String sectorIdentifierUri;
 
+  public void setSectorIdentifierUri(final String sectorIdentifierUri) {
+    this.checkModifiable();
+    this.sectorIdentifierUri = sectorIdentifierUri;
+  }
+
   /**
    * OPTIONAL. subject_type requested for responses to this Client. The subject_types_supported Discovery parameter
    * contains a list of the supported subject_type values for this server. Valid types include pairwise and public.
    */
   @JsonProperty("subject_type")
   @Getter
-  @Setter
   private String subjectType;
 
+  public void setSubjectType(final String subjectType) {
+    this.checkModifiable();
+    this.subjectType = subjectType;
+  }
+
   /**
    * OPTIONAL. JWS alg algorithm [JWA] REQUIRED for signing the ID Token issued to this Client. The value none MUST NOT
    * be used as the ID Token alg value unless the Client uses only Response Types that return no ID Token from the
@@ -68,9 +82,13 @@ public class RelyingPartyMetadata extends BasicClientMetadata {
    */
   @JsonProperty("id_token_signed_response_alg")
   @Getter
-  @Setter
   private String idTokenSignedResponseAlg;
 
+  public void setIdTokenSignedResponseAlg(final String idTokenSignedResponseAlg) {
+    this.checkModifiable();
+    this.idTokenSignedResponseAlg = idTokenSignedResponseAlg;
+  }
+
   /**
    * OPTIONAL. JWE alg algorithm [JWA] REQUIRED for encrypting the ID Token issued to this Client. If this is requested,
    * the response will be signed then encrypted, with the result being a Nested JWT, as defined in [JWT]. The default,
@@ -78,9 +96,13 @@ public class RelyingPartyMetadata extends BasicClientMetadata {
    */
   @JsonProperty("id_token_encrypted_response_alg")
   @Getter
-  @Setter
   private String idTokenEncryptedResponseAlg;
 
+  public void setIdTokenEncryptedResponseAlg(final String idTokenEncryptedResponseAlg) {
+    this.checkModifiable();
+    this.idTokenEncryptedResponseAlg = idTokenEncryptedResponseAlg;
+  }
+
   /**
    * OPTIONAL. JWS alg algorithm [JWA] REQUIRED for signing UserInfo Responses. If this is specified, the response will
    * be JWT [JWT] serialized, and signed using JWS. The default, if omitted, is for the UserInfo Response to return the
@@ -88,9 +110,13 @@ public class RelyingPartyMetadata extends BasicClientMetadata {
    */
   @JsonProperty("userinfo_signed_response_alg")
   @Getter
-  @Setter
   private String userinfoSignedResponseAlg;
 
+  public void setUserinfoSignedResponseAlg(final String userinfoSignedResponseAlg) {
+    this.checkModifiable();
+    this.userinfoSignedResponseAlg = userinfoSignedResponseAlg;
+  }
+
   /**
    * OPTIONAL. JWE [JWE] alg algorithm [JWA] REQUIRED for encrypting UserInfo Responses. If both signing and encryption
    * are requested, the response will be signed then encrypted, with the result being a Nested JWT, as defined in [JWT].
@@ -98,9 +124,13 @@ public class RelyingPartyMetadata extends BasicClientMetadata {
    */
   @JsonProperty("userinfo_encrypted_response_alg")
   @Getter
-  @Setter
   private String userinfoEncryptedResponseAlg;
 
+  public void setUserinfoEncryptedResponseAlg(final String userinfoEncryptedResponseAlg) {
+    this.checkModifiable();
+    this.userinfoEncryptedResponseAlg = userinfoEncryptedResponseAlg;
+  }
+
   /**
    * OPTIONAL. JWE enc algorithm [JWA] REQUIRED for encrypting UserInfo Responses. If userinfo_encrypted_response_alg is
    * specified, the default for this value is A128CBC-HS256. When userinfo_encrypted_response_enc is included,
@@ -108,9 +138,13 @@ public class RelyingPartyMetadata extends BasicClientMetadata {
    */
   @JsonProperty("userinfo_encrypted_response_enc")
   @Getter
-  @Setter
   private String userinfoEncryptedResponseEnc;
 
+  public void setUserinfoEncryptedResponseEnc(final String userinfoEncryptedResponseEnc) {
+    this.checkModifiable();
+    this.userinfoEncryptedResponseEnc = userinfoEncryptedResponseEnc;
+  }
+
   /**
    * OPTIONAL. JWS [JWS] alg algorithm [JWA] that MUST be used for signing Request Objects sent to the OP. All Request
    * Objects from this Client MUST be rejected, if not signed with this algorithm. Request Objects are described in
@@ -121,9 +155,13 @@ public class RelyingPartyMetadata extends BasicClientMetadata {
    */
   @JsonProperty("request_object_signing_alg")
   @Getter
-  @Setter
   private String requestObjectSigningAlg;
 
+  public void setRequestObjectSigningAlg(final String requestObjectSigningAlg) {
+    this.checkModifiable();
+    this.requestObjectSigningAlg = requestObjectSigningAlg;
+  }
+
   /**
    * OPTIONAL. JWE [JWE] alg algorithm [JWA] the RP is declaring that it may use for encrypting Request Objects sent to
    * the OP. This parameter SHOULD be included when symmetric encryption will be used, since this signals to the OP that
@@ -135,9 +173,13 @@ public class RelyingPartyMetadata extends BasicClientMetadata {
    */
   @JsonProperty("request_object_encryption_alg")
   @Getter
-  @Setter
   private String requestObjectEncryptionAlg;
 
+  public void setRequestObjectEncryptionAlg(final String requestObjectEncryptionAlg) {
+    this.checkModifiable();
+    this.requestObjectEncryptionAlg = requestObjectEncryptionAlg;
+  }
+
   /**
    * OPTIONAL. JWE enc algorithm [JWA] the RP is declaring that it may use for encrypting Request Objects sent to the
    * OP. If request_object_encryption_alg is specified, the default for this value is A128CBC-HS256. When
@@ -145,9 +187,13 @@ public class RelyingPartyMetadata extends BasicClientMetadata {
    */
   @JsonProperty("request_object_encryption_enc")
   @Getter
-  @Setter
   private String requestObjectEncryptionEnc;
 
+  public void setRequestObjectEncryptionEnc(final String requestObjectEncryptionEnc) {
+    this.checkModifiable();
+    this.requestObjectEncryptionEnc = requestObjectEncryptionEnc;
+  }
+
   /**
    * OPTIONAL. JWS [JWS] alg algorithm [JWA] that MUST be used for signing the JWT [JWT] used to authenticate the Client
    * at the Token Endpoint for the private_key_jwt and client_secret_jwt authentication methods. All Token Requests
@@ -157,9 +203,13 @@ public class RelyingPartyMetadata extends BasicClientMetadata {
    */
   @JsonProperty("token_endpoint_auth_signing_alg")
   @Getter
-  @Setter
   private String tokenEndpointAuthSigningAlg;
 
+  public void setTokenEndpointAuthSigningAlg(final String tokenEndpointAuthSigningAlg) {
+    this.checkModifiable();
+    this.tokenEndpointAuthSigningAlg = tokenEndpointAuthSigningAlg;
+  }
+
   /**
    * OPTIONAL. Default Maximum Authentication Age. Specifies that the End-User MUST be actively authenticated if the
    * End-User was authenticated longer ago than the specified number of seconds. The max_age request parameter overrides
@@ -167,9 +217,13 @@ public class RelyingPartyMetadata extends BasicClientMetadata {
    */
   @JsonProperty("default_max_age")
   @Getter
-  @Setter
   private Integer defaultMaxAge;
 
+  public void setDefaultMaxAge(final Integer defaultMaxAge) {
+    this.checkModifiable();
+    this.defaultMaxAge = defaultMaxAge;
+  }
+
   /**
    * OPTIONAL. Boolean value specifying whether the auth_time Claim in the ID Token is REQUIRED. It is REQUIRED when the
    * value is true. (If this is false, the auth_time Claim can still be dynamically requested as an individual Claim for
@@ -178,9 +232,13 @@ public class RelyingPartyMetadata extends BasicClientMetadata {
    */
   @JsonProperty("require_auth_time")
   @Getter
-  @Setter
   private Boolean requireAuthTime;
 
+  public void setRequireAuthTime(final Boolean requireAuthTime) {
+    this.checkModifiable();
+    this.requireAuthTime = requireAuthTime;
+  }
+
   /**
    * OPTIONAL. Default requested Authentication Context Class Reference values. Array of strings that specifies the
    * default acr values that the OP is being requested to use for processing requests from this Client, with the values
@@ -192,9 +250,13 @@ public class RelyingPartyMetadata extends BasicClientMetadata {
    */
   @JsonProperty("default_acr_values")
   @Getter
-  @Setter
   private List<String> defaultAcrValues;
 
+  public void setDefaultAcrValues(final List<String> defaultAcrValues) {
+    this.checkModifiable();
+    this.defaultAcrValues = defaultAcrValues;
+  }
+
   /**
    * OPTIONAL. URI using the https scheme that a third party can use to initiate a login by the RP, as specified in
    * Section 4 of OpenID Connect Core 1.0 [OpenID.Core]. The URI MUST accept requests via both GET and POST. The Client
@@ -202,9 +264,13 @@ public class RelyingPartyMetadata extends BasicClientMetadata {
    */
   @JsonProperty("initiate_login_uri")
   @Getter
-  @Setter
   private String initiateLoginUri;
 
+  public void setInitiateLoginUri(final String initiateLoginUri) {
+    this.checkModifiable();
+    this.initiateLoginUri = initiateLoginUri;
+  }
+
   /**
    * OPTIONAL. Array of request_uri values that are pre-registered by the RP for use at the OP. Servers MAY cache the
    * contents of the files referenced by these URIs and not retrieve them at the time they are used in a request. OPs
@@ -213,9 +279,13 @@ public class RelyingPartyMetadata extends BasicClientMetadata {
    */
   @JsonProperty("request_uris")
   @Getter
-  @Setter
   private String requestUris;
 
+  public void setRequestUris(final String requestUris) {
+    this.checkModifiable();
+    this.requestUris = requestUris;
+  }
+
   /**
    * Constructor
    */
@@ -226,7 +296,7 @@ public class RelyingPartyMetadata extends BasicClientMetadata {
   /** {@inheritDoc} */
   @Override
   public String toJson(final boolean prettyPrinting) throws JsonProcessingException {
-    return jsonSerializer.setPrettyPrinting(prettyPrinting).toJson(this);
+    return jsonSerializer.toJson(this, prettyPrinting);
   }
 
   /** {@inheritDoc} */
@@ -235,6 +305,36 @@ public class RelyingPartyMetadata extends BasicClientMetadata {
     return jsonSerializer.toJsonObject(this);
   }
 
+  /** {@inheritDoc} */
+  @Override
+  public byte[] toUtf8Bytes() throws JsonProcessingException {
+    return jsonSerializer.toUtf8Bytes(this, false);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void writeTo(final OutputStream outputStream) throws IOException {
+    jsonSerializer.writeTo(this, outputStream, false);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void writeTo(final JsonGenerator generator) throws IOException {
+    jsonSerializer.writeTo(this, generator);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public RelyingPartyMetadata freeze() {
+    return (RelyingPartyMetadata) super.freeze();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public RelyingPartyMetadata snapshot() {
+    return (RelyingPartyMetadata) super.snapshot();
+  }
+
   /**
    * Get builder for relying party metadata
    *
@@ -0,0 +1,449 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.index;
+
+import se.oidc.oidfed.md.entities.AbstractOidcFedMetadata;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Thread-safe inverted index over the multi-valued parameters of metadata, such as the list parameters of
+ * {@link se.oidc.oidfed.md.entities.OpMetadata}, for discovery of entities by capability.
+ * <p>
+ * Each indexed entity is assigned a document number, and each value of an indexed parameter has a posting list, which
+ * is a bitmap of the document numbers of the entities that list the value. A {@link Query} combines posting lists with
+ * bitwise AND and OR operations, so that queries over many entities do not inspect the metadata of each entity.
+ * Document numbers of removed entities are reused, which keeps the bitmaps dense under incremental updates.
+ * </p>
+ * <p>
+ * The indexed values of an entity are captured when the entity is added. Metadata that is modified after it was added
+ * must be added again to update the index.
+ * </p>
+ * <pre>
+ * MetadataIndex&lt;OpMetadata&gt; index = MetadataIndex.&lt;OpMetadata&gt;builder()
+ *     .field("acr_values_supported", OpMetadata::getAcrValuesSupported)
+ *     .field("claims_supported", OpMetadata::getClaimsSupported)
+ *     .build();
+ * index.put(entityId, opMetadata);
+ * List&lt;OpMetadata&gt; result = index.find(Query.has("acr_values_supported", acr)
+ *     .and(Query.has("claims_supported", claim)));
+ * </pre>
+ *
+ * @param <T> metadata type
+ */
+public class MetadataIndex<T extends AbstractOidcFedMetadata> {
+
+  /** Value getters of the indexed parameters keyed by parameter name */
+  private final Map<String, Function<T, List<String>>> fields;
+
+  /** Document number of each indexed entity keyed by entity identifier, guarded by lock */
+  private final Map<String, Integer> documentNumbers = new HashMap<>();
+
+  /** Indexed documents by document number, with null for unused numbers, guarded by lock */
+  private final List<Document<T>> documents = new ArrayList<>();
+
+  /** Document numbers in use, guarded by lock */
+  private final BitSet live = new BitSet();
+
+  /** Posting lists keyed by parameter name, in the order of the index fields, and value, guarded by lock */
+  private final Map<String, Map<String, BitSet>> postings = new LinkedHashMap<>();
+
+  /** Lock guarding the index */
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  /**
+   * Constructor
+   *
+   * @param builder builder holding the indexed parameters
+   */
+  private MetadataIndex(final MetadataIndexBuilder<T> builder) {
+    this.fields = Collections.unmodifiableMap(new LinkedHashMap<>(builder.fields));
+    for (final String name : this.fields.keySet()) {
+      this.postings.put(name, new HashMap<>());
+    }
+  }
+
+  /**
+   * Create a builder for a metadata index.
+   *
+   * @param <T> metadata type
+   * @return builder
+   */
+  public static <T extends AbstractOidcFedMetadata> MetadataIndexBuilder<T> builder() {
+    return new MetadataIndexBuilder<>();
+  }
+
+  /**
+   * Get the names of the indexed parameters.
+   *
+   * @return parameter names
+   */
+  public Set<String> getFieldNames() {
+    return this.fields.keySet();
+  }
+
+  /**
+   * Add the metadata of an entity to the index, replacing any metadata previously added for the entity.
+   *
+   * @param entityId entity identifier
+   * @param metadata metadata of the entity
+   */
+  public void put(final String entityId, final T metadata) {
+    Objects.requireNonNull(entityId, "Null entity identifier is not allowed");
+    Objects.requireNonNull(metadata, "Null metadata is not allowed");
+    final List<Set<String>> values = new ArrayList<>(this.fields.size());
+    for (final Function<T, List<String>> getter : this.fields.values()) {
+      final List<String> fieldValues = getter.apply(metadata);
+      values.add(fieldValues == null ? Set.of() : new LinkedHashSet<>(fieldValues));
+    }
+    this.lock.writeLock().lock();
+    try {
+      final Integer previous = this.documentNumbers.get(entityId);
+      if (previous != null) {
+        this.unindex(previous);
+      }
+      final int documentNumber = previous != null ? previous : this.live.nextClearBit(0);
+      final Document<T> document = new Document<>(entityId, metadata, values);
+      if (documentNumber == this.documents.size()) {
+        this.documents.add(document);
+      }
+      else {
+        this.documents.set(documentNumber, document);
+      }
+      this.live.set(documentNumber);
+      this.documentNumbers.put(entityId, documentNumber);
+      int field = 0;
+      for (final Map<String, BitSet> fieldPostings : this.postings.values()) {
+        for (final String value : values.get(field++)) {
+          fieldPostings.computeIfAbsent(value, v -> new BitSet()).set(documentNumber);
+        }
+      }
+    }
+    finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Remove the metadata of an entity from the index.
+   *
+   * @param entityId entity identifier
+   * @return true if the entity was indexed
+   */
+  public boolean remove(final String entityId) {
+    this.lock.writeLock().lock();
+    try {
+      final Integer documentNumber = this.documentNumbers.remove(entityId);
+      if (documentNumber == null) {
+        return false;
+      }
+      this.unindex(documentNumber);
+      this.documents.set(documentNumber, null);
+      this.live.clear(documentNumber);
+      return true;
+    }
+    finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Get the indexed metadata of an entity.
+   *
+   * @param entityId entity identifier
+   * @return metadata or null if the entity is not indexed
+   */
+  public T get(final String entityId) {
+    this.lock.readLock().lock();
+    try {
+      final Integer documentNumber = this.documentNumbers.get(entityId);
+      return documentNumber == null ? null : this.documents.get(documentNumber).metadata();
+    }
+    finally {
+      this.lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Get the number of indexed entities.
+   *
+   * @return number of indexed entities
+   */
+  public int size() {
+    this.lock.readLock().lock();
+    try {
+      return this.documentNumbers.size();
+    }
+    finally {
+      this.lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Find the metadata of all entities matching a query.
+   *
+   * @param query query
+   * @return metadata of the matching entities
+   * @throws IllegalArgumentException if the query refers to a parameter that is not indexed
+   */
+  public List<T> find(final Query query) {
+    return this.collect(query, Document::metadata);
+  }
+
+  /**
+   * Find the identifiers of all entities matching a query.
+   *
+   * @param query query
+   * @return identifiers of the matching entities
+   * @throws IllegalArgumentException if the query refers to a parameter that is not indexed
+   */
+  public List<String> findEntityIds(final Query query) {
+    return this.collect(query, Document::entityId);
+  }
+
+  /**
+   * Count the entities matching a query.
+   *
+   * @param query query
+   * @return number of matching entities
+   * @throws IllegalArgumentException if the query refers to a parameter that is not indexed
+   */
+  public int count(final Query query) {
+    Objects.requireNonNull(query, "Null query is not allowed");
+    this.lock.readLock().lock();
+    try {
+      return query.evaluate(this).cardinality();
+    }
+    finally {
+      this.lock.readLock().unlock();
+    }
+  }
+
+  private <R> List<R> collect(final Query query, final Function<Document<T>, R> mapper) {
+    Objects.requireNonNull(query, "Null query is not allowed");
+    this.lock.readLock().lock();
+    try {
+      final BitSet matches = query.evaluate(this);
+      final List<R> result = new ArrayList<>(matches.cardinality());
+      for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+        result.add(mapper.apply(this.documents.get(i)));
+      }
+      return result;
+    }
+    finally {
+      this.lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Get the posting list of a parameter value. The caller must hold the lock and must not modify the result.
+   *
+   * @param field parameter name
+   * @param value parameter value
+   * @return posting list
+   */
+  private BitSet postings(final String field, final String value) {
+    final Map<String, BitSet> fieldPostings = this.postings.get(field);
+    if (fieldPostings == null) {
+      throw new IllegalArgumentException("Parameter is not indexed: " + field);
+    }
+    final BitSet postingList = fieldPostings.get(value);
+    return postingList == null ? new BitSet() : postingList;
+  }
+
+  /**
+   * Remove a document from the posting lists. Posting lists that become empty are removed.
+   *
+   * @param documentNumber document number
+   */
+  private void unindex(final int documentNumber) {
+    final Document<T> document = this.documents.get(documentNumber);
+    int field = 0;
+    for (final Map<String, BitSet> fieldPostings : this.postings.values()) {
+      for (final String value : document.values().get(field++)) {
+        final BitSet postingList = fieldPostings.get(value);
+        postingList.clear(documentNumber);
+        if (postingList.isEmpty()) {
+          fieldPostings.remove(value);
+        }
+      }
+    }
+  }
+
+  /**
+   * An indexed entity.
+   *
+   * @param entityId entity identifier
+   * @param metadata metadata of the entity
+   * @param values indexed values of each indexed parameter, in the order of the index fields
+   * @param <T> metadata type
+   */
+  private record Document<T>(String entityId, T metadata, List<Set<String>> values) {
+  }
+
+  /**
+   * A query over the indexed parameters of a {@link MetadataIndex}. Queries are immutable and may be reused with any
+   * index that indexes the parameters they refer to.
+   */
+  public static final class Query {
+
+    /** Evaluates the query to a bitmap of matching document numbers that the caller may modify */
+    private final Function<MetadataIndex<?>, BitSet> evaluator;
+
+    private Query(final Function<MetadataIndex<?>, BitSet> evaluator) {
+      this.evaluator = evaluator;
+    }
+
+    /**
+     * Create a query matching entities that list a value for a parameter.
+     *
+     * @param field parameter name
+     * @param value parameter value
+     * @return query
+     */
+    public static Query has(final String field, final String value) {
+      Objects.requireNonNull(field, "Null field is not allowed");
+      return new Query(index -> (BitSet) index.postings(field, value).clone());
+    }
+
+    /**
+     * Create a query matching entities that list all of the given values for a parameter.
+     *
+     * @param field parameter name
+     * @param values parameter values
+     * @return query
+     */
+    public static Query hasAll(final String field, final String... values) {
+      return allOf(values(field, values));
+    }
+
+    /**
+     * Create a query matching entities that list any of the given values for a parameter.
+     *
+     * @param field parameter name
+     * @param values parameter values
+     * @return query
+     */
+    public static Query hasAny(final String field, final String... values) {
+      return anyOf(values(field, values));
+    }
+
+    /**
+     * Create a query matching entities that match all of the given queries. An empty conjunction matches all indexed
+     * entities.
+     *
+     * @param queries queries
+     * @return query
+     */
+    public static Query allOf(final Query... queries) {
+      final List<Query> operands = List.of(queries);
+      return new Query(index -> {
+        if (operands.isEmpty()) {
+          return (BitSet) index.live.clone();
+        }
+        final BitSet result = operands.get(0).evaluate(index);
+        for (int i = 1; i < operands.size() && !result.isEmpty(); i++) {
+          result.and(operands.get(i).evaluate(index));
+        }
+        return result;
+      });
+    }
+
+    /**
+     * Create a query matching entities that match any of the given queries. An empty disjunction matches no entities.
+     *
+     * @param queries queries
+     * @return query
+     */
+    public static Query anyOf(final Query... queries) {
+      final List<Query> operands = List.of(queries);
+      return new Query(index -> {
+        final BitSet result = new BitSet();
+        for (final Query operand : operands) {
+          result.or(operand.evaluate(index));
+        }
+        return result;
+      });
+    }
+
+    /**
+     * Create a query matching entities that match both this query and another query.
+     *
+     * @param other other query
+     * @return query
+     */
+    public Query and(final Query other) {
+      return allOf(this, other);
+    }
+
+    /**
+     * Create a query matching entities that match this query or another query.
+     *
+     * @param other other query
+     * @return query
+     */
+    public Query or(final Query other) {
+      return anyOf(this, other);
+    }
+
+    private BitSet evaluate(final MetadataIndex<?> index) {
+      return this.evaluator.apply(index);
+    }
+
+    private static Query[] values(final String field, final String... values) {
+      final Query[] queries = new Query[values.length];
+      for (int i = 0; i < values.length; i++) {
+        queries[i] = has(field, values[i]);
+      }
+      return queries;
+    }
+  }
+
+  /**
+   * Builder for {@link MetadataIndex}.
+   *
+   * @param <T> metadata type
+   */
+  public static class MetadataIndexBuilder<T extends AbstractOidcFedMetadata> {
+
+    private final Map<String, Function<T, List<String>>> fields = new LinkedHashMap<>();
+
+    private MetadataIndexBuilder() {
+    }
+
+    /**
+     * Add an indexed parameter.
+     *
+     * @param name parameter name, used to refer to the parameter in queries
+     * @param getter getter for the values of the parameter
+     * @return this builder
+     */
+    public MetadataIndexBuilder<T> field(final String name, final Function<T, List<String>> getter) {
+      this.fields.put(Objects.requireNonNull(name, "Null name is not allowed"),
+          Objects.requireNonNull(getter, "Null getter is not allowed"));
+      return this;
+    }
+
+    public MetadataIndex<T> build() {
+      if (this.fields.isEmpty()) {
+        throw new IllegalStateException("No indexed parameters");
+      }
+      return new MetadataIndex<>(this);
+    }
+  }
+
+}
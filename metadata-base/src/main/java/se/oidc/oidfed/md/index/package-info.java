@@ -0,0 +1,10 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+
+/**
+ * Indexing of OpenID Federation metadata
+ */
+package se.oidc.oidfed.md.index;
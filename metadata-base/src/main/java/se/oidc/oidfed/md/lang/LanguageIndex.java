@@ -0,0 +1,203 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.lang;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Index of the language tags of a {@link LanguageObject} used to negotiate the language of a value.
+ * <p>
+ * Language tags are indexed in normalized form (lower case with "-" as subtag separator) and matched against language
+ * priority lists using the lookup scheme of RFC 4647, section 3.4. Recent resolutions of language priority lists are
+ * memoized in the index, and recently parsed language priority lists are shared by all indexes.
+ * </p>
+ * <p>
+ * Both caches are direct-mapped. Each language priority list has a single slot given by its hash code, and a new entry
+ * replaces the entry in its slot, so that the caches follow the language priority lists currently in use. Slots are
+ * read and written without locking, which is safe as the entries are immutable.
+ * </p>
+ */
+final class LanguageIndex {
+
+  /** Number of slots for memoized resolutions per index. Must be a power of two */
+  private static final int RESOLUTION_SLOTS = 16;
+
+  /** Number of slots for shared parsed language priority lists. Must be a power of two */
+  private static final int PRIORITY_LIST_SLOTS = 512;
+
+  /** Parsed language priority lists */
+  private static final CacheEntry<?>[] priorityLists = new CacheEntry<?>[PRIORITY_LIST_SLOTS];
+
+  /** The object holding the language tags that were indexed */
+  private final Object source;
+
+  /** Number of language tags when the index was created */
+  private final int sourceSize;
+
+  /** Language tags by normalized language tag */
+  private final Map<String, String> tags;
+
+  /** Memoized resolutions of language priority lists */
+  private final CacheEntry<?>[] resolutions = new CacheEntry<?>[RESOLUTION_SLOTS];
+
+  /**
+   * Constructor
+   *
+   * @param source the object holding the language tags
+   * @param languageTags the language tags to index
+   */
+  LanguageIndex(final Object source, final Collection<String> languageTags) {
+    this.source = source;
+    this.sourceSize = languageTags.size();
+    final Map<String, String> normalized = new LinkedHashMap<>();
+    for (final String tag : languageTags) {
+      if (tag != null) {
+        normalized.putIfAbsent(normalize(tag), tag);
+      }
+    }
+    this.tags = Collections.unmodifiableMap(normalized);
+  }
+
+  /**
+   * Test if this index was created from an object holding language tags in its current state.
+   *
+   * @param source the object holding the language tags
+   * @param size the current number of language tags
+   * @return true if this index is an index of the language tags of the object
+   */
+  boolean isIndexOf(final Object source, final int size) {
+    return this.source == source && this.sourceSize == size;
+  }
+
+  /**
+   * Find the language tag matching a language priority list, such as the value of an Accept-Language header or a
+   * single language tag.
+   *
+   * @param languagePriorityList language priority list
+   * @return the best matching language tag or null if no language tag matches
+   */
+  String lookup(final String languagePriorityList) {
+    final int slot = slot(languagePriorityList, RESOLUTION_SLOTS);
+    final CacheEntry<?> memoized = this.resolutions[slot];
+    if (memoized != null && memoized.key.equals(languagePriorityList)) {
+      return (String) memoized.value;
+    }
+    final List<Locale.LanguageRange> ranges = parse(languagePriorityList);
+    final String match = ranges == null ? null : this.lookup(ranges);
+    this.resolutions[slot] = new CacheEntry<>(languagePriorityList, match);
+    return match;
+  }
+
+  /**
+   * Find the language tag matching a list of language ranges in priority order. For each language range, the range and
+   * then progressively shorter prefixes of the range are matched against the language tags. If no tag matches a range
+   * this way, the first tag having the range as prefix is selected.
+   *
+   * @param ranges language ranges in priority order
+   * @return the best matching language tag or null if no language tag matches
+   */
+  String lookup(final List<Locale.LanguageRange> ranges) {
+    for (final Locale.LanguageRange range : ranges) {
+      if (range.getWeight() == 0.0 || "*".equals(range.getRange())) {
+        continue;
+      }
+      String candidate = range.getRange();
+      while (true) {
+        final String tag = this.tags.get(candidate);
+        if (tag != null) {
+          return tag;
+        }
+        int separator = candidate.lastIndexOf('-');
+        if (separator < 0) {
+          break;
+        }
+        // Remove any single character subtag preceding the removed subtag
+        if (separator >= 2 && candidate.charAt(separator - 2) == '-') {
+          separator -= 2;
+        }
+        candidate = candidate.substring(0, separator);
+      }
+      final String prefix = range.getRange() + "-";
+      for (final Map.Entry<String, String> tag : this.tags.entrySet()) {
+        if (tag.getKey().startsWith(prefix)) {
+          return tag.getValue();
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Parse a language priority list.
+   *
+   * @param languagePriorityList language priority list
+   * @return language ranges in priority order or null if the language priority list is not valid
+   */
+  @SuppressWarnings("unchecked")
+  static List<Locale.LanguageRange> parse(final String languagePriorityList) {
+    final int slot = slot(languagePriorityList, PRIORITY_LIST_SLOTS);
+    final CacheEntry<?> cached = priorityLists[slot];
+    if (cached != null && cached.key.equals(languagePriorityList)) {
+      return (List<Locale.LanguageRange>) cached.value;
+    }
+    final List<Locale.LanguageRange> ranges;
+    try {
+      ranges = Locale.LanguageRange.parse(languagePriorityList.replace('_', '-'));
+    }
+    catch (final IllegalArgumentException e) {
+      return null;
+    }
+    priorityLists[slot] = new CacheEntry<>(languagePriorityList, ranges);
+    return ranges;
+  }
+
+  /**
+   * Get the cache slot of a language priority list.
+   *
+   * @param languagePriorityList language priority list
+   * @param slots number of slots, which is a power of two
+   * @return slot index
+   */
+  private static int slot(final String languagePriorityList, final int slots) {
+    final int hash = languagePriorityList.hashCode();
+    return (hash ^ (hash >>> 16)) & (slots - 1);
+  }
+
+  /**
+   * Normalize a language tag.
+   *
+   * @param languageTag language tag
+   * @return language tag in lower case with "-" as subtag separator
+   */
+  private static String normalize(final String languageTag) {
+    return languageTag.replace('_', '-').toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Immutable cache entry.
+   *
+   * @param <V> value type
+   */
+  private static final class CacheEntry<V> {
+
+    /** The language priority list */
+    private final String key;
+
+    /** The cached value, which may be null */
+    private final V value;
+
+    private CacheEntry(final String key, final V value) {
+      this.key = key;
+      this.value = value;
+    }
+  }
+
+}
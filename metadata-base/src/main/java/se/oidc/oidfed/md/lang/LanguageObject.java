@@ -7,44 +7,421 @@ package se.oidc.oidfed.md.lang;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
-import org.apache.commons.collections4.MapUtils;
 
-import java.util.HashMap;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.Optional;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * Data class holding the values associated with zero or more language tags
+ * <p>
+ * Language tagged values are stored in compact form as parallel arrays of shared language tags and values, and in a
+ * map when there are more than {@value #COMPACT_SIZE_LIMIT} language tagged values. The value map returned by
+ * {@link #getValueMap()} is a view of the stored values, and changes made through the view are written to this object.
+ * </p>
+ * <p>
+ * A language object obtained from {@link #snapshot()} is frozen and can be shared between threads. Setters and the
+ * value map of a frozen language object throw {@link UnsupportedOperationException} on changes.
+ * </p>
  *
  * @param <T> Class of the language tagged objects
  */
-@Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class LanguageObject<T> {
 
+  /** Maximum number of language tagged values stored in compact form */
+  static final int COMPACT_SIZE_LIMIT = 16;
+
+  /** Number of slots of the language tag cache. Must be a power of two */
+  private static final int LANGUAGE_TAG_SLOTS = 1024;
+
+  /** Maximum length of a shared language tag */
+  private static final int MAX_LANGUAGE_TAG_LENGTH = 16;
+
+  /**
+   * Canonical instances of language tags shared by all language objects. Each tag has a single slot given by its hash
+   * code, and a new tag replaces the tag in its slot. Slots are read and written without locking, which is safe as
+   * strings are immutable.
+   */
+  private static final String[] languageTags = new String[LANGUAGE_TAG_SLOTS];
+
   /** The value of a present value without language tag (There can only be one) */
+  @Getter
   @JsonProperty("def")
   private T defaultValue;
-  /** Language tagged values with the language identifier as key */
+
+  /** Language tags of values stored in compact form, or null if values are stored in a map or not present */
+  private String[] tags;
+
+  /** Language tagged values stored in compact form in the order of the language tags */
+  private Object[] values;
+
+  /** Language tagged values with the language identifier as key, when there are too many values for compact form */
+  private Map<String, T> largeValueMap;
+
+  /** Index of the language tags of the value map, created on first language negotiation */
+  private transient volatile LanguageIndex languageIndex;
+
+  /** Set when this object is frozen and no longer can be modified */
+  private transient boolean frozen;
+
+  /**
+   * Constructor
+   *
+   * @param defaultValue the value without language tag
+   * @param valueMap language tagged values with the language identifier as key
+   */
+  public LanguageObject(final T defaultValue, final Map<String, T> valueMap) {
+    this.defaultValue = defaultValue;
+    this.setValueMap(valueMap);
+  }
+
+  /**
+   * Set the value without language tag.
+   *
+   * @param defaultValue the value without language tag
+   */
+  public void setDefaultValue(final T defaultValue) {
+    this.checkModifiable();
+    this.defaultValue = defaultValue;
+  }
+
+  /**
+   * Get the language tagged values. The returned map is a view of the values of this object. Changes made through the
+   * map are written to this object, and throw {@link UnsupportedOperationException} if this object is frozen.
+   *
+   * @return map of language tagged values with the language identifier as key, or null if no language tagged values
+   *     are set
+   */
   @JsonProperty("lang_values")
-  private Map<String, T> valueMap;
+  public Map<String, T> getValueMap() {
+    return this.largeValueMap == null && this.tags == null ? null : new ValueMap();
+  }
+
+  /**
+   * Set the language tagged values. The values are copied from the provided map.
+   *
+   * @param valueMap language tagged values with the language identifier as key, or null to remove all language tagged
+   *     values
+   */
+  @JsonProperty("lang_values")
+  public void setValueMap(final Map<String, T> valueMap) {
+    this.checkModifiable();
+    this.languageIndex = null;
+    this.tags = null;
+    this.values = null;
+    this.largeValueMap = null;
+    if (valueMap == null) {
+      return;
+    }
+    if (valueMap.size() > COMPACT_SIZE_LIMIT) {
+      this.largeValueMap = new LinkedHashMap<>(valueMap);
+      return;
+    }
+    final String[] valueTags = new String[valueMap.size()];
+    final Object[] tagValues = new Object[valueMap.size()];
+    int index = 0;
+    for (final Map.Entry<String, T> entry : valueMap.entrySet()) {
+      valueTags[index] = intern(entry.getKey());
+      tagValues[index++] = entry.getValue();
+    }
+    this.tags = valueTags;
+    this.values = tagValues;
+  }
+
+  /**
+   * Set the value of a language, replacing any present value of that language.
+   *
+   * @param language language identifier
+   * @param value value
+   */
+  private void putLanguageValue(final String language, final T value) {
+    this.languageIndex = null;
+    if (this.largeValueMap != null) {
+      this.largeValueMap.put(language, value);
+      return;
+    }
+    if (this.tags == null) {
+      this.tags = new String[] { intern(language) };
+      this.values = new Object[] { value };
+      return;
+    }
+    final int index = this.indexOf(language);
+    if (index >= 0) {
+      this.values[index] = value;
+      return;
+    }
+    if (this.tags.length == COMPACT_SIZE_LIMIT) {
+      final Map<String, T> valueMap = new LinkedHashMap<>(this.getValueMap());
+      valueMap.put(language, value);
+      this.setValueMap(valueMap);
+      return;
+    }
+    final String[] valueTags = Arrays.copyOf(this.tags, this.tags.length + 1);
+    final Object[] tagValues = Arrays.copyOf(this.values, this.values.length + 1);
+    valueTags[valueTags.length - 1] = intern(language);
+    tagValues[tagValues.length - 1] = value;
+    this.tags = valueTags;
+    this.values = tagValues;
+  }
+
+  /**
+   * Remove the value of a language stored in compact form.
+   *
+   * @param index index of the language in the compact form language tags
+   */
+  private void removeLanguageValue(final int index) {
+    this.languageIndex = null;
+    final String[] valueTags = new String[this.tags.length - 1];
+    final Object[] tagValues = new Object[this.values.length - 1];
+    System.arraycopy(this.tags, 0, valueTags, 0, index);
+    System.arraycopy(this.values, 0, tagValues, 0, index);
+    System.arraycopy(this.tags, index + 1, valueTags, index, valueTags.length - index);
+    System.arraycopy(this.values, index + 1, tagValues, index, tagValues.length - index);
+    this.tags = valueTags;
+    this.values = tagValues;
+  }
 
+  /**
+   * Tests if this object is frozen.
+   *
+   * @return true if this object no longer can be modified
+   */
+  @JsonIgnore
+  public boolean isFrozen() {
+    return this.frozen;
+  }
+
+  /**
+   * Get a frozen copy of this object. The copy shares the language tags and values of this object, and is returned as
+   * is if this object already is frozen.
+   *
+   * @return frozen language object holding the values of this object
+   */
+  public LanguageObject<T> snapshot() {
+    if (this.frozen) {
+      return this;
+    }
+    final LanguageObject<T> snapshot = new LanguageObject<>();
+    snapshot.defaultValue = this.defaultValue;
+    if (this.largeValueMap != null) {
+      snapshot.largeValueMap = new LinkedHashMap<>(this.largeValueMap);
+    }
+    else if (this.tags != null) {
+      snapshot.tags = this.tags.clone();
+      snapshot.values = this.values.clone();
+    }
+    snapshot.frozen = true;
+    return snapshot;
+  }
+
+  /**
+   * Throws an exception if this object is frozen.
+   */
+  private void checkModifiable() {
+    if (this.frozen) {
+      throw new UnsupportedOperationException("Language object is frozen");
+    }
+  }
+
+  /**
+   * Get the value of the language that best matches a language preference.
+   * <p>
+   * The language preference is either a single language tag, or a language priority list such as the value of an
+   * HTTP Accept-Language header (e.g. "sv-SE,sv;q=0.9,en;q=0.8"). Languages are matched using the lookup scheme of RFC
+   * 4647, so that a preference for "sv-SE" selects a value for "sv" if no value for "sv-SE" is present. If no language
+   * matches, the value without language tag is returned, or else the first language tagged value.
+   * </p>
+   *
+   * @param preferredLanguage language tag or language priority list
+   * @return the value of the best matching language or null if this object holds no values
+   */
   @JsonIgnore
   public T getLanguageValue(final String preferredLanguage) {
-    if (this.defaultValue == null && MapUtils.isEmpty(this.valueMap)) {
-      return null;
+    if (this.size() == 0) {
+      return this.defaultValue;
+    }
+    if (preferredLanguage != null) {
+      final T exactMatch = this.get(preferredLanguage);
+      if (exactMatch != null) {
+        return exactMatch;
+      }
+      final String languageTag = this.getLanguageIndex().lookup(preferredLanguage);
+      if (languageTag != null) {
+        return this.get(languageTag);
+      }
     }
-    final T firstAvailable = this.defaultValue == null
-        ? this.valueMap.values().stream().findFirst().get()
-        : this.defaultValue;
+    return this.getFirstAvailableValue();
+  }
 
-    return !MapUtils.isEmpty(this.valueMap) && this.valueMap.containsKey(preferredLanguage)
-        ? this.valueMap.get(preferredLanguage)
-        : firstAvailable;
+  /**
+   * Get the value of the language that best matches a list of language ranges in priority order, as obtained from
+   * {@link Locale.LanguageRange#parse(String)}. Languages are matched as described for
+   * {@link #getLanguageValue(String)}.
+   *
+   * @param languageRanges language ranges in priority order
+   * @return the value of the best matching language or null if this object holds no values
+   */
+  @JsonIgnore
+  public T getLanguageValue(final List<Locale.LanguageRange> languageRanges) {
+    if (this.size() == 0) {
+      return this.defaultValue;
+    }
+    if (languageRanges != null) {
+      final String languageTag = this.getLanguageIndex().lookup(languageRanges);
+      if (languageTag != null) {
+        return this.get(languageTag);
+      }
+    }
+    return this.getFirstAvailableValue();
+  }
+
+  /**
+   * Get the number of language tagged values.
+   *
+   * @return number of language tagged values
+   */
+  private int size() {
+    if (this.largeValueMap != null) {
+      return this.largeValueMap.size();
+    }
+    return this.tags == null ? 0 : this.tags.length;
+  }
+
+  /**
+   * Get the value of a language.
+   *
+   * @param language language identifier
+   * @return the value of the language or null
+   */
+  @SuppressWarnings("unchecked")
+  private T get(final String language) {
+    if (this.largeValueMap != null) {
+      return this.largeValueMap.get(language);
+    }
+    final int index = this.indexOf(language);
+    return index < 0 ? null : (T) this.values[index];
+  }
+
+  /**
+   * Get the index of a language in the compact form language tags.
+   *
+   * @param language language identifier
+   * @return index of the language or -1 if not present
+   */
+  private int indexOf(final Object language) {
+    if (this.tags == null || language == null) {
+      return -1;
+    }
+    // Tags are shared instances, so most matches are found by identity
+    for (int i = 0; i < this.tags.length; i++) {
+      if (this.tags[i] == language) {
+        return i;
+      }
+    }
+    for (int i = 0; i < this.tags.length; i++) {
+      if (this.tags[i].equals(language)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Get the value without language tag if present, or else the first language tagged value.
+   *
+   * @return the first available value
+   */
+  @SuppressWarnings("unchecked")
+  private T getFirstAvailableValue() {
+    if (this.defaultValue != null) {
+      return this.defaultValue;
+    }
+    if (this.largeValueMap != null) {
+      return this.largeValueMap.values().iterator().next();
+    }
+    return (T) this.values[0];
+  }
+
+  /**
+   * Get the index of the language tags. A new index is created if the language tags have changed since the index was
+   * created.
+   *
+   * @return language index
+   */
+  private LanguageIndex getLanguageIndex() {
+    final Object source = this.largeValueMap != null ? this.largeValueMap : this.tags;
+    LanguageIndex index = this.languageIndex;
+    if (index == null || !index.isIndexOf(source, this.size())) {
+      index = new LanguageIndex(source, this.largeValueMap != null
+          ? this.largeValueMap.keySet()
+          : Arrays.asList(this.tags));
+      this.languageIndex = index;
+    }
+    return index;
+  }
+
+  /**
+   * Get the canonical instance of a language tag. Recently used language tags of at most
+   * {@value #MAX_LANGUAGE_TAG_LENGTH} characters holding only letters, digits and hyphens are shared by all language
+   * objects. Other language tags are used as provided.
+   *
+   * @param language language identifier
+   * @return canonical instance of the language identifier
+   */
+  private static String intern(final String language) {
+    if (language == null || language.length() > MAX_LANGUAGE_TAG_LENGTH) {
+      return language;
+    }
+    for (int i = 0; i < language.length(); i++) {
+      final char c = language.charAt(i);
+      if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '-')) {
+        return language;
+      }
+    }
+    final int hash = language.hashCode();
+    final int slot = (hash ^ (hash >>> 16)) & (LANGUAGE_TAG_SLOTS - 1);
+    final String canonical = languageTags[slot];
+    if (language.equals(canonical)) {
+      return canonical;
+    }
+    languageTags[slot] = language;
+    return language;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof final LanguageObject<?> that)) {
+      return false;
+    }
+    return Objects.equals(this.defaultValue, that.defaultValue)
+        && Objects.equals(this.getValueMap(), that.getValueMap());
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public int hashCode() {
+    return Objects.hash(this.defaultValue, this.getValueMap());
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public String toString() {
+    return "LanguageObject(defaultValue=" + this.defaultValue + ", valueMap=" + this.getValueMap() + ")";
   }
 
   public static <V> LanguageObjectBuilder<V> builder(final Class<V> valueClass) {
@@ -65,15 +442,12 @@ public class LanguageObject<T> {
     }
 
     public LanguageObjectBuilder<T> valueMap(final Map<String, T> valueMap) {
-      this.languageObject.valueMap = valueMap;
+      this.languageObject.setValueMap(valueMap);
       return this;
     }
 
     public LanguageObjectBuilder<T> langValue(final String language, final T value) {
-      final Map<String, T> valueMap = Optional.ofNullable(this.languageObject.getValueMap())
-          .orElse(new HashMap<>());
-      valueMap.put(language, value);
-      this.languageObject.valueMap = valueMap;
+      this.languageObject.putLanguageValue(language, value);
       return this;
     }
 
@@ -83,4 +457,169 @@ public class LanguageObject<T> {
 
   }
 
+  /**
+   * Map view of the language tagged values of this object. Values stored in a map are accessed through that map, and
+   * values stored in compact form through the language tag and value arrays.
+   */
+  private final class ValueMap extends AbstractMap<String, T> {
+
+    /** {@inheritDoc} */
+    @Override
+    public int size() {
+      return LanguageObject.this.size();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean containsKey(final Object key) {
+      final Map<String, T> map = LanguageObject.this.largeValueMap;
+      return map != null ? map.containsKey(key) : LanguageObject.this.indexOf(key) >= 0;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(final Object key) {
+      final Map<String, T> map = LanguageObject.this.largeValueMap;
+      if (map != null) {
+        return map.get(key);
+      }
+      final int index = LanguageObject.this.indexOf(key);
+      return index < 0 ? null : (T) LanguageObject.this.values[index];
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public T put(final String key, final T value) {
+      LanguageObject.this.checkModifiable();
+      final T previous = this.get(key);
+      LanguageObject.this.putLanguageValue(key, value);
+      return previous;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T remove(final Object key) {
+      LanguageObject.this.checkModifiable();
+      final Map<String, T> map = LanguageObject.this.largeValueMap;
+      if (map != null) {
+        LanguageObject.this.languageIndex = null;
+        return map.remove(key);
+      }
+      final int index = LanguageObject.this.indexOf(key);
+      if (index < 0) {
+        return null;
+      }
+      final T previous = (T) LanguageObject.this.values[index];
+      LanguageObject.this.removeLanguageValue(index);
+      return previous;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Set<Entry<String, T>> entrySet() {
+      return new AbstractSet<>() {
+        @Override
+        public Iterator<Entry<String, T>> iterator() {
+          final Map<String, T> map = LanguageObject.this.largeValueMap;
+          return map != null ? new MapIterator(map.entrySet().iterator()) : new CompactIterator();
+        }
+
+        @Override
+        public int size() {
+          return LanguageObject.this.size();
+        }
+      };
+    }
+  }
+
+  /**
+   * Iterator over values stored in a map.
+   */
+  private final class MapIterator implements Iterator<Map.Entry<String, T>> {
+
+    private final Iterator<Map.Entry<String, T>> iterator;
+
+    private MapIterator(final Iterator<Map.Entry<String, T>> iterator) {
+      this.iterator = iterator;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean hasNext() {
+      return this.iterator.hasNext();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Map.Entry<String, T> next() {
+      final Map.Entry<String, T> entry = this.iterator.next();
+      return new AbstractMap.SimpleEntry<>(entry) {
+        @Override
+        public T setValue(final T value) {
+          LanguageObject.this.checkModifiable();
+          super.setValue(value);
+          return entry.setValue(value);
+        }
+      };
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void remove() {
+      LanguageObject.this.checkModifiable();
+      LanguageObject.this.languageIndex = null;
+      this.iterator.remove();
+    }
+  }
+
+  /**
+   * Iterator over values stored in compact form.
+   */
+  private final class CompactIterator implements Iterator<Map.Entry<String, T>> {
+
+    /** Index of the next value */
+    private int index;
+
+    /** Set when the last returned value can be removed */
+    private boolean removable;
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean hasNext() {
+      return LanguageObject.this.tags != null && this.index < LanguageObject.this.tags.length;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map.Entry<String, T> next() {
+      if (!this.hasNext()) {
+        throw new NoSuchElementException();
+      }
+      this.removable = true;
+      final String tag = LanguageObject.this.tags[this.index];
+      return new AbstractMap.SimpleEntry<>(tag, (T) LanguageObject.this.values[this.index++]) {
+        @Override
+        public T setValue(final T value) {
+          LanguageObject.this.checkModifiable();
+          LanguageObject.this.putLanguageValue(tag, value);
+          return super.setValue(value);
+        }
+      };
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void remove() {
+      if (!this.removable) {
+        throw new IllegalStateException();
+      }
+      LanguageObject.this.checkModifiable();
+      LanguageObject.this.removeLanguageValue(--this.index);
+      this.removable = false;
+    }
+  }
+
 }
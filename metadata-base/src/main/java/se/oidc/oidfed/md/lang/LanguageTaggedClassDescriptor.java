@@ -0,0 +1,158 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.lang;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import se.oidc.oidfed.md.MetadataUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Descriptor of the JSON properties of a class holding language tagged data. Descriptors are computed once per class
+ * and shared by all serializers and all instances of that class.
+ * <p>
+ * The descriptor holds the JSON property names of the class as determined by Jackson introspection, and the names of
+ * all properties holding a {@link LanguageObject} value.
+ * </p>
+ */
+public final class LanguageTaggedClassDescriptor {
+
+  /** Descriptors per class */
+  private static final ClassValue<LanguageTaggedClassDescriptor> descriptors = new ClassValue<>() {
+    @Override
+    protected LanguageTaggedClassDescriptor computeValue(final Class<?> type) {
+      return new LanguageTaggedClassDescriptor(type, MetadataUtils.OBJECT_MAPPER);
+    }
+  };
+
+  /** The described class */
+  private final Class<?> type;
+
+  /** JSON property names of the class */
+  private final List<String> propertyNames;
+
+  /** JSON property names of the class for fast lookup */
+  private final Set<String> knownProperties;
+
+  /** Names of JSON properties holding a {@link LanguageObject} */
+  private final List<String> languageObjectProperties;
+
+  /** Set to true if the class serializes properties that are not known in advance, such as with a JSON any getter */
+  private final boolean dynamicProperties;
+
+  /** Language tagged parameters declared by instances of the class, resolved on first use */
+  private volatile List<String> declaredLanguageTaggedParameters;
+
+  /**
+   * Constructor
+   *
+   * @param type the described class
+   * @param objectMapper object mapper used to introspect the class
+   */
+  private LanguageTaggedClassDescriptor(final Class<?> type, final ObjectMapper objectMapper) {
+    this.type = type;
+    final SerializationConfig config = objectMapper.getSerializationConfig();
+    final BeanDescription beanDescription = config.introspect(objectMapper.constructType(type));
+    final List<String> names = new ArrayList<>();
+    final List<String> languageObjectNames = new ArrayList<>();
+    for (final BeanPropertyDefinition property : beanDescription.findProperties()) {
+      names.add(property.getName());
+      if (property.getPrimaryType() != null
+          && LanguageObject.class.isAssignableFrom(property.getPrimaryType().getRawClass())) {
+        languageObjectNames.add(property.getName());
+      }
+    }
+    this.propertyNames = List.copyOf(names);
+    this.knownProperties = Set.copyOf(names);
+    this.languageObjectProperties = List.copyOf(languageObjectNames);
+    this.dynamicProperties = beanDescription.findAnyGetter() != null
+        || Map.class.isAssignableFrom(type) || beanDescription.findJsonValueAccessor() != null;
+  }
+
+  /**
+   * Get the descriptor of a class.
+   *
+   * @param type the class
+   * @return descriptor of the class
+   */
+  public static LanguageTaggedClassDescriptor forClass(final Class<?> type) {
+    return descriptors.get(type);
+  }
+
+  /**
+   * Get the JSON property names of the described class.
+   *
+   * @return unmodifiable list of JSON property names
+   */
+  public List<String> getPropertyNames() {
+    return this.propertyNames;
+  }
+
+  /**
+   * Test if a name is a JSON property name of the described class.
+   *
+   * @param name property name
+   * @return true if the name is a JSON property name of the described class
+   */
+  public boolean isKnownProperty(final String name) {
+    return this.knownProperties.contains(name);
+  }
+
+  /**
+   * Test if instances of the described class may serialize JSON properties that are not known from the class
+   * declaration. This is the case for maps and classes with a JSON any getter or JSON value accessor.
+   *
+   * @return true if JSON property names of instances can not be determined from the class
+   */
+  public boolean hasDynamicProperties() {
+    return this.dynamicProperties;
+  }
+
+  /**
+   * Get the names of all JSON properties holding a {@link LanguageObject} value.
+   *
+   * @return unmodifiable list of property names
+   */
+  public List<String> getLanguageObjectProperties() {
+    return this.languageObjectProperties;
+  }
+
+  /**
+   * Get the language tagged parameters declared by the described class through
+   * {@link LanguageTaggedJson#getLanguageTaggedParameters()}. This list is obtained once from an instance created by the
+   * no-argument constructor of the class.
+   *
+   * @return unmodifiable list of declared language tagged parameters
+   * @throws IllegalArgumentException if the class is not a {@link LanguageTaggedJson} class with a no-argument
+   *     constructor
+   */
+  public List<String> getDeclaredLanguageTaggedParameters() {
+    List<String> declared = this.declaredLanguageTaggedParameters;
+    if (declared == null) {
+      if (!LanguageTaggedJson.class.isAssignableFrom(this.type)) {
+        throw new IllegalArgumentException("Illegal target class declaration");
+      }
+      try {
+        declared = List.copyOf(((LanguageTaggedJson) this.type.getDeclaredConstructor().newInstance())
+            .getLanguageTaggedParameters());
+      }
+      catch (final InstantiationException | IllegalAccessException | InvocationTargetException |
+          NoSuchMethodException e) {
+        throw new IllegalArgumentException("Illegal target class declaration");
+      }
+      this.declaredLanguageTaggedParameters = declared;
+    }
+    return declared;
+  }
+
+}
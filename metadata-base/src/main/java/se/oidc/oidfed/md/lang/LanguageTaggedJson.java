@@ -5,6 +5,8 @@
  */
 package se.oidc.oidfed.md.lang;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.util.List;
 
 /**
@@ -17,6 +19,7 @@ public interface LanguageTaggedJson {
    *
    * @return list of language tagged parameters
    */
+  @JsonIgnore
   List<String> getLanguageTaggedParameters();
 
 }
@@ -0,0 +1,91 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.lang;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bean serializer modifier for classes implementing {@link LanguageTaggedJson}. Properties holding a
+ * {@link LanguageObject} that are declared as language tagged parameters are written directly to the JSON generator as
+ * one parameter without language tag for the default value, and one "name#lang" parameter for each language tagged
+ * value.
+ */
+class LanguageTaggedSerializerModifier extends BeanSerializerModifier {
+
+  private static final long serialVersionUID = 5398312866291404457L;
+
+  /** {@inheritDoc} */
+  @Override
+  public List<BeanPropertyWriter> changeProperties(final SerializationConfig config, final BeanDescription beanDesc,
+      final List<BeanPropertyWriter> beanProperties) {
+    if (!LanguageTaggedJson.class.isAssignableFrom(beanDesc.getBeanClass())) {
+      return beanProperties;
+    }
+    final List<BeanPropertyWriter> properties = new ArrayList<>(beanProperties.size());
+    for (final BeanPropertyWriter writer : beanProperties) {
+      properties.add(LanguageObject.class.isAssignableFrom(writer.getType().getRawClass())
+          ? new LanguageTaggedPropertyWriter(writer)
+          : writer);
+    }
+    return properties;
+  }
+
+  /**
+   * Property writer for {@link LanguageObject} properties.
+   */
+  static class LanguageTaggedPropertyWriter extends BeanPropertyWriter {
+
+    private static final long serialVersionUID = -2188755170926462036L;
+
+    /**
+     * Constructor
+     *
+     * @param base the property writer of the language object property
+     */
+    LanguageTaggedPropertyWriter(final BeanPropertyWriter base) {
+      super(base);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void serializeAsField(final Object bean, final JsonGenerator gen, final SerializerProvider prov)
+        throws Exception {
+      final Object value = this.get(bean);
+      if (value == null) {
+        return;
+      }
+      if (!((LanguageTaggedJson) bean).getLanguageTaggedParameters().contains(this.getName())) {
+        // Not declared as a language tagged parameter. Serialize the language object as is
+        super.serializeAsField(bean, gen, prov);
+        return;
+      }
+      final LanguageObject<?> languageObject = (LanguageObject<?>) value;
+      if (languageObject.getDefaultValue() != null) {
+        gen.writeFieldName(this.getName());
+        prov.defaultSerializeValue(languageObject.getDefaultValue(), gen);
+      }
+      final Map<String, ?> valueMap = languageObject.getValueMap();
+      if (valueMap != null) {
+        for (final Map.Entry<String, ?> entry : valueMap.entrySet()) {
+          if (entry.getValue() != null) {
+            gen.writeFieldName(this.getName() + "#" + entry.getKey());
+            prov.defaultSerializeValue(entry.getValue(), gen);
+          }
+        }
+      }
+    }
+  }
+
+}
@@ -5,13 +5,25 @@
  */
 package se.oidc.oidfed.md.lang;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import org.apache.commons.lang3.StringUtils;
 import se.oidc.oidfed.md.MetadataUtils;
 
-import java.lang.reflect.InvocationTargetException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.*;
 
 /**
@@ -32,15 +44,24 @@ import java.util.*;
  * <pre>{@code
  * JsonOidcLangConverter<GenericLangTarget> converter = new JsonOidcLangConverter<>(GenericLangTarget.class)}
  * </pre>
+ * <p>
+ * Instances of this class are immutable and safe to share between threads. A serializer with another pretty printing
+ * option is obtained with {@link #withPrettyPrinting(boolean)}.
+ * </p>
  */
 public class OidcLangJsonSerializer<T extends LanguageTaggedJson> {
 
   private final List<String> targetDeclaredLangParameters;
+  private final Set<String> targetDeclaredLangParameterSet;
   private final ObjectMapper objectMapper;
+  private final ObjectWriter compactWriter;
+  private final ObjectWriter prettyWriter;
+  private final ObjectWriter compactStreamWriter;
+  private final ObjectWriter prettyStreamWriter;
 
   private final Class<T> targetClass;
 
-  private boolean prettyPrinting = false;
+  private final boolean prettyPrinting;
 
   /**
    * Constructor
@@ -52,48 +73,318 @@ public class OidcLangJsonSerializer<T extends LanguageTaggedJson> {
   }
 
   /**
-   * Constructor with custom {@link ObjectMapper}
+   * Constructor with custom {@link ObjectMapper}. The provided object mapper is copied and is not modified by this
+   * serializer.
    *
    * @param targetClass the target class for deserialization of language tagged JSON data
    * @param objectMapper the object mapper used for serialization and deserialization of JSON
    */
   public OidcLangJsonSerializer(final Class<T> targetClass, final ObjectMapper objectMapper) {
-    this.objectMapper = objectMapper;
+    this.objectMapper = objectMapper.copy()
+        .registerModule(new SimpleModule().setSerializerModifier(new LanguageTaggedSerializerModifier()));
+    this.compactWriter = this.objectMapper.writer();
+    this.prettyWriter = this.objectMapper.writerWithDefaultPrettyPrinter();
+    // Output streams are owned by the caller and are left open
+    this.compactStreamWriter = this.compactWriter.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    this.prettyStreamWriter = this.prettyWriter.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
     this.targetClass = targetClass;
-    try {
-      this.targetDeclaredLangParameters = targetClass.getDeclaredConstructor()
-          .newInstance()
-          .getLanguageTaggedParameters();
-    }
-    catch (final InstantiationException | IllegalAccessException | InvocationTargetException |
-        NoSuchMethodException e) {
-      throw new IllegalArgumentException("Illegal target class declaration");
-    }
+    this.targetDeclaredLangParameters = LanguageTaggedClassDescriptor.forClass(targetClass)
+        .getDeclaredLanguageTaggedParameters();
+    this.targetDeclaredLangParameterSet = Set.copyOf(this.targetDeclaredLangParameters);
+    this.prettyPrinting = false;
+  }
+
+  /**
+   * Creates a serializer sharing all configuration with another serializer, but with a different pretty printing
+   * option.
+   *
+   * @param serializer the serializer to copy
+   * @param prettyPrinting pretty printing option
+   */
+  private OidcLangJsonSerializer(final OidcLangJsonSerializer<T> serializer, final boolean prettyPrinting) {
+    this.targetDeclaredLangParameters = serializer.targetDeclaredLangParameters;
+    this.targetDeclaredLangParameterSet = serializer.targetDeclaredLangParameterSet;
+    this.objectMapper = serializer.objectMapper;
+    this.compactWriter = serializer.compactWriter;
+    this.prettyWriter = serializer.prettyWriter;
+    this.compactStreamWriter = serializer.compactStreamWriter;
+    this.prettyStreamWriter = serializer.prettyStreamWriter;
+    this.targetClass = serializer.targetClass;
+    this.prettyPrinting = prettyPrinting;
   }
 
   /**
-   * Sets pretty printing option.
+   * Returns a serializer with the requested pretty printing option used by {@link #toJson(LanguageTaggedJson)}. This
+   * serializer is not modified, and is returned if it already has the requested option.
    *
    * @param prettyPrinting boolean setting pretty printing option
-   * @return this serializer to support cascading
+   * @return serializer with the requested pretty printing option
    */
+  public OidcLangJsonSerializer<T> withPrettyPrinting(final boolean prettyPrinting) {
+    return this.prettyPrinting == prettyPrinting
+        ? this
+        : new OidcLangJsonSerializer<>(this, prettyPrinting);
+  }
+
+  /**
+   * Returns a serializer with the requested pretty printing option, as {@link #withPrettyPrinting(boolean)}. This
+   * serializer is not modified, so the returned serializer must be used.
+   *
+   * @param prettyPrinting boolean setting pretty printing option
+   * @return serializer with the requested pretty printing option
+   * @deprecated serializers are immutable. Use {@link #withPrettyPrinting(boolean)} or
+   *     {@link #toJson(LanguageTaggedJson, boolean)}
+   */
+  @Deprecated
   public OidcLangJsonSerializer<T> setPrettyPrinting(final boolean prettyPrinting) {
-    this.prettyPrinting = prettyPrinting;
-    return this;
+    return this.withPrettyPrinting(prettyPrinting);
+  }
+
+  /**
+   * Get the target class for deserialization of language tagged JSON data.
+   *
+   * @return target class
+   */
+  public Class<T> getTargetClass() {
+    return this.targetClass;
   }
 
   /**
-   * Parse JSON string that may include language tagged data to the target object class
+   * Parse JSON string that may include language tagged data to the target object class.
+   * <p>
+   * The JSON data is processed in a single streaming pass where language tagged parameters are grouped into
+   * {@link LanguageObject} values as they are read, and where all other parameters are buffered as tokens for binding
+   * to the target class. The result is equivalent to first reading the JSON into a map and then calling
+   * {@link #parse(Map)}.
+   * </p>
    *
    * @param languageTaggedJson JSON string which may contain language tagged data
    * @return target object storing language tagged data in {@link LanguageObject}
    * @throws JsonProcessingException error to parse JSON data
    */
   public T parse(final String languageTaggedJson) throws JsonProcessingException {
-    final Map<String, Object> languageTaggedJsonObject =
-        this.objectMapper.readValue(languageTaggedJson, new TypeReference<>() {
-        });
-    return this.parse(languageTaggedJsonObject);
+    try (final JsonParser parser = this.objectMapper.createParser(languageTaggedJson)) {
+      return this.parse(parser);
+    }
+    catch (final JsonProcessingException e) {
+      throw e;
+    }
+    catch (final IOException e) {
+      throw JsonMappingException.fromUnexpectedIOE(e);
+    }
+  }
+
+  /**
+   * Parse UTF-8 encoded JSON that may include language tagged data to the target object class. The bytes are parsed
+   * without first decoding them to a string, as described in {@link #parse(String)}.
+   *
+   * @param languageTaggedJson UTF-8 encoded JSON which may contain language tagged data
+   * @return target object storing language tagged data in {@link LanguageObject}
+   * @throws JsonProcessingException error to parse JSON data
+   */
+  public T parse(final byte[] languageTaggedJson) throws JsonProcessingException {
+    return this.parse(languageTaggedJson, 0, languageTaggedJson.length);
+  }
+
+  /**
+   * Parse UTF-8 encoded JSON held by a range of a byte array to the target object class, as described in
+   * {@link #parse(String)}.
+   *
+   * @param languageTaggedJson byte array holding UTF-8 encoded JSON which may contain language tagged data
+   * @param offset offset of the first byte of the JSON data
+   * @param length number of bytes of JSON data
+   * @return target object storing language tagged data in {@link LanguageObject}
+   * @throws JsonProcessingException error to parse JSON data
+   */
+  public T parse(final byte[] languageTaggedJson, final int offset, final int length) throws JsonProcessingException {
+    Objects.checkFromIndexSize(offset, length, languageTaggedJson.length);
+    try (final JsonParser parser = this.objectMapper.createParser(languageTaggedJson, offset, length)) {
+      return this.parse(parser);
+    }
+    catch (final JsonProcessingException e) {
+      throw e;
+    }
+    catch (final IOException e) {
+      throw JsonMappingException.fromUnexpectedIOE(e);
+    }
+  }
+
+  /**
+   * Parse UTF-8 encoded JSON held by a byte buffer to the target object class, as described in
+   * {@link #parse(String)}. The bytes from the position to the limit of the buffer are parsed. Heap buffers are parsed
+   * from their backing array and direct buffers are read without copying them to a byte array first. The position of
+   * the buffer is not changed.
+   *
+   * @param languageTaggedJson byte buffer holding UTF-8 encoded JSON which may contain language tagged data
+   * @return target object storing language tagged data in {@link LanguageObject}
+   * @throws JsonProcessingException error to parse JSON data
+   */
+  public T parse(final ByteBuffer languageTaggedJson) throws JsonProcessingException {
+    if (languageTaggedJson.hasArray()) {
+      return this.parse(languageTaggedJson.array(),
+          languageTaggedJson.arrayOffset() + languageTaggedJson.position(), languageTaggedJson.remaining());
+    }
+    try {
+      return this.parse(new ByteBufferBackedInputStream(languageTaggedJson.duplicate()));
+    }
+    catch (final JsonProcessingException e) {
+      throw e;
+    }
+    catch (final IOException e) {
+      throw JsonMappingException.fromUnexpectedIOE(e);
+    }
+  }
+
+  /**
+   * Parse JSON read from an input stream to the target object class, as described in {@link #parse(String)}. The
+   * encoding of the JSON data is detected as specified by RFC 8259, and is normally UTF-8. The input stream is not
+   * closed.
+   *
+   * @param languageTaggedJson input stream providing JSON which may contain language tagged data
+   * @return target object storing language tagged data in {@link LanguageObject}
+   * @throws IOException error to read or parse JSON data
+   */
+  public T parse(final InputStream languageTaggedJson) throws IOException {
+    try (final JsonParser parser = this.objectMapper.createParser(languageTaggedJson)) {
+      parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+      return this.parse(parser);
+    }
+  }
+
+  /**
+   * Parse the next JSON object from a JSON parser to the target object class. The parser must either be positioned
+   * before the JSON object or at its start token. When this method returns, the parser is positioned at the end token
+   * of the parsed JSON object.
+   *
+   * @param parser JSON parser providing a JSON object which may contain language tagged data
+   * @return target object storing language tagged data in {@link LanguageObject}
+   * @throws IOException error to read or parse JSON data
+   */
+  public T parse(final JsonParser parser) throws IOException {
+    JsonToken token = parser.hasCurrentToken() ? parser.currentToken() : parser.nextToken();
+    if (token != JsonToken.START_OBJECT) {
+      throw MismatchedInputException.from(parser, this.targetClass,
+          "Language tagged JSON data must be a JSON object, found " + token);
+    }
+
+    final TokenBuffer buffer = new TokenBuffer(this.objectMapper, false);
+    buffer.writeStartObject();
+    // Language tagged values, collected while streaming and keyed by parameter name
+    Map<String, LanguageValues> languageValuesMap = null;
+
+    while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+      final String name = parser.currentName();
+      parser.nextToken();
+      final int tagIndex = name.indexOf('#');
+      final String propName = tagIndex < 0 ? name : name.substring(0, tagIndex);
+      if (tagIndex >= 0 && StringUtils.isNotBlank(propName)) {
+        // Language tagged value
+        if (languageValuesMap == null) {
+          languageValuesMap = new LinkedHashMap<>();
+        }
+        final LanguageValues languageValues = languageValuesMap.computeIfAbsent(propName, k -> new LanguageValues());
+        languageValues.tagged = true;
+        final String lang = name.substring(tagIndex + 1);
+        if (StringUtils.isNotBlank(lang)) {
+          languageValues.langValues.put(lang, this.objectMapper.readValue(parser, Object.class));
+        }
+        else {
+          parser.skipChildren();
+        }
+        continue;
+      }
+      if (this.targetDeclaredLangParameterSet.contains(name)
+          || languageValuesMap != null && languageValuesMap.containsKey(name)) {
+        // Untagged default value of a language tagged parameter
+        if (languageValuesMap == null) {
+          languageValuesMap = new LinkedHashMap<>();
+        }
+        final LanguageValues languageValues = languageValuesMap.computeIfAbsent(name, k -> new LanguageValues());
+        languageValues.hasDefault = true;
+        languageValues.defaultValue = this.objectMapper.readValue(parser, Object.class);
+        continue;
+      }
+      // Parameter without language tags. Copy to buffer for binding to the target class
+      buffer.writeFieldName(name);
+      buffer.copyCurrentStructure(parser);
+    }
+    if (token != JsonToken.END_OBJECT) {
+      throw MismatchedInputException.from(parser, this.targetClass, "Unexpected token " + token);
+    }
+
+    if (languageValuesMap != null) {
+      if (this.hasBufferedDefaultValues(buffer, languageValuesMap)) {
+        // A default value for a parameter that was not declared as a language tagged parameter appeared before the
+        // first language tagged value of that parameter and was therefore buffered as a regular value.
+        return this.parseBufferedWithLateLanguageTags(buffer, languageValuesMap);
+      }
+      for (final Map.Entry<String, LanguageValues> entry : languageValuesMap.entrySet()) {
+        buffer.writeFieldName(entry.getKey());
+        entry.getValue().write(buffer);
+      }
+    }
+    buffer.writeEndObject();
+    try (final JsonParser bufferParser = buffer.asParser()) {
+      return this.objectMapper.readValue(bufferParser, this.targetClass);
+    }
+  }
+
+  /**
+   * Checks whether any language tagged parameter that is not declared by the target class also has a default value
+   * that was written to the token buffer before its first language tagged value was read.
+   *
+   * @param buffer the token buffer
+   * @param languageValuesMap collected language tagged values
+   * @return true if the token buffer holds a default value of any language tagged parameter
+   * @throws IOException error reading the token buffer
+   */
+  private boolean hasBufferedDefaultValues(final TokenBuffer buffer, final Map<String, LanguageValues> languageValuesMap)
+      throws IOException {
+    final boolean undeclaredTagged = languageValuesMap.entrySet().stream()
+        .anyMatch(entry -> !entry.getValue().hasDefault
+            && !this.targetDeclaredLangParameterSet.contains(entry.getKey()));
+    if (!undeclaredTagged) {
+      return false;
+    }
+    try (final JsonParser bufferParser = buffer.asParser()) {
+      bufferParser.nextToken();
+      while (bufferParser.nextToken() == JsonToken.FIELD_NAME) {
+        if (languageValuesMap.containsKey(bufferParser.currentName())) {
+          return true;
+        }
+        bufferParser.nextToken();
+        bufferParser.skipChildren();
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Completes parsing when default values of language tagged parameters have been buffered as regular values. The
+   * buffered values are read into a JSON object map where these values are replaced by their {@link LanguageObject}.
+   *
+   * @param buffer the token buffer holding all parameters without language tags
+   * @param languageValuesMap collected language tagged values
+   * @return target object
+   * @throws IOException error to parse JSON data
+   */
+  private T parseBufferedWithLateLanguageTags(final TokenBuffer buffer,
+      final Map<String, LanguageValues> languageValuesMap) throws IOException {
+    buffer.writeEndObject();
+    final Map<String, Object> jsonObject;
+    try (final JsonParser bufferParser = buffer.asParser()) {
+      jsonObject = this.objectMapper.readValue(bufferParser, new TypeReference<>() {
+      });
+    }
+    for (final Map.Entry<String, LanguageValues> entry : languageValuesMap.entrySet()) {
+      final LanguageValues languageValues = entry.getValue();
+      if (!languageValues.hasDefault && jsonObject.containsKey(entry.getKey())) {
+        languageValues.hasDefault = true;
+        languageValues.defaultValue = jsonObject.get(entry.getKey());
+      }
+      jsonObject.put(entry.getKey(), languageValues.toLanguageObject());
+    }
+    return this.objectMapper.convertValue(jsonObject, this.targetClass);
   }
 
   /**
@@ -135,41 +426,38 @@ public class OidcLangJsonSerializer<T extends LanguageTaggedJson> {
       final List<String> declaredLangParameters) {
 
     final Map<String, Object> consolidatetMap = new HashMap<>(languageTaggedMap);
-    final List<String> langKeys = this.getLanguageTaggedKeys(languageTaggedMap);
-
-    // Process all map keys that has been identified to have a language tag
-    for (final String langKey : langKeys) {
-      // Find all versions of this lang tagged map key
-      final List<String> correlatedKeys = languageTaggedMap.keySet().stream()
-          .filter(key -> key.startsWith(langKey))
-          .filter(key -> !key.equals(langKey))
-          .toList();
-      // Build LanguageObjectMap
-      final Map<String, Object> languageObjectMap = new HashMap<>();
-      for (final String correlatedKey : correlatedKeys) {
-        final String lang = correlatedKey.substring(correlatedKey.indexOf("#") + 1);
-        if (StringUtils.isNotBlank(lang)) {
-          languageObjectMap.put(lang, languageTaggedMap.get(correlatedKey));
-        }
-        // Remove correlated key from consolidated map
-        consolidatetMap.remove(correlatedKey);
+    // Language tagged values grouped in a single pass on the exact parameter name before the "#" character
+    final Map<String, Map<String, Object>> languageObjectMaps = new LinkedHashMap<>();
+    for (final Map.Entry<String, Object> entry : languageTaggedMap.entrySet()) {
+      final String key = entry.getKey();
+      final int tagIndex = key.indexOf('#');
+      if (tagIndex < 0) {
+        continue;
+      }
+      final String propName = key.substring(0, tagIndex);
+      if (StringUtils.isBlank(propName)) {
+        continue;
       }
-      // Get any untagged default value (or null if no such key exists)
-      final Object defaultValue = languageTaggedMap.get(langKey);
+      final Map<String, Object> languageObjectMap = languageObjectMaps.computeIfAbsent(propName,
+          k -> new LinkedHashMap<>());
+      final String lang = key.substring(tagIndex + 1);
+      if (StringUtils.isNotBlank(lang)) {
+        languageObjectMap.put(lang, entry.getValue());
+      }
+      // Remove language tagged key from consolidated map
+      consolidatetMap.remove(key);
+    }
 
-      // Add consolidated Lang object
-      consolidatetMap.put(langKey, new LanguageObject<>(defaultValue, languageObjectMap));
-      // Delete correlated tagged keys
+    // Add consolidated Lang objects with any untagged default value (or null if no such key exists)
+    for (final Map.Entry<String, Map<String, Object>> entry : languageObjectMaps.entrySet()) {
+      consolidatetMap.put(entry.getKey(),
+          new LanguageObject<>(languageTaggedMap.get(entry.getKey()), entry.getValue()));
     }
 
     // Process all known tag names that are identified as language tagged parameters
     for (final String declaredParameter : declaredLangParameters) {
       // Only process those tags that was not processed above.
-      if (langKeys.contains(declaredParameter)) {
-        // This has already been processed. Skip to next
-        continue;
-      }
-      if (languageTaggedMap.containsKey(declaredParameter)) {
+      if (!languageObjectMaps.containsKey(declaredParameter) && languageTaggedMap.containsKey(declaredParameter)) {
         // This parameter has a default value with no correlated language tagged keys. Store it as default value only
         consolidatetMap.put(declaredParameter, new LanguageObject<>(languageTaggedMap.get(declaredParameter), null));
       }
@@ -177,68 +465,148 @@ public class OidcLangJsonSerializer<T extends LanguageTaggedJson> {
     return consolidatetMap;
   }
 
-  private List<String> getLanguageTaggedKeys(final Map<String, Object> languageTaggedMap) {
+  /**
+   * Serializes an object to JSON where all declared language tagged parameters holding a {@link LanguageObject} are
+   * written as one parameter without language tag for the default value and one "name#lang" parameter for each language
+   * tagged value. Pretty printing is applied according to the option of this serializer.
+   *
+   * @param serlizingObject the object to serialize
+   * @return JSON string
+   * @throws JsonProcessingException error serializing the object
+   */
+  public String toJson(final T serlizingObject) throws JsonProcessingException {
+    return this.toJson(serlizingObject, this.prettyPrinting);
+  }
+
+  /**
+   * Serializes an object to JSON as described in {@link #toJson(LanguageTaggedJson)}.
+   *
+   * @param serlizingObject the object to serialize
+   * @param prettyPrinting true to produce pretty printed JSON
+   * @return JSON string
+   * @throws JsonProcessingException error serializing the object
+   */
+  public String toJson(final T serlizingObject, final boolean prettyPrinting) throws JsonProcessingException {
+    return (prettyPrinting ? this.prettyWriter : this.compactWriter).writeValueAsString(serlizingObject);
+  }
+
+  /**
+   * Serializes an object to UTF-8 encoded JSON as described in {@link #toJson(LanguageTaggedJson)}, without creating
+   * an intermediate string. Pretty printing is applied according to the option of this serializer.
+   *
+   * @param serlizingObject the object to serialize
+   * @return UTF-8 encoded JSON
+   * @throws JsonProcessingException error serializing the object
+   */
+  public byte[] toUtf8Bytes(final T serlizingObject) throws JsonProcessingException {
+    return this.toUtf8Bytes(serlizingObject, this.prettyPrinting);
+  }
 
-    final List<String> langKeyList = new ArrayList<>();
+  /**
+   * Serializes an object to UTF-8 encoded JSON as described in {@link #toJson(LanguageTaggedJson)}.
+   *
+   * @param serlizingObject the object to serialize
+   * @param prettyPrinting true to produce pretty printed JSON
+   * @return UTF-8 encoded JSON
+   * @throws JsonProcessingException error serializing the object
+   */
+  public byte[] toUtf8Bytes(final T serlizingObject, final boolean prettyPrinting) throws JsonProcessingException {
+    return (prettyPrinting ? this.prettyWriter : this.compactWriter).writeValueAsBytes(serlizingObject);
+  }
 
-    languageTaggedMap.keySet().stream()
-        .filter(key -> key.contains("#"))
-        .forEach(key -> {
-          final String propName = key.substring(0, key.indexOf("#"));
-          if (StringUtils.isNotBlank(propName)) {
-            if (!langKeyList.contains(propName)) {
-              langKeyList.add(propName);
-            }
-          }
-        });
-    return langKeyList;
+  /**
+   * Writes an object as UTF-8 encoded JSON to an output stream as described in {@link #toJson(LanguageTaggedJson)}.
+   * Pretty printing is applied according to the option of this serializer. The output stream is flushed but not
+   * closed.
+   *
+   * @param serlizingObject the object to serialize
+   * @param outputStream the output stream to write to
+   * @throws IOException error serializing the object or writing to the output stream
+   */
+  public void writeTo(final T serlizingObject, final OutputStream outputStream) throws IOException {
+    this.writeTo(serlizingObject, outputStream, this.prettyPrinting);
   }
 
-  public String toJson(final T serlizingObject) throws JsonProcessingException {
-    // Start with serializing the object to JSON object map
-    final String primaryJson = this.objectMapper.writeValueAsString(serlizingObject);
-    final Map<String, Object> primaryJsonObject = this.objectMapper.readValue(primaryJson, new TypeReference<>() {
-    });
-    final Map<String, Object> serializedJsonObject = new HashMap<>(primaryJsonObject);
-
-    // Get lang tagged parameters
-    final List<String> languageTaggedParameters = serlizingObject.getLanguageTaggedParameters();
-
-    for (final String parameterName : languageTaggedParameters) {
-      if (primaryJson.contains(parameterName)) {
-        final Object langObject = primaryJsonObject.get(parameterName);
-        if (!(langObject instanceof Map)) {
-          throw new RuntimeException("Object listed as language tagged is not a Map");
-        }
-        final LanguageObject<?> parsedLangObject = this.objectMapper.readValue(
-            this.objectMapper.writeValueAsString(langObject),
-            LanguageObject.class
-        );
-        // Now convert the parsed Language data object to individual parameters in the primary JSON object
-        serializedJsonObject.remove(parameterName);
-        if (parsedLangObject.getDefaultValue() != null) {
-          // Add default value without language tag
-          serializedJsonObject.put(parameterName, parsedLangObject.getDefaultValue());
-        }
-        final Map<?, ?> valueMap = Optional.ofNullable(parsedLangObject.getValueMap()).orElse(new HashMap<>());
-        final Set<?> languageList = valueMap.keySet();
-        for (final Object language : languageList) {
-          // Add language tagged parameters
-          serializedJsonObject.put(parameterName + "#" + language, valueMap.get(language));
-        }
-      }
+  /**
+   * Writes an object as UTF-8 encoded JSON to an output stream as described in {@link #toJson(LanguageTaggedJson)}.
+   * The output stream is flushed but not closed.
+   *
+   * @param serlizingObject the object to serialize
+   * @param outputStream the output stream to write to
+   * @param prettyPrinting true to produce pretty printed JSON
+   * @throws IOException error serializing the object or writing to the output stream
+   */
+  public void writeTo(final T serlizingObject, final OutputStream outputStream, final boolean prettyPrinting)
+      throws IOException {
+    (prettyPrinting ? this.prettyStreamWriter : this.compactStreamWriter).writeValue(outputStream, serlizingObject);
+  }
+
+  /**
+   * Writes an object as JSON to a JSON generator as described in {@link #toJson(LanguageTaggedJson)}. The object is
+   * written as the next value of the generator, formatted according to the pretty printer of the generator. The
+   * generator is not closed.
+   *
+   * @param serlizingObject the object to serialize
+   * @param generator the JSON generator to write to
+   * @throws IOException error serializing the object or writing to the generator
+   */
+  public void writeTo(final T serlizingObject, final JsonGenerator generator) throws IOException {
+    this.compactWriter.writeValue(generator, serlizingObject);
+  }
+
+  /**
+   * Serializes an object to a JSON object map with language tagged parameters as described in {@link #toJson(LanguageTaggedJson)}.
+   *
+   * @param serializingObject the object to serialize
+   * @return JSON object map
+   * @throws JsonProcessingException error serializing the object
+   */
+  public Map<String, Object> toJsonObject(final T serializingObject) throws JsonProcessingException {
+    try {
+      return this.objectMapper.convertValue(serializingObject, new TypeReference<>() {
+      });
     }
-    // Now serialize the language tagged serialization object map
-    if (this.prettyPrinting) {
-      return this.objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(serializedJsonObject);
+    catch (final IllegalArgumentException e) {
+      if (e.getCause() instanceof final JsonProcessingException jsonProcessingException) {
+        throw jsonProcessingException;
+      }
+      throw e;
     }
-    return this.objectMapper.writeValueAsString(serializedJsonObject);
   }
 
-  public Map<String, Object> toJsonObject(final T serializingObject) throws JsonProcessingException {
-    return this.objectMapper.readValue(this.toJson(serializingObject), new TypeReference<>() {
-        }
-    );
+  /**
+   * Values of a language tagged parameter collected during streaming parsing.
+   */
+  private static class LanguageValues {
+
+    /** Language tagged values with the language identifier as key */
+    private final Map<String, Object> langValues = new LinkedHashMap<>();
+    /** The untagged default value */
+    private Object defaultValue;
+    /** Set to true if an untagged default parameter was present */
+    private boolean hasDefault;
+    /** Set to true if any language tagged parameter was present */
+    private boolean tagged;
+
+    /**
+     * Writes the {@link LanguageObject} representation of these values.
+     *
+     * @param buffer the token buffer to write to
+     * @throws IOException error writing to the buffer
+     */
+    private void write(final TokenBuffer buffer) throws IOException {
+      buffer.writeObject(this.toLanguageObject());
+    }
+
+    /**
+     * Creates a {@link LanguageObject} from these values. A value map is only present if language tagged values were
+     * present.
+     *
+     * @return language object
+     */
+    private LanguageObject<Object> toLanguageObject() {
+      return new LanguageObject<>(this.defaultValue, this.tagged ? this.langValues : null);
+    }
   }
 
 }
@@ -0,0 +1,114 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.policy;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import lombok.Getter;
+import se.oidc.oidfed.md.entities.AbstractOidcFedMetadata;
+import se.oidc.oidfed.md.entities.ExtendedMetadata;
+import se.oidc.oidfed.md.lang.LanguageTaggedJson;
+import se.oidc.oidfed.md.lang.OidcLangJsonSerializer;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The compiled metadata policy of one entity type, which is applied to the metadata of that entity type.
+ * <p>
+ * Instances of this class are immutable and safe to share between threads.
+ * </p>
+ */
+public final class EntityTypePolicy {
+
+  /** Entity type identifier */
+  @Getter
+  private final String entityType;
+
+  /** Parameter policies keyed by parameter name */
+  private final Map<String, ParameterPolicy> parameterPolicies;
+
+  /** Parameter policies in the order they are applied */
+  private final ParameterPolicy[] plan;
+
+  /**
+   * Constructor
+   *
+   * @param entityType entity type identifier
+   * @param parameterPolicies merged parameter policies keyed by parameter name
+   */
+  EntityTypePolicy(final String entityType, final Map<String, ParameterPolicy> parameterPolicies) {
+    this.entityType = entityType;
+    this.parameterPolicies = Collections.unmodifiableMap(new LinkedHashMap<>(parameterPolicies));
+    this.plan = this.parameterPolicies.values().toArray(new ParameterPolicy[0]);
+  }
+
+  /**
+   * Get the names of the metadata parameters with a policy.
+   *
+   * @return parameter names
+   */
+  public Set<String> getParameterNames() {
+    return this.parameterPolicies.keySet();
+  }
+
+  /**
+   * Get the merged parameter policies.
+   *
+   * @return parameter policies keyed by parameter name
+   */
+  Map<String, ParameterPolicy> getParameterPolicies() {
+    return this.parameterPolicies;
+  }
+
+  /**
+   * Apply this policy to the JSON object of metadata.
+   *
+   * @param metadata JSON object of the metadata, which is not modified
+   * @return JSON object of the metadata after applying the policy
+   * @throws IllegalArgumentException if the metadata does not comply with the policy
+   */
+  public Map<String, Object> apply(final Map<String, Object> metadata) {
+    final Map<String, Object> result = new LinkedHashMap<>(Objects.requireNonNull(metadata, "Null metadata"));
+    for (final ParameterPolicy parameterPolicy : this.plan) {
+      parameterPolicy.apply(result);
+    }
+    return result;
+  }
+
+  /**
+   * Apply this policy to metadata.
+   *
+   * @param metadata the metadata, which is not modified
+   * @param serializer serializer of the metadata class
+   * @param <T> metadata class
+   * @return new metadata object holding the metadata after applying the policy
+   * @throws JsonProcessingException error processing JSON data
+   * @throws IllegalArgumentException if the metadata does not comply with the policy
+   */
+  public <T extends LanguageTaggedJson> T apply(final T metadata, final OidcLangJsonSerializer<T> serializer)
+      throws JsonProcessingException {
+    return serializer.parse(this.apply(serializer.toJsonObject(metadata)));
+  }
+
+  /**
+   * Apply this policy to extended metadata. Policies of extended parameters are applied to the extended parameters.
+   *
+   * @param metadata the extended metadata, which is not modified
+   * @param serializer serializer of the base metadata class
+   * @param <T> base metadata class
+   * @return new extended metadata holding the metadata after applying the policy
+   * @throws JsonProcessingException error processing JSON data
+   * @throws IllegalArgumentException if the metadata does not comply with the policy
+   */
+  public <T extends AbstractOidcFedMetadata> ExtendedMetadata<T> apply(final ExtendedMetadata<T> metadata,
+      final OidcLangJsonSerializer<T> serializer) throws JsonProcessingException {
+    return new ExtendedMetadata<>(this.apply(metadata.toJsonObject()), serializer);
+  }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.policy;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The merged "metadata_policy" of a trust chain, compiled into one {@link EntityTypePolicy} for each entity type.
+ * <p>
+ * The metadata policies of the subordinate statements of a trust chain are merged once, starting with the statement
+ * issued by the trust anchor, according to the merge rules of the standard policy operators. The merged policy of
+ * each parameter is checked for operator combinations that can never be satisfied, and set operands are prepared for
+ * constant time lookup. The compiled policy can then be applied to any number of leaf metadata documents without
+ * interpreting the policy JSON again.
+ * </p>
+ * <p>
+ * Policy operators that are not standard operators are ignored, unless they are listed as critical operators in
+ * "metadata_policy_crit". Errors in policies, and metadata that does not comply with a policy, are reported with
+ * {@link IllegalArgumentException}. A subset_of operator that leaves no values removes the parameter.
+ * </p>
+ * <p>
+ * Instances of this class are immutable and safe to share between threads.
+ * </p>
+ */
+public final class MetadataPolicy {
+
+  /** Compiled policies keyed by entity type identifier */
+  private final Map<String, EntityTypePolicy> entityTypePolicies;
+
+  /** Names of non-standard operators that must be understood */
+  private final Set<String> criticalOperators;
+
+  private MetadataPolicy(final Map<String, EntityTypePolicy> entityTypePolicies,
+      final Set<String> criticalOperators) {
+    this.entityTypePolicies = Collections.unmodifiableMap(entityTypePolicies);
+    this.criticalOperators = criticalOperators;
+  }
+
+  /**
+   * Merge and compile the metadata policies of a trust chain.
+   *
+   * @param metadataPolicies the "metadata_policy" claims of the subordinate statements of the trust chain, starting
+   *     with the statement issued by the trust anchor. Statements without metadata policy may be included as null
+   * @return compiled metadata policy
+   * @throws IllegalArgumentException if a policy is malformed or if the policies can not be merged
+   */
+  public static MetadataPolicy compile(final List<Map<String, Object>> metadataPolicies) {
+    return compile(metadataPolicies, List.of());
+  }
+
+  /**
+   * Merge and compile the metadata policies of a trust chain.
+   *
+   * @param metadataPolicies the "metadata_policy" claims of the subordinate statements of the trust chain, starting
+   *     with the statement issued by the trust anchor. Statements without metadata policy may be included as null
+   * @param criticalOperators the "metadata_policy_crit" claim of the trust anchor, or null
+   * @return compiled metadata policy
+   * @throws IllegalArgumentException if a policy is malformed, if the policies can not be merged or if a policy uses a
+   *     critical operator that is not supported
+   */
+  public static MetadataPolicy compile(final List<Map<String, Object>> metadataPolicies,
+      final Collection<String> criticalOperators) {
+    Objects.requireNonNull(metadataPolicies, "Null metadata policies are not allowed");
+    MetadataPolicy policy = empty(criticalOperators);
+    for (final Map<String, Object> metadataPolicy : metadataPolicies) {
+      policy = policy.merge(metadataPolicy);
+    }
+    return policy;
+  }
+
+  /**
+   * Get an empty metadata policy, which is the starting point for merging the policies of a trust chain one
+   * statement at a time with {@link #merge(Map)}.
+   *
+   * @param criticalOperators the "metadata_policy_crit" claim of the trust anchor, or null
+   * @return empty metadata policy
+   */
+  public static MetadataPolicy empty(final Collection<String> criticalOperators) {
+    return new MetadataPolicy(Map.of(), criticalOperators == null ? Set.of() : Set.copyOf(criticalOperators));
+  }
+
+  /**
+   * Merge this policy with the metadata policy of the next subordinate statement of the trust chain. This policy is
+   * not modified, and the compiled policies of entity types that are not present in the subordinate policy are shared
+   * with the returned policy.
+   *
+   * @param metadataPolicy the "metadata_policy" claim of the subordinate statement, or null
+   * @return merged and compiled metadata policy
+   * @throws IllegalArgumentException if the policy is malformed, if it can not be merged with this policy or if it
+   *     uses a critical operator that is not supported
+   */
+  public MetadataPolicy merge(final Map<String, Object> metadataPolicy) {
+    if (metadataPolicy == null || metadataPolicy.isEmpty()) {
+      return this;
+    }
+    final Map<String, EntityTypePolicy> merged = new LinkedHashMap<>(this.entityTypePolicies);
+    for (final Map.Entry<String, Object> entityTypeEntry : metadataPolicy.entrySet()) {
+      final EntityTypePolicy superior = this.entityTypePolicies.get(entityTypeEntry.getKey());
+      final Map<String, ParameterPolicy> parameterPolicies = superior != null
+          ? new LinkedHashMap<>(superior.getParameterPolicies())
+          : new LinkedHashMap<>();
+      for (final Map.Entry<String, Object> parameterEntry
+          : jsonObject(entityTypeEntry.getValue(), entityTypeEntry.getKey()).entrySet()) {
+        final ParameterPolicy parameterPolicy = ParameterPolicy.parse(parameterEntry.getKey(),
+            jsonObject(parameterEntry.getValue(), parameterEntry.getKey()), this.criticalOperators);
+        parameterPolicies.merge(parameterEntry.getKey(), parameterPolicy, ParameterPolicy::merge);
+      }
+      merged.put(entityTypeEntry.getKey(), new EntityTypePolicy(entityTypeEntry.getKey(), parameterPolicies));
+    }
+    return new MetadataPolicy(merged, this.criticalOperators);
+  }
+
+  /**
+   * Get the identifiers of the entity types with a policy.
+   *
+   * @return entity type identifiers
+   */
+  public Set<String> getEntityTypes() {
+    return this.entityTypePolicies.keySet();
+  }
+
+  /**
+   * Get the compiled policy of an entity type. An entity type without policy gives an empty policy, which leaves
+   * metadata unchanged.
+   *
+   * @param entityType entity type identifier
+   * @return compiled policy of the entity type
+   */
+  public EntityTypePolicy getEntityTypePolicy(final String entityType) {
+    final EntityTypePolicy policy = this.entityTypePolicies.get(entityType);
+    return policy != null ? policy : new EntityTypePolicy(entityType, Map.of());
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, Object> jsonObject(final Object value, final String name) {
+    if (value instanceof Map) {
+      return (Map<String, Object>) value;
+    }
+    throw new IllegalArgumentException("Metadata policy of " + name + " must be a JSON object");
+  }
+
+}
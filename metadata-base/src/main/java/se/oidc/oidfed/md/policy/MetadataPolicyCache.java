@@ -0,0 +1,267 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.policy;
+
+import se.oidc.oidfed.md.cache.CacheStatistics;
+import se.oidc.oidfed.md.cache.ExpiringLruCache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * Cache of merged metadata policies keyed by trust chain prefix.
+ * <p>
+ * Leaf entities under the same intermediates share the subordinate statements from the trust anchor down to their
+ * immediate superior, and therefore share the merged metadata policy of each prefix of their trust chains. This cache
+ * identifies each prefix by a fingerprint, which is a SHA-256 digest chained over the fingerprints of the subordinate
+ * statements of the prefix and the critical operators of the trust anchor. The merged policy of every prefix is
+ * cached, so that resolving a trust chain under a known intermediate only merges the statements after the longest
+ * cached prefix.
+ * </p>
+ * <p>
+ * A merged policy is valid only as long as all statements of its prefix are valid, and is cached until the earliest
+ * expiry time of those statements. When the cache is full, the least recently used prefix is evicted. Concurrent
+ * resolutions of the same missing prefix are coalesced so that it is merged only once.
+ * </p>
+ */
+public class MetadataPolicyCache {
+
+  /** Merged policies keyed by chain prefix fingerprint */
+  private final ExpiringLruCache<String, CachedPolicy> cache;
+
+  /**
+   * Constructor
+   *
+   * @param builder builder holding the cache settings
+   */
+  private MetadataPolicyCache(final MetadataPolicyCacheBuilder builder) {
+    this.cache = ExpiringLruCache.<String, CachedPolicy>builder()
+        .maximumSize(builder.maximumSize)
+        .defaultTimeToLive(builder.defaultTimeToLive)
+        .clock(builder.clock)
+        .build();
+  }
+
+  /**
+   * Create a builder for a metadata policy cache.
+   *
+   * @return builder
+   */
+  public static MetadataPolicyCacheBuilder builder() {
+    return new MetadataPolicyCacheBuilder();
+  }
+
+  /**
+   * Get the merged metadata policy of a trust chain.
+   *
+   * @param statements the subordinate statements of the trust chain, starting with the statement issued by the trust
+   *     anchor and ending with the statement about the leaf entity
+   * @param criticalOperators the "metadata_policy_crit" claim of the trust anchor, or null
+   * @return merged and compiled metadata policy
+   * @throws IllegalArgumentException if a policy is malformed, if the policies can not be merged or if a policy uses a
+   *     critical operator that is not supported
+   */
+  public MetadataPolicy resolve(final List<PolicyStatement> statements, final Collection<String> criticalOperators) {
+    Objects.requireNonNull(statements, "Null statements are not allowed");
+    final MessageDigest digest = sha256();
+    final List<String> fingerprints = new ArrayList<>(statements.size());
+    byte[] fingerprint = digest.digest(String.join(",", criticalOperators == null
+        ? List.of()
+        : new TreeSet<>(criticalOperators)).getBytes(StandardCharsets.UTF_8));
+    for (final PolicyStatement statement : statements) {
+      digest.update(fingerprint);
+      digest.update(Objects.requireNonNull(statement, "Null statement is not allowed").fingerprint);
+      fingerprint = digest.digest();
+      fingerprints.add(Base64.getUrlEncoder().withoutPadding().encodeToString(fingerprint));
+    }
+
+    // Find the longest cached prefix
+    int index = statements.size();
+    CachedPolicy cached = null;
+    while (index > 0 && (cached = this.cache.getIfPresent(fingerprints.get(index - 1))) == null) {
+      index--;
+    }
+    if (cached == null) {
+      cached = new CachedPolicy(MetadataPolicy.empty(criticalOperators), null);
+    }
+    // Merge and cache the remaining prefixes
+    for (; index < statements.size(); index++) {
+      final CachedPolicy superior = cached;
+      final PolicyStatement statement = statements.get(index);
+      try {
+        cached = this.cache.get(fingerprints.get(index), key -> {
+          final Instant expires = earliest(superior.expires, statement.expires);
+          return ExpiringLruCache.LoadedValue.of(
+              new CachedPolicy(superior.policy.merge(statement.metadataPolicy), expires), expires);
+        });
+      }
+      catch (final IOException e) {
+        // Merging does not perform I/O
+        throw new UncheckedIOException(e);
+      }
+    }
+    return cached.policy;
+  }
+
+  /**
+   * Remove all cached policies.
+   */
+  public void invalidateAll() {
+    this.cache.invalidateAll();
+  }
+
+  /**
+   * Remove all expired policies.
+   */
+  public void cleanUp() {
+    this.cache.cleanUp();
+  }
+
+  /**
+   * Get the number of cached chain prefixes, including expired entries that have not yet been removed.
+   *
+   * @return number of cached entries
+   */
+  public int size() {
+    return this.cache.size();
+  }
+
+  /**
+   * Get a snapshot of the cache statistics.
+   *
+   * @return cache statistics
+   */
+  public CacheStatistics getStatistics() {
+    return this.cache.getStatistics();
+  }
+
+  private static Instant earliest(final Instant a, final Instant b) {
+    if (a == null || b == null) {
+      return a == null ? b : a;
+    }
+    return a.isBefore(b) ? a : b;
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    }
+    catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not supported", e);
+    }
+  }
+
+  /**
+   * A merged policy together with the earliest expiry time of the statements of its prefix.
+   *
+   * @param policy merged policy
+   * @param expires expiry time, or null if no statement has an expiry time
+   */
+  private record CachedPolicy(MetadataPolicy policy, Instant expires) {
+  }
+
+  /**
+   * The metadata policy of a subordinate statement of a trust chain.
+   */
+  public static final class PolicyStatement {
+
+    /** SHA-256 digest identifying the statement */
+    private final byte[] fingerprint;
+
+    /** The "metadata_policy" claim of the statement, or null */
+    private final Map<String, Object> metadataPolicy;
+
+    /** Expiry time of the statement, or null */
+    private final Instant expires;
+
+    private PolicyStatement(final byte[] fingerprint, final Map<String, Object> metadataPolicy,
+        final Instant expires) {
+      this.fingerprint = fingerprint;
+      this.metadataPolicy = metadataPolicy;
+      this.expires = expires;
+    }
+
+    /**
+     * Create a policy statement from a signed subordinate statement. The statement is identified by the digest of
+     * its serialized JWT.
+     *
+     * @param statementJwt the serialized subordinate statement JWT
+     * @param metadataPolicy the "metadata_policy" claim of the statement, or null
+     * @param expires the "exp" time of the statement, or null to expire after the default time to live of the cache
+     * @return policy statement
+     */
+    public static PolicyStatement of(final String statementJwt, final Map<String, Object> metadataPolicy,
+        final Instant expires) {
+      Objects.requireNonNull(statementJwt, "Null statement is not allowed");
+      return new PolicyStatement(sha256().digest(statementJwt.getBytes(StandardCharsets.UTF_8)), metadataPolicy,
+          expires);
+    }
+  }
+
+  /**
+   * Builder for {@link MetadataPolicyCache}.
+   */
+  public static class MetadataPolicyCacheBuilder {
+
+    private int maximumSize = 1000;
+    private Duration defaultTimeToLive = Duration.ofHours(1);
+    private Clock clock = Clock.systemUTC();
+
+    private MetadataPolicyCacheBuilder() {
+    }
+
+    /**
+     * Set the maximum number of cached chain prefixes. Default is 1000.
+     *
+     * @param maximumSize maximum number of cached chain prefixes
+     * @return this builder
+     */
+    public MetadataPolicyCacheBuilder maximumSize(final int maximumSize) {
+      this.maximumSize = maximumSize;
+      return this;
+    }
+
+    /**
+     * Set the time to live of policies of chain prefixes where no statement has an expiry time. Default is one hour.
+     *
+     * @param defaultTimeToLive time to live, or null for no expiry
+     * @return this builder
+     */
+    public MetadataPolicyCacheBuilder defaultTimeToLive(final Duration defaultTimeToLive) {
+      this.defaultTimeToLive = defaultTimeToLive;
+      return this;
+    }
+
+    /**
+     * Set the clock used to determine expiry. Default is the system UTC clock.
+     *
+     * @param clock clock
+     * @return this builder
+     */
+    public MetadataPolicyCacheBuilder clock(final Clock clock) {
+      this.clock = clock;
+      return this;
+    }
+
+    public MetadataPolicyCache build() {
+      return new MetadataPolicyCache(this);
+    }
+  }
+
+}
@@ -0,0 +1,399 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.policy;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The merged policy of one metadata parameter. Set operands are held as hash sets of comparison keys, so that applying
+ * the policy to metadata does not depend on the size of the operands.
+ */
+final class ParameterPolicy {
+
+  /** Name of the metadata parameter */
+  private final String parameterName;
+
+  /** Set if the value operator is present */
+  private final boolean hasValue;
+
+  /** Operand of the value operator */
+  private final Object value;
+
+  /** Operand of the add operator, or null */
+  private final List<Object> add;
+
+  /** Set if the default operator is present */
+  private final boolean hasDefault;
+
+  /** Operand of the default operator */
+  private final Object defaultValue;
+
+  /** Operand of the one_of operator, or null */
+  private final List<Object> oneOf;
+
+  /** Operand of the subset_of operator, or null */
+  private final List<Object> subsetOf;
+
+  /** Operand of the superset_of operator, or null */
+  private final List<Object> supersetOf;
+
+  /** Operand of the essential operator */
+  private final boolean essential;
+
+  /** Comparison keys of the one_of operand */
+  private final Set<Object> oneOfKeys;
+
+  /** Comparison keys of the subset_of operand */
+  private final Set<Object> subsetOfKeys;
+
+  /** Comparison keys of the superset_of operand */
+  private final Set<Object> supersetOfKeys;
+
+  /**
+   * Constructor
+   *
+   * @param superior the superior policy that this policy is merged from, whose comparison keys are shared for
+   *     unchanged set operands, or null
+   */
+  private ParameterPolicy(final ParameterPolicy superior, final String parameterName, final boolean hasValue,
+      final Object value, final List<Object> add, final boolean hasDefault, final Object defaultValue,
+      final List<Object> oneOf, final List<Object> subsetOf, final List<Object> supersetOf, final boolean essential) {
+    this.parameterName = parameterName;
+    this.hasValue = hasValue;
+    this.value = value;
+    this.add = add;
+    this.hasDefault = hasDefault;
+    this.defaultValue = defaultValue;
+    this.oneOf = oneOf;
+    this.subsetOf = subsetOf;
+    this.supersetOf = supersetOf;
+    this.essential = essential;
+    final boolean shared = superior != null;
+    this.oneOfKeys = shared && oneOf == superior.oneOf ? superior.oneOfKeys : keys(oneOf);
+    this.subsetOfKeys = shared && subsetOf == superior.subsetOf ? superior.subsetOfKeys : keys(subsetOf);
+    this.supersetOfKeys = shared && supersetOf == superior.supersetOf ? superior.supersetOfKeys : keys(supersetOf);
+  }
+
+  /**
+   * Parse the policy of a metadata parameter.
+   *
+   * @param parameterName name of the metadata parameter
+   * @param operators operators of the parameter policy keyed by operator name
+   * @param criticalOperators names of non-standard operators that must be understood
+   * @return parameter policy
+   * @throws IllegalArgumentException if the policy is malformed or uses a critical operator that is not supported
+   */
+  static ParameterPolicy parse(final String parameterName, final Map<String, Object> operators,
+      final Set<String> criticalOperators) {
+    boolean hasValue = false;
+    Object value = null;
+    List<Object> add = null;
+    boolean hasDefault = false;
+    Object defaultValue = null;
+    List<Object> oneOf = null;
+    List<Object> subsetOf = null;
+    List<Object> supersetOf = null;
+    boolean essential = false;
+    for (final Map.Entry<String, Object> entry : operators.entrySet()) {
+      final PolicyOperator operator = PolicyOperator.fromName(entry.getKey());
+      if (operator == null) {
+        if (criticalOperators.contains(entry.getKey())) {
+          throw new IllegalArgumentException(String.format("Unsupported critical policy operator %s for parameter %s",
+              entry.getKey(), parameterName));
+        }
+        continue;
+      }
+      final Object operand = entry.getValue();
+      switch (operator) {
+        case VALUE -> {
+          hasValue = true;
+          value = immutable(operand);
+        }
+        case ADD -> add = list(parameterName, operator, operand);
+        case DEFAULT -> {
+          if (operand == null) {
+            throw new IllegalArgumentException("Null default value for parameter " + parameterName);
+          }
+          hasDefault = true;
+          defaultValue = immutable(operand);
+        }
+        case ONE_OF -> oneOf = list(parameterName, operator, operand);
+        case SUBSET_OF -> subsetOf = list(parameterName, operator, operand);
+        case SUPERSET_OF -> supersetOf = list(parameterName, operator, operand);
+        case ESSENTIAL -> {
+          if (!(operand instanceof Boolean)) {
+            throw new IllegalArgumentException("Essential operator must be a boolean for parameter " + parameterName);
+          }
+          essential = (Boolean) operand;
+        }
+      }
+    }
+    return new ParameterPolicy(null, parameterName, hasValue, value, add, hasDefault, defaultValue, oneOf, subsetOf,
+        supersetOf, essential).validate();
+  }
+
+  /**
+   * Merge this policy, issued by a superior, with the policy of a subordinate for the same parameter.
+   *
+   * @param subordinate policy of the subordinate
+   * @return merged policy
+   * @throws IllegalArgumentException if the policies can not be merged
+   */
+  ParameterPolicy merge(final ParameterPolicy subordinate) {
+    if (this.hasValue && subordinate.hasValue && !key(this.value).equals(key(subordinate.value))) {
+      throw this.conflict(PolicyOperator.VALUE);
+    }
+    if (this.hasDefault && subordinate.hasDefault && !key(this.defaultValue).equals(key(subordinate.defaultValue))) {
+      throw this.conflict(PolicyOperator.DEFAULT);
+    }
+    final List<Object> mergedOneOf = intersection(this.oneOf, subordinate.oneOf);
+    if (mergedOneOf != null && mergedOneOf.isEmpty()) {
+      throw this.conflict(PolicyOperator.ONE_OF);
+    }
+    return new ParameterPolicy(this, this.parameterName,
+        this.hasValue || subordinate.hasValue,
+        this.hasValue ? this.value : subordinate.value,
+        union(this.add, subordinate.add),
+        this.hasDefault || subordinate.hasDefault,
+        this.hasDefault ? this.defaultValue : subordinate.defaultValue,
+        mergedOneOf,
+        intersection(this.subsetOf, subordinate.subsetOf),
+        union(this.supersetOf, subordinate.supersetOf),
+        this.essential || subordinate.essential).validate();
+  }
+
+  /**
+   * Apply this policy to the JSON object of metadata. The operators are applied in the order of
+   * {@link PolicyOperator}.
+   *
+   * @param metadata JSON object of the metadata, which is modified
+   * @throws IllegalArgumentException if the metadata does not comply with the policy
+   */
+  void apply(final Map<String, Object> metadata) {
+    if (this.hasValue) {
+      if (this.value == null) {
+        metadata.remove(this.parameterName);
+      }
+      else {
+        metadata.put(this.parameterName, this.value);
+      }
+    }
+    if (this.add != null) {
+      final List<Object> current = this.multiValued(metadata.get(this.parameterName));
+      metadata.put(this.parameterName, current == null ? this.add : union(current, this.add));
+    }
+    final Object current = metadata.get(this.parameterName);
+    if (current == null) {
+      if (this.hasDefault) {
+        metadata.put(this.parameterName, this.defaultValue);
+      }
+      else if (this.essential) {
+        throw new IllegalArgumentException("Missing essential parameter " + this.parameterName);
+      }
+      return;
+    }
+    if (this.oneOfKeys != null && !this.oneOfKeys.contains(key(current))) {
+      throw new IllegalArgumentException(String.format("Parameter %s value %s is not one of %s",
+          this.parameterName, current, this.oneOf));
+    }
+    if (this.subsetOfKeys != null) {
+      final List<Object> values = this.multiValued(current);
+      final List<Object> subset = new ArrayList<>(values.size());
+      for (final Object v : values) {
+        if (this.subsetOfKeys.contains(key(v))) {
+          subset.add(v);
+        }
+      }
+      if (subset.isEmpty()) {
+        metadata.remove(this.parameterName);
+      }
+      else if (subset.size() < values.size()) {
+        metadata.put(this.parameterName, subset);
+      }
+    }
+    if (this.supersetOfKeys != null) {
+      final Object values = metadata.get(this.parameterName);
+      final Set<Object> present = values == null ? Set.of() : keys(this.multiValued(values));
+      if (!present.containsAll(this.supersetOfKeys)) {
+        throw new IllegalArgumentException(String.format("Parameter %s is not a superset of %s",
+            this.parameterName, this.supersetOf));
+      }
+    }
+    if (this.essential && !metadata.containsKey(this.parameterName)) {
+      throw new IllegalArgumentException("Missing essential parameter " + this.parameterName);
+    }
+  }
+
+  /**
+   * Check that the operators of this policy can be combined.
+   *
+   * @return this policy
+   * @throws IllegalArgumentException if the operators can not be combined
+   */
+  private ParameterPolicy validate() {
+    if (this.oneOf != null && (this.add != null || this.subsetOf != null || this.supersetOf != null)) {
+      throw new IllegalArgumentException(
+          "Policy operator one_of can not be combined with add, subset_of or superset_of for parameter "
+              + this.parameterName);
+    }
+    if (this.hasValue) {
+      if (this.value == null) {
+        if (this.essential) {
+          throw this.conflict(PolicyOperator.ESSENTIAL);
+        }
+        if (this.add != null) {
+          throw this.conflict(PolicyOperator.ADD);
+        }
+        if (this.hasDefault) {
+          throw this.conflict(PolicyOperator.DEFAULT);
+        }
+      }
+      else {
+        if (this.hasDefault && !key(this.value).equals(key(this.defaultValue))) {
+          throw this.conflict(PolicyOperator.DEFAULT);
+        }
+        if (this.oneOfKeys != null && !this.oneOfKeys.contains(key(this.value))) {
+          throw this.conflict(PolicyOperator.ONE_OF);
+        }
+        if (this.add != null && !this.keysOf(this.value).containsAll(keys(this.add))) {
+          throw this.conflict(PolicyOperator.ADD);
+        }
+        if (this.subsetOfKeys != null && !this.subsetOfKeys.containsAll(this.keysOf(this.value))) {
+          throw this.conflict(PolicyOperator.SUBSET_OF);
+        }
+        if (this.supersetOfKeys != null && !this.keysOf(this.value).containsAll(this.supersetOfKeys)) {
+          throw this.conflict(PolicyOperator.SUPERSET_OF);
+        }
+      }
+    }
+    if (this.add != null && this.subsetOfKeys != null && !this.subsetOfKeys.containsAll(keys(this.add))) {
+      throw this.conflict(PolicyOperator.ADD);
+    }
+    if (this.hasDefault) {
+      if (this.oneOfKeys != null && !this.oneOfKeys.contains(key(this.defaultValue))) {
+        throw this.conflict(PolicyOperator.DEFAULT);
+      }
+      if (this.subsetOfKeys != null && !this.subsetOfKeys.containsAll(this.keysOf(this.defaultValue))) {
+        throw this.conflict(PolicyOperator.DEFAULT);
+      }
+      if (this.supersetOfKeys != null && !this.keysOf(this.defaultValue).containsAll(this.supersetOfKeys)) {
+        throw this.conflict(PolicyOperator.DEFAULT);
+      }
+    }
+    if (this.subsetOfKeys != null && this.supersetOfKeys != null
+        && !this.subsetOfKeys.containsAll(this.supersetOfKeys)) {
+      throw this.conflict(PolicyOperator.SUPERSET_OF);
+    }
+    return this;
+  }
+
+  private IllegalArgumentException conflict(final PolicyOperator operator) {
+    return new IllegalArgumentException(String.format("Conflicting policy operator %s for parameter %s",
+        operator.getName(), this.parameterName));
+  }
+
+  /**
+   * Get a multi-valued parameter value as a list.
+   *
+   * @param value parameter value
+   * @return list of values, or null if the value is null
+   * @throws IllegalArgumentException if the value is not multi-valued
+   */
+  @SuppressWarnings("unchecked")
+  private List<Object> multiValued(final Object value) {
+    if (value == null || value instanceof List) {
+      return (List<Object>) value;
+    }
+    throw new IllegalArgumentException("Parameter " + this.parameterName + " must be multi-valued");
+  }
+
+  private Set<Object> keysOf(final Object value) {
+    return keys(this.multiValued(value));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<Object> list(final String parameterName, final PolicyOperator operator,
+      final Object operand) {
+    if (operand instanceof List) {
+      return Collections.unmodifiableList(new ArrayList<>((List<Object>) operand));
+    }
+    throw new IllegalArgumentException(String.format("Policy operator %s must be a list for parameter %s",
+        operator.getName(), parameterName));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Object immutable(final Object operand) {
+    if (operand instanceof List) {
+      return Collections.unmodifiableList(new ArrayList<>((List<Object>) operand));
+    }
+    if (operand instanceof Map) {
+      return Collections.unmodifiableMap(new LinkedHashMap<>((Map<String, Object>) operand));
+    }
+    return operand;
+  }
+
+  private static List<Object> union(final List<Object> a, final List<Object> b) {
+    if (a == null || b == null) {
+      return a == null ? b : a;
+    }
+    final Set<Object> present = keys(a);
+    final List<Object> union = new ArrayList<>(a);
+    for (final Object v : b) {
+      if (present.add(key(v))) {
+        union.add(v);
+      }
+    }
+    return Collections.unmodifiableList(union);
+  }
+
+  private static List<Object> intersection(final List<Object> a, final List<Object> b) {
+    if (a == null || b == null) {
+      return a == null ? b : a;
+    }
+    final Set<Object> keys = keys(b);
+    final List<Object> intersection = new ArrayList<>();
+    for (final Object v : a) {
+      if (keys.contains(key(v))) {
+        intersection.add(v);
+      }
+    }
+    return Collections.unmodifiableList(intersection);
+  }
+
+  private static Set<Object> keys(final Collection<Object> values) {
+    if (values == null) {
+      return null;
+    }
+    final Set<Object> keys = new HashSet<>(values.size() * 2);
+    for (final Object value : values) {
+      keys.add(key(value));
+    }
+    return keys;
+  }
+
+  /**
+   * Get the comparison key of a JSON value. Numbers are compared by numeric value, since JSON parsers may represent
+   * equal numbers with different classes.
+   *
+   * @param value JSON value
+   * @return comparison key
+   */
+  private static Object key(final Object value) {
+    if (value instanceof Number) {
+      return new BigDecimal(value.toString()).stripTrailingZeros();
+    }
+    return value == null ? ParameterPolicy.class : value;
+  }
+
+}
@@ -0,0 +1,53 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.policy;
+
+import lombok.Getter;
+
+/**
+ * The standard metadata policy operators of OpenID Federation, in the order they are applied to a metadata parameter.
+ */
+public enum PolicyOperator {
+
+  /** Sets the parameter to a value, or removes the parameter if the value is null */
+  VALUE("value"),
+  /** Adds values to a multi-valued parameter */
+  ADD("add"),
+  /** Sets the parameter to a value if the parameter is absent */
+  DEFAULT("default"),
+  /** Requires a single-valued parameter to be one of a set of values */
+  ONE_OF("one_of"),
+  /** Reduces a multi-valued parameter to the values that are present in a set of values */
+  SUBSET_OF("subset_of"),
+  /** Requires a multi-valued parameter to hold all values of a set of values */
+  SUPERSET_OF("superset_of"),
+  /** Requires the parameter to be present */
+  ESSENTIAL("essential");
+
+  /** Operator name in a metadata policy */
+  @Getter
+  private final String name;
+
+  PolicyOperator(final String name) {
+    this.name = name;
+  }
+
+  /**
+   * Get the operator with a given name.
+   *
+   * @param name operator name
+   * @return the operator, or null if the name is not the name of a standard operator
+   */
+  public static PolicyOperator fromName(final String name) {
+    for (final PolicyOperator operator : values()) {
+      if (operator.name.equals(name)) {
+        return operator;
+      }
+    }
+    return null;
+  }
+
+}
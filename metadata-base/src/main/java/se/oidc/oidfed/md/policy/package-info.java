@@ -0,0 +1,10 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+
+/**
+ * OpenID Federation metadata policies
+ */
+package se.oidc.oidfed.md.policy;
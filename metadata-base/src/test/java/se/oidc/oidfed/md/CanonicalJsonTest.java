@@ -0,0 +1,118 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import org.junit.jupiter.api.Test;
+import se.oidc.oidfed.md.entities.ExtendedMetadata;
+import se.oidc.oidfed.md.entities.RelyingPartyMetadata;
+import se.oidc.oidfed.md.testdata.TestMetadata;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for JCS canonical JSON serialization
+ */
+class CanonicalJsonTest {
+
+  @Test
+  void rfc8785Test() throws Exception {
+    // Example from RFC 8785, section 3.2.3
+    final JsonNode value = MetadataUtils.OBJECT_MAPPER.readTree("""
+        {
+          "numbers": [333333333.33333329, 1E30, 4.50, 2e-3, 0.000000000000000000000000001],
+          "string": "\\u20ac$\\u000F\\u000aA'\\u0042\\u0022\\u005c\\\\\\"\\/",
+          "literals": [null, true, false]
+        }""");
+    assertEquals("{\"literals\":[null,true,false],\"numbers\":[333333333.3333333,1e+30,4.5,0.002,1e-27],"
+            + "\"string\":\"€$\\u000f\\nA'B\\\"\\\\\\\\\\\"/\"}",
+        canonical(value));
+
+    // Sorting of names by UTF-16 code units, from RFC 8785, section 3.2.3
+    final JsonNode sorting = MetadataUtils.OBJECT_MAPPER.readTree("""
+        {
+          "\\u20ac": "Euro Sign",
+          "\\r": "Carriage Return",
+          "\\ufb33": "Hebrew Letter Dalet With Dagesh",
+          "1": "One",
+          "\\ud83d\\ude00": "Emoji: Grinning Face",
+          "\\u0080": "Control",
+          "\\u00f6": "Latin Small Letter O With Diaeresis"
+        }""");
+    final List<String> names = new ArrayList<>();
+    MetadataUtils.OBJECT_MAPPER.readTree(canonical(sorting)).fieldNames().forEachRemaining(names::add);
+    assertEquals(List.of("\r", "1", "\u0080", "ö", "€", "😀", "דּ"), names);
+
+    assertThrows(IllegalArgumentException.class, () -> canonical(JsonNodeFactory.instance.textNode("\ud83d")));
+    assertThrows(IllegalArgumentException.class, () -> canonical(JsonNodeFactory.instance.numberNode(Double.NaN)));
+  }
+
+  @Test
+  void numberFormatTest() {
+    assertEquals("0", CanonicalJson.formatNumber(-0.0));
+    assertEquals("-1", CanonicalJson.formatNumber(-1.0));
+    assertEquals("100000000000000000000", CanonicalJson.formatNumber(1e20));
+    assertEquals("1e+21", CanonicalJson.formatNumber(1e21));
+    assertEquals("1.5e+300", CanonicalJson.formatNumber(1.5e300));
+    assertEquals("0.000001", CanonicalJson.formatNumber(1e-6));
+    assertEquals("1e-7", CanonicalJson.formatNumber(1e-7));
+    assertEquals("-1.25e-7", CanonicalJson.formatNumber(-1.25e-7));
+    assertEquals("123.456", CanonicalJson.formatNumber(123.456));
+    assertEquals("9007199254740992", CanonicalJson.formatNumber(9007199254740992.0));
+    assertEquals("5e-324", CanonicalJson.formatNumber(Double.MIN_VALUE));
+    assertEquals("2e+23", CanonicalJson.formatNumber(2e23));
+    assertEquals("1.7976931348623157e+308", CanonicalJson.formatNumber(Double.MAX_VALUE));
+  }
+
+  @Test
+  void metadataTest() throws Exception {
+    final RelyingPartyMetadata metadata = RelyingPartyMetadata.getJsonSerializer().parse(TestMetadata.rpMetadataJson);
+
+    // Same metadata with the parameters in reverse order
+    final List<Map.Entry<String, Object>> entries = new ArrayList<>(TestMetadata.rpMetadata.entrySet());
+    Collections.reverse(entries);
+    final Map<String, Object> reversed = new LinkedHashMap<>();
+    entries.forEach(e -> reversed.put(e.getKey(), e.getValue()));
+    final RelyingPartyMetadata reordered = RelyingPartyMetadata.getJsonSerializer().parse(reversed);
+
+    final byte[] canonical = metadata.toCanonicalUtf8Bytes();
+    assertArrayEquals(canonical, reordered.toCanonicalUtf8Bytes());
+    assertEquals(MetadataUtils.OBJECT_MAPPER.readTree(metadata.toUtf8Bytes()),
+        MetadataUtils.OBJECT_MAPPER.readTree(canonical));
+    final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+    assertArrayEquals(digest.digest(canonical), metadata.digest(digest));
+    assertArrayEquals(metadata.digest(digest), reordered.digest(digest));
+
+    // Extended parameters are sorted together with the base metadata parameters
+    final Map<String, Object> extended = new LinkedHashMap<>(TestMetadata.rpMetadata);
+    extended.put("a_extension", "first");
+    final ExtendedMetadata<RelyingPartyMetadata> extendedMetadata =
+        new ExtendedMetadata<>(extended, RelyingPartyMetadata.getJsonSerializer());
+    final String extendedJson = new String(extendedMetadata.toCanonicalUtf8Bytes(), StandardCharsets.UTF_8);
+    assertTrue(extendedJson.startsWith("{\"a_extension\":\"first\","));
+    assertArrayEquals(digest.digest(extendedMetadata.toCanonicalUtf8Bytes()), extendedMetadata.digest(digest));
+  }
+
+  private static String canonical(final JsonNode value) throws Exception {
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    CanonicalJson.writeTo(value, outputStream);
+    return outputStream.toString(StandardCharsets.UTF_8);
+  }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md;
+
+import org.junit.jupiter.api.Test;
+import se.oidc.oidfed.md.entities.OpMetadata;
+import se.oidc.oidfed.md.entities.RelyingPartyMetadata;
+import se.oidc.oidfed.md.lang.OidcLangJsonSerializer;
+import se.oidc.oidfed.md.testdata.TestMetadata;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for canonicalization of parsed metadata values
+ */
+class CanonicalizationTest {
+
+  @Test
+  void canonicalParseTest() throws Exception {
+    final CanonicalizationPool pool = new CanonicalizationPool();
+    final OidcLangJsonSerializer<OpMetadata> serializer =
+        new OidcLangJsonSerializer<>(OpMetadata.class, MetadataUtils.getOidcObjectMapper(pool));
+
+    final OpMetadata first = serializer.parse(TestMetadata.opMetadataJson);
+    final OpMetadata second = serializer.parse(serializer.toJsonObject(first));
+    assertEquals(OpMetadata.getJsonSerializer().parse(TestMetadata.opMetadataJson).toJsonObject(),
+        first.toJsonObject());
+    assertSame(first.getScopesSupported(), second.getScopesSupported());
+    assertSame(first.getIdTokenSigningAlgValuesSupported(), second.getIdTokenSigningAlgValuesSupported());
+    assertSame(first.getUserinfoSigningAlgValuesSupported().get(0),
+        second.getUserinfoSigningAlgValuesSupported().get(0));
+    assertThrows(UnsupportedOperationException.class, () -> first.getScopesSupported().add("extra"));
+    final int listCount = pool.getListCount();
+
+    // Per-entity values are not canonicalized
+    final OidcLangJsonSerializer<RelyingPartyMetadata> rpSerializer =
+        new OidcLangJsonSerializer<>(RelyingPartyMetadata.class, MetadataUtils.getOidcObjectMapper(pool));
+    final RelyingPartyMetadata rp = rpSerializer.parse(TestMetadata.rpMetadataJson);
+    assertNotSame(rp.getRedirectUris(), rpSerializer.parse(TestMetadata.rpMetadataJson).getRedirectUris());
+    rp.getRedirectUris().add("https://example.com/other");
+    assertSame(rp.getGrantTypes(), rpSerializer.parse(TestMetadata.rpMetadataJson).getGrantTypes());
+    assertEquals(listCount + 1, pool.getListCount());
+
+    // Configured vocabulary properties
+    final OidcLangJsonSerializer<RelyingPartyMetadata> customSerializer = new OidcLangJsonSerializer<>(
+        RelyingPartyMetadata.class, MetadataUtils.getOidcObjectMapper().registerModule(
+            new CanonicalizationModule(pool, Set.of("redirect_uris"))));
+    assertSame(customSerializer.parse(TestMetadata.rpMetadataJson).getRedirectUris(),
+        customSerializer.parse(TestMetadata.rpMetadataJson).getRedirectUris());
+    assertNotSame(customSerializer.parse(TestMetadata.rpMetadataJson).getGrantTypes(),
+        customSerializer.parse(TestMetadata.rpMetadataJson).getGrantTypes());
+
+    // Default serializer does not share lists
+    final OpMetadata unshared = OpMetadata.getJsonSerializer().parse(TestMetadata.opMetadataJson);
+    assertNotSame(unshared.getScopesSupported(),
+        OpMetadata.getJsonSerializer().parse(TestMetadata.opMetadataJson).getScopesSupported());
+  }
+
+  @Test
+  void poolBoundsTest() {
+    final CanonicalizationPool pool = new CanonicalizationPool(2, 1);
+    final List<String> algorithms = pool.canonicalize(new ArrayList<>(List.of(new String("RS256"), "ES256")));
+    assertSame(algorithms, pool.canonicalize(new ArrayList<>(List.of("RS256", new String("ES256")))));
+    assertEquals(2, pool.getStringCount());
+    assertEquals(1, pool.getListCount());
+
+    // Full pool returns unpooled values
+    final String value = new String("PS256");
+    assertSame(value, pool.canonicalize(value));
+    final List<String> unpooled = pool.canonicalize(List.of("RS256"));
+    assertEquals(List.of("RS256"), unpooled);
+    assertSame(algorithms.get(0), unpooled.get(0));
+    assertNotSame(unpooled, pool.canonicalize(List.of("RS256")));
+
+    // Lists with null elements are not canonicalized
+    final List<String> withNull = Arrays.asList("RS256", null);
+    assertSame(withNull, pool.canonicalize(withNull));
+  }
+
+}
@@ -0,0 +1,200 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.junit.jupiter.api.Test;
+import se.oidc.oidfed.md.entities.RelyingPartyMetadata;
+import se.oidc.oidfed.md.lang.LanguageObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for language negotiation in language objects
+ */
+class LanguageObjectTest {
+
+  @Test
+  void languageLookupTest() {
+    final LanguageObject<String> languageObject = LanguageObject.builder(String.class)
+        .defaultValue("default")
+        .langValue("en", "english")
+        .langValue("sv", "swedish")
+        .langValue("de-CH", "swiss german")
+        .build();
+
+    // Exact match
+    assertEquals("english", languageObject.getLanguageValue("en"));
+    // Fallback to shorter language tag
+    assertEquals("swedish", languageObject.getLanguageValue("sv-SE"));
+    assertEquals("swedish", languageObject.getLanguageValue("sv_SE"));
+    assertEquals("swedish", languageObject.getLanguageValue("sv-Latn-x-private"));
+    // Case insensitive match
+    assertEquals("swiss german", languageObject.getLanguageValue("DE-ch"));
+    // Range matching the prefix of a language tag
+    assertEquals("swiss german", languageObject.getLanguageValue("de"));
+    // Language priority lists
+    assertEquals("swedish", languageObject.getLanguageValue("fi-FI,sv-SE;q=0.9,en;q=0.8"));
+    assertEquals("english", languageObject.getLanguageValue("fi-FI,sv;q=0,en;q=0.5"));
+    assertEquals("english", languageObject.getLanguageValue(Locale.LanguageRange.parse("fr,en-GB;q=0.5")));
+    // No match
+    assertEquals("default", languageObject.getLanguageValue("fi"));
+    assertEquals("default", languageObject.getLanguageValue("*"));
+    assertEquals("default", languageObject.getLanguageValue("not a ; valid list"));
+    assertEquals("default", languageObject.getLanguageValue((String) null));
+    // Memoized resolutions give the same result
+    assertEquals("swedish", languageObject.getLanguageValue("sv-SE"));
+    assertEquals("default", languageObject.getLanguageValue("fi"));
+  }
+
+  @Test
+  void firstAvailableTest() {
+    final LanguageObject<String> languageObject = LanguageObject.builder(String.class)
+        .langValue("sv", "swedish")
+        .langValue("en", "english")
+        .langValue("fi", "finnish")
+        .build();
+    assertEquals("swedish", languageObject.getLanguageValue("pt"));
+    assertNull(new LanguageObject<String>().getLanguageValue("en"));
+    assertEquals("default", new LanguageObject<>("default", null).getLanguageValue("en"));
+  }
+
+  @Test
+  void parsedFirstAvailableTest() throws Exception {
+    final List<String> tags = List.of("sv", "en", "fi", "de", "nb", "da", "is", "fr");
+    final List<String> reversed = new ArrayList<>(tags);
+    Collections.reverse(reversed);
+    for (final List<String> order : List.of(tags, reversed)) {
+      final StringBuilder json = new StringBuilder("{\"redirect_uris\":[\"https://example.com/cb\"]");
+      final Map<String, Object> jsonObject = new LinkedHashMap<>();
+      for (final String tag : order) {
+        json.append(",\"client_name#").append(tag).append("\":\"name ").append(tag).append('"');
+        jsonObject.put("client_name#" + tag, "name " + tag);
+      }
+      json.append('}');
+
+      // No tag matches, so the first language tagged value of the document is returned
+      final RelyingPartyMetadata metadata = RelyingPartyMetadata.getJsonSerializer().parse(json.toString());
+      assertEquals("name " + order.get(0), metadata.getClientName().getLanguageValue("pt"));
+      assertEquals(order, new ArrayList<>(metadata.getClientName().getValueMap().keySet()));
+
+      final LanguageObject<?> consolidated = (LanguageObject<?>) RelyingPartyMetadata.getJsonSerializer()
+          .consolidateLanguageTags(jsonObject).get("client_name");
+      assertEquals("name " + order.get(0), consolidated.getLanguageValue("pt"));
+    }
+  }
+
+  @Test
+  void modifiedValueMapTest() {
+    final Map<String, String> valueMap = new HashMap<>(Map.of("en", "english"));
+    final LanguageObject<String> languageObject = new LanguageObject<>("default", valueMap);
+    assertEquals("default", languageObject.getLanguageValue("sv-SE"));
+
+    // Values are copied from the provided map
+    valueMap.put("sv", "swedish");
+    assertEquals("default", languageObject.getLanguageValue("sv-SE"));
+
+    // Changes to the value map are written to the language object
+    assertNull(languageObject.getValueMap().put("sv", "swedish"));
+    assertEquals("swedish", languageObject.getLanguageValue("sv-SE"));
+    assertEquals("swedish", languageObject.getValueMap().remove("sv"));
+    assertEquals("default", languageObject.getLanguageValue("sv-SE"));
+    languageObject.getValueMap().entrySet().iterator().next().setValue("english 2");
+    assertEquals("english 2", languageObject.getLanguageValue("en"));
+    final LanguageObject<String> snapshot = languageObject.snapshot();
+    assertThrows(UnsupportedOperationException.class, () -> snapshot.getValueMap().put("sv", "swedish"));
+    assertThrows(UnsupportedOperationException.class, () -> snapshot.getValueMap().clear());
+
+    // Index is rebuilt when values are replaced
+    languageObject.setValueMap(valueMap);
+    assertEquals("swedish", languageObject.getLanguageValue("sv-SE"));
+    languageObject.setValueMap(Map.of("sv-FI", "finland swedish"));
+    assertEquals("finland swedish", languageObject.getLanguageValue("sv"));
+    assertEquals(new LanguageObject<>("default", Map.of("sv-FI", "finland swedish")), languageObject);
+  }
+
+  @Test
+  void compactStorageTest() throws Exception {
+    final List<String> languages = List.of("sv", "en", "de", "fi", "no", "da", "fr", "es", "it", "nl", "pt", "pl",
+        "et", "lv", "lt", "is", "ga", "mt");
+    final LanguageObject.LanguageObjectBuilder<String> builder = LanguageObject.builder(String.class);
+    final Map<String, String> expected = new LinkedHashMap<>();
+    for (final String language : languages) {
+      builder.langValue(language, "Value " + language);
+      expected.put(language, "Value " + language);
+      // Compare while switching from compact form to map storage
+      final LanguageObject<String> languageObject = builder.build();
+      assertEquals(expected, languageObject.getValueMap());
+      assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(languageObject.getValueMap().keySet()));
+      assertEquals(new LanguageObject<>(null, expected), languageObject);
+      assertEquals(new LanguageObject<>(null, expected).hashCode(), languageObject.hashCode());
+      assertEquals("Value " + language, languageObject.getLanguageValue(language));
+      assertEquals("Value sv", languageObject.getLanguageValue("xx"));
+    }
+
+    // Replacing a value keeps the language order
+    final LanguageObject<String> small = LanguageObject.builder(String.class)
+        .langValue("sv", "Svenska")
+        .langValue("en", "English")
+        .langValue("sv", "Svenska 2")
+        .build();
+    assertEquals(List.of("sv", "en"), new ArrayList<>(small.getValueMap().keySet()));
+    assertEquals("Svenska 2", small.getLanguageValue(new String("sv")));
+    assertTrue(small.getValueMap().containsKey("en"));
+    assertNull(small.getValueMap().get("de"));
+
+    // Values are removed through the value map in both storage forms
+    for (final LanguageObject<String> languageObject : List.of(new LanguageObject<>(null, small.getValueMap()),
+        builder.build())) {
+      final Map<String, String> valueMap = new LinkedHashMap<>(languageObject.getValueMap());
+      languageObject.getValueMap().keySet().removeIf(language -> language.startsWith("s"));
+      valueMap.keySet().removeIf(language -> language.startsWith("s"));
+      assertEquals(valueMap, languageObject.getValueMap());
+      assertNull(languageObject.getValueMap().get("sv"));
+      assertEquals(valueMap.values().iterator().next(), languageObject.getLanguageValue("sv"));
+      languageObject.getValueMap().clear();
+      assertEquals(Map.of(), languageObject.getValueMap());
+    }
+
+    // Short well-formed language tags are shared
+    final LanguageObject<String> shared = new LanguageObject<>(null, Map.of(new String("sv-SE"), "Svenska",
+        "x-" + "a".repeat(20), "Long"));
+    final LanguageObject<String> other = new LanguageObject<>(null, Map.of(new String("sv-SE"), "Svenska",
+        "x-" + "a".repeat(20), "Long"));
+    assertSame(this.languageTag(shared, "sv-SE"), this.languageTag(other, "sv-SE"));
+    assertNotSame(this.languageTag(shared, "x-" + "a".repeat(20)), this.languageTag(other, "x-" + "a".repeat(20)));
+
+    // No value map and empty value map are different
+    assertNull(new LanguageObject<>("default", null).getValueMap());
+    assertEquals(Map.of(), new LanguageObject<>("default", Map.of()).getValueMap());
+    assertNotEquals(new LanguageObject<>("default", null), new LanguageObject<>("default", Map.of()));
+
+    // JSON serialization
+    final String json = MetadataUtils.OBJECT_MAPPER.writeValueAsString(small);
+    assertEquals("{\"lang_values\":{\"sv\":\"Svenska 2\",\"en\":\"English\"}}", json);
+    assertEquals(small, MetadataUtils.OBJECT_MAPPER.readValue(json, new TypeReference<LanguageObject<String>>() {
+    }));
+  }
+
+  private String languageTag(final LanguageObject<?> languageObject, final String language) {
+    return languageObject.getValueMap().keySet().stream().filter(language::equals).findFirst().orElseThrow();
+  }
+
+}
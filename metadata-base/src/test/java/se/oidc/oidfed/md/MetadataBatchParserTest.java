@@ -0,0 +1,131 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.junit.jupiter.api.Test;
+import se.oidc.oidfed.md.entities.FederationEntityMetadata;
+import se.oidc.oidfed.md.testdata.TestMetadata;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for batch parsing of metadata
+ */
+class MetadataBatchParserTest {
+
+  @Test
+  void batchParseTest() throws Exception {
+    final FederationEntityMetadata expected = FederationEntityMetadata.getJsonSerializer()
+        .parse(TestMetadata.federationEntityMetadataJson).snapshot();
+    final List<byte[]> documents = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      documents.add(i % 10 == 3
+          ? "{\"federation_fetch_endpoint\": ".getBytes(StandardCharsets.UTF_8)
+          : TestMetadata.federationEntityMetadataJson.getBytes(StandardCharsets.UTF_8));
+    }
+    documents.set(7, null);
+
+    final List<MetadataBatchParser.ParseResult<FederationEntityMetadata>> results =
+        MetadataBatchParser.builder(FederationEntityMetadata.getJsonSerializer()).build().parseBytes(documents);
+    assertEquals(documents.size(), results.size());
+    for (int i = 0; i < results.size(); i++) {
+      final MetadataBatchParser.ParseResult<FederationEntityMetadata> result = results.get(i);
+      assertEquals(i, result.getIndex());
+      if (i % 10 == 3 || i == 7) {
+        assertFalse(result.isSuccess());
+        assertNull(result.getMetadata());
+        if (i != 7) {
+          assertInstanceOf(JsonProcessingException.class, result.getError());
+        }
+      }
+      else {
+        assertTrue(result.isSuccess());
+        assertEquals(expected, result.getMetadata().snapshot());
+      }
+    }
+  }
+
+  @Test
+  void executorTest() throws Exception {
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final MetadataBatchParser<FederationEntityMetadata> parser =
+          MetadataBatchParser.builder(FederationEntityMetadata.getJsonSerializer())
+              .executor(executor)
+              .preserveOrder(false)
+              .build();
+      final List<MetadataBatchParser.ParseResult<FederationEntityMetadata>> results = parser.parseStrings(
+          List.of(TestMetadata.federationEntityMetadataJson, "[]", TestMetadata.federationEntityMetadataJson));
+      assertEquals(3, results.size());
+      assertEquals(List.of(0, 1, 2), results.stream().map(MetadataBatchParser.ParseResult::getIndex).sorted().toList());
+      assertEquals(2, results.stream().filter(MetadataBatchParser.ParseResult::isSuccess).count());
+
+      // Custom document parser
+      final List<InputStream> streams = Arrays.asList(
+          new ByteArrayInputStream(TestMetadata.federationEntityMetadataJson.getBytes(StandardCharsets.UTF_8)));
+      assertTrue(parser.parse(streams, FederationEntityMetadata.getJsonSerializer()::parse).get(0).isSuccess());
+      assertEquals(List.of(), parser.parseStrings(List.of()));
+    }
+    finally {
+      executor.shutdown();
+    }
+
+    // Rejected documents give error results
+    final List<MetadataBatchParser.ParseResult<FederationEntityMetadata>> rejected = MetadataBatchParser
+        .builder(FederationEntityMetadata.getJsonSerializer())
+        .executor(executor)
+        .build()
+        .parseStrings(List.of(TestMetadata.federationEntityMetadataJson));
+    assertEquals(1, rejected.size());
+    assertInstanceOf(RejectedExecutionException.class, rejected.get(0).getError());
+  }
+
+  @Test
+  void rejectingExecutorTest() throws Exception {
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      // Every second document is rejected
+      final AtomicInteger submitted = new AtomicInteger();
+      final MetadataBatchParser<FederationEntityMetadata> parser =
+          MetadataBatchParser.builder(FederationEntityMetadata.getJsonSerializer())
+              .executor(command -> {
+                if (submitted.getAndIncrement() % 2 == 1) {
+                  throw new RejectedExecutionException("Queue is full");
+                }
+                executor.execute(command);
+              })
+              .build();
+      final List<MetadataBatchParser.ParseResult<FederationEntityMetadata>> results = parser.parseStrings(
+          List.of(TestMetadata.federationEntityMetadataJson, TestMetadata.federationEntityMetadataJson,
+              TestMetadata.federationEntityMetadataJson, "[]"));
+      assertEquals(List.of(0, 1, 2, 3), results.stream().map(MetadataBatchParser.ParseResult::getIndex).toList());
+      assertTrue(results.get(0).isSuccess());
+      assertInstanceOf(RejectedExecutionException.class, results.get(1).getError());
+      assertTrue(results.get(2).isSuccess());
+      assertInstanceOf(RejectedExecutionException.class, results.get(3).getError());
+    }
+    finally {
+      executor.shutdown();
+    }
+  }
+
+}
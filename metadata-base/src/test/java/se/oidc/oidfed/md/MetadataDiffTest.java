@@ -0,0 +1,104 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md;
+
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import org.junit.jupiter.api.Test;
+import se.oidc.oidfed.md.entities.RelyingPartyMetadata;
+import se.oidc.oidfed.md.lang.LanguageObject;
+import se.oidc.oidfed.md.testdata.TestMetadata;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for metadata diff and patch
+ */
+class MetadataDiffTest {
+
+  @Test
+  void diffAndPatchTest() throws Exception {
+    final RelyingPartyMetadata source = RelyingPartyMetadata.getJsonSerializer().parse(TestMetadata.rpMetadataJson);
+    final RelyingPartyMetadata target = RelyingPartyMetadata.getJsonSerializer().parse(TestMetadata.rpMetadataJson);
+    assertTrue(MetadataDiff.compare(source, target, RelyingPartyMetadata.getJsonSerializer()).isEmpty());
+    assertSame(source, MetadataDiff.compare(source, target, RelyingPartyMetadata.getJsonSerializer()).apply(source));
+
+    // Normalize the JWK Set representation, so that only the added key differs
+    source.setJwkSet(source.getJwkSet());
+    target.setJwkSet(target.getJwkSet());
+    final LanguageObject<String> organizationName = new LanguageObject<>("DIGG",
+        Map.of("sv", "Myndigheten för digital förvaltning", "en", "Agency for Digital Government"));
+    target.setOrganizationName(organizationName);
+    target.setGrantTypes(null);
+    target.setContacts(List.of("info@digg.se"));
+    final List<JWK> keys = new ArrayList<>(target.getJwkSet().getKeys());
+    final JWK added = new ECKeyGenerator(Curve.P_256).keyID("added").generate().toPublicJWK();
+    keys.add(added);
+    target.setJwkSet(new JWKSet(keys));
+
+    final MetadataDiff<RelyingPartyMetadata> diff =
+        MetadataDiff.compare(source, target, RelyingPartyMetadata.getJsonSerializer());
+    assertEquals(Set.of("organization_name", "grant_types", "contacts", "jwks"), diff.getChangedParameters());
+    assertEquals(4, diff.getChanges().size());
+    for (final MetadataDiff.Change change : diff.getChanges()) {
+      switch (change.getParameterName()) {
+        case "organization_name" -> {
+          assertEquals(MetadataDiff.ChangeType.MODIFIED, change.getType());
+          assertEquals("en", change.getLanguageTag());
+          assertEquals("Agency for Digital Government", change.getNewValue());
+        }
+        case "grant_types" -> assertEquals(MetadataDiff.ChangeType.REMOVED, change.getType());
+        case "contacts" -> assertEquals(MetadataDiff.ChangeType.ADDED, change.getType());
+        case "jwks" -> {
+          assertEquals(MetadataDiff.ChangeType.ADDED, change.getType());
+          assertEquals("added", change.getKeyId());
+          assertNull(change.getLanguageTag());
+        }
+        default -> throw new AssertionError("Unexpected change " + change);
+      }
+    }
+    // Key members such as dates may be parsed to other number classes than the ones set, so compare by JSON value
+    assertTrue(MetadataDiff.compare(target, diff.apply(source), RelyingPartyMetadata.getJsonSerializer()).isEmpty());
+
+    // A patch does not apply twice
+    assertThrows(IllegalArgumentException.class, () -> diff.apply(target));
+  }
+
+  @Test
+  void documentDiffTest() throws Exception {
+    final RelyingPartyMetadata source = RelyingPartyMetadata.getJsonSerializer().parse(TestMetadata.rpMetadataJson);
+    final JWK key = source.getJwkSet().getKeys().get(0);
+    final Map<String, Object> modifiedKey = key.toJSONObject();
+    modifiedKey.put("use", "enc");
+    final Map<String, Object> targetObject = RelyingPartyMetadata.getJsonSerializer().toJsonObject(source);
+    targetObject.put("jwks", Map.of("keys", List.of(modifiedKey)));
+    targetObject.put("client_name", "Test client");
+
+    final MetadataDiff<RelyingPartyMetadata> diff = MetadataDiff.compare(
+        TestMetadata.rpMetadataJson.getBytes(StandardCharsets.UTF_8),
+        MetadataUtils.OBJECT_MAPPER.writeValueAsBytes(targetObject),
+        RelyingPartyMetadata.getJsonSerializer());
+    assertEquals(2, diff.getChanges().size());
+    final MetadataDiff.Change keyChange = diff.getChanges().get(0);
+    assertEquals(MetadataDiff.ChangeType.MODIFIED, keyChange.getType());
+    assertEquals(key.getKeyID() != null ? key.getKeyID() : key.computeThumbprint().toString(), keyChange.getKeyId());
+    assertEquals(RelyingPartyMetadata.getJsonSerializer().parse(targetObject).snapshot(),
+        diff.apply(source).snapshot());
+  }
+
+}
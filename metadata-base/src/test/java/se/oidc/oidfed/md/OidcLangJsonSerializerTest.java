@@ -5,21 +5,44 @@
  */
 package se.oidc.oidfed.md;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import lombok.Data;
+import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FileUtils;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import se.oidc.oidfed.md.entities.OpMetadata;
+import se.oidc.oidfed.md.entities.RelyingPartyMetadata;
 import se.oidc.oidfed.md.lang.GenericLangTarget;
+import se.oidc.oidfed.md.lang.LanguageObject;
+import se.oidc.oidfed.md.lang.LanguageTaggedClassDescriptor;
+import se.oidc.oidfed.md.lang.LanguageTaggedJson;
 import se.oidc.oidfed.md.lang.OidcLangJsonSerializer;
 import se.oidc.oidfed.md.testdata.LangTestTarget;
+import se.oidc.oidfed.md.testdata.TestMetadata;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -65,6 +88,220 @@ class OidcLangJsonSerializerTest {
     log.info("Deserialization success");
   }
 
+  @Test
+  void consolidateGroupingTest() throws Exception {
+
+    log.info("Testing that language tags are grouped on the exact parameter name");
+    final OidcLangJsonSerializer<GenericLangTarget> genericConverter =
+        new OidcLangJsonSerializer<>(GenericLangTarget.class);
+    final Map<String, Object> consolidated = genericConverter.consolidateLanguageTags(Map.of(
+        "client_name", "Client",
+        "client_name#en", "Client EN",
+        "client_name_x#en", "Other EN",
+        "client_name_y", "Not tagged",
+        "#sv", "No parameter name",
+        "tos_uri#", "No language"), List.of("client_name_y"));
+    assertEquals(Map.of(
+        "client_name", new LanguageObject<>("Client", Map.of("en", "Client EN")),
+        "client_name_x", new LanguageObject<>(null, Map.of("en", "Other EN")),
+        "client_name_y", new LanguageObject<>("Not tagged", null),
+        "#sv", "No parameter name",
+        "tos_uri", new LanguageObject<>(null, Map.of())), consolidated);
+  }
+
+  @Test
+  void classDescriptorTest() throws Exception {
+
+    log.info("Testing class descriptors of language tagged classes");
+    final LanguageTaggedClassDescriptor rpDescriptor =
+        LanguageTaggedClassDescriptor.forClass(RelyingPartyMetadata.class);
+    assertSame(rpDescriptor, LanguageTaggedClassDescriptor.forClass(RelyingPartyMetadata.class));
+    assertEquals(Set.of("organization_name", "logo_uri", "client_name", "tos_uri"),
+        Set.copyOf(rpDescriptor.getLanguageObjectProperties()));
+    assertTrue(rpDescriptor.isKnownProperty("redirect_uris"));
+    assertTrue(rpDescriptor.isKnownProperty("jwks"));
+    assertFalse(rpDescriptor.isKnownProperty("languageTaggedParameters"));
+    assertFalse(rpDescriptor.isKnownProperty("client_name#sv"));
+    assertSame(new RelyingPartyMetadata().getLanguageTaggedParameters(),
+        new RelyingPartyMetadata().getLanguageTaggedParameters());
+    assertEquals(Set.copyOf(rpDescriptor.getLanguageObjectProperties()),
+        Set.copyOf(rpDescriptor.getDeclaredLanguageTaggedParameters()));
+    assertEquals(List.of("organization_name", "logo_uri"),
+        new OpMetadata().getLanguageTaggedParameters());
+
+    // Declared parameters are obtained from the class and not from the property types
+    assertEquals(List.of("lang_def", "lang_nodef", "lang_onlydef"),
+        LanguageTaggedClassDescriptor.forClass(LangTestTarget.class).getDeclaredLanguageTaggedParameters());
+    assertEquals(List.of(),
+        LanguageTaggedClassDescriptor.forClass(UndeclaredLangTestTarget.class).getDeclaredLanguageTaggedParameters());
+    assertThrows(IllegalArgumentException.class,
+        () -> LanguageTaggedClassDescriptor.forClass(String.class).getDeclaredLanguageTaggedParameters());
+  }
+
+  @Test
+  void streamingParseTest() throws Exception {
+
+    final OidcLangJsonSerializer<LangTestTarget> converter = new OidcLangJsonSerializer<>(LangTestTarget.class);
+    log.info("Comparing streaming parser result with JSON object parser result");
+    assertEquals(converter.parse(this.toJsonObject(langTestJson1)), converter.parse(langTestJson1));
+
+    // Untagged value before and after the language tagged values of a parameter that is not declared
+    final String lateTagsJson = "{\"nolang\":\"Value\",\"lang_onlydef\":\"Default\",\"lang_onlydef#sv\":\"Svenska\"}";
+    final String earlyTagsJson = "{\"lang_onlydef#sv\":\"Svenska\",\"nolang\":\"Value\",\"lang_onlydef\":\"Default\"}";
+    final OidcLangJsonSerializer<UndeclaredLangTestTarget> undeclaredConverter =
+        new OidcLangJsonSerializer<>(UndeclaredLangTestTarget.class);
+    for (final String json : List.of(lateTagsJson, earlyTagsJson)) {
+      final UndeclaredLangTestTarget streamed = undeclaredConverter.parse(json);
+      assertEquals(undeclaredConverter.parse(this.toJsonObject(json)), streamed);
+      assertEquals("Default", streamed.getLangOnlyDefault().getDefaultValue());
+      assertEquals("Svenska", streamed.getLangOnlyDefault().getValueMap().get("sv"));
+      assertEquals(converter.parse(this.toJsonObject(json)), converter.parse(json));
+    }
+
+    log.info("Comparing streaming parser result on OP and RP metadata");
+    assertEquals(OpMetadata.getJsonSerializer().parse(TestMetadata.opMetadata).toJsonObject(),
+        OpMetadata.getJsonSerializer().parse(TestMetadata.opMetadataJson).toJsonObject());
+    final RelyingPartyMetadata rpMetadata = RelyingPartyMetadata.getJsonSerializer().parse(TestMetadata.rpMetadataJson);
+    assertEquals(RelyingPartyMetadata.getJsonSerializer().parse(TestMetadata.rpMetadata).toJsonObject(),
+        rpMetadata.toJsonObject());
+    assertEquals("DIGG", rpMetadata.getOrganizationName().getDefaultValue());
+    assertEquals("Myndigheten för digital förvaltning", rpMetadata.getOrganizationName().getValueMap().get("sv"));
+
+    assertThrows(MismatchedInputException.class, () -> converter.parse("[\"not\", \"an object\"]"));
+  }
+
+  @Test
+  void byteParseTest() throws Exception {
+
+    final OidcLangJsonSerializer<RelyingPartyMetadata> serializer = RelyingPartyMetadata.getJsonSerializer();
+    final RelyingPartyMetadata expected = serializer.parse(TestMetadata.rpMetadataJson).snapshot();
+    final byte[] json = TestMetadata.rpMetadataJson.getBytes(StandardCharsets.UTF_8);
+
+    assertEquals(expected, serializer.parse(json).snapshot());
+
+    // Array range
+    final byte[] padded = new byte[json.length + 10];
+    System.arraycopy(json, 0, padded, 7, json.length);
+    assertEquals(expected, serializer.parse(padded, 7, json.length).snapshot());
+    assertThrows(IndexOutOfBoundsException.class, () -> serializer.parse(padded, 7, padded.length));
+
+    // Heap, sliced and direct buffers keep their position
+    final ByteBuffer heapBuffer = ByteBuffer.wrap(padded, 7, json.length);
+    assertEquals(expected, serializer.parse(heapBuffer).snapshot());
+    assertEquals(7, heapBuffer.position());
+    assertEquals(expected, serializer.parse(heapBuffer.slice()).snapshot());
+    final ByteBuffer directBuffer = ByteBuffer.allocateDirect(json.length + 3);
+    directBuffer.put("   ".getBytes(StandardCharsets.UTF_8)).put(json).flip().position(3);
+    assertEquals(expected, serializer.parse(directBuffer).snapshot());
+    assertEquals(3, directBuffer.position());
+    assertEquals(expected, serializer.parse(directBuffer.asReadOnlyBuffer()).snapshot());
+
+    // Input stream is not closed
+    final AtomicBoolean closed = new AtomicBoolean();
+    final InputStream inputStream = new ByteArrayInputStream(json) {
+      @Override
+      public void close() {
+        closed.set(true);
+      }
+    };
+    assertEquals(expected, serializer.parse(inputStream).snapshot());
+    assertFalse(closed.get());
+
+    assertThrows(MismatchedInputException.class,
+        () -> serializer.parse("[\"not\", \"an object\"]".getBytes(StandardCharsets.UTF_8)));
+    assertThrows(JsonProcessingException.class,
+        () -> serializer.parse(ByteBuffer.allocateDirect(4).put("{\"a\"".getBytes(StandardCharsets.UTF_8)).flip()));
+  }
+
+  @Test
+  void toJsonTest() throws Exception {
+
+    final OidcLangJsonSerializer<LangTestTarget> converter = new OidcLangJsonSerializer<>(LangTestTarget.class);
+    final LangTestTarget target = converter.parse(langTestJson1);
+    log.info("Serializing language tagged target object directly to JSON");
+    final String json = converter.toJson(target);
+    log.info("Serialized JSON: {}", json);
+    assertEquals(this.toJsonObject(langTestJson1), this.toJsonObject(json));
+    assertEquals(this.toJsonObject(langTestJson1), converter.toJsonObject(target));
+    assertEquals(target, converter.parse(json));
+
+    // Null language values are omitted and undeclared language objects are serialized as language objects
+    final Map<String, String> valueMap = new HashMap<>();
+    valueMap.put("sv", "Svenska");
+    valueMap.put("en", null);
+    target.setLangNoDefault(new LanguageObject<>(null, valueMap));
+    assertEquals(Map.of("lang_nodef#sv", "Svenska", "lang_onlydef", "Default value"),
+        converter.toJsonObject(new LangTestTarget(null, null, target.getLangNoDefault(),
+            target.getLangOnlyDefault())));
+    final UndeclaredLangTestTarget undeclared = new UndeclaredLangTestTarget();
+    undeclared.setLangOnlyDefault(new LanguageObject<>("Default", Map.of("sv", "Svenska")));
+    assertEquals(Map.of("lang_onlydef", Map.of("def", "Default", "lang_values", Map.of("sv", "Svenska"))),
+        new OidcLangJsonSerializer<>(UndeclaredLangTestTarget.class).toJsonObject(undeclared));
+
+    log.info("Comparing OP metadata serialization with parsed JSON");
+    final OpMetadata opMetadata = OpMetadata.getJsonSerializer().parse(TestMetadata.opMetadataJson);
+    assertEquals(this.toJsonObject(opMetadata.toJson(false)), opMetadata.toJsonObject());
+    assertEquals(opMetadata.toJsonObject(),
+        OpMetadata.getJsonSerializer().parse(opMetadata.toJson(true)).toJsonObject());
+  }
+
+  @Test
+  void concurrentToJsonTest() throws Exception {
+
+    final OpMetadata opMetadata = OpMetadata.getJsonSerializer().parse(TestMetadata.opMetadataJson);
+    final String compactJson = opMetadata.toJson(false);
+    final String prettyJson = opMetadata.toJson(true);
+    assertNotEquals(compactJson, prettyJson);
+    assertEquals(compactJson, OpMetadata.getJsonSerializer().withPrettyPrinting(true).toJson(opMetadata, false));
+    assertEquals(prettyJson, OpMetadata.getJsonSerializer().withPrettyPrinting(true).toJson(opMetadata));
+
+    // The deprecated setter returns a new serializer and leaves the shared serializer unchanged
+    final OidcLangJsonSerializer<OpMetadata> serializer = OpMetadata.getJsonSerializer();
+    assertEquals(prettyJson, serializer.setPrettyPrinting(true).toJson(opMetadata));
+    assertEquals(compactJson, serializer.toJson(opMetadata));
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    opMetadata.writeTo(outputStream);
+    assertEquals(compactJson, outputStream.toString(StandardCharsets.UTF_8));
+    outputStream.reset();
+    serializer.writeTo(opMetadata, outputStream, true);
+    assertEquals(prettyJson, outputStream.toString(StandardCharsets.UTF_8));
+
+    log.info("Serializing OP metadata from parallel threads with alternating pretty printing");
+    final int threads = 16;
+    final int iterations = 500;
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      final CountDownLatch start = new CountDownLatch(1);
+      final List<Future<Integer>> results = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        final int threadIndex = i;
+        results.add(executor.submit(() -> {
+          start.await();
+          int mismatches = 0;
+          for (int j = 0; j < iterations; j++) {
+            final boolean pretty = (threadIndex + j) % 2 == 0;
+            if (!(pretty ? prettyJson : compactJson).equals(opMetadata.toJson(pretty))) {
+              mismatches++;
+            }
+          }
+          return mismatches;
+        }));
+      }
+      start.countDown();
+      for (final Future<Integer> result : results) {
+        assertEquals(0, result.get(60, TimeUnit.SECONDS));
+      }
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private Map<String, Object> toJsonObject(final String json) throws Exception {
+    return OBJECT_MAPPER.readValue(json, new TypeReference<>() {
+    });
+  }
+
   private String genericConvertToJsonObject(final OidcLangJsonSerializer<GenericLangTarget> genericConverter,
       final List<String> langParams) throws Exception {
     final Map<String, Object> convertPresent = genericConverter.consolidateLanguageTags(
@@ -73,4 +310,23 @@ class OidcLangJsonSerializerTest {
     return OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(convertPresent);
   }
 
+  /**
+   * Test target with a language tagged parameter that is not declared as a language tagged parameter
+   */
+  @Data
+  @NoArgsConstructor
+  public static class UndeclaredLangTestTarget implements LanguageTaggedJson {
+
+    @JsonProperty("nolang")
+    private String nolang;
+
+    @JsonProperty("lang_onlydef")
+    private LanguageObject<String> langOnlyDefault;
+
+    @Override
+    public List<String> getLanguageTaggedParameters() {
+      return List.of();
+    }
+  }
+
 }
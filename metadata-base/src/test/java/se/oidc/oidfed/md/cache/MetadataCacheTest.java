@@ -0,0 +1,343 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import se.oidc.oidfed.md.entities.OpMetadata;
+import se.oidc.oidfed.md.testdata.TestMetadata;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for metadata caches
+ */
+@Slf4j
+class MetadataCacheTest {
+
+  @Test
+  void expiryTest() throws Exception {
+    final TestClock clock = new TestClock();
+    final MetadataCache<OpMetadata> cache = MetadataCache.builder(OpMetadata.getJsonSerializer())
+        .defaultTimeToLive(Duration.ofMinutes(10))
+        .clock(clock)
+        .build();
+
+    final OpMetadata opMetadata = cache.put("https://op.example.com", TestMetadata.opMetadataJson,
+        clock.instant().plusSeconds(60));
+    cache.put("https://op2.example.com", TestMetadata.opMetadataJson, null);
+    assertNotNull(opMetadata);
+    assertSame(opMetadata, cache.get("https://op.example.com"));
+
+    // Entry with explicit expiry time expires before entry with default time to live
+    clock.advance(Duration.ofSeconds(60));
+    assertNull(cache.get("https://op.example.com"));
+    assertNotNull(cache.get("https://op2.example.com"));
+    clock.advance(Duration.ofMinutes(9));
+    assertNull(cache.get("https://op2.example.com"));
+
+    // Metadata that has already expired is not cached
+    cache.put("https://op.example.com", TestMetadata.opMetadataJson, clock.instant().minusSeconds(1));
+    assertNull(cache.get("https://op.example.com"));
+    assertEquals(0, cache.size());
+
+    final CacheStatistics statistics = cache.getStatistics();
+    log.info("Statistics: {}", statistics);
+    assertEquals(2, statistics.getHitCount());
+    assertEquals(3, statistics.getMissCount());
+    assertEquals(2, statistics.getExpirationCount());
+  }
+
+  @Test
+  void evictionTest() throws Exception {
+    final ExpiringLruCache<String, String> cache = ExpiringLruCache.<String, String>builder()
+        .maximumSize(3)
+        .build();
+    cache.put("a", "A");
+    cache.put("b", "B");
+    cache.put("c", "C");
+    // Use "a" so that "b" is the least recently used entry
+    assertEquals("A", cache.getIfPresent("a"));
+    cache.put("d", "D");
+
+    assertEquals(3, cache.size());
+    assertNull(cache.getIfPresent("b"));
+    assertEquals("A", cache.getIfPresent("a"));
+    assertEquals("C", cache.getIfPresent("c"));
+    assertEquals("D", cache.getIfPresent("d"));
+    assertEquals(1, cache.getStatistics().getEvictionCount());
+
+    cache.invalidate("a");
+    assertNull(cache.getIfPresent("a"));
+    cache.invalidateAll();
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void recordedHitsTest() throws Exception {
+    final ExpiringLruCache<String, String> cache = ExpiringLruCache.<String, String>builder()
+        .maximumSize(3)
+        .build();
+    cache.put("a", "A");
+
+    // Hits recorded without locking keep a frequently used entry while other entries are evicted
+    for (int i = 0; i < 1000; i++) {
+      for (int j = 0; j < i % 40; j++) {
+        assertEquals("A", cache.getIfPresent("a"));
+      }
+      cache.put("key" + i, "value" + i);
+      cache.put("other" + i, "value" + i);
+      assertEquals("A", cache.getIfPresent("a"));
+    }
+    assertEquals(3, cache.size());
+    assertEquals(1998, cache.getStatistics().getEvictionCount());
+  }
+
+  @Test
+  void concurrentHitsTest() throws Exception {
+    final int maximumSize = 50;
+    final ExpiringLruCache<Integer, Integer> cache = ExpiringLruCache.<Integer, Integer>builder()
+        .maximumSize(maximumSize)
+        .build();
+    for (int i = 0; i < maximumSize; i++) {
+      cache.put(i, i);
+    }
+    final int threads = 8;
+    final int lookups = 20000;
+    final ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+    try {
+      final List<Future<?>> results = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        final int seed = t;
+        results.add(executor.submit(() -> {
+          for (int i = 0; i < lookups; i++) {
+            final int key = (seed * 31 + i) % (maximumSize * 2);
+            final Integer value = cache.getIfPresent(key);
+            if (value != null) {
+              assertEquals(key, value);
+            }
+          }
+          return null;
+        }));
+      }
+      results.add(executor.submit(() -> {
+        for (int i = 0; i < lookups; i++) {
+          cache.put(i % (maximumSize * 2), i % (maximumSize * 2));
+        }
+        return null;
+      }));
+      for (final Future<?> result : results) {
+        result.get(30, TimeUnit.SECONDS);
+      }
+    }
+    finally {
+      executor.shutdownNow();
+    }
+    assertEquals(maximumSize, cache.size());
+    final CacheStatistics statistics = cache.getStatistics();
+    assertEquals((long) threads * lookups, statistics.getHitCount() + statistics.getMissCount());
+    int cached = 0;
+    for (int key = 0; key < maximumSize * 2; key++) {
+      cached += cache.getIfPresent(key) != null ? 1 : 0;
+    }
+    assertEquals(maximumSize, cached);
+  }
+
+  @Test
+  void loaderTest() throws Exception {
+    final TestClock clock = new TestClock();
+    final MetadataCache<OpMetadata> cache = MetadataCache.builder(OpMetadata.getJsonSerializer())
+        .clock(clock)
+        .build();
+    final AtomicInteger loads = new AtomicInteger();
+    final MetadataCache.MetadataLoader loader = entityId -> {
+      loads.incrementAndGet();
+      return MetadataCache.MetadataSource.of(TestMetadata.opMetadataJson, clock.instant().plusSeconds(60));
+    };
+
+    final OpMetadata opMetadata = cache.get("https://op.example.com", loader);
+    assertNotNull(opMetadata);
+    assertSame(opMetadata, cache.get("https://op.example.com", loader));
+    assertEquals(1, loads.get());
+
+    clock.advance(Duration.ofSeconds(60));
+    assertNotNull(cache.get("https://op.example.com", loader));
+    assertEquals(2, loads.get());
+
+    // No metadata available
+    assertNull(cache.get("https://unknown.example.com", entityId -> null));
+    assertEquals(1, cache.size());
+
+    // Load failures are not cached
+    assertThrows(IOException.class, () -> cache.get("https://fail.example.com", entityId -> {
+      throw new IOException("Unavailable");
+    }));
+    assertThrows(IOException.class, () -> cache.get("https://fail.example.com",
+        entityId -> MetadataCache.MetadataSource.of("{not json", null)));
+    assertNull(cache.get("https://fail.example.com"));
+    assertEquals(2, cache.getStatistics().getLoadFailureCount());
+  }
+
+  @Test
+  void requestCoalescingTest() throws Exception {
+    final MetadataCache<OpMetadata> cache = MetadataCache.builder(OpMetadata.getJsonSerializer()).build();
+    final AtomicInteger loads = new AtomicInteger();
+    final CountDownLatch loadStarted = new CountDownLatch(1);
+    final CountDownLatch releaseLoad = new CountDownLatch(1);
+    final MetadataCache.MetadataLoader loader = entityId -> {
+      loads.incrementAndGet();
+      loadStarted.countDown();
+      try {
+        releaseLoad.await(10, TimeUnit.SECONDS);
+      }
+      catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return MetadataCache.MetadataSource.of(TestMetadata.opMetadataJson, null);
+    };
+
+    final int threads = 8;
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      final List<Future<OpMetadata>> results = new ArrayList<>();
+      results.add(executor.submit(() -> cache.get("https://op.example.com", loader)));
+      loadStarted.await(10, TimeUnit.SECONDS);
+      for (int i = 1; i < threads; i++) {
+        results.add(executor.submit(() -> cache.get("https://op.example.com", loader)));
+      }
+      // Give the waiting threads time to join the load in progress before it completes
+      Thread.sleep(100);
+      releaseLoad.countDown();
+
+      final OpMetadata first = results.get(0).get(10, TimeUnit.SECONDS);
+      for (final Future<OpMetadata> result : results) {
+        assertSame(first, result.get(10, TimeUnit.SECONDS));
+      }
+      assertEquals(1, loads.get());
+      assertEquals(1, cache.getStatistics().getLoadCount());
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void loaderErrorTest() throws Exception {
+    final ExpiringLruCache<String, String> cache = ExpiringLruCache.<String, String>builder().build();
+    final CountDownLatch loadStarted = new CountDownLatch(1);
+    final CountDownLatch releaseLoad = new CountDownLatch(1);
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      final Future<String> failing = executor.submit(() -> cache.get("key", key -> {
+        loadStarted.countDown();
+        awaitRelease(releaseLoad);
+        throw new AssertionError("Loader error");
+      }));
+      loadStarted.await(10, TimeUnit.SECONDS);
+      final Future<String> waiting = executor.submit(() -> cache.get("key",
+          key -> ExpiringLruCache.LoadedValue.of("unexpected", null)));
+      // Give the waiting thread time to join the load in progress before it fails
+      Thread.sleep(100);
+      releaseLoad.countDown();
+
+      final ExecutionException failure = assertThrows(ExecutionException.class,
+          () -> failing.get(10, TimeUnit.SECONDS));
+      assertInstanceOf(AssertionError.class, failure.getCause());
+      final ExecutionException waitingFailure = assertThrows(ExecutionException.class,
+          () -> waiting.get(10, TimeUnit.SECONDS));
+      assertInstanceOf(AssertionError.class, waitingFailure.getCause());
+      assertEquals(1, cache.getStatistics().getLoadFailureCount());
+      assertEquals("loaded", cache.get("key", key -> ExpiringLruCache.LoadedValue.of("loaded", null)));
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void invalidateDuringLoadTest() throws Exception {
+    final ExpiringLruCache<String, String> cache = ExpiringLruCache.<String, String>builder().build();
+    final CountDownLatch loadStarted = new CountDownLatch(1);
+    final CountDownLatch releaseLoad = new CountDownLatch(1);
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      final Future<String> load = executor.submit(() -> cache.get("key", key -> {
+        loadStarted.countDown();
+        awaitRelease(releaseLoad);
+        return ExpiringLruCache.LoadedValue.of("stale", null);
+      }));
+      loadStarted.await(10, TimeUnit.SECONDS);
+      cache.invalidate("key");
+      releaseLoad.countDown();
+
+      // The caller of the load gets its result, but the stale result is not cached
+      assertEquals("stale", load.get(10, TimeUnit.SECONDS));
+      assertNull(cache.getIfPresent("key"));
+      assertEquals(0, cache.size());
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static void awaitRelease(final CountDownLatch releaseLoad) {
+    try {
+      releaseLoad.await(10, TimeUnit.SECONDS);
+    }
+    catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Clock that only moves when advanced
+   */
+  private static class TestClock extends Clock {
+
+    private Instant instant = Instant.parse("2025-01-01T00:00:00Z");
+
+    void advance(final Duration duration) {
+      this.instant = this.instant.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(final ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return this.instant;
+    }
+  }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.entities;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.junit.jupiter.api.Test;
+import se.oidc.oidfed.md.MetadataUtils;
+import se.oidc.oidfed.md.testdata.TestMetadata;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for parsing the metadata claim of an entity statement
+ */
+class EntityMetadataSetTest {
+
+  private static final String metadataClaimJson = "{"
+      + "\"openid_provider\": " + TestMetadata.opMetadataJson + ","
+      + "\"openid_relying_party\": " + TestMetadata.rpMetadataJson + ","
+      + "\"federation_entity\": " + TestMetadata.federationEntityMetadataJson + ","
+      + "\"example_entity\": {\"organization_name\": \"Example\", \"example_endpoint\": \"https://example.com\"}"
+      + "}";
+
+  @Test
+  void parseTest() throws Exception {
+    final EntityMetadataSet metadataSet = EntityMetadataSet.parse(metadataClaimJson);
+    assertEquals(List.of("openid_provider", "openid_relying_party", "federation_entity", "example_entity"),
+        List.copyOf(metadataSet.getEntityTypes()));
+    assertEquals(OpMetadata.getJsonSerializer().parse(TestMetadata.opMetadataJson).snapshot(),
+        metadataSet.getOpMetadata().snapshot());
+    assertEquals(RelyingPartyMetadata.getJsonSerializer().parse(TestMetadata.rpMetadataJson).snapshot(),
+        metadataSet.getRelyingPartyMetadata().snapshot());
+    assertEquals("DIGG", metadataSet.getRelyingPartyMetadata().getOrganizationName().getDefaultValue());
+    assertEquals(FederationEntityMetadata.getJsonSerializer().parse(TestMetadata.federationEntityMetadataJson)
+        .snapshot(), metadataSet.getFederationEntityMetadata().snapshot());
+    assertNull(metadataSet.getAuthorizationServerMetadata());
+    assertNull(metadataSet.get(EntityMetadataType.OPENID_PROVIDER, RelyingPartyMetadata.class));
+    assertFalse(metadataSet.contains(EntityMetadataType.OAUTH_CLIENT));
+
+    // Unknown entity types are kept as extended metadata
+    final ExtendedMetadata<ResourceServerMetadata> example = metadataSet.getExtendedMetadata("example_entity");
+    assertEquals("Example", example.getBaseMetadata().getOrganizationName().getDefaultValue());
+    assertEquals("https://example.com", example.getExtendedParameter("example_endpoint"));
+    assertNull(metadataSet.getExtendedMetadata("openid_provider"));
+
+    // All input forms give the same result
+    final byte[] bytes = metadataClaimJson.getBytes(StandardCharsets.UTF_8);
+    assertEquals(metadataSet.getOpMetadata().snapshot(), EntityMetadataSet.parse(bytes).getOpMetadata().snapshot());
+    assertEquals(metadataSet.getRelyingPartyMetadata().snapshot(), EntityMetadataParser.getDefault()
+        .parse(new ByteArrayInputStream(bytes)).getRelyingPartyMetadata().snapshot());
+    final EntityMetadataSet fromMap = EntityMetadataParser.getDefault()
+        .parse(MetadataUtils.OBJECT_MAPPER.readValue(metadataClaimJson, new TypeReference<Map<String, Object>>() {
+        }));
+    assertEquals(metadataSet.getEntityTypes(), fromMap.getEntityTypes());
+    assertEquals(metadataSet.getFederationEntityMetadata().snapshot(),
+        fromMap.getFederationEntityMetadata().snapshot());
+    assertEquals("https://example.com", fromMap.getExtendedMetadata("example_entity")
+        .getExtendedParameter("example_endpoint"));
+  }
+
+  @Test
+  void parseStreamingTest() throws Exception {
+    final String entityStatement = "{\"iss\": \"https://example.com\", \"metadata\": " + metadataClaimJson
+        + ", \"exp\": 1700000000}";
+    try (final JsonParser parser = MetadataUtils.OBJECT_MAPPER.createParser(entityStatement)) {
+      EntityMetadataSet metadataSet = null;
+      while (parser.nextToken() == JsonToken.FIELD_NAME || parser.currentToken() == JsonToken.START_OBJECT) {
+        if (parser.currentToken() == JsonToken.FIELD_NAME) {
+          final String name = parser.currentName();
+          parser.nextToken();
+          if ("metadata".equals(name)) {
+            metadataSet = EntityMetadataParser.getDefault().parse(parser);
+            assertEquals(JsonToken.END_OBJECT, parser.currentToken());
+          }
+          else {
+            parser.skipChildren();
+          }
+        }
+      }
+      assertTrue(metadataSet != null && metadataSet.getOpMetadata() != null);
+    }
+  }
+
+  @Test
+  void customParserTest() throws Exception {
+    final EntityMetadataParser parser = EntityMetadataParser.builder()
+        .entityType(EntityMetadataType.of("example_entity", FederationEntityMetadata.getJsonSerializer()))
+        .build();
+    assertTrue(parser.getEntityTypes().contains("example_entity"));
+    final EntityMetadataSet metadataSet = parser.parse(metadataClaimJson);
+    assertInstanceOf(FederationEntityMetadata.class, metadataSet.get("example_entity"));
+
+    assertThrows(JsonProcessingException.class, () -> parser.parse("[]"));
+    assertThrows(JsonProcessingException.class, () -> parser.parse("{\"openid_provider\": \"op\"}"));
+    assertThrows(IllegalArgumentException.class, () -> parser.parse(Map.of("openid_provider", "op")));
+    assertThrows(UnsupportedOperationException.class, () -> metadataSet.toMap().remove("example_entity"));
+  }
+
+}
@@ -5,13 +5,23 @@
  */
 package se.oidc.oidfed.md.entities;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Test;
 import se.oidc.oidfed.md.MetadataUtils;
+import se.oidc.oidfed.md.lang.LanguageObject;
 
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Tests for extended metadata
@@ -43,4 +53,106 @@ class ExtendedMetadataTest {
     assertEquals("value2", parsedMetadata.getExtendedParameter("ext_param2"));
   }
 
+  @Test
+  void testExtendedMetadataOutput() throws Exception {
+
+    final ExtendedMetadata<RelyingPartyMetadata> metadata = ExtendedMetadata.builder(RelyingPartyMetadata.class)
+        .baseMetadata(RelyingPartyMetadata.builder()
+            .clientName(LanguageObject.builder(String.class)
+                .defaultValue("Client")
+                .langValue("sv", "Klient")
+                .build())
+            .redirectUris(List.of("https://example.com/callback"))
+            .build())
+        .addParameter("ext_param", "value")
+        .addParameter("redirect_uris", "replaced")
+        .build();
+
+    final byte[] json = metadata.toUtf8Bytes();
+    assertEquals(metadata.toJsonObject(), MetadataUtils.OBJECT_MAPPER.readValue(json,
+        new TypeReference<Map<String, Object>>() {
+        }));
+    assertEquals("replaced", metadata.toJsonObject().get("redirect_uris"));
+    assertEquals("Klient", metadata.toJsonObject().get("client_name#sv"));
+
+    // Output stream is left open and generator output can be embedded in other JSON
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    metadata.writeTo(outputStream);
+    outputStream.write(' ');
+    assertEquals(new String(json, StandardCharsets.UTF_8) + " ", outputStream.toString(StandardCharsets.UTF_8));
+    final StringWriter writer = new StringWriter();
+    try (final JsonGenerator generator = MetadataUtils.OBJECT_MAPPER.createGenerator(writer)) {
+      generator.writeStartObject();
+      generator.writeFieldName("openid_relying_party");
+      metadata.writeTo(generator);
+      generator.writeFieldName("federation_entity");
+      FederationEntityMetadata.builder().organizationName(LanguageObject.builder(String.class)
+          .defaultValue("Org").build()).build().writeTo(generator);
+      generator.writeEndObject();
+    }
+    assertEquals("{\"openid_relying_party\":" + new String(json, StandardCharsets.UTF_8)
+        + ",\"federation_entity\":{\"organization_name\":\"Org\"}}", writer.toString());
+
+    // Base metadata output
+    final RelyingPartyMetadata rpMetadata = metadata.getBaseMetadata();
+    final ByteArrayOutputStream rpOutputStream = new ByteArrayOutputStream();
+    rpMetadata.writeTo(rpOutputStream);
+    assertArrayEquals(rpMetadata.toJson(false).getBytes(StandardCharsets.UTF_8), rpOutputStream.toByteArray());
+    assertArrayEquals(rpOutputStream.toByteArray(), rpMetadata.toUtf8Bytes());
+  }
+
+  @Test
+  void testExtensionProperties() throws Exception {
+
+    final RelyingPartyMetadata rpMetadata = RelyingPartyMetadata.builder()
+        .clientName(LanguageObject.builder(String.class)
+            .defaultValue("Client")
+            .langValue("sv", "Klient")
+            .build())
+        .redirectUris(List.of("https://example.com/callback"))
+        .build();
+    final Map<String, Object> payload = new HashMap<>(rpMetadata.toJsonObject());
+    payload.put("ext_param", "value");
+    payload.put("custom_name#sv", "Svenska");
+    payload.put("iss", "https://example.com");
+
+    log.info("Extracting extension properties from:\n{}", payload);
+    final Map<String, Object> extensionProperties = MetadataUtils.getExtensionProperties(payload, rpMetadata);
+    assertEquals(Map.of("ext_param", "value", "custom_name#sv", "Svenska"), extensionProperties);
+    assertEquals(extensionProperties,
+        new ExtendedMetadata<>(payload, RelyingPartyMetadata.getJsonSerializer()).getExtendedParameters());
+
+    // Map data objects and missing data objects
+    assertEquals(Map.of("ext_param", "value"),
+        MetadataUtils.getExtensionProperties(Map.of("ext_param", "value", "known", "value"), Map.of("known", "x")));
+    assertEquals(Map.of("ext_param", "value"),
+        MetadataUtils.getExtensionProperties(Map.of("ext_param", "value", "sub", "subject"), null));
+  }
+
+  @Test
+  void testExplicitNullExtensionProperties() throws Exception {
+
+    final RelyingPartyMetadata rpMetadata = RelyingPartyMetadata.builder()
+        .redirectUris(List.of("https://example.com/callback"))
+        .build();
+    final Map<String, Object> payload = new HashMap<>(rpMetadata.toJsonObject());
+    payload.put("client_name", null);
+    payload.put("redirect_uris", null);
+    payload.put("ext_param", null);
+
+    // Explicit nulls of declared properties without a value in the data object are returned as extensions
+    final Map<String, Object> expected = new HashMap<>();
+    expected.put("client_name", null);
+    expected.put("ext_param", null);
+    assertEquals(expected, MetadataUtils.getExtensionProperties(payload, rpMetadata));
+
+    // Base metadata parsed from the payload has no redirect URIs
+    final ExtendedMetadata<RelyingPartyMetadata> metadata =
+        new ExtendedMetadata<>(payload, RelyingPartyMetadata.getJsonSerializer());
+    assertEquals(MetadataUtils.getExtensionProperties(payload, metadata.getBaseMetadata()),
+        metadata.getExtendedParameters());
+    assertTrue(metadata.getExtendedParameters().containsKey("redirect_uris"));
+    assertTrue(metadata.getExtendedParameters().containsKey("ext_param"));
+  }
+
 }
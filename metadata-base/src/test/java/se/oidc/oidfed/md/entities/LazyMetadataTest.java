@@ -0,0 +1,133 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.entities;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import se.oidc.oidfed.md.MetadataUtils;
+import se.oidc.oidfed.md.lang.OidcLangJsonSerializer;
+import se.oidc.oidfed.md.testdata.TestMetadata;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for lazy binding of metadata
+ */
+class LazyMetadataTest {
+
+  private static final LazyMetadata.Field<OpMetadata, Boolean> CLAIMS_PARAMETER_SUPPORTED =
+      LazyMetadata.Field.of("claims_parameter_supported", OpMetadata::getClaimsParameterSupported);
+
+  @Test
+  void lazyBindingTest() throws Exception {
+    final OpMetadata expected = OpMetadata.getJsonSerializer().parse(TestMetadata.opMetadataJson).snapshot();
+    final LazyMetadata<OpMetadata> lazy = LazyMetadata.of(
+        TestMetadata.opMetadataJson.getBytes(StandardCharsets.UTF_8), OpMetadata.getJsonSerializer());
+
+    assertTrue(lazy.getParameterNames().contains("token_endpoint"));
+    assertEquals(expected.getIssuer(), lazy.get(LazyMetadataFields.Op.ISSUER));
+    assertEquals(expected.getTokenEndpoint(), lazy.get(LazyMetadataFields.Op.TOKEN_ENDPOINT));
+    assertEquals(expected.getScopesSupported(), lazy.get(LazyMetadataFields.Op.SCOPES_SUPPORTED));
+    assertThrows(UnsupportedOperationException.class, () -> lazy.get(LazyMetadataFields.Op.SCOPES_SUPPORTED).add("x"));
+    assertSame(lazy.get(LazyMetadataFields.Op.SCOPES_SUPPORTED), lazy.get(LazyMetadataFields.Op.SCOPES_SUPPORTED));
+    assertNull(lazy.get(LazyMetadataFields.ORGANIZATION_NAME));
+    assertEquals("scopes_supported", LazyMetadataFields.Op.SCOPES_SUPPORTED.getParameterName());
+    assertEquals(expected.getClaimsParameterSupported(), lazy.get(CLAIMS_PARAMETER_SUPPORTED));
+
+    // Getters with named parameters
+    assertEquals(expected.getJwkSet().toString(), lazy.get(OpMetadata::getJwkSet, "jwks").toString());
+    final String kid = expected.getJwkSet().getKeys().get(0).getKeyID();
+    assertEquals(expected.getKey(kid), lazy.get(m -> m.getKey(kid), "jwks"));
+    assertEquals(expected.getIssuer(), lazy.get(OpMetadata::getIssuer, "issuer"));
+
+    // Getters without named parameters are applied to the fully bound metadata
+    assertEquals(expected.getUserinfoEndpoint(), lazy.get(OpMetadata::getUserinfoEndpoint));
+    assertEquals(expected, lazy.bind().snapshot());
+    assertTrue(lazy.bind().isFrozen());
+    assertSame(lazy.bind(), lazy.bind());
+  }
+
+  @Test
+  void predefinedFieldsTest() throws Exception {
+    this.assertFields(TestMetadata.opMetadataJson, OpMetadata.getJsonSerializer(), LazyMetadataFields.class,
+        LazyMetadataFields.Op.class);
+    this.assertFields(TestMetadata.rpMetadataJson, RelyingPartyMetadata.getJsonSerializer(), LazyMetadataFields.class,
+        LazyMetadataFields.RelyingParty.class);
+    this.assertFields(TestMetadata.federationEntityMetadataJson, FederationEntityMetadata.getJsonSerializer(),
+        LazyMetadataFields.class, LazyMetadataFields.FederationEntity.class);
+  }
+
+  /**
+   * Checks that the predefined keys of a metadata class name the parameter returned by their getter. Each key must
+   * give the value of the eagerly parsed metadata, and more than one key must find a value.
+   *
+   * @param json metadata JSON
+   * @param serializer serializer of the metadata class
+   * @param keyClasses classes declaring keys
+   * @param <T> metadata class
+   * @throws Exception errors
+   */
+  @SuppressWarnings("unchecked")
+  private <T extends AbstractOidcFedMetadata> void assertFields(final String json,
+      final OidcLangJsonSerializer<T> serializer, final Class<?>... keyClasses) throws Exception {
+    final T expected = (T) serializer.parse(json).snapshot();
+    int present = 0;
+    for (final Class<?> keyClass : keyClasses) {
+      for (final java.lang.reflect.Field declared : keyClass.getDeclaredFields()) {
+        if (declared.getType() != LazyMetadata.Field.class) {
+          continue;
+        }
+        final LazyMetadata.Field<? super T, Object> key = (LazyMetadata.Field<? super T, Object>) declared.get(null);
+        final Object value = LazyMetadata.of(json, serializer).get(key);
+        assertEquals(key.get(expected), value, declared.getName());
+        present += value != null ? 1 : 0;
+      }
+    }
+    assertTrue(present > 1, "Values found with predefined keys: " + present);
+  }
+
+  @Test
+  void languageTaggedTest() throws Exception {
+    final RelyingPartyMetadata expected =
+        RelyingPartyMetadata.getJsonSerializer().parse(TestMetadata.rpMetadataJson).snapshot();
+    final LazyMetadata<RelyingPartyMetadata> lazy = LazyMetadata.of(
+        (ObjectNode) MetadataUtils.OBJECT_MAPPER.readTree(TestMetadata.rpMetadataJson),
+        RelyingPartyMetadata.getJsonSerializer());
+    assertTrue(lazy.getParameterNames().contains("organization_name"));
+    assertEquals(expected.getOrganizationName(), lazy.get(LazyMetadataFields.ORGANIZATION_NAME));
+    assertEquals("Myndigheten för digital förvaltning",
+        lazy.get(LazyMetadataFields.ORGANIZATION_NAME).getValueMap().get("sv"));
+    assertEquals(List.of("code"), lazy.get(LazyMetadataFields.RelyingParty.RESPONSE_TYPES));
+    assertNotNull(lazy.get(RelyingPartyMetadata::getJwkSet, "jwks"));
+    assertEquals(expected, lazy.bind().snapshot());
+  }
+
+  @Test
+  void errorTest() throws Exception {
+    assertThrows(JsonProcessingException.class, () -> LazyMetadata.of("[]", OpMetadata.getJsonSerializer()));
+    assertThrows(JsonProcessingException.class,
+        () -> LazyMetadata.of("{\"issuer\": \"x\"", OpMetadata.getJsonSerializer()));
+
+    // Binding errors are reported on first access to the parameter
+    final LazyMetadata<OpMetadata> lazy = LazyMetadata.of(
+        "{\"issuer\": \"https://example.com\", \"scopes_supported\": {\"openid\": true}}",
+        OpMetadata.getJsonSerializer());
+    assertEquals("https://example.com", lazy.get(LazyMetadataFields.Op.ISSUER));
+    assertThrows(UncheckedIOException.class, () -> lazy.get(LazyMetadataFields.Op.SCOPES_SUPPORTED));
+    assertThrows(UncheckedIOException.class, () -> lazy.get(OpMetadata::getIssuer));
+  }
+
+}
@@ -5,17 +5,39 @@
  */
 package se.oidc.oidfed.md.entities;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.nimbusds.jose.jwk.ECKey;
 import com.nimbusds.jose.jwk.JWK;
 import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Test;
+import se.oidc.oidfed.md.CanonicalizationPool;
+import se.oidc.oidfed.md.MetadataUtils;
+import se.oidc.oidfed.md.SerializedMetadata;
 import se.oidc.oidfed.md.lang.LanguageObject;
+import se.oidc.oidfed.md.lang.OidcLangJsonSerializer;
 import se.oidc.oidfed.md.testdata.TestCredentials;
 import se.oidc.oidfed.md.testdata.TestMetadata;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Tests for supported metadata types
@@ -68,6 +90,128 @@ class MetadataTests {
     this.logMetadataValues(parsedMetadata);
   }
 
+  @Test
+  void jwkSetCacheTest() throws Exception {
+    final JWK p521Key = new ECKey.Builder(
+        JWK.parse(TestCredentials.getP521Credential().getCertificate()).toECKey()).keyID("p521").build();
+    final JWK rsaKey = new RSAKey.Builder(
+        JWK.parse(TestCredentials.getRsa3072Credential().getCertificate()).toRSAKey()).keyID("rsa").build();
+
+    final ResourceServerMetadata metadata = ResourceServerMetadata.builder()
+        .jwkSet(new JWKSet(List.of(p521Key)))
+        .build();
+
+    // Parsed JWK set is reused until the keys change
+    final JWKSet jwkSet = metadata.getJwkSet();
+    assertSame(jwkSet, metadata.getJwkSet());
+    assertEquals(p521Key, metadata.getKey("p521"));
+    assertNull(metadata.getKey("rsa"));
+    assertNull(metadata.getKey(null));
+
+    metadata.setJwkSet(new JWKSet(List.of(rsaKey)));
+    assertNotSame(jwkSet, metadata.getJwkSet());
+    assertNull(metadata.getKey("p521"));
+    assertEquals(rsaKey, metadata.getKey("rsa"));
+
+    // Parsed metadata
+    final ResourceServerMetadata parsedMetadata = ResourceServerMetadata.getJsonSerializer()
+        .parse(metadata.toJson(false));
+    assertEquals(rsaKey, parsedMetadata.getKey("rsa"));
+    assertNull(ResourceServerMetadata.builder().build().getJwkSet());
+    assertNull(ResourceServerMetadata.builder().build().getKey("rsa"));
+  }
+
+  @Test
+  void snapshotTest() throws Exception {
+    final OpMetadata metadata = OpMetadata.getJsonSerializer().parse(TestMetadata.opMetadataJson);
+    final OpMetadata snapshot = metadata.snapshot();
+    assertTrue(snapshot.isFrozen());
+    assertFalse(metadata.isFrozen());
+    assertSame(snapshot, snapshot.snapshot());
+    assertEquals(metadata.toJsonObject(), snapshot.toJsonObject());
+
+    // Mutable objects are compared by identity
+    assertNotEquals(metadata, snapshot);
+    assertNotEquals(snapshot, metadata);
+    assertNotEquals(metadata, OpMetadata.getJsonSerializer().parse(TestMetadata.opMetadataJson));
+    assertEquals(System.identityHashCode(metadata), metadata.hashCode());
+
+    // Snapshot is not modifiable and is not affected by changes to the source
+    assertThrows(UnsupportedOperationException.class, () -> snapshot.getScopesSupported().add("extra"));
+    assertThrows(UnsupportedOperationException.class, () -> snapshot.setScopesSupported(List.of("openid")));
+    assertThrows(UnsupportedOperationException.class, () -> snapshot.setOrganizationName(null));
+    assertThrows(UnsupportedOperationException.class, () -> snapshot.setIssuer("https://other.example.com"));
+    metadata.getScopesSupported().add("extra");
+    assertEquals(OpMetadata.getJsonSerializer().parse(TestMetadata.opMetadataJson).snapshot(), snapshot);
+    assertNotEquals(metadata.snapshot(), snapshot);
+
+    // Language objects and JWK sets of snapshots
+    final RelyingPartyMetadata rpMetadata = RelyingPartyMetadata.getJsonSerializer().parse(TestMetadata.rpMetadataJson);
+    final RelyingPartyMetadata rpSnapshot = rpMetadata.snapshot();
+    assertTrue(rpSnapshot.getOrganizationName().isFrozen());
+    assertThrows(UnsupportedOperationException.class,
+        () -> rpSnapshot.getOrganizationName().setDefaultValue("Other"));
+    rpMetadata.getOrganizationName().setDefaultValue("Other");
+    assertEquals("DIGG", rpSnapshot.getOrganizationName().getDefaultValue());
+    assertThrows(UnsupportedOperationException.class, () -> rpSnapshot.setJwkSet(rpMetadata.getJwkSet()));
+    assertThrows(UnsupportedOperationException.class, () -> rpSnapshot.setRedirectUris(List.of()));
+    assertEquals(rpMetadata.getJwkSet().toJSONObject(), rpSnapshot.getJwkSet().toJSONObject());
+
+    // Unmodifiable values are shared
+    final OpMetadata second = snapshot.snapshot();
+    assertSame(snapshot.getScopesSupported(), second.getScopesSupported());
+    final OpMetadata canonicalParsed = new OidcLangJsonSerializer<>(OpMetadata.class,
+        MetadataUtils.getOidcObjectMapper(new CanonicalizationPool())).parse(TestMetadata.opMetadataJson);
+    final List<String> algorithms = canonicalParsed.getIdTokenSigningAlgValuesSupported();
+    assertSame(algorithms, canonicalParsed.freeze().getIdTokenSigningAlgValuesSupported());
+    assertTrue(canonicalParsed.isFrozen());
+
+    // Frozen objects can be used as keys
+    final Set<AbstractOidcFedMetadata> metadataSet = new HashSet<>(List.of(snapshot, canonicalParsed));
+    assertEquals(1, metadataSet.size());
+    assertTrue(metadataSet.contains(OpMetadata.getJsonSerializer().parse(TestMetadata.opMetadataJson).freeze()));
+    assertThrows(UnsupportedOperationException.class, () -> canonicalParsed.setUserinfoEndpoint(null));
+    assertTrue(metadataSet.contains(canonicalParsed));
+  }
+
+  @Test
+  void serializedMetadataTest() throws Exception {
+    final FederationEntityMetadata metadata = FederationEntityMetadata.getJsonSerializer()
+        .parse(TestMetadata.federationEntityMetadataJson);
+    final SerializedMetadata serialized = metadata.getSerializedMetadata();
+    assertEquals(metadata.toJson(false), serialized.toString());
+    assertArrayEquals(metadata.toJson(false).getBytes(StandardCharsets.UTF_8), serialized.getBytes());
+    assertEquals(serialized.length(), serialized.asByteBuffer().remaining());
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    serialized.writeTo(out);
+    assertArrayEquals(serialized.getBytes(), out.toByteArray());
+
+    // Entity tag
+    final String etag = serialized.getEtag();
+    assertEquals(45, etag.length());
+    assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(serialized.getBytes()), serialized.getDigest());
+    assertTrue(serialized.matches(etag));
+    assertTrue(serialized.matches("\"other\", W/" + etag));
+    assertTrue(serialized.matches("*"));
+    assertFalse(serialized.matches("\"other\""));
+    assertFalse(serialized.matches(null));
+    assertEquals(etag, FederationEntityMetadata.getJsonSerializer()
+        .parse(TestMetadata.federationEntityMetadataJson).getSerializedMetadata().getEtag());
+
+    // Mutable objects are serialized on every call
+    assertNotSame(serialized, metadata.getSerializedMetadata());
+    metadata.setFederationFetchEndpoint("https://example.com/other-fetch");
+    final SerializedMetadata changed = metadata.getSerializedMetadata();
+    assertNotEquals(serialized, changed);
+    assertFalse(changed.matches(etag));
+    assertEquals(metadata.toJson(false), changed.toString());
+
+    // Snapshots keep the serialized form
+    final FederationEntityMetadata snapshot = metadata.snapshot();
+    assertEquals(changed, snapshot.getSerializedMetadata());
+    assertSame(snapshot.getSerializedMetadata(), snapshot.getSerializedMetadata());
+  }
+
   private void logMetadataValues(final AbstractOidcFedMetadata metadata) throws Exception {
 
     final String metadataJson = metadata.toJson(true);
@@ -75,6 +219,27 @@ class MetadataTests {
 
   }
 
+  @Test
+  void defaultSerializationTest() throws Exception {
+    final CustomMetadata metadata = new CustomMetadata();
+    metadata.setOrganizationName(LanguageObject.builder(String.class)
+        .defaultValue("Org")
+        .langValue("sv", "Organisation")
+        .build());
+    metadata.setPolicyUri("https://example.com/policy");
+    final String json = metadata.toJson(false);
+
+    // Metadata classes that only implement toJson and toJsonObject get the default serialization methods
+    assertEquals(json, new String(metadata.toUtf8Bytes(), StandardCharsets.UTF_8));
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    metadata.writeTo(outputStream);
+    assertEquals(json, outputStream.toString(StandardCharsets.UTF_8));
+    assertEquals(json, metadata.getSerializedMetadata().toString());
+    assertEquals("{\"organization_name\":\"Org\",\"organization_name#sv\":\"Organisation\","
+            + "\"policy_uri\":\"https://example.com/policy\"}",
+        new String(metadata.toCanonicalUtf8Bytes(), StandardCharsets.UTF_8));
+  }
+
   @Test
   void testRelyingPartyMetadata() throws Exception {
 
@@ -165,4 +330,25 @@ class MetadataTests {
     // TODO write FE metadata test
   }
 
+  /**
+   * Metadata class implementing only the abstract methods of {@link AbstractOidcFedMetadata}
+   */
+  public static class CustomMetadata extends AbstractOidcFedMetadata {
+
+    private static final OidcLangJsonSerializer<CustomMetadata> jsonSerializer =
+        new OidcLangJsonSerializer<>(CustomMetadata.class);
+
+    /** {@inheritDoc} */
+    @Override
+    public String toJson(final boolean prettyPrinting) throws JsonProcessingException {
+      return jsonSerializer.toJson(this, prettyPrinting);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, Object> toJsonObject() throws JsonProcessingException {
+      return jsonSerializer.toJsonObject(this);
+    }
+  }
+
 }
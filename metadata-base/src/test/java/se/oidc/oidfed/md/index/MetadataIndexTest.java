@@ -0,0 +1,104 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.index;
+
+import org.junit.jupiter.api.Test;
+import se.oidc.oidfed.md.entities.OpMetadata;
+import se.oidc.oidfed.md.index.MetadataIndex.Query;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the metadata index
+ */
+class MetadataIndexTest {
+
+  private static final String LOA2 = "http://id.elegnamnden.se/loa/1.0/loa2";
+  private static final String LOA3 = "http://id.elegnamnden.se/loa/1.0/loa3";
+
+  @Test
+  void queryTest() {
+    final MetadataIndex<OpMetadata> index = index();
+    index.put("https://op1.example.com", op(List.of(LOA2, LOA3), List.of("sub", "name"), List.of("RS256", "ES256")));
+    index.put("https://op2.example.com", op(List.of(LOA3), List.of("sub"), List.of("RS256")));
+    index.put("https://op3.example.com", op(List.of(LOA2), null, List.of("ES256")));
+    assertEquals(3, index.size());
+    assertEquals(Set.of("acr_values_supported", "claims_supported", "id_token_signing_alg_values_supported"),
+        index.getFieldNames());
+
+    assertEquals(List.of("https://op1.example.com"), index.findEntityIds(Query.has("acr_values_supported", LOA3)
+        .and(Query.has("claims_supported", "name"))
+        .and(Query.has("id_token_signing_alg_values_supported", "ES256"))));
+    assertEquals(List.of("https://op1.example.com", "https://op3.example.com"),
+        index.findEntityIds(Query.has("id_token_signing_alg_values_supported", "ES256")));
+    assertEquals(List.of("https://op1.example.com", "https://op2.example.com"),
+        index.findEntityIds(Query.hasAll("acr_values_supported", LOA3)
+            .or(Query.has("claims_supported", "name"))));
+    assertEquals(3, index.count(Query.hasAny("acr_values_supported", LOA2, LOA3)));
+    assertEquals(1, index.count(Query.hasAll("acr_values_supported", LOA2, LOA3)));
+    assertEquals(0, index.count(Query.has("claims_supported", "email")));
+    assertEquals(3, index.count(Query.allOf()));
+    assertEquals(0, index.count(Query.anyOf()));
+    assertSame(index.get("https://op2.example.com"),
+        index.find(Query.has("acr_values_supported", LOA3).and(Query.has("claims_supported", "sub"))).get(1));
+    assertThrows(IllegalArgumentException.class, () -> index.count(Query.has("scopes_supported", "openid")));
+  }
+
+  @Test
+  void updateTest() {
+    final MetadataIndex<OpMetadata> index = index();
+    index.put("https://op1.example.com", op(List.of(LOA2), List.of("sub"), List.of("RS256")));
+    index.put("https://op2.example.com", op(List.of(LOA2), List.of("sub"), List.of("RS256")));
+
+    // Replacing metadata removes the old values
+    index.put("https://op1.example.com", op(List.of(LOA3), List.of("sub"), List.of("RS256")));
+    assertEquals(List.of("https://op2.example.com"), index.findEntityIds(Query.has("acr_values_supported", LOA2)));
+    assertEquals(List.of("https://op1.example.com"), index.findEntityIds(Query.has("acr_values_supported", LOA3)));
+
+    assertTrue(index.remove("https://op1.example.com"));
+    assertFalse(index.remove("https://op1.example.com"));
+    assertNull(index.get("https://op1.example.com"));
+    assertEquals(0, index.count(Query.has("acr_values_supported", LOA3)));
+    assertEquals(1, index.count(Query.has("claims_supported", "sub")));
+
+    // Document numbers of removed entities are reused
+    index.put("https://op3.example.com", op(List.of(LOA3), null, null));
+    assertEquals(List.of("https://op3.example.com", "https://op2.example.com"), index.findEntityIds(Query.allOf()));
+    assertEquals(2, index.size());
+  }
+
+  @Test
+  void builderTest() {
+    assertThrows(IllegalStateException.class, () -> MetadataIndex.<OpMetadata>builder().build());
+    assertThrows(NullPointerException.class, () -> index().put("https://op.example.com", null));
+  }
+
+  private static MetadataIndex<OpMetadata> index() {
+    return MetadataIndex.<OpMetadata>builder()
+        .field("acr_values_supported", OpMetadata::getAcrValuesSupported)
+        .field("claims_supported", OpMetadata::getClaimsSupported)
+        .field("id_token_signing_alg_values_supported", OpMetadata::getIdTokenSigningAlgValuesSupported)
+        .build();
+  }
+
+  private static OpMetadata op(final List<String> acr, final List<String> claims, final List<String> algs) {
+    return OpMetadata.builder()
+        .issuer("https://op.example.com")
+        .acrValuesSupported(acr)
+        .claimsSupported(claims)
+        .idTokenSigningAlgValuesSupported(algs)
+        .build();
+  }
+
+}
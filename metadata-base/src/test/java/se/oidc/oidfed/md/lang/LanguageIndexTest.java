@@ -0,0 +1,73 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.lang;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the language index
+ */
+class LanguageIndexTest {
+
+  @Test
+  void variedPriorityListsTest() {
+    final List<String> tags = List.of("sv", "en", "de", "fi");
+    final LanguageIndex index = new LanguageIndex(tags, tags);
+    final List<String> common = new ArrayList<>();
+    for (int i = 0; i < 16; i++) {
+      common.add("sv-x-c" + i + ",en;q=0.8");
+    }
+
+    // Rare priority lists seen before the common ones do not keep the common ones out of the caches
+    final Map<String, List<Locale.LanguageRange>> parsed = new HashMap<>();
+    for (int i = 0; i < 1000; i++) {
+      this.lookup(index, "de-x-r" + i + ",fi;q=0.5", parsed);
+    }
+
+    // Skewed traffic where 80% of the lookups use one of the common priority lists
+    final Random random = new Random(1);
+    int commonLookups = 0;
+    int commonHits = 0;
+    for (int i = 0; i < 20000; i++) {
+      if (random.nextInt(10) < 8) {
+        commonLookups++;
+        commonHits += this.lookup(index, common.get(random.nextInt(common.size())), parsed) ? 1 : 0;
+      }
+      else {
+        this.lookup(index, "de-x-r" + random.nextInt(2000) + ",fi;q=0.5", parsed);
+      }
+    }
+    final double hitRate = (double) commonHits / commonLookups;
+    assertTrue(hitRate > 0.9, "Hit rate of common priority lists was " + hitRate);
+  }
+
+  /**
+   * Look up a language priority list and check the result against an index without memoized resolutions.
+   *
+   * @param index the index
+   * @param priorityList language priority list
+   * @param parsed the last parsed language ranges of each priority list
+   * @return true if the parsed language ranges were found in the shared cache
+   */
+  private boolean lookup(final LanguageIndex index, final String priorityList,
+      final Map<String, List<Locale.LanguageRange>> parsed) {
+    final List<Locale.LanguageRange> ranges = LanguageIndex.parse(priorityList);
+    final String match = index.lookup(priorityList);
+    assertEquals(new LanguageIndex(index, List.of("sv", "en", "de", "fi")).lookup(ranges), match);
+    return ranges == parsed.put(priorityList, ranges);
+  }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.policy;
+
+import org.junit.jupiter.api.Test;
+import se.oidc.oidfed.md.entities.RelyingPartyMetadata;
+import se.oidc.oidfed.md.testdata.TestMetadata;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for caching of merged metadata policies
+ */
+class MetadataPolicyCacheTest {
+
+  private static final Map<String, Object> trustAnchorPolicy = Map.of("openid_relying_party", Map.of(
+      "grant_types", Map.of("subset_of", List.of("authorization_code", "refresh_token")),
+      "contacts", Map.of("add", List.of("ops@ta.example.com"))));
+
+  private static final Map<String, Object> intermediatePolicy = Map.of("openid_relying_party", Map.of(
+      "contacts", Map.of("add", List.of("ops@ia.example.com")),
+      "subject_type", Map.of("one_of", List.of("pairwise"))));
+
+  @Test
+  void prefixCacheTest() throws Exception {
+    final TestClock clock = new TestClock();
+    final MetadataPolicyCache cache = MetadataPolicyCache.builder()
+        .defaultTimeToLive(Duration.ofMinutes(10))
+        .clock(clock)
+        .build();
+    final MetadataPolicyCache.PolicyStatement ta = MetadataPolicyCache.PolicyStatement.of("ta.ia.sig",
+        trustAnchorPolicy, clock.instant().plusSeconds(300));
+    final MetadataPolicyCache.PolicyStatement ia = MetadataPolicyCache.PolicyStatement.of("ia.leaf1.sig",
+        intermediatePolicy, clock.instant().plusSeconds(60));
+    final MetadataPolicyCache.PolicyStatement leaf1 = MetadataPolicyCache.PolicyStatement.of("ia.leaf1.sig",
+        null, null);
+    final MetadataPolicyCache.PolicyStatement leaf2 = MetadataPolicyCache.PolicyStatement.of("ia.leaf2.sig",
+        Map.of("openid_relying_party", Map.of("client_name", Map.of("value", "Leaf 2"))), null);
+
+    final MetadataPolicy policy1 = cache.resolve(List.of(ta, ia, leaf1), null);
+    assertEquals(3, cache.size());
+    assertEquals(0, cache.getStatistics().getHitCount());
+
+    // A new leaf under the same intermediate only merges the last hop
+    final MetadataPolicy policy2 = cache.resolve(List.of(ta, ia, leaf2), null);
+    assertEquals(4, cache.size());
+    assertEquals(1, cache.getStatistics().getHitCount());
+    assertSame(policy1, cache.resolve(List.of(ta, ia, leaf1), null));
+
+    final RelyingPartyMetadata leaf = RelyingPartyMetadata.getJsonSerializer().parse(TestMetadata.rpMetadataJson);
+    final RelyingPartyMetadata expected = MetadataPolicy.compile(List.of(trustAnchorPolicy, intermediatePolicy))
+        .getEntityTypePolicy("openid_relying_party")
+        .apply(leaf, RelyingPartyMetadata.getJsonSerializer()).snapshot();
+    assertEquals(expected, policy1.getEntityTypePolicy("openid_relying_party")
+        .apply(leaf, RelyingPartyMetadata.getJsonSerializer()).snapshot());
+    assertEquals("Leaf 2", policy2.getEntityTypePolicy("openid_relying_party")
+        .apply(leaf, RelyingPartyMetadata.getJsonSerializer()).getClientName().getDefaultValue());
+
+    // Critical operators are part of the fingerprint
+    assertNotSame(policy1, cache.resolve(List.of(ta, ia, leaf1), List.of("regexp")));
+
+    // Prefixes expire with the earliest statement of the prefix
+    clock.advance(Duration.ofSeconds(60));
+    final long hits = cache.getStatistics().getHitCount();
+    assertNotSame(policy1, cache.resolve(List.of(ta, ia, leaf1), null));
+    assertEquals(hits + 1, cache.getStatistics().getHitCount());
+
+    // Merge errors are not cached
+    final MetadataPolicyCache.PolicyStatement conflict = MetadataPolicyCache.PolicyStatement.of("ia.leaf3.sig",
+        Map.of("openid_relying_party", Map.of("subject_type", Map.of("one_of", List.of("public")))), null);
+    assertThrows(IllegalArgumentException.class, () -> cache.resolve(List.of(ta, ia, conflict), null));
+    assertEquals(0, MetadataPolicyCache.builder().build().resolve(List.of(), null).getEntityTypes().size());
+  }
+
+  @Test
+  void evictionTest() throws Exception {
+    final MetadataPolicyCache cache = MetadataPolicyCache.builder().maximumSize(2).build();
+    for (int i = 0; i < 10; i++) {
+      cache.resolve(List.of(MetadataPolicyCache.PolicyStatement.of("ta." + i, trustAnchorPolicy, null)), null);
+    }
+    assertEquals(2, cache.size());
+    assertEquals(8, cache.getStatistics().getEvictionCount());
+  }
+
+  private static class TestClock extends Clock {
+
+    private Instant instant = Instant.parse("2025-01-01T00:00:00Z");
+
+    void advance(final Duration duration) {
+      this.instant = this.instant.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(final ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return this.instant;
+    }
+  }
+
+}
@@ -0,0 +1,159 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.policy;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.junit.jupiter.api.Test;
+import se.oidc.oidfed.md.MetadataUtils;
+import se.oidc.oidfed.md.entities.ExtendedMetadata;
+import se.oidc.oidfed.md.entities.RelyingPartyMetadata;
+import se.oidc.oidfed.md.entities.ResourceServerMetadata;
+import se.oidc.oidfed.md.testdata.TestMetadata;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for merging and applying metadata policies
+ */
+class MetadataPolicyTest {
+
+  private static final String trustAnchorPolicy = """
+      {
+        "openid_relying_party": {
+          "grant_types": { "subset_of": ["authorization_code", "refresh_token"] },
+          "token_endpoint_auth_method": { "one_of": ["private_key_jwt", "self_signed_tls_client_auth"] },
+          "contacts": { "add": ["ops@ta.example.com"] },
+          "response_types": { "superset_of": ["code"], "essential": true }
+        }
+      }""";
+
+  private static final String intermediatePolicy = """
+      {
+        "openid_relying_party": {
+          "grant_types": { "subset_of": ["authorization_code"] },
+          "contacts": { "add": ["ops@ia.example.com"] },
+          "id_token_signed_response_alg": { "default": "ES256" },
+          "default_max_age": { "value": 3600 },
+          "x_unknown": { "regexp": "^a" }
+        },
+        "federation_entity": {
+          "organization_name": { "value": "Example" }
+        }
+      }""";
+
+  @Test
+  void mergeAndApplyTest() throws Exception {
+    final MetadataPolicy policy = MetadataPolicy.compile(List.of(json(trustAnchorPolicy), json(intermediatePolicy)));
+    assertEquals(List.of("openid_relying_party", "federation_entity"), new ArrayList<>(policy.getEntityTypes()));
+
+    final EntityTypePolicy rpPolicy = policy.getEntityTypePolicy("openid_relying_party");
+    final RelyingPartyMetadata leaf = RelyingPartyMetadata.getJsonSerializer().parse(TestMetadata.rpMetadataJson);
+    final RelyingPartyMetadata result = rpPolicy.apply(leaf, RelyingPartyMetadata.getJsonSerializer());
+    assertEquals(List.of("authorization_code"), result.getGrantTypes());
+    assertEquals("private_key_jwt", result.getTokenEndpointAuthMethod());
+    assertEquals(List.of("ops@ta.example.com", "ops@ia.example.com"), result.getContacts());
+    assertEquals("ES256", result.getIdTokenSignedResponseAlg());
+    assertEquals(3600, result.getDefaultMaxAge());
+    assertEquals(leaf.getOrganizationName(), result.getOrganizationName());
+    assertNull(leaf.getContacts());
+
+    // The same compiled policy is applied to other leaves
+    final Map<String, Object> other = rpPolicy.apply(Map.of(
+        "response_types", List.of("code", "id_token"),
+        "grant_types", List.of("refresh_token"),
+        "contacts", List.of("ops@ia.example.com", "rp@example.com")));
+    assertFalse(other.containsKey("grant_types"));
+    assertEquals(List.of("ops@ia.example.com", "rp@example.com", "ops@ta.example.com"), other.get("contacts"));
+
+    // Entity types without policy leave metadata unchanged
+    final Map<String, Object> opMetadata = TestMetadata.opMetadata;
+    assertEquals(opMetadata, policy.getEntityTypePolicy("openid_provider").apply(opMetadata));
+  }
+
+  @Test
+  void extendedMetadataTest() throws Exception {
+    final MetadataPolicy policy = MetadataPolicy.compile(List.of(json("""
+        {
+          "example_entity": {
+            "example_endpoint": { "one_of": ["https://example.com", "https://example.org"] },
+            "example_modes": { "default": ["a"] },
+            "policy_uri": { "value": "https://example.com/policy" }
+          }
+        }""")));
+    final ExtendedMetadata<ResourceServerMetadata> metadata = new ExtendedMetadata<>(
+        Map.of("example_endpoint", "https://example.com"), ResourceServerMetadata.getJsonSerializer());
+    final ExtendedMetadata<ResourceServerMetadata> result = policy.getEntityTypePolicy("example_entity")
+        .apply(metadata, ResourceServerMetadata.getJsonSerializer());
+    assertEquals("https://example.com/policy", result.getBaseMetadata().getPolicyUri());
+    assertEquals(List.of("a"), result.getExtendedParameter("example_modes"));
+    assertEquals("https://example.com", result.getExtendedParameter("example_endpoint"));
+  }
+
+  @Test
+  void mergeErrorTest() throws Exception {
+    final Map<String, Object> value1 = json("{\"oauth_client\": {\"client_name\": {\"value\": \"a\"}}}");
+    final Map<String, Object> value2 = json("{\"oauth_client\": {\"client_name\": {\"value\": \"b\"}}}");
+    assertThrows(IllegalArgumentException.class, () -> MetadataPolicy.compile(List.of(value1, value2)));
+    assertTrue(MetadataPolicy.compile(List.of(value1, value1)).getEntityTypes().contains("oauth_client"));
+
+    final Map<String, Object> oneOf1 = Map.of("oauth_client",
+        Map.of("token_endpoint_auth_method", Map.of("one_of", List.of("a"))));
+    final Map<String, Object> oneOf2 = Map.of("oauth_client",
+        Map.of("token_endpoint_auth_method", Map.of("one_of", List.of("b"))));
+    assertThrows(IllegalArgumentException.class, () -> MetadataPolicy.compile(List.of(oneOf1, oneOf2)));
+
+    // Numbers are compared by value
+    final Map<String, Object> number1 = Map.of("openid_relying_party",
+        Map.of("default_max_age", Map.of("value", 3600)));
+    final Map<String, Object> number2 = Map.of("openid_relying_party",
+        Map.of("default_max_age", Map.of("value", 3600L)));
+    MetadataPolicy.compile(List.of(number1, number2));
+
+    // Operator combinations that can not be satisfied
+    assertThrows(IllegalArgumentException.class, () -> MetadataPolicy.compile(List.of(json(
+        "{\"oauth_client\": {\"grant_types\": {\"one_of\": [\"a\"], \"subset_of\": [\"a\"]}}}"))));
+    assertThrows(IllegalArgumentException.class, () -> MetadataPolicy.compile(List.of(json(
+        "{\"oauth_client\": {\"grant_types\": {\"value\": [\"a\"], \"superset_of\": [\"b\"]}}}"))));
+    assertThrows(IllegalArgumentException.class, () -> MetadataPolicy.compile(List.of(json(
+        "{\"oauth_client\": {\"grant_types\": {\"add\": [\"b\"], \"subset_of\": [\"a\"]}}}"))));
+    assertThrows(IllegalArgumentException.class, () -> MetadataPolicy.compile(List.of(json(
+        "{\"oauth_client\": {\"grant_types\": {\"subset_of\": \"a\"}}}"))));
+
+    // Critical operators must be supported
+    final Map<String, Object> regexp = json("{\"oauth_client\": {\"client_name\": {\"regexp\": \"^a\"}}}");
+    MetadataPolicy.compile(List.of(regexp));
+    assertThrows(IllegalArgumentException.class, () -> MetadataPolicy.compile(List.of(regexp), List.of("regexp")));
+  }
+
+  @Test
+  void applyErrorTest() throws Exception {
+    final EntityTypePolicy policy = MetadataPolicy.compile(List.of(json(trustAnchorPolicy)))
+        .getEntityTypePolicy("openid_relying_party");
+    final Map<String, Object> valid = Map.of("response_types", List.of("code"));
+    assertEquals(List.of("code"), policy.apply(valid).get("response_types"));
+    assertEquals(List.of("ops@ta.example.com"), policy.apply(valid).get("contacts"));
+    assertThrows(IllegalArgumentException.class, () -> policy.apply(Map.of("contacts", List.of())));
+    assertThrows(IllegalArgumentException.class, () -> policy.apply(Map.of("response_types", List.of("id_token"))));
+    assertThrows(IllegalArgumentException.class, () -> policy.apply(Map.of(
+        "response_types", List.of("code"), "token_endpoint_auth_method", "client_secret_basic")));
+    assertThrows(IllegalArgumentException.class, () -> policy.apply(Map.of(
+        "response_types", List.of("code"), "contacts", "ops@example.com")));
+  }
+
+  private static Map<String, Object> json(final String json) throws Exception {
+    return MetadataUtils.OBJECT_MAPPER.readValue(json, new TypeReference<>() {
+    });
+  }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import se.oidc.oidfed.md.MetadataBatchParser;
+import se.oidc.oidfed.md.entities.OpMetadata;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing of a batch of 256 OP metadata documents with {@link MetadataBatchParser} on a fixed pool of
+ * {@code threads} threads and on the default executor, compared with parsing the documents one by one on the calling
+ * thread. Scaling depends on the number of available processors.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchParseBenchmark {
+
+  private static final int BATCH_SIZE = 256;
+
+  @Param({ "1", "2", "4", "8" })
+  private int threads;
+
+  private List<byte[]> documents;
+  private ExecutorService executor;
+  private MetadataBatchParser<OpMetadata> poolParser;
+  private MetadataBatchParser<OpMetadata> defaultParser;
+
+  @Setup
+  public void setup() throws Exception {
+    final byte[] document = Payloads.opMetadata(Payloads.Size.MEDIUM).toJson(false).getBytes(StandardCharsets.UTF_8);
+    this.documents = new ArrayList<>();
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      this.documents.add(document.clone());
+    }
+    this.executor = Executors.newFixedThreadPool(this.threads);
+    this.poolParser = MetadataBatchParser.builder(OpMetadata.getJsonSerializer())
+        .executor(this.executor)
+        .build();
+    this.defaultParser = MetadataBatchParser.builder(OpMetadata.getJsonSerializer()).build();
+  }
+
+  @TearDown
+  public void tearDown() {
+    this.executor.shutdown();
+  }
+
+  @Benchmark
+  public List<OpMetadata> sequential() throws Exception {
+    final List<OpMetadata> results = new ArrayList<>(BATCH_SIZE);
+    for (final byte[] document : this.documents) {
+      results.add(OpMetadata.getJsonSerializer().parse(document));
+    }
+    return results;
+  }
+
+  @Benchmark
+  public List<MetadataBatchParser.ParseResult<OpMetadata>> batchPool() throws Exception {
+    return this.poolParser.parseBytes(this.documents);
+  }
+
+  @Benchmark
+  public List<MetadataBatchParser.ParseResult<OpMetadata>> batchDefaultExecutor() throws Exception {
+    return this.defaultParser.parseBytes(this.documents);
+  }
+
+}
@@ -0,0 +1,68 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import se.oidc.oidfed.md.entities.OpMetadata;
+
+import java.security.MessageDigest;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the canonical (RFC 8785) serialization of OP metadata with the regular compact serialization, and hashing
+ * the canonical form through the streaming digest with hashing the complete canonical bytes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CanonicalJsonBenchmark {
+
+  @Param({ "SMALL", "MEDIUM" })
+  private Payloads.Size size;
+
+  private OpMetadata metadata;
+  private MessageDigest digest;
+
+  @Setup
+  public void setup() throws Exception {
+    this.metadata = Payloads.opMetadata(this.size);
+    this.digest = MessageDigest.getInstance("SHA-256");
+  }
+
+  @Benchmark
+  public byte[] compact() throws Exception {
+    return this.metadata.toUtf8Bytes();
+  }
+
+  @Benchmark
+  public byte[] canonical() throws Exception {
+    return this.metadata.toCanonicalUtf8Bytes();
+  }
+
+  @Benchmark
+  public byte[] canonicalDigest() throws Exception {
+    return this.metadata.digest(this.digest);
+  }
+
+  @Benchmark
+  public byte[] canonicalBytesDigest() throws Exception {
+    return this.digest.digest(this.metadata.toCanonicalUtf8Bytes());
+  }
+
+}
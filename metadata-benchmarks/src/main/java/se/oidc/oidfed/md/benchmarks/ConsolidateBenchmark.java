@@ -0,0 +1,99 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.benchmarks;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import se.oidc.oidfed.md.lang.GenericLangTarget;
+import se.oidc.oidfed.md.lang.LanguageObject;
+import se.oidc.oidfed.md.lang.OidcLangJsonSerializer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link OidcLangJsonSerializer#consolidateLanguageTags(Map, List)} on JSON objects with a large number of
+ * localized parameters, such as large display sets, compared with grouping by scanning the key set once per language
+ * tagged parameter.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConsolidateBenchmark {
+
+  private static final List<String> LANGUAGES = List.of("sv", "en", "de", "fi", "no");
+
+  /** The number of language tagged keys in the JSON object */
+  @Param({ "100", "500", "2000" })
+  private int localizedKeys;
+
+  private OidcLangJsonSerializer<GenericLangTarget> serializer;
+  private Map<String, Object> jsonObject;
+
+  @Setup
+  public void setup() {
+    this.serializer = new OidcLangJsonSerializer<>(GenericLangTarget.class);
+    this.jsonObject = new LinkedHashMap<>();
+    for (int i = 0; i < this.localizedKeys / LANGUAGES.size(); i++) {
+      final String name = "display_name_" + i;
+      this.jsonObject.put(name, "Display name " + i);
+      for (final String language : LANGUAGES) {
+        this.jsonObject.put(name + "#" + language, "Display name " + i + " (" + language + ")");
+      }
+    }
+  }
+
+  @Benchmark
+  public Map<String, Object> singlePassConsolidate() {
+    return this.serializer.consolidateLanguageTags(this.jsonObject, List.of());
+  }
+
+  @Benchmark
+  public Map<String, Object> keyScanConsolidate() {
+    final Map<String, Object> consolidatetMap = new HashMap<>(this.jsonObject);
+    final List<String> langKeys = new ArrayList<>();
+    for (final String key : this.jsonObject.keySet()) {
+      if (key.contains("#")) {
+        final String propName = key.substring(0, key.indexOf("#"));
+        if (StringUtils.isNotBlank(propName) && !langKeys.contains(propName)) {
+          langKeys.add(propName);
+        }
+      }
+    }
+    for (final String langKey : langKeys) {
+      final List<String> correlatedKeys = this.jsonObject.keySet().stream()
+          .filter(key -> key.startsWith(langKey))
+          .filter(key -> !key.equals(langKey))
+          .toList();
+      final Map<String, Object> languageObjectMap = new HashMap<>();
+      for (final String correlatedKey : correlatedKeys) {
+        languageObjectMap.put(correlatedKey.substring(correlatedKey.indexOf("#") + 1),
+            this.jsonObject.get(correlatedKey));
+        consolidatetMap.remove(correlatedKey);
+      }
+      consolidatetMap.put(langKey, new LanguageObject<>(this.jsonObject.get(langKey), languageObjectMap));
+    }
+    return consolidatetMap;
+  }
+
+}
@@ -0,0 +1,70 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.benchmarks;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import se.oidc.oidfed.md.wallet.credentialissuer.CredentialIssuerMetadata;
+
+import java.security.KeyPair;
+import java.security.interfaces.ECPrivateKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing, serialization and signing of credential issuer metadata with a large number of credential configurations.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CredentialIssuerBenchmark {
+
+  @Param({ "10", "100", "500" })
+  private int configurations;
+
+  private CredentialIssuerMetadata.CredentialIssuerMetadataBuilder builder;
+  private CredentialIssuerMetadata metadata;
+  private String metadataJson;
+  private ECDSASigner signer;
+
+  @Setup
+  public void setup() throws Exception {
+    this.builder = Payloads.credentialIssuer(this.configurations);
+    this.metadata = Payloads.credentialIssuer(this.configurations).build();
+    this.metadataJson = this.metadata.toJson(false);
+    final KeyPair keyPair = Payloads.keyPair("EC");
+    this.signer = new ECDSASigner((ECPrivateKey) keyPair.getPrivate());
+  }
+
+  @Benchmark
+  public CredentialIssuerMetadata buildWithSignedMetadata() throws Exception {
+    return this.builder.buildWithSignedMetadata(this.signer, JWSAlgorithm.ES256, "benchmark-key");
+  }
+
+  @Benchmark
+  public String toJson() throws Exception {
+    return this.metadata.toJson(false);
+  }
+
+  @Benchmark
+  public CredentialIssuerMetadata parse() throws Exception {
+    return CredentialIssuerMetadata.getJsonSerializer().parse(this.metadataJson);
+  }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import se.oidc.oidfed.md.MetadataUtils;
+import se.oidc.oidfed.md.entities.EntityMetadataParser;
+import se.oidc.oidfed.md.entities.EntityMetadataSet;
+import se.oidc.oidfed.md.entities.ExtendedMetadata;
+import se.oidc.oidfed.md.entities.FederationEntityMetadata;
+import se.oidc.oidfed.md.entities.OpMetadata;
+import se.oidc.oidfed.md.entities.ResourceServerMetadata;
+import se.oidc.oidfed.md.wallet.credentialissuer.CredentialIssuerMetadata;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link EntityMetadataParser}, which streams the metadata claim once, with splitting the claim into a JSON
+ * object map and re-serializing each entity type for its serializer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EntityMetadataSetBenchmark {
+
+  private EntityMetadataParser parser;
+  private byte[] metadataJson;
+
+  @Setup
+  public void setup() throws Exception {
+    this.parser = EntityMetadataParser.getDefault();
+    final Map<String, Object> metadata = new LinkedHashMap<>();
+    metadata.put("openid_provider", Payloads.opMetadata(Payloads.Size.MEDIUM).toJsonObject());
+    metadata.put("federation_entity", FederationEntityMetadata.builder()
+        .federationFetchEndpoint("https://example.com/fetch")
+        .build()
+        .toJsonObject());
+    metadata.put("openid_credential_issuer", Payloads.credentialIssuer(10).build().toJsonObject());
+    metadata.put("example_entity", Map.of("organization_name", "Example", "example_endpoint", "https://example.com"));
+    this.metadataJson = MetadataUtils.OBJECT_MAPPER.writeValueAsBytes(metadata);
+  }
+
+  @Benchmark
+  public EntityMetadataSet streamingParse() throws Exception {
+    return this.parser.parse(this.metadataJson);
+  }
+
+  @Benchmark
+  public Map<String, Object> splitAndReserialize() throws Exception {
+    final Map<String, Map<String, Object>> metadata = MetadataUtils.OBJECT_MAPPER.readValue(this.metadataJson,
+        new TypeReference<>() {
+        });
+    final Map<String, Object> result = new HashMap<>();
+    for (final Map.Entry<String, Map<String, Object>> entry : metadata.entrySet()) {
+      final String json = MetadataUtils.OBJECT_MAPPER.writeValueAsString(entry.getValue());
+      result.put(entry.getKey(), switch (entry.getKey()) {
+        case "openid_provider" -> OpMetadata.getJsonSerializer().parse(json);
+        case "federation_entity" -> FederationEntityMetadata.getJsonSerializer().parse(json);
+        case "openid_credential_issuer" -> CredentialIssuerMetadata.getJsonSerializer().parse(json);
+        default -> new ExtendedMetadata<>(entry.getValue(), ResourceServerMetadata.getJsonSerializer());
+      });
+    }
+    return result;
+  }
+
+  @Benchmark
+  public EntityMetadataSet jsonObjectParse() throws Exception {
+    return this.parser.parse(MetadataUtils.OBJECT_MAPPER.readValue(this.metadataJson,
+        new TypeReference<Map<String, Object>>() {
+        }));
+  }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import se.oidc.oidfed.md.cache.ExpiringLruCache;
+
+import java.util.LinkedHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Measures cache hits from several threads at the same time. Hits of an {@link ExpiringLruCache}, which are recorded
+ * without locking, are compared with hits of an access ordered map guarded by one lock, where every hit takes the lock
+ * to update the access order. All keys are cached, so every lookup is a hit. The number of threads is set with the
+ * {@code -t} option, and is 4 by default.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class ExpiringLruCacheBenchmark {
+
+  private static final int KEYS = 1000;
+
+  private String[] keys;
+  private ExpiringLruCache<String, String> cache;
+  private LinkedHashMap<String, String> lockedMap;
+  private final ReentrantLock lock = new ReentrantLock();
+
+  @Setup
+  public void setup() {
+    this.keys = new String[KEYS];
+    this.cache = ExpiringLruCache.<String, String>builder()
+        .maximumSize(KEYS)
+        .build();
+    this.lockedMap = new LinkedHashMap<>(16, 0.75f, true);
+    for (int i = 0; i < KEYS; i++) {
+      this.keys[i] = "https://entity" + i + ".example.com";
+      this.cache.put(this.keys[i], "metadata" + i);
+      this.lockedMap.put(this.keys[i], "metadata" + i);
+    }
+  }
+
+  @Benchmark
+  public String cacheHit() {
+    return this.cache.getIfPresent(this.keys[ThreadLocalRandom.current().nextInt(KEYS)]);
+  }
+
+  @Benchmark
+  public String lockedMapHit() {
+    final String key = this.keys[ThreadLocalRandom.current().nextInt(KEYS)];
+    this.lock.lock();
+    try {
+      return this.lockedMap.get(key);
+    }
+    finally {
+      this.lock.unlock();
+    }
+  }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import se.oidc.oidfed.md.MetadataUtils;
+import se.oidc.oidfed.md.entities.ExtendedMetadata;
+import se.oidc.oidfed.md.entities.OpMetadata;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures extraction of extension properties with {@link MetadataUtils#getExtensionProperties(Map, Object)} and
+ * construction of {@link ExtendedMetadata}, compared with finding the known properties of the data object by
+ * serializing it to a JSON object map.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExtendedMetadataBenchmark {
+
+  private Map<String, Object> payload;
+  private OpMetadata opMetadata;
+
+  @Setup
+  public void setup() throws Exception {
+    this.opMetadata = Payloads.opMetadata(Payloads.Size.MEDIUM);
+    this.payload = new HashMap<>(this.opMetadata.toJsonObject());
+    for (int i = 0; i < 10; i++) {
+      this.payload.put("ext_param_" + i, "Extension value " + i);
+    }
+  }
+
+  @Benchmark
+  public Map<String, Object> extensionProperties() throws Exception {
+    return MetadataUtils.getExtensionProperties(this.payload, this.opMetadata);
+  }
+
+  @Benchmark
+  public Map<String, Object> roundTripExtensionProperties() throws Exception {
+    final Map<String, Object> dataObjectMap = MetadataUtils.OBJECT_MAPPER.readValue(
+        MetadataUtils.OBJECT_MAPPER.writeValueAsString(this.opMetadata), new TypeReference<>() {
+        });
+    final Map<String, Object> extensionObjectMap = new HashMap<>();
+    for (final String claimName : this.payload.keySet()) {
+      if (!MetadataUtils.standardJwtClaims.contains(claimName) && !dataObjectMap.containsKey(claimName)) {
+        extensionObjectMap.put(claimName, this.payload.get(claimName));
+      }
+    }
+    return extensionObjectMap;
+  }
+
+  @Benchmark
+  public ExtendedMetadata<OpMetadata> extendedMetadata() throws Exception {
+    return new ExtendedMetadata<>(this.payload, OpMetadata.getJsonSerializer());
+  }
+
+}
@@ -0,0 +1,54 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.benchmarks;
+
+import com.nimbusds.jose.jwk.JWK;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import se.oidc.oidfed.md.JWKUtils;
+
+import java.security.cert.X509Certificate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures creation of JWKs from certificates with {@link JWKUtils#getJwkWithKid(X509Certificate, String, boolean)}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwkBenchmark {
+
+  @Param({ "EC", "RSA" })
+  private String keyAlgorithm;
+
+  @Param({ "false", "true" })
+  private boolean includeCert;
+
+  private X509Certificate certificate;
+
+  @Setup
+  public void setup() throws Exception {
+    this.certificate = Payloads.certificate(this.keyAlgorithm);
+  }
+
+  @Benchmark
+  public JWK getJwkWithKid() throws Exception {
+    return JWKUtils.getJwkWithKid(this.certificate, "benchmark-key", this.includeCert);
+  }
+
+}
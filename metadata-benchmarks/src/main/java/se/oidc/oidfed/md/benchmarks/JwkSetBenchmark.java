@@ -0,0 +1,63 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.benchmarks;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import se.oidc.oidfed.md.entities.AbstractOidcFedMetadata;
+import se.oidc.oidfed.md.entities.OpMetadata;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures JWK set access on parsed metadata with {@link AbstractOidcFedMetadata#getJwkSet()} and
+ * {@link AbstractOidcFedMetadata#getKey(String)}, compared with parsing the JWK set on every access.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwkSetBenchmark {
+
+  private OpMetadata opMetadata;
+  private Map<String, Object> jwks;
+
+  @Setup
+  public void setup() throws Exception {
+    this.opMetadata = OpMetadata.getJsonSerializer()
+        .parse(Payloads.opMetadata(Payloads.Size.HUGE).toJson(false));
+    this.jwks = this.opMetadata.getJwkSet().toJSONObject();
+  }
+
+  @Benchmark
+  public JWKSet getJwkSet() throws Exception {
+    return this.opMetadata.getJwkSet();
+  }
+
+  @Benchmark
+  public JWK getKey() throws Exception {
+    return this.opMetadata.getKey("key-15");
+  }
+
+  @Benchmark
+  public JWK parseAndFindKey() throws Exception {
+    return JWKSet.parse(this.jwks).getKeyByKeyId("key-15");
+  }
+
+}
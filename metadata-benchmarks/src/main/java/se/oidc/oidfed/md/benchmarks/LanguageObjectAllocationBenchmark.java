@@ -0,0 +1,71 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import se.oidc.oidfed.md.lang.LanguageObject;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures creation of language objects with the builder and from a parsed value map. Run with {@code -prof gc} to
+ * see the bytes allocated per language object. See {@link LanguageObjectFootprint} for the retained footprint.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LanguageObjectAllocationBenchmark {
+
+  private static final List<String> LANGUAGES = List.of("sv", "en", "de", "fi", "no", "da", "fr", "es", "it", "nl",
+      "pt", "pl", "et", "lv", "lt", "is", "ga", "mt", "sk", "sl");
+
+  @Param({ "1", "2", "20" })
+  private int languages;
+
+  private List<String> tags;
+  private Map<String, String> valueMap;
+
+  @Setup
+  public void setup() {
+    this.tags = LANGUAGES.subList(0, this.languages);
+    this.valueMap = new LinkedHashMap<>();
+    for (final String language : this.tags) {
+      this.valueMap.put(language, "Value " + language);
+    }
+  }
+
+  @Benchmark
+  public LanguageObject<String> builder() {
+    final LanguageObject.LanguageObjectBuilder<String> builder = LanguageObject.builder(String.class)
+        .defaultValue("Default");
+    for (final String language : this.tags) {
+      builder.langValue(language, language);
+    }
+    return builder.build();
+  }
+
+  @Benchmark
+  public LanguageObject<String> fromValueMap() {
+    return new LanguageObject<>("Default", this.valueMap);
+  }
+
+}
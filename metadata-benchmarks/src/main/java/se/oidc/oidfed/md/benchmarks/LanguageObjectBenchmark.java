@@ -0,0 +1,100 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import se.oidc.oidfed.md.lang.LanguageObject;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures lookup of language values with {@link LanguageObject#getLanguageValue(String)} for present languages,
+ * languages that are not present, language objects without a default value, regional language tags falling back to
+ * the language and Accept-Language priority lists. The {@code variedAcceptLanguage} benchmark cycles through more
+ * distinct Accept-Language priority lists than the language index memoizes, so that most lookups are served by the
+ * shared cache of parsed priority lists.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LanguageObjectBenchmark {
+
+  private static final List<String> LANGUAGES = List.of("sv", "en", "de", "fi", "no", "da", "fr", "es", "it", "nl");
+
+  /** Number of distinct Accept-Language priority lists of the varied benchmark. Must be a power of two */
+  private static final int ACCEPT_LANGUAGES = 64;
+
+  @Param({ "2", "10" })
+  private int languages;
+
+  private LanguageObject<String> languageObject;
+  private LanguageObject<String> noDefaultLanguageObject;
+  private String[] acceptLanguages;
+  private int nextAcceptLanguage;
+
+  @Setup
+  public void setup() {
+    final LanguageObject.LanguageObjectBuilder<String> builder = LanguageObject.builder(String.class);
+    final LanguageObject.LanguageObjectBuilder<String> noDefaultBuilder = LanguageObject.builder(String.class);
+    builder.defaultValue("Default");
+    for (final String language : LANGUAGES.subList(0, this.languages)) {
+      builder.langValue(language, "Value " + language);
+      noDefaultBuilder.langValue(language, "Value " + language);
+    }
+    this.languageObject = builder.build();
+    this.noDefaultLanguageObject = noDefaultBuilder.build();
+    this.acceptLanguages = new String[ACCEPT_LANGUAGES];
+    for (int i = 0; i < ACCEPT_LANGUAGES; i++) {
+      this.acceptLanguages[i] = "pt-BR,pt;q=0.9," + LANGUAGES.get(i % LANGUAGES.size()) + "-x-v" + i + ";q=0.8,en;q=0.7";
+    }
+  }
+
+  @Benchmark
+  public String presentLanguage() {
+    return this.languageObject.getLanguageValue("en");
+  }
+
+  @Benchmark
+  public String missingLanguage() {
+    return this.languageObject.getLanguageValue("pt");
+  }
+
+  @Benchmark
+  public String missingLanguageNoDefault() {
+    return this.noDefaultLanguageObject.getLanguageValue("pt");
+  }
+
+  @Benchmark
+  public String regionalLanguage() {
+    return this.languageObject.getLanguageValue("en-GB");
+  }
+
+  @Benchmark
+  public String acceptLanguage() {
+    return this.languageObject.getLanguageValue("pt-BR,pt;q=0.9,en-US;q=0.8,en;q=0.7");
+  }
+
+  @Benchmark
+  public String variedAcceptLanguage() {
+    return this.languageObject.getLanguageValue(
+        this.acceptLanguages[this.nextAcceptLanguage++ & (ACCEPT_LANGUAGES - 1)]);
+  }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.benchmarks;
+
+import org.openjdk.jol.info.GraphLayout;
+import se.oidc.oidfed.md.entities.OpMetadata;
+import se.oidc.oidfed.md.lang.LanguageObject;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prints the retained heap footprint of language objects and parsed metadata, measured with JOL.
+ * <p>
+ * Language objects are compared with the same values held in a {@link HashMap}, which is how language tagged values
+ * were stored before language objects got a compact form. Language tags and values are shared by both layouts and are
+ * excluded from the totals. Run with:
+ * </p>
+ * <pre>
+ * java -cp metadata-benchmarks/target/benchmarks.jar se.oidc.oidfed.md.benchmarks.LanguageObjectFootprint
+ * </pre>
+ */
+public class LanguageObjectFootprint {
+
+  private static final List<String> LANGUAGES =
+      List.of("sv", "en", "de", "fi", "no", "da", "fr", "es", "it", "nl", "pt", "pl", "et", "lv", "lt", "is", "ga", "mt",
+          "sk", "sl");
+
+  public static void main(final String[] args) throws Exception {
+    System.out.printf("%-10s %12s %12s%n", "Languages", "Compact", "HashMap");
+    for (final int languages : new int[] { 1, 2, 4, 8, 16, 20 }) {
+      final Map<String, String> valueMap = new HashMap<>();
+      for (final String language : LANGUAGES.subList(0, languages)) {
+        valueMap.put(language, "Value " + language);
+      }
+      final LanguageObject<String> languageObject = new LanguageObject<>("Default", valueMap);
+      System.out.printf("%-10d %12d %12d%n", languages,
+          retainedSize(languageObject, valueMap), retainedSize(new LegacyLanguageObject(valueMap), valueMap));
+    }
+
+    System.out.println();
+    for (final Payloads.Size size : Payloads.Size.values()) {
+      final OpMetadata opMetadata = OpMetadata.getJsonSerializer().parse(Payloads.opMetadata(size).toJson(false));
+      System.out.printf("Parsed %s OP metadata: %d bytes%n", size, GraphLayout.parseInstance(opMetadata).totalSize());
+    }
+  }
+
+  /**
+   * Get the retained size of an object, excluding the language tags and values of a value map.
+   *
+   * @param object object holding the values
+   * @param valueMap the values
+   * @return retained size in bytes
+   */
+  private static long retainedSize(final Object object, final Map<String, String> valueMap) {
+    final GraphLayout layout = GraphLayout.parseInstance(object);
+    final GraphLayout values = GraphLayout.parseInstance(valueMap.keySet().toArray(), valueMap.values().toArray(),
+        "Default");
+    return layout.subtract(values).totalSize();
+  }
+
+  /**
+   * Language object layout with a default value and a hash map of language tagged values.
+   */
+  private static class LegacyLanguageObject {
+
+    private final String defaultValue = "Default";
+    private final Map<String, String> valueMap;
+
+    LegacyLanguageObject(final Map<String, String> valueMap) {
+      this.valueMap = new HashMap<>(valueMap);
+    }
+  }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import se.oidc.oidfed.md.entities.LazyMetadata;
+import se.oidc.oidfed.md.entities.LazyMetadataFields;
+import se.oidc.oidfed.md.entities.OpMetadata;
+import se.oidc.oidfed.md.lang.OidcLangJsonSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading a few endpoints of OP metadata through {@link LazyMetadata} with fully binding the metadata with
+ * {@link OidcLangJsonSerializer#parse(byte[])}. Each operation creates the metadata from its JSON bytes, as when
+ * metadata is fetched, and reads the issuer, the token endpoint and the authorization endpoint.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LazyMetadataBenchmark {
+
+  @Param({ "MEDIUM", "HUGE" })
+  private Payloads.Size size;
+
+  private OidcLangJsonSerializer<OpMetadata> serializer;
+  private byte[] json;
+
+  @Setup
+  public void setup() throws Exception {
+    this.serializer = OpMetadata.getJsonSerializer();
+    this.json = Payloads.opMetadata(this.size).toUtf8Bytes();
+  }
+
+  @Benchmark
+  public void eagerParse(final Blackhole blackhole) throws Exception {
+    final OpMetadata metadata = this.serializer.parse(this.json);
+    blackhole.consume(metadata.getIssuer());
+    blackhole.consume(metadata.getTokenEndpoint());
+    blackhole.consume(metadata.getAuthorizationEndpoint());
+  }
+
+  @Benchmark
+  public void lazyParse(final Blackhole blackhole) throws Exception {
+    final LazyMetadata<OpMetadata> metadata = LazyMetadata.of(this.json, this.serializer);
+    blackhole.consume(metadata.get(LazyMetadataFields.Op.ISSUER));
+    blackhole.consume(metadata.get(LazyMetadataFields.Op.TOKEN_ENDPOINT));
+    blackhole.consume(metadata.get(LazyMetadataFields.Op.AUTHORIZATION_ENDPOINT));
+  }
+
+  @Benchmark
+  public LazyMetadata<OpMetadata> lazyIndexOnly() throws Exception {
+    return LazyMetadata.of(this.json, this.serializer);
+  }
+
+}
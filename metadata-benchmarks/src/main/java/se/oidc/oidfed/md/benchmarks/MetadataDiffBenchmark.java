@@ -0,0 +1,79 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import se.oidc.oidfed.md.MetadataDiff;
+import se.oidc.oidfed.md.entities.OpMetadata;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of detecting what changed when an entity configuration is refreshed, compared with reparsing the
+ * refreshed document. Uses MEDIUM OP metadata where the refreshed version changes one parameter.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetadataDiffBenchmark {
+
+  private OpMetadata previous;
+  private OpMetadata unchanged;
+  private OpMetadata changed;
+  private byte[] previousBytes;
+  private byte[] changedBytes;
+  private MetadataDiff<OpMetadata> diff;
+
+  @Setup
+  public void setup() throws Exception {
+    this.previous = Payloads.opMetadata(Payloads.Size.MEDIUM);
+    this.previousBytes = OpMetadata.getJsonSerializer().toUtf8Bytes(this.previous);
+    this.unchanged = OpMetadata.getJsonSerializer().parse(this.previousBytes);
+    this.changed = OpMetadata.getJsonSerializer().parse(this.previousBytes);
+    this.changed.setScopesSupported(List.of("openid", "profile"));
+    this.changedBytes = OpMetadata.getJsonSerializer().toUtf8Bytes(this.changed);
+    this.diff = MetadataDiff.compare(this.previous, this.changed, OpMetadata.getJsonSerializer());
+  }
+
+  @Benchmark
+  public MetadataDiff<OpMetadata> compareUnchanged() throws Exception {
+    return MetadataDiff.compare(this.previous, this.unchanged, OpMetadata.getJsonSerializer());
+  }
+
+  @Benchmark
+  public MetadataDiff<OpMetadata> compareChanged() throws Exception {
+    return MetadataDiff.compare(this.previous, this.changed, OpMetadata.getJsonSerializer());
+  }
+
+  @Benchmark
+  public MetadataDiff<OpMetadata> compareDocuments() throws Exception {
+    return MetadataDiff.compare(this.previousBytes, this.changedBytes, OpMetadata.getJsonSerializer());
+  }
+
+  @Benchmark
+  public OpMetadata applyPatch() throws Exception {
+    return this.diff.apply(this.previous);
+  }
+
+  @Benchmark
+  public OpMetadata reparse() throws Exception {
+    return OpMetadata.getJsonSerializer().parse(this.changedBytes);
+  }
+
+}
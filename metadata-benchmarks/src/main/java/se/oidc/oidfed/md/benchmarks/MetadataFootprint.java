@@ -0,0 +1,49 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.benchmarks;
+
+import org.openjdk.jol.info.GraphLayout;
+import se.oidc.oidfed.md.CanonicalizationPool;
+import se.oidc.oidfed.md.MetadataUtils;
+import se.oidc.oidfed.md.entities.OpMetadata;
+import se.oidc.oidfed.md.lang.OidcLangJsonSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Prints the retained heap footprint of a cache of parsed OP metadata, parsed with and without a
+ * {@link CanonicalizationPool}, measured with JOL. Run with:
+ * <pre>
+ * java -cp metadata-benchmarks/target/benchmarks.jar se.oidc.oidfed.md.benchmarks.MetadataFootprint
+ * </pre>
+ */
+public class MetadataFootprint {
+
+  private static final int ENTITIES = 1000;
+
+  public static void main(final String[] args) throws Exception {
+    final CanonicalizationPool pool = new CanonicalizationPool();
+    final OidcLangJsonSerializer<OpMetadata> canonicalizingSerializer =
+        new OidcLangJsonSerializer<>(OpMetadata.class, MetadataUtils.getOidcObjectMapper(pool));
+
+    System.out.printf("%-8s %14s %14s%n", "Size", "Default", "Canonical");
+    for (final Payloads.Size size : Payloads.Size.values()) {
+      final String json = Payloads.opMetadata(size).toJson(false);
+      final List<OpMetadata> parsed = new ArrayList<>();
+      final List<OpMetadata> canonicalParsed = new ArrayList<>();
+      for (int i = 0; i < ENTITIES; i++) {
+        parsed.add(OpMetadata.getJsonSerializer().parse(json));
+        canonicalParsed.add(canonicalizingSerializer.parse(json));
+      }
+      System.out.printf("%-8s %14d %14d%n", size, GraphLayout.parseInstance(parsed).totalSize(),
+          GraphLayout.parseInstance(canonicalParsed).totalSize());
+    }
+    System.out.printf("%nRetained bytes of %d parsed OP metadata documents. The pool holds %d strings and %d lists.%n",
+        ENTITIES, pool.getStringCount(), pool.getListCount());
+  }
+
+}
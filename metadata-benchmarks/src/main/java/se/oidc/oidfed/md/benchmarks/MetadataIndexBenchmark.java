@@ -0,0 +1,105 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import se.oidc.oidfed.md.entities.OpMetadata;
+import se.oidc.oidfed.md.index.MetadataIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares discovering OPs by capability through a {@link MetadataIndex} with a linear scan over the list getters of
+ * the metadata. The population is 10,000 OPs with random subsets of 5 ACR values, 40 claims and 4 ID token signing
+ * algorithms, and the query asks for one value of each parameter. Also measures replacing the metadata of one OP in
+ * the index.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetadataIndexBenchmark {
+
+  private static final int ENTITIES = 10_000;
+
+  private List<OpMetadata> metadata;
+  private MetadataIndex<OpMetadata> index;
+  private MetadataIndex.Query query;
+  private int counter;
+
+  @Setup
+  public void setup() {
+    final Random random = new Random(1);
+    this.metadata = new ArrayList<>(ENTITIES);
+    this.index = MetadataIndex.<OpMetadata>builder()
+        .field("acr_values_supported", OpMetadata::getAcrValuesSupported)
+        .field("claims_supported", OpMetadata::getClaimsSupported)
+        .field("id_token_signing_alg_values_supported", OpMetadata::getIdTokenSigningAlgValuesSupported)
+        .build();
+    for (int i = 0; i < ENTITIES; i++) {
+      final OpMetadata op = OpMetadata.builder()
+          .issuer("https://op" + i + ".example.com")
+          .acrValuesSupported(subset(random, "http://id.example.com/loa", 5))
+          .claimsSupported(subset(random, "claim", 40))
+          .idTokenSigningAlgValuesSupported(subset(random, "alg", 4))
+          .build();
+      this.metadata.add(op);
+      this.index.put(op.getIssuer(), op);
+    }
+    this.query = MetadataIndex.Query.has("acr_values_supported", "http://id.example.com/loa3")
+        .and(MetadataIndex.Query.has("claims_supported", "claim7"))
+        .and(MetadataIndex.Query.has("id_token_signing_alg_values_supported", "alg2"));
+  }
+
+  private static List<String> subset(final Random random, final String prefix, final int count) {
+    final List<String> values = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      if (random.nextBoolean()) {
+        values.add(prefix + i);
+      }
+    }
+    return values;
+  }
+
+  @Benchmark
+  public List<OpMetadata> indexQuery() {
+    return this.index.find(this.query);
+  }
+
+  @Benchmark
+  public List<OpMetadata> linearScan() {
+    final List<OpMetadata> result = new ArrayList<>();
+    for (final OpMetadata op : this.metadata) {
+      if (op.getAcrValuesSupported().contains("http://id.example.com/loa3")
+          && op.getClaimsSupported().contains("claim7")
+          && op.getIdTokenSigningAlgValuesSupported().contains("alg2")) {
+        result.add(op);
+      }
+    }
+    return result;
+  }
+
+  @Benchmark
+  public void indexUpdate() {
+    final OpMetadata op = this.metadata.get(this.counter++ % ENTITIES);
+    this.index.put(op.getIssuer(), op);
+  }
+
+}
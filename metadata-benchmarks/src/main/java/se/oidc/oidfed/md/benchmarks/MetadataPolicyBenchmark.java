@@ -0,0 +1,91 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import se.oidc.oidfed.md.MetadataUtils;
+import se.oidc.oidfed.md.entities.OpMetadata;
+import se.oidc.oidfed.md.policy.EntityTypePolicy;
+import se.oidc.oidfed.md.policy.MetadataPolicy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares applying a compiled trust chain {@link MetadataPolicy} to OP metadata with merging and compiling the policy
+ * chain again for every leaf. The policy chain has a trust anchor and two intermediates, with set operands of about
+ * a hundred values. Applying the policy to an {@link OpMetadata} object includes the conversion to and from its JSON
+ * object.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetadataPolicyBenchmark {
+
+  private List<Map<String, Object>> policies;
+  private EntityTypePolicy compiled;
+  private OpMetadata opMetadata;
+  private Map<String, Object> leaf;
+
+  @Setup
+  public void setup() throws Exception {
+    final List<Object> scopes = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      scopes.add("scope_" + i);
+    }
+    this.policies = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      this.policies.add(MetadataUtils.OBJECT_MAPPER.readValue("""
+          {
+            "openid_provider": {
+              "scopes_supported": { "subset_of": %s },
+              "id_token_signing_alg_values_supported": { "subset_of": ["RS256", "ES256", "PS256", "EdDSA"] },
+              "token_endpoint_auth_methods_supported": { "superset_of": ["private_key_jwt"], "essential": true },
+              "subject_types_supported": { "superset_of": ["public"] },
+              "contacts": { "add": ["ops%d@example.com"] },
+              "issuer": { "essential": true }
+            }
+          }""".formatted(MetadataUtils.OBJECT_MAPPER.writeValueAsString(scopes.subList(0, 100 - i)), i),
+          new TypeReference<>() {
+          }));
+    }
+    this.compiled = MetadataPolicy.compile(this.policies).getEntityTypePolicy("openid_provider");
+    this.opMetadata = Payloads.opMetadata(Payloads.Size.MEDIUM);
+    this.leaf = this.opMetadata.toJsonObject();
+    this.compiled.apply(this.leaf);
+  }
+
+  @Benchmark
+  public Map<String, Object> compiledApply() {
+    return this.compiled.apply(this.leaf);
+  }
+
+  @Benchmark
+  public Map<String, Object> compileAndApply() {
+    return MetadataPolicy.compile(this.policies).getEntityTypePolicy("openid_provider").apply(this.leaf);
+  }
+
+  @Benchmark
+  public OpMetadata compiledApplyToEntity() throws Exception {
+    return this.compiled.apply(this.opMetadata, OpMetadata.getJsonSerializer());
+  }
+
+}
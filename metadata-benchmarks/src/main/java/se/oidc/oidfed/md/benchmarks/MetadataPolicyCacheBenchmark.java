@@ -0,0 +1,91 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import se.oidc.oidfed.md.MetadataUtils;
+import se.oidc.oidfed.md.policy.MetadataPolicy;
+import se.oidc.oidfed.md.policy.MetadataPolicyCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares resolving the metadata policy of a trust chain through a {@link MetadataPolicyCache} with merging the full
+ * chain. The chain has a trust anchor and three intermediates, with set operands of about a hundred values, and every
+ * resolution is for a new leaf entity under the same intermediates, so only the last hop is merged.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetadataPolicyCacheBenchmark {
+
+  private List<Map<String, Object>> policies;
+  private List<MetadataPolicyCache.PolicyStatement> superiors;
+  private MetadataPolicyCache cache;
+  private int counter;
+
+  @Setup
+  public void setup() throws Exception {
+    final List<Object> scopes = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      scopes.add("scope_" + i);
+    }
+    this.policies = new ArrayList<>();
+    this.superiors = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      final Map<String, Object> policy = MetadataUtils.OBJECT_MAPPER.readValue("""
+          {
+            "openid_provider": {
+              "scopes_supported": { "subset_of": %s },
+              "id_token_signing_alg_values_supported": { "subset_of": ["RS256", "ES256", "PS256", "EdDSA"] },
+              "token_endpoint_auth_methods_supported": { "superset_of": ["private_key_jwt"], "essential": true },
+              "subject_types_supported": { "superset_of": ["public"] },
+              "contacts": { "add": ["ops%d@example.com"] },
+              "issuer": { "essential": true }
+            }
+          }""".formatted(MetadataUtils.OBJECT_MAPPER.writeValueAsString(scopes.subList(0, 100 - i)), i),
+          new TypeReference<>() {
+          });
+      this.policies.add(policy);
+      this.superiors.add(MetadataPolicyCache.PolicyStatement.of("statement." + i, policy, null));
+    }
+    this.policies.add(leafPolicy());
+    this.cache = MetadataPolicyCache.builder().build();
+  }
+
+  private static Map<String, Object> leafPolicy() {
+    return Map.of("openid_provider", Map.of("scopes_supported", Map.of("default", List.of("scope_0"))));
+  }
+
+  @Benchmark
+  public MetadataPolicy cachedResolve() {
+    final List<MetadataPolicyCache.PolicyStatement> chain = new ArrayList<>(this.superiors);
+    chain.add(MetadataPolicyCache.PolicyStatement.of("leaf." + this.counter++, leafPolicy(), null));
+    return this.cache.resolve(chain, null);
+  }
+
+  @Benchmark
+  public MetadataPolicy compile() {
+    return MetadataPolicy.compile(this.policies);
+  }
+
+}
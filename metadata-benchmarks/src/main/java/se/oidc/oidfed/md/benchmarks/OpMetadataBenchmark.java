@@ -0,0 +1,70 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import se.oidc.oidfed.md.entities.OpMetadata;
+import se.oidc.oidfed.md.lang.OidcLangJsonSerializer;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing and serialization of small, medium and huge OP metadata with {@link OidcLangJsonSerializer}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OpMetadataBenchmark {
+
+  @Param({ "SMALL", "MEDIUM", "HUGE" })
+  private Payloads.Size size;
+
+  private OidcLangJsonSerializer<OpMetadata> serializer;
+  private OpMetadata opMetadata;
+  private String opMetadataJson;
+
+  @Setup
+  public void setup() throws Exception {
+    this.serializer = OpMetadata.getJsonSerializer();
+    this.opMetadata = Payloads.opMetadata(this.size);
+    this.opMetadataJson = this.opMetadata.toJson(false);
+  }
+
+  @Benchmark
+  public OpMetadata parse() throws Exception {
+    return this.serializer.parse(this.opMetadataJson);
+  }
+
+  @Benchmark
+  public String toJson() throws Exception {
+    return this.serializer.toJson(this.opMetadata, false);
+  }
+
+  @Benchmark
+  public String toPrettyJson() throws Exception {
+    return this.serializer.toJson(this.opMetadata, true);
+  }
+
+  @Benchmark
+  public Map<String, Object> toJsonObject() throws Exception {
+    return this.serializer.toJsonObject(this.opMetadata);
+  }
+
+}
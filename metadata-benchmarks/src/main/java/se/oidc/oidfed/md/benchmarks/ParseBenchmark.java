@@ -0,0 +1,100 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import se.oidc.oidfed.md.CanonicalizationPool;
+import se.oidc.oidfed.md.MetadataUtils;
+import se.oidc.oidfed.md.entities.OpMetadata;
+import se.oidc.oidfed.md.lang.OidcLangJsonSerializer;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the streaming parser of {@link OidcLangJsonSerializer#parse(String)} with parsing through an intermediate
+ * JSON object map using {@link OidcLangJsonSerializer#parse(Map)}, and with parsing through a
+ * {@link CanonicalizationPool}. Parsing of UTF-8 bytes from arrays, direct buffers and input streams is compared with
+ * decoding the bytes to a string before parsing.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParseBenchmark {
+
+  private OidcLangJsonSerializer<OpMetadata> serializer;
+  private OidcLangJsonSerializer<OpMetadata> canonicalizingSerializer;
+  private String opMetadataJson;
+  private byte[] opMetadataBytes;
+  private ByteBuffer opMetadataDirectBuffer;
+
+  @Setup
+  public void setup() throws Exception {
+    this.serializer = OpMetadata.getJsonSerializer();
+    this.canonicalizingSerializer = new OidcLangJsonSerializer<>(OpMetadata.class,
+        MetadataUtils.getOidcObjectMapper(new CanonicalizationPool()));
+    this.opMetadataJson = Payloads.opMetadata(Payloads.Size.MEDIUM).toJson(false);
+    this.opMetadataBytes = this.opMetadataJson.getBytes(StandardCharsets.UTF_8);
+    this.opMetadataDirectBuffer = ByteBuffer.allocateDirect(this.opMetadataBytes.length)
+        .put(this.opMetadataBytes)
+        .flip();
+  }
+
+  @Benchmark
+  public OpMetadata streamingParse() throws Exception {
+    return this.serializer.parse(this.opMetadataJson);
+  }
+
+  @Benchmark
+  public OpMetadata decodeAndParse() throws Exception {
+    return this.serializer.parse(new String(this.opMetadataBytes, StandardCharsets.UTF_8));
+  }
+
+  @Benchmark
+  public OpMetadata bytesParse() throws Exception {
+    return this.serializer.parse(this.opMetadataBytes);
+  }
+
+  @Benchmark
+  public OpMetadata directBufferParse() throws Exception {
+    return this.serializer.parse(this.opMetadataDirectBuffer);
+  }
+
+  @Benchmark
+  public OpMetadata inputStreamParse() throws Exception {
+    return this.serializer.parse(new ByteArrayInputStream(this.opMetadataBytes));
+  }
+
+  @Benchmark
+  public OpMetadata jsonObjectParse() throws Exception {
+    final Map<String, Object> jsonObject = MetadataUtils.OBJECT_MAPPER.readValue(this.opMetadataJson,
+        new TypeReference<>() {
+        });
+    return this.serializer.parse(jsonObject);
+  }
+
+  @Benchmark
+  public OpMetadata canonicalizingParse() throws Exception {
+    return this.canonicalizingSerializer.parse(this.opMetadataJson);
+  }
+
+}
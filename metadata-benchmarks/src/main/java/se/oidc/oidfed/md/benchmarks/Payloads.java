@@ -0,0 +1,206 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.benchmarks;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import se.oidc.oidfed.md.JWKUtils;
+import se.oidc.oidfed.md.entities.OpMetadata;
+import se.oidc.oidfed.md.lang.LanguageObject;
+import se.oidc.oidfed.md.wallet.credentialissuer.BatchCredentialIssuance;
+import se.oidc.oidfed.md.wallet.credentialissuer.Claim;
+import se.oidc.oidfed.md.wallet.credentialissuer.CredentialIssuerMetadata;
+import se.oidc.oidfed.md.wallet.credentialissuer.Display;
+import se.oidc.oidfed.md.wallet.credentialissuer.SdJwtCredentialConfiguration;
+
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Generators of realistic metadata payloads for benchmarks.
+ */
+public class Payloads {
+
+  /** Languages used for language tagged values */
+  private static final List<String> LANGUAGES = List.of("sv", "en", "de", "fi", "no", "da", "fr", "es", "it", "nl");
+
+  /**
+   * Size of generated OP metadata.
+   */
+  public enum Size {
+
+    /** Required parameters only */
+    SMALL(0, 0, 0),
+    /** Typical OP metadata with a few languages and keys */
+    MEDIUM(2, 2, 1),
+    /** OP metadata with many claims, scopes, languages and keys */
+    HUGE(10, 16, 20);
+
+    /** Number of languages for language tagged values */
+    private final int languages;
+    /** Number of keys in the JWK set */
+    private final int keys;
+    /** Multiplier for the size of value lists */
+    private final int listFactor;
+
+    Size(final int languages, final int keys, final int listFactor) {
+      this.languages = languages;
+      this.keys = keys;
+      this.listFactor = listFactor;
+    }
+  }
+
+  private Payloads() {
+  }
+
+  /**
+   * Creates OP metadata of the requested size.
+   *
+   * @param size size of the metadata
+   * @return OP metadata
+   * @throws Exception error creating metadata
+   */
+  public static OpMetadata opMetadata(final Size size) throws Exception {
+    final OpMetadata.OpMetadataBuilder builder = OpMetadata.builder()
+        .issuer("https://op.example.com")
+        .authorizationEndpoint("https://op.example.com/authorize")
+        .tokenEndpoint("https://op.example.com/token")
+        .jwksUri("https://op.example.com/jwks")
+        .responseTypesSupported(List.of("code"))
+        .subjectTypesSupported(List.of("public", "pairwise"))
+        .idTokenSigningAlgValuesSupported(List.of("RS256", "ES256", "PS256"));
+    if (size == Size.SMALL) {
+      return builder.build();
+    }
+    builder
+        .userinfoEndpoint("https://op.example.com/userinfo")
+        .scopesSupported(values("scope", 6 * size.listFactor))
+        .claimsSupported(values("claim", 12 * size.listFactor))
+        .acrValuesSupported(values("http://id.example.com/loa", 3 * size.listFactor))
+        .tokenEndpointAuthMethodsSupported(List.of("private_key_jwt"))
+        .uiLocalesSupported(LANGUAGES.subList(0, size.languages))
+        .claimsLocalesSupported(LANGUAGES.subList(0, size.languages))
+        .organizationName(languageObject("Example Organization", size.languages))
+        .logoUri(languageObject("https://op.example.com/logo.svg", size.languages))
+        .jwkSet(jwkSet(size.keys));
+    return builder.build();
+  }
+
+  /**
+   * Creates credential issuer metadata with the requested number of credential configurations.
+   *
+   * @param configurations number of credential configurations
+   * @return credential issuer metadata builder
+   */
+  public static CredentialIssuerMetadata.CredentialIssuerMetadataBuilder credentialIssuer(final int configurations) {
+    final CredentialIssuerMetadata.CredentialIssuerMetadataBuilder builder = CredentialIssuerMetadata.builder()
+        .credentialIssuer("https://issuer.example.com")
+        .authorizationServers(List.of("https://as.example.com"))
+        .credentialEndpoint("https://issuer.example.com/credential")
+        .deferredCredentialEndpoint("https://issuer.example.com/deferred")
+        .notificationEndpoint("https://issuer.example.com/notification")
+        .batchCredentialIssuance(new BatchCredentialIssuance(100))
+        .display(displays("Example Issuer", 2));
+    for (int i = 0; i < configurations; i++) {
+      final String id = "credential_" + i;
+      builder.credentialConfiguration(id, SdJwtCredentialConfiguration.builder()
+          .format("dc+sd-jwt")
+          .scope(id)
+          .cryptographicBindingMethodsSupported(List.of("jwk"))
+          .credentialSigningAlgValuesSupported(List.of("ES256"))
+          .display(displays("Credential " + i, 2))
+          .vct("https://issuer.example.com/vct/" + id)
+          .claims(IntStream.range(0, 8)
+              .mapToObj(c -> Claim.builder()
+                  .path(List.of("claim_" + c))
+                  .mandatory(c < 2)
+                  .display(displays("Claim " + c, 2))
+                  .build())
+              .toList())
+          .build());
+    }
+    return builder;
+  }
+
+  /**
+   * Creates a self-signed certificate.
+   *
+   * @param keyAlgorithm "EC" for a P-256 key or "RSA" for a 2048 bit RSA key
+   * @return certificate
+   * @throws Exception error creating certificate
+   */
+  public static X509Certificate certificate(final String keyAlgorithm) throws Exception {
+    final KeyPair keyPair = keyPair(keyAlgorithm);
+    final X500Name name = new X500Name("CN=Benchmark " + keyAlgorithm);
+    final Date notBefore = new Date();
+    final JcaX509v3CertificateBuilder certificateBuilder = new JcaX509v3CertificateBuilder(name, BigInteger.ONE,
+        notBefore, new Date(notBefore.getTime() + 86400000L), name, keyPair.getPublic());
+    return new JcaX509CertificateConverter().getCertificate(certificateBuilder.build(
+        new JcaContentSignerBuilder("EC".equals(keyAlgorithm) ? "SHA256withECDSA" : "SHA256withRSA")
+            .build(keyPair.getPrivate())));
+  }
+
+  /**
+   * Creates a key pair.
+   *
+   * @param keyAlgorithm "EC" for a P-256 key or "RSA" for a 2048 bit RSA key
+   * @return key pair
+   * @throws Exception error creating key pair
+   */
+  public static KeyPair keyPair(final String keyAlgorithm) throws Exception {
+    final KeyPairGenerator generator = KeyPairGenerator.getInstance(keyAlgorithm);
+    if ("EC".equals(keyAlgorithm)) {
+      generator.initialize(new ECGenParameterSpec("secp256r1"));
+    }
+    else {
+      generator.initialize(2048);
+    }
+    return generator.generateKeyPair();
+  }
+
+  private static JWKSet jwkSet(final int keys) throws Exception {
+    final JWKUtils.JWKSBuilder builder = JWKUtils.jwksBuilder();
+    final X509Certificate ecCertificate = certificate("EC");
+    for (int i = 0; i < keys; i++) {
+      builder.addKey(ecCertificate, "key-" + i, i == 0);
+    }
+    return builder.build();
+  }
+
+  private static List<String> values(final String prefix, final int count) {
+    return IntStream.range(0, count).mapToObj(i -> prefix + "_" + i).toList();
+  }
+
+  private static LanguageObject<String> languageObject(final String value, final int languages) {
+    final LanguageObject.LanguageObjectBuilder<String> builder = LanguageObject.builder(String.class)
+        .defaultValue(value);
+    LANGUAGES.subList(0, languages).forEach(language -> builder.langValue(language, value + " (" + language + ")"));
+    return builder.build();
+  }
+
+  private static List<Display> displays(final String name, final int languages) {
+    final List<Display> displays = new ArrayList<>();
+    for (final String language : LANGUAGES.subList(0, languages)) {
+      displays.add(Display.builder()
+          .name(name + " (" + language + ")")
+          .locale(language)
+          .logo(new Display.Image("https://issuer.example.com/logo.png", name))
+          .build());
+    }
+    return displays;
+  }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import se.oidc.oidfed.md.MetadataUtils;
+import se.oidc.oidfed.md.entities.OpMetadata;
+import se.oidc.oidfed.md.lang.LanguageObject;
+import se.oidc.oidfed.md.lang.OidcLangJsonSerializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares direct serialization of {@link OidcLangJsonSerializer#toJson(se.oidc.oidfed.md.lang.LanguageTaggedJson)}
+ * with serialization through an intermediate JSON object map where language objects are expanded after a full write
+ * and read cycle. UTF-8 output with {@link OpMetadata#toUtf8Bytes()} and {@link OpMetadata#writeTo(OutputStream)} is
+ * compared with encoding the JSON string.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializeBenchmark {
+
+  private OidcLangJsonSerializer<OpMetadata> serializer;
+  private OpMetadata opMetadata;
+  private ByteArrayOutputStream outputStream;
+
+  @Setup
+  public void setup() throws Exception {
+    this.serializer = OpMetadata.getJsonSerializer();
+    this.opMetadata = Payloads.opMetadata(Payloads.Size.MEDIUM);
+    this.outputStream = new ByteArrayOutputStream(64 * 1024);
+  }
+
+  @Benchmark
+  public String directToJson() throws Exception {
+    return this.serializer.toJson(this.opMetadata);
+  }
+
+  @Benchmark
+  public byte[] toJsonUtf8() throws Exception {
+    return this.opMetadata.toJson(false).getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public byte[] toUtf8Bytes() throws Exception {
+    return this.opMetadata.toUtf8Bytes();
+  }
+
+  @Benchmark
+  public int writeTo() throws Exception {
+    this.outputStream.reset();
+    this.opMetadata.writeTo(this.outputStream);
+    return this.outputStream.size();
+  }
+
+  @Benchmark
+  public String jsonObjectToJson() throws Exception {
+    final String primaryJson = MetadataUtils.OBJECT_MAPPER.writeValueAsString(this.opMetadata);
+    final Map<String, Object> primaryJsonObject = MetadataUtils.OBJECT_MAPPER.readValue(primaryJson,
+        new TypeReference<>() {
+        });
+    final Map<String, Object> serializedJsonObject = new HashMap<>(primaryJsonObject);
+    for (final String parameterName : this.opMetadata.getLanguageTaggedParameters()) {
+      if (primaryJsonObject.get(parameterName) instanceof Map) {
+        final LanguageObject<?> languageObject = MetadataUtils.OBJECT_MAPPER.convertValue(
+            primaryJsonObject.get(parameterName), LanguageObject.class);
+        serializedJsonObject.remove(parameterName);
+        if (languageObject.getDefaultValue() != null) {
+          serializedJsonObject.put(parameterName, languageObject.getDefaultValue());
+        }
+        if (languageObject.getValueMap() != null) {
+          languageObject.getValueMap()
+              .forEach((lang, value) -> serializedJsonObject.put(parameterName + "#" + lang, value));
+        }
+      }
+    }
+    return MetadataUtils.OBJECT_MAPPER.writeValueAsString(serializedJsonObject);
+  }
+
+}
@@ -0,0 +1,67 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import se.oidc.oidfed.md.SerializedMetadata;
+import se.oidc.oidfed.md.entities.AbstractOidcFedMetadata;
+import se.oidc.oidfed.md.entities.OpMetadata;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures publishing of unchanged, frozen metadata with {@link AbstractOidcFedMetadata#getSerializedMetadata()}, compared
+ * with serializing and encoding the metadata on every request.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializedMetadataBenchmark {
+
+  @Param({ "SMALL", "HUGE" })
+  private Payloads.Size size;
+
+  private OpMetadata opMetadata;
+  private String ifNoneMatch;
+
+  @Setup
+  public void setup() throws Exception {
+    this.opMetadata = Payloads.opMetadata(this.size).freeze();
+    this.ifNoneMatch = this.opMetadata.getSerializedMetadata().getEtag();
+  }
+
+  @Benchmark
+  public byte[] toJsonBytes() throws Exception {
+    return this.opMetadata.toJson(false).getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public ByteBuffer serializedMetadata() throws Exception {
+    return this.opMetadata.getSerializedMetadata().asByteBuffer();
+  }
+
+  @Benchmark
+  public boolean notModified() throws Exception {
+    final SerializedMetadata serialized = this.opMetadata.getSerializedMetadata();
+    return serialized.matches(this.ifNoneMatch);
+  }
+
+}
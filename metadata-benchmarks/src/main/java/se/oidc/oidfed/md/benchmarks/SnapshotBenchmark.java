@@ -0,0 +1,69 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import se.oidc.oidfed.md.entities.AbstractOidcFedMetadata;
+import se.oidc.oidfed.md.entities.OpMetadata;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures handing out cached metadata to request threads. A defensive copy through JSON is compared with
+ * {@link AbstractOidcFedMetadata#snapshot()} of mutable and of frozen metadata. The cached hash code of frozen metadata
+ * is also measured.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SnapshotBenchmark {
+
+  @Param({ "SMALL", "HUGE" })
+  private Payloads.Size size;
+
+  private OpMetadata mutable;
+  private OpMetadata frozen;
+
+  @Setup
+  public void setup() throws Exception {
+    this.mutable = OpMetadata.getJsonSerializer().parse(Payloads.opMetadata(this.size).toJson(false));
+    this.frozen = this.mutable.snapshot();
+  }
+
+  @Benchmark
+  public OpMetadata jsonCopy() throws Exception {
+    return OpMetadata.getJsonSerializer().parse(this.mutable.toJson(false));
+  }
+
+  @Benchmark
+  public OpMetadata snapshotMutable() {
+    return this.mutable.snapshot();
+  }
+
+  @Benchmark
+  public OpMetadata snapshotFrozen() {
+    return this.frozen.snapshot();
+  }
+
+  @Benchmark
+  public int hashCodeFrozen() {
+    return this.frozen.hashCode();
+  }
+
+}
@@ -43,6 +43,7 @@ public abstract class AbstractCredentialConfiguration {
   protected List<Display> display;
 
   @Data
+  @NoArgsConstructor
   @JsonInclude(JsonInclude.Include.NON_NULL)
   protected static class ProofType {
 
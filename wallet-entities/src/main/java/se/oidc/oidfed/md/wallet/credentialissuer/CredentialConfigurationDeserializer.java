@@ -0,0 +1,91 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.wallet.credentialissuer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.JsonParserSequence;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+
+/**
+ * Deserializer for credential configurations that selects the credential configuration class from the value of the
+ * "format" parameter.
+ * <p>
+ * Formats are mapped to credential configuration classes through the {@link CredentialFormatRegistry} set on the object
+ * mapper, or through the formats supported by this library if no registry is set. Credential configurations with a
+ * format that is not registered are deserialized as {@link GenericCredentialConfiguration}.
+ * </p>
+ * <p>
+ * The JSON data is processed in a single streaming pass. Parameters preceding the format parameter are buffered and
+ * replayed when the credential configuration class is known, while all following parameters are read directly from the
+ * source.
+ * </p>
+ */
+public class CredentialConfigurationDeserializer extends StdDeserializer<AbstractCredentialConfiguration> {
+
+  private static final long serialVersionUID = -4468925838001466745L;
+
+  /** Name of the format parameter */
+  private static final String FORMAT = "format";
+
+  /**
+   * Constructor
+   */
+  public CredentialConfigurationDeserializer() {
+    super(AbstractCredentialConfiguration.class);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public AbstractCredentialConfiguration deserialize(final JsonParser p, final DeserializationContext ctxt)
+      throws IOException {
+    JsonToken token = p.currentToken();
+    if (token == JsonToken.START_OBJECT) {
+      token = p.nextToken();
+    }
+    if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+      return (AbstractCredentialConfiguration) ctxt.handleUnexpectedToken(AbstractCredentialConfiguration.class, p);
+    }
+
+    // Buffer parameters until the format parameter is found
+    final TokenBuffer buffer = ctxt.bufferForInputBuffering(p);
+    buffer.writeStartObject();
+    String format = null;
+    for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+      final String name = p.currentName();
+      p.nextToken();
+      if (FORMAT.equals(name) && p.currentToken() == JsonToken.VALUE_STRING) {
+        format = p.getText();
+        buffer.writeStringField(FORMAT, format);
+        break;
+      }
+      buffer.writeFieldName(name);
+      buffer.copyCurrentStructure(p);
+    }
+    final Class<? extends AbstractCredentialConfiguration> credentialConfigurationClass =
+        ctxt.getAttribute(CredentialFormatRegistry.class) instanceof final CredentialFormatRegistry registry
+            ? registry.getCredentialConfigurationClass(format)
+            : CredentialFormatRegistry.getDefaultCredentialConfigurationClass(format);
+
+    final JsonParser configurationParser;
+    if (format == null) {
+      // The complete object is buffered
+      buffer.writeEndObject();
+      configurationParser = buffer.asParser(p);
+    }
+    else {
+      // Replay the buffered parameters followed by the remaining parameters of the source
+      configurationParser = JsonParserSequence.createFlattened(false, buffer.asParser(p), p);
+    }
+    configurationParser.nextToken();
+    return ctxt.readValue(configurationParser, credentialConfigurationClass);
+  }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.wallet.credentialissuer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the credential configuration classes used for credential formats by
+ * {@link CredentialConfigurationDeserializer}.
+ * <p>
+ * A new registry holds the formats supported by this library, and applications may register additional formats. The
+ * registry is used by the object mappers it is set on with {@link #configure(ObjectMapper)}, for example:
+ * </p>
+ * <pre>
+ * new OidcLangJsonSerializer&lt;&gt;(CredentialIssuerMetadata.class,
+ *     new CredentialFormatRegistry()
+ *         .registerFormat("custom_format", CustomCredentialConfiguration.class)
+ *         .configure(MetadataUtils.getOidcObjectMapper()))
+ * </pre>
+ * <p>
+ * Object mappers without a registry use the formats supported by this library. Instances of this class are
+ * thread-safe.
+ * </p>
+ */
+public class CredentialFormatRegistry {
+
+  /** Credential configuration classes of the formats supported by this library */
+  private static final Map<String, Class<? extends AbstractCredentialConfiguration>> defaultFormats = Map.of(
+      "dc+sd-jwt", SdJwtCredentialConfiguration.class,
+      "vc+sd-jwt", SdJwtCredentialConfiguration.class,
+      "mso_mdoc", IsoMdlCredentialConfiguration.class,
+      "ldp_vc", JsonLdCredentialConfiguration.class,
+      "jwt_vc_json-ld", JsonLdCredentialConfiguration.class);
+
+  /** Credential configuration classes indexed by format */
+  private final Map<String, Class<? extends AbstractCredentialConfiguration>> formats =
+      new ConcurrentHashMap<>(defaultFormats);
+
+  /**
+   * Register the credential configuration class used for a credential format. A registration for a format that is
+   * already registered replaces the previous registration.
+   *
+   * @param format the credential format identifier
+   * @param credentialConfigurationClass the class used for credential configurations of this format
+   * @return this registry
+   */
+  public CredentialFormatRegistry registerFormat(final String format,
+      final Class<? extends AbstractCredentialConfiguration> credentialConfigurationClass) {
+    this.formats.put(Objects.requireNonNull(format, "format must not be null"),
+        Objects.requireNonNull(credentialConfigurationClass, "credentialConfigurationClass must not be null"));
+    return this;
+  }
+
+  /**
+   * Get the credential configuration class used for a credential format.
+   *
+   * @param format the credential format identifier
+   * @return the registered class, or {@link GenericCredentialConfiguration} if the format is not registered
+   */
+  public Class<? extends AbstractCredentialConfiguration> getCredentialConfigurationClass(final String format) {
+    return getCredentialConfigurationClass(this.formats, format);
+  }
+
+  /**
+   * Set this registry as the registry used when credential configurations are deserialized by an object mapper.
+   *
+   * @param objectMapper the object mapper to configure
+   * @return the provided object mapper
+   */
+  public ObjectMapper configure(final ObjectMapper objectMapper) {
+    objectMapper.setDefaultAttributes(objectMapper.getDeserializationConfig().getAttributes()
+        .withSharedAttribute(CredentialFormatRegistry.class, this));
+    return objectMapper;
+  }
+
+  /**
+   * Get the credential configuration class used for a credential format by object mappers without a registry.
+   *
+   * @param format the credential format identifier
+   * @return the class of a format supported by this library, or {@link GenericCredentialConfiguration}
+   */
+  static Class<? extends AbstractCredentialConfiguration> getDefaultCredentialConfigurationClass(final String format) {
+    return getCredentialConfigurationClass(defaultFormats, format);
+  }
+
+  private static Class<? extends AbstractCredentialConfiguration> getCredentialConfigurationClass(
+      final Map<String, Class<? extends AbstractCredentialConfiguration>> formats, final String format) {
+    final Class<? extends AbstractCredentialConfiguration> credentialConfigurationClass =
+        format == null ? null : formats.get(format);
+    return credentialConfigurationClass == null ? GenericCredentialConfiguration.class : credentialConfigurationClass;
+  }
+
+}
@@ -8,7 +8,9 @@ package se.oidc.oidfed.md.wallet.credentialissuer;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.JWSHeader;
@@ -23,6 +25,8 @@ import lombok.Setter;
 import se.oidc.oidfed.md.lang.LanguageTaggedJson;
 import se.oidc.oidfed.md.lang.OidcLangJsonSerializer;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigInteger;
 import java.security.cert.CertificateEncodingException;
 import java.security.cert.X509Certificate;
@@ -96,6 +100,7 @@ public class CredentialIssuerMetadata implements LanguageTaggedJson {
   protected List<Display> display;
 
   @JsonProperty("credential_configurations_supported")
+  @JsonDeserialize(contentUsing = CredentialConfigurationDeserializer.class)
   @Getter
   @Setter
   protected Map<String, AbstractCredentialConfiguration> credentialConfigurationsSupported;
@@ -109,7 +114,7 @@ public class CredentialIssuerMetadata implements LanguageTaggedJson {
 
   /** {@inheritDoc} */
   public String toJson(final boolean prettyPrinting) throws JsonProcessingException {
-    return jsonSerializer.setPrettyPrinting(prettyPrinting).toJson(this);
+    return jsonSerializer.toJson(this, prettyPrinting);
   }
 
   /** {@inheritDoc} */
@@ -117,6 +122,37 @@ public class CredentialIssuerMetadata implements LanguageTaggedJson {
     return jsonSerializer.toJsonObject(this);
   }
 
+  /**
+   * Converts this metadata object to compact UTF-8 encoded JSON without creating an intermediate string
+   *
+   * @return UTF-8 encoded JSON representing this metadata object
+   * @throws JsonProcessingException error processing metadata to JSON
+   */
+  public byte[] toUtf8Bytes() throws JsonProcessingException {
+    return jsonSerializer.toUtf8Bytes(this, false);
+  }
+
+  /**
+   * Writes this metadata object as compact UTF-8 encoded JSON to an output stream. The output stream is flushed but
+   * not closed.
+   *
+   * @param outputStream the output stream to write to
+   * @throws IOException error processing metadata to JSON or writing to the output stream
+   */
+  public void writeTo(final OutputStream outputStream) throws IOException {
+    jsonSerializer.writeTo(this, outputStream, false);
+  }
+
+  /**
+   * Writes this metadata object as the next JSON value of a JSON generator. The generator is not closed.
+   *
+   * @param generator the JSON generator to write to
+   * @throws IOException error processing metadata to JSON or writing to the generator
+   */
+  public void writeTo(final JsonGenerator generator) throws IOException {
+    jsonSerializer.writeTo(this, generator);
+  }
+
   /**
    * Creates builder class
    *
@@ -0,0 +1,27 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.wallet.credentialissuer;
+
+import se.oidc.oidfed.md.entities.EntityMetadataType;
+import se.oidc.oidfed.md.entities.EntityMetadataTypeProvider;
+
+import java.util.List;
+
+/**
+ * Registers the credential issuer entity type with {@link se.oidc.oidfed.md.entities.EntityMetadataParser}.
+ */
+public class CredentialIssuerMetadataTypeProvider implements EntityMetadataTypeProvider {
+
+  /** Entity type identifier of credential issuers */
+  public static final String OPENID_CREDENTIAL_ISSUER = "openid_credential_issuer";
+
+  /** {@inheritDoc} */
+  @Override
+  public List<EntityMetadataType<?>> getEntityMetadataTypes() {
+    return List.of(EntityMetadataType.of(OPENID_CREDENTIAL_ISSUER, CredentialIssuerMetadata.getJsonSerializer()));
+  }
+
+}
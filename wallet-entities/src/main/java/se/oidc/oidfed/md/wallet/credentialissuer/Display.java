@@ -44,6 +44,7 @@ public class Display {
   private String textColor;
 
   @Data
+  @NoArgsConstructor
   @JsonInclude(JsonInclude.Include.NON_NULL)
   public static class Image {
 
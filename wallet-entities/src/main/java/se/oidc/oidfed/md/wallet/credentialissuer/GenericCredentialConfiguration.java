@@ -0,0 +1,95 @@
+/*
+ * // SPDX-FileCopyrightText: 2025 diggsweden/eudiw-wallet-token-lib
+ * //
+ * // SPDX-License-Identifier: Apache-2.0
+ */
+package se.oidc.oidfed.md.wallet.credentialissuer;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Credential Configuration for credential formats that have no dedicated credential configuration class. All format
+ * specific parameters are available as additional parameters.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class GenericCredentialConfiguration extends AbstractCredentialConfiguration {
+
+  /** Format specific parameters */
+  @Setter(AccessLevel.NONE)
+  private Map<String, Object> additionalParameters = new LinkedHashMap<>();
+
+  /**
+   * Get the format specific parameters of this credential configuration.
+   *
+   * @return map of format specific parameters
+   */
+  @JsonAnyGetter
+  public Map<String, Object> getAdditionalParameters() {
+    return this.additionalParameters;
+  }
+
+  /**
+   * Set a format specific parameter.
+   *
+   * @param name parameter name
+   * @param value parameter value
+   */
+  @JsonAnySetter
+  public void setAdditionalParameter(final String name, final Object value) {
+    this.additionalParameters.put(name, value);
+  }
+
+  /**
+   * Get the value of a format specific parameter.
+   *
+   * @param name parameter name
+   * @return parameter value or null if the parameter is not present
+   */
+  public Object getAdditionalParameter(final String name) {
+    return this.additionalParameters.get(name);
+  }
+
+  public static GenericCredentialConfigurationBuilder builder() {
+    return new GenericCredentialConfigurationBuilder();
+  }
+
+  public static class GenericCredentialConfigurationBuilder
+    extends AbstractCredentialConfigurationBuilder<GenericCredentialConfiguration, GenericCredentialConfigurationBuilder>{
+
+    public GenericCredentialConfigurationBuilder() {
+      super(new GenericCredentialConfiguration());
+    }
+
+    @Override protected GenericCredentialConfigurationBuilder getBuilder() {
+      return this;
+    }
+
+    /**
+     * Sets a format specific parameter of the credential configuration.
+     *
+     * @param name the parameter name
+     * @param value the parameter value
+     * @return the GenericCredentialConfigurationBuilder instance
+     */
+    public GenericCredentialConfigurationBuilder additionalParameter(String name, Object value) {
+      this.credentialConfiguration.setAdditionalParameter(name, value);
+      return this;
+    }
+  }
+
+}
@@ -7,7 +7,6 @@ package se.oidc.oidfed.md.wallet.credentialissuer;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Getter;
-import lombok.Setter;
 import se.oidc.oidfed.md.entities.ClientMetadata;
 
 /**
@@ -20,9 +19,13 @@ public class WalletOAuthClientMetadata extends ClientMetadata {
    */
   @JsonProperty("credential_offer_endpoint")
   @Getter
-  @Setter
   protected String credentialOfferEndpoint;
 
+  public void setCredentialOfferEndpoint(final String credentialOfferEndpoint) {
+    this.checkModifiable();
+    this.credentialOfferEndpoint = credentialOfferEndpoint;
+  }
+
   /**
    * Creates a new instance of WalletOAuthClientMetadataBuilder.
    *
@@ -6,14 +6,23 @@
 
 package se.oidc.oidfed.md.wallet.credentialissuer;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.crypto.ECDSASigner;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Test;
+import se.oidc.oidfed.md.MetadataUtils;
+import se.oidc.oidfed.md.entities.EntityMetadataSet;
+import se.oidc.oidfed.md.lang.OidcLangJsonSerializer;
 import se.oidc.oidfed.md.wallet.data.TestCredentials;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.security.interfaces.ECPrivateKey;
 import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * Description
@@ -252,4 +261,137 @@ class CredentialIssuerMetadataTest {
 
     log.info("JSON-LD Credential Issuer Metadata: \n{}", credentialIssuerMetadata.toJson(true));
   }
+
+  @Test
+  void testParseCredentialConfigurations() throws Exception {
+
+    final String json = """
+        {
+          "credential_issuer": "https://example.com/credential-issuer",
+          "credential_configurations_supported": {
+            "sd_jwt": {
+              "scope": "sd_jwt",
+              "proof_types_supported": { "jwt": { "proof_signing_alg_values_supported": ["ES256"] } },
+              "format": "dc+sd-jwt",
+              "vct": "https://example.com/vct",
+              "claims": [ { "path": ["given_name"], "mandatory": true } ]
+            },
+            "mdl": {
+              "format": "mso_mdoc",
+              "doctype": "org.iso.18013.5.1.mDL",
+              "display": [ { "name": "Mobile driving licence", "locale": "en",
+                "logo": { "uri": "https://example.com/logo" } } ]
+            },
+            "ldp": {
+              "credential_definition": { "@context": ["https://www.w3.org/2018/credentials/v1"],
+                "type": ["VerifiableCredential"] },
+              "format": "ldp_vc"
+            },
+            "jwt_vc": {
+              "format": "jwt_vc_json",
+              "credential_definition": { "type": ["VerifiableCredential"] },
+              "scope": "jwt_vc"
+            },
+            "registered": {
+              "format": "test_registered_format",
+              "credential_definition": { "type": ["VerifiableCredential"] }
+            },
+            "no_format": {
+              "scope": "no_format"
+            }
+          },
+          "batch_credential_issuance": { "batch_size": 10 }
+        }""";
+
+    final OidcLangJsonSerializer<CredentialIssuerMetadata> serializer = new OidcLangJsonSerializer<>(
+        CredentialIssuerMetadata.class, new CredentialFormatRegistry()
+        .registerFormat("test_registered_format", JsonLdCredentialConfiguration.class)
+        .configure(MetadataUtils.getOidcObjectMapper()));
+    final CredentialIssuerMetadata metadata = serializer.parse(json);
+    final Map<String, AbstractCredentialConfiguration> configurations =
+        metadata.getCredentialConfigurationsSupported();
+    log.info("Parsed Credential Issuer Metadata: \n{}", metadata.toJson(true));
+
+    final SdJwtCredentialConfiguration sdJwt = assertInstanceOf(SdJwtCredentialConfiguration.class,
+        configurations.get("sd_jwt"));
+    assertEquals("https://example.com/vct", sdJwt.getVct());
+    assertEquals("sd_jwt", sdJwt.getScope());
+    assertEquals(List.of("ES256"), sdJwt.getProofTypesSupported().get("jwt").getProofSigningAlgValuesSupported());
+    assertEquals(List.of("given_name"), sdJwt.getClaims().get(0).getPath());
+    final IsoMdlCredentialConfiguration mdl = assertInstanceOf(IsoMdlCredentialConfiguration.class,
+        configurations.get("mdl"));
+    assertEquals("org.iso.18013.5.1.mDL", mdl.getDoctype());
+    assertEquals("https://example.com/logo", mdl.getDisplay().get(0).getLogo().getUri());
+    final JsonLdCredentialConfiguration ldp = assertInstanceOf(JsonLdCredentialConfiguration.class,
+        configurations.get("ldp"));
+    assertEquals(List.of("VerifiableCredential"), ldp.getCredentialDefinition().getType());
+    assertInstanceOf(JsonLdCredentialConfiguration.class, configurations.get("registered"));
+    // Registered formats only apply to the object mapper holding the registry
+    assertInstanceOf(GenericCredentialConfiguration.class, CredentialIssuerMetadata.getJsonSerializer().parse(json)
+        .getCredentialConfigurationsSupported().get("registered"));
+
+    final GenericCredentialConfiguration generic = assertInstanceOf(GenericCredentialConfiguration.class,
+        configurations.get("jwt_vc"));
+    assertEquals("jwt_vc_json", generic.getFormat());
+    assertEquals("jwt_vc", generic.getScope());
+    assertEquals(Map.of("type", List.of("VerifiableCredential")),
+        generic.getAdditionalParameter("credential_definition"));
+    final GenericCredentialConfiguration noFormat = assertInstanceOf(GenericCredentialConfiguration.class,
+        configurations.get("no_format"));
+    assertNull(noFormat.getFormat());
+    assertEquals("no_format", noFormat.getScope());
+
+    // Equality includes the common parameters of the super class
+    final GenericCredentialConfiguration otherFormat =
+        (GenericCredentialConfiguration) GenericCredentialConfiguration.builder()
+        .format("jwt_vc_json-ld")
+        .scope("jwt_vc")
+        .additionalParameter("credential_definition", Map.of("type", List.of("VerifiableCredential")))
+        .build();
+    final GenericCredentialConfiguration sameFormat =
+        (GenericCredentialConfiguration) GenericCredentialConfiguration.builder()
+        .format("jwt_vc_json")
+        .scope("jwt_vc")
+        .additionalParameter("credential_definition", Map.of("type", List.of("VerifiableCredential")))
+        .build();
+    assertEquals(generic, sameFormat);
+    assertEquals(generic.hashCode(), sameFormat.hashCode());
+    assertNotEquals(generic, otherFormat);
+    assertTrue(generic.toString().contains("format=jwt_vc_json"));
+    assertEquals(10, metadata.getBatchCredentialIssuance().getBatchSize());
+
+    // Round trip
+    assertEquals(metadata.toJsonObject(),
+        CredentialIssuerMetadata.getJsonSerializer().parse(metadata.toJson(false)).toJsonObject());
+    assertEquals(MetadataUtils.OBJECT_MAPPER.readValue(json, new TypeReference<Map<String, Object>>() {
+        }),
+        metadata.toJsonObject());
+
+    // Byte output
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    metadata.writeTo(outputStream);
+    assertArrayEquals(metadata.toJson(false).getBytes(StandardCharsets.UTF_8), outputStream.toByteArray());
+    assertArrayEquals(outputStream.toByteArray(), metadata.toUtf8Bytes());
+  }
+
+  @Test
+  void testParseEntityMetadataSet() throws Exception {
+    final String metadataJson = """
+        {
+          "federation_entity": { "organization_name": "Example" },
+          "openid_credential_issuer": {
+            "credential_issuer": "https://example.com/credential-issuer",
+            "credential_configurations_supported": {
+              "mdl": { "format": "mso_mdoc", "doctype": "org.iso.18013.5.1.mDL" }
+            }
+          }
+        }""";
+
+    final EntityMetadataSet metadataSet = EntityMetadataSet.parse(metadataJson);
+    assertNotNull(metadataSet.getFederationEntityMetadata());
+    final CredentialIssuerMetadata metadata = metadataSet.get(
+        CredentialIssuerMetadataTypeProvider.OPENID_CREDENTIAL_ISSUER, CredentialIssuerMetadata.class);
+    assertEquals("https://example.com/credential-issuer", metadata.getCredentialIssuer());
+    assertInstanceOf(IsoMdlCredentialConfiguration.class, metadata.getCredentialConfigurationsSupported().get("mdl"));
+  }
 }